@@ -30,6 +30,23 @@ android {
         sourceCompatibility = JavaVersion.VERSION_11
         targetCompatibility = JavaVersion.VERSION_11
     }
+    testOptions {
+        unitTests {
+            // Robolectric needs the merged resources and manifest.
+            isIncludeAndroidResources = true
+            all {
+                // Room performance tests hold up to 100,000 classes in memory.
+                it.maxHeapSize = "2g"
+                // Runs the wall-clock budgets of the performance tests, e.g. -PperfBudgets=true.
+                it.systemProperty("perf.budgets", findProperty("perfBudgets") ?: "false")
+                // Scales the Room performance budgets, e.g. -ProomPerf.budgetScale=2 on slow machines.
+                it.systemProperty("roomPerf.budgetScale", findProperty("roomPerf.budgetScale") ?: "1")
+                // Directory the sync simulation writes its per-scenario reports to.
+                it.systemProperty("syncSimulation.reportDir",
+                    layout.buildDirectory.dir("reports/sync-simulation").get().asFile.absolutePath)
+            }
+        }
+    }
 }
 
 dependencies {
@@ -41,9 +58,13 @@ dependencies {
     implementation("androidx.room:room-runtime:2.7.1")
     implementation("androidx.lifecycle:lifecycle-viewmodel:2.8.1")
     implementation("androidx.lifecycle:lifecycle-livedata:2.8.1")
+    implementation("androidx.recyclerview:recyclerview:1.3.2")
     implementation(libs.firebase.database)
     annotationProcessor("androidx.room:room-compiler:2.7.1")
     testImplementation(libs.junit)
+    testImplementation(libs.robolectric)
+    testImplementation(libs.test.core)
+    testImplementation(libs.core.testing)
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package com.example.yogaAdmin;
 
 import android.app.Application;
+import com.example.yogaAdmin.metrics.MetricsDumper;
+import com.example.yogaAdmin.metrics.MetricsRegistry;
 import com.example.yogaAdmin.services.FirebaseSyncManager;
 import com.google.firebase.database.FirebaseDatabase;
 
@@ -12,6 +14,8 @@ public class MainApplication extends Application {
 
     // Manages the synchronization of data with Firebase.
     private FirebaseSyncManager firebaseSyncManager;
+    // Writes the app's metrics to a local file every few minutes.
+    private MetricsDumper metricsDumper;
 
     /**
      * Called when the application is starting, before any other application objects have been created.
@@ -20,6 +24,8 @@ public class MainApplication extends Application {
     @Override
     public void onCreate() {
         super.onCreate();
+        metricsDumper = new MetricsDumper(this, MetricsRegistry.getInstance());
+        metricsDumper.start();
         // Enable Firebase offline persistence to allow the app to work with cached data when offline.
         FirebaseDatabase.getInstance().setPersistenceEnabled(true);
         // Initialize the FirebaseSyncManager to handle data synchronization.
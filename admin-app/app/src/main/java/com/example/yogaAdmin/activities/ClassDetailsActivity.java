@@ -4,23 +4,33 @@ import android.os.Bundle;
 import android.view.View;
 import android.widget.ImageView;
 import android.widget.TextView;
+import android.widget.Toast;
 
+import androidx.annotation.NonNull;
+import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.example.yogaAdmin.R;
 import com.example.yogaAdmin.models.ClassWithCourseInfo;
 import com.example.yogaAdmin.models.YogaClass;
 import com.example.yogaAdmin.models.YogaCourse;
+import com.example.yogaAdmin.repository.InstructorScheduleIndex;
 import com.example.yogaAdmin.utils.NetworkStatusLiveData;
 
 import com.example.yogaAdmin.adapter.BookingAdapter;
+import com.example.yogaAdmin.adapter.ClassDetailsHeaderAdapter;
 import com.example.yogaAdmin.viewmodel.BookingViewModel;
 import com.example.yogaAdmin.viewmodel.ClassDetailsViewModel;
 
+import androidx.recyclerview.widget.ConcatAdapter;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import androidx.lifecycle.ViewModelProvider;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
 /**
  * Activity that displays the details of a specific yoga class, including its course information
  * and any bookings made for that class.
@@ -33,26 +43,28 @@ public class ClassDetailsActivity extends AppCompatActivity {
      * This key is used to retrieve the ID of the class to be displayed.
      */
     public static final String EXTRA_CLASS_ID = "com.example.yogaAdmin.EXTRA_CLASS_ID";
+    // Maximum number of substitutes offered.
+    private static final int MAX_SUBSTITUTES = 10;
 
-    // UI elements for displaying class-specific details.
-    private TextView tvClassDate, tvAssignedInstructor, tvCapacity, tvStatus, tvComments;
-    // UI elements for displaying course-specific details.
-    private TextView tvClassType, tvDayOfWeek, tvTime, tvDuration, tvPrice, tvDescription;
+    // The class and course currently displayed, or null until they have loaded.
+    private ClassWithCourseInfo classWithCourseInfo;
     // LiveData to observe network connectivity status and display an offline message.
     private NetworkStatusLiveData networkStatusLiveData;
     // TextView to display an "offline" message when the device has no internet connection.
     private TextView tvOffline;
 
-    // UI elements for displaying the list of bookings.
+    // RecyclerView that scrolls the class details and the bookings as one list.
     private RecyclerView recyclerViewBookings;
-    // Adapter for the bookings RecyclerView.
+    // Layout manager of the RecyclerView, used to find how close the list is to its end.
+    private LinearLayoutManager layoutManager;
+    // Adapter for the header row showing the class and course details.
+    private ClassDetailsHeaderAdapter headerAdapter;
+    // Adapter for the booking rows below the header.
     private BookingAdapter bookingAdapter;
     // ViewModel for managing booking data.
     private BookingViewModel bookingViewModel;
     // ViewModel for managing class details data.
     private ClassDetailsViewModel classDetailsViewModel;
-    // TextView to display a message when there are no bookings for the class.
-    private TextView tvNoBookings;
 
     /**
      * Called when the activity is first created.
@@ -90,49 +102,40 @@ public class ClassDetailsActivity extends AppCompatActivity {
             // Create and initialize the ClassDetailsViewModel using a factory to pass the classId.
             ClassDetailsViewModel.Factory factory = new ClassDetailsViewModel.Factory(getApplication(), classId);
             classDetailsViewModel = new ViewModelProvider(this, factory).get(ClassDetailsViewModel.class);
+            headerAdapter.setOnFindSubstituteClickListener(v -> showSubstitutes());
 
-            // Observe changes in the YogaClass data from the ViewModel.
-            classDetailsViewModel.getYogaClass().observe(this, yogaClass -> {
-                if (yogaClass != null) {
-                    // Once YogaClass data is available, setup the BookingViewModel to fetch bookings.
-                    setupBookingViewModel(yogaClass.getFirebaseKey());
-                    // Observe changes in the associated YogaCourse data.
-                    classDetailsViewModel.yogaCourse.observe(this, yogaCourse -> {
-                        if (yogaCourse != null) {
-                            // Once both YogaClass and YogaCourse data are available, populate the UI.
-                            populateUI(new ClassWithCourseInfo(yogaClass, yogaCourse));
-                        }
-                    });
-                }
-            });
+            // Populate the UI once both the class and its course are available, and again
+            // whenever either changes, e.g. after a substitute instructor is assigned.
+            classDetailsViewModel.getClassWithCourseInfo().observe(this, this::populateUI);
+            // Setup the BookingViewModel to fetch bookings once the class's Firebase key is known.
+            classDetailsViewModel.getClassFirebaseKey().observe(this, this::setupBookingViewModel);
         }
     }
 
     /**
      * Initializes all the views used in this activity by finding them by their ID from the layout.
+     * The class details are the header row of the bookings RecyclerView, which is the scrolling
+     * container of the page, so only the booking rows on screen are laid out and recycled.
      */
     private void initViews() {
-        // Initialize TextViews for Class Details
-        tvClassDate = findViewById(R.id.tv_class_date);
-        tvAssignedInstructor = findViewById(R.id.tv_assigned_instructor);
-        tvCapacity = findViewById(R.id.tv_capacity);
-        tvStatus = findViewById(R.id.tv_status);
-        tvComments = findViewById(R.id.tv_comments);
-
-        // Initialize TextViews for Course Details
-        tvClassType = findViewById(R.id.tv_class_type);
-        tvDayOfWeek = findViewById(R.id.tv_day_of_week);
-        tvTime = findViewById(R.id.tv_time);
-        tvDuration = findViewById(R.id.tv_duration);
-        tvPrice = findViewById(R.id.tv_price);
-        tvDescription = findViewById(R.id.tv_description);
-
-        // Initialize RecyclerView and related views for Bookings
+        // Initialize the RecyclerView with the header row followed by the booking rows.
         recyclerViewBookings = findViewById(R.id.recycler_view_bookings);
-        tvNoBookings = findViewById(R.id.tv_no_bookings);
-        recyclerViewBookings.setLayoutManager(new LinearLayoutManager(this));
+        layoutManager = new LinearLayoutManager(this);
+        recyclerViewBookings.setLayoutManager(layoutManager);
+        headerAdapter = new ClassDetailsHeaderAdapter();
         bookingAdapter = new BookingAdapter();
-        recyclerViewBookings.setAdapter(bookingAdapter);
+        recyclerViewBookings.setAdapter(new ConcatAdapter(headerAdapter, bookingAdapter));
+        recyclerViewBookings.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                // Request the next page when the end of the list comes within one screen of rows.
+                int visibleRows = recyclerView.getChildCount();
+                int lastVisible = layoutManager.findLastVisibleItemPosition();
+                if (bookingViewModel != null && dy > 0 && lastVisible + visibleRows >= layoutManager.getItemCount()) {
+                    bookingViewModel.loadMore();
+                }
+            }
+        });
 
         // Initialize the back button and set its click listener to finish the activity.
         ImageView btnBack = findViewById(R.id.btn_back);
@@ -141,58 +144,79 @@ public class ClassDetailsActivity extends AppCompatActivity {
 
     /**
      * Sets up the BookingViewModel to fetch and display bookings for the given class ID.
+     * The bookings of a previously shown key stop being observed.
      *
      * @param classId The Firebase key of the class for which to fetch bookings.
      */
     private void setupBookingViewModel(String classId) {
-        // If the classId is invalid (null or empty), show "no bookings" message and hide the RecyclerView.
+        if (bookingViewModel != null) {
+            bookingViewModel.getBookings().removeObservers(this);
+            bookingViewModel = null;
+        }
+        // If the classId is invalid (null or empty), show the "no bookings" message.
         if (classId == null || classId.isEmpty()) {
-            tvNoBookings.setVisibility(View.VISIBLE);
-            recyclerViewBookings.setVisibility(View.GONE);
+            bookingAdapter.setBookings(Collections.emptyList());
+            headerAdapter.setNoBookings(true);
             return;
         }
 
         // Create and initialize the BookingViewModel using a factory to pass the classId.
+        // The ViewModel is stored under the class key, so a new key gets its own bookings.
         BookingViewModel.Factory factory = new BookingViewModel.Factory(getApplication(), classId);
-        bookingViewModel = new ViewModelProvider(this, factory).get(BookingViewModel.class);
+        bookingViewModel = new ViewModelProvider(this, factory).get(classId, BookingViewModel.class);
         // Observe the list of bookings from the ViewModel.
         bookingViewModel.getBookings().observe(this, bookings -> {
             if (bookings != null && !bookings.isEmpty()) {
-                // If bookings are available, update the adapter and show the RecyclerView.
+                // If bookings are available, update the booking rows and hide the message.
                 bookingAdapter.setBookings(bookings);
-                tvNoBookings.setVisibility(View.GONE);
-                recyclerViewBookings.setVisibility(View.VISIBLE);
+                headerAdapter.setNoBookings(false);
             } else {
-                // If there are no bookings, show the "no bookings" message and hide the RecyclerView.
-                tvNoBookings.setVisibility(View.VISIBLE);
-                recyclerViewBookings.setVisibility(View.GONE);
+                // If there are no bookings, clear the booking rows and show the "no bookings" message.
+                bookingAdapter.setBookings(Collections.emptyList());
+                headerAdapter.setNoBookings(true);
             }
         });
     }
 
+    /**
+     * Shows the instructors free to cover this class, ranked by how often they have taught its
+     * class type, and assigns the one the user picks.
+     */
+    private void showSubstitutes() {
+        List<InstructorScheduleIndex.Substitute> substitutes = classDetailsViewModel.findSubstitutes(MAX_SUBSTITUTES);
+        if (substitutes.isEmpty()) {
+            new AlertDialog.Builder(this)
+                    .setTitle("No Substitutes Available")
+                    .setMessage("No other instructor is free at this time.")
+                    .setPositiveButton("OK", null)
+                    .show();
+            return;
+        }
+        String classType = classWithCourseInfo != null ? classWithCourseInfo.yogaCourse.getClassType() : "";
+        String[] labels = new String[substitutes.size()];
+        for (int i = 0; i < substitutes.size(); i++) {
+            InstructorScheduleIndex.Substitute substitute = substitutes.get(i);
+            labels[i] = String.format(Locale.UK, "%s — %d %s, %d in total", substitute.name,
+                    substitute.classTypeCount, classType, substitute.totalCount);
+        }
+        new AlertDialog.Builder(this)
+                .setTitle("Free Instructors")
+                .setItems(labels, (dialog, which) -> {
+                    classDetailsViewModel.assignInstructor(substitutes.get(which).name);
+                    Toast.makeText(this, substitutes.get(which).name + " assigned", Toast.LENGTH_SHORT).show();
+                })
+                .setNegativeButton("Cancel", null)
+                .show();
+    }
+
     /**
      * Populates the UI elements with data from a {@link ClassWithCourseInfo} object.
      *
      * @param classWithCourseInfo An object containing both {@link YogaClass} and {@link YogaCourse} details.
      */
     private void populateUI(ClassWithCourseInfo classWithCourseInfo) {
-        // Extract YogaClass and YogaCourse from the combined object for easier access.
-        YogaClass yogaClass = classWithCourseInfo.yogaClass;
-        YogaCourse yogaCourse = classWithCourseInfo.yogaCourse;
-
-        // Populate Class Details section of the UI.
-        tvClassDate.setText(yogaClass.getDate());
-        tvAssignedInstructor.setText(yogaClass.getAssignedInstructor());
-        tvCapacity.setText(String.valueOf(yogaClass.getActualCapacity()));
-        tvStatus.setText(yogaClass.getStatus());
-        tvComments.setText(yogaClass.getAdditionalComments() != null ? yogaClass.getAdditionalComments() : "");
-
-        // Populate Course Details section of the UI.
-        tvClassType.setText(yogaCourse.getClassType());
-        tvDayOfWeek.setText(yogaCourse.getDayOfWeek());
-        tvTime.setText(yogaCourse.getTime());
-        tvDuration.setText(yogaCourse.getFormattedDuration());
-        tvPrice.setText(yogaCourse.getFormattedPrice());
-        tvDescription.setText(yogaCourse.getDescription() != null ? yogaCourse.getDescription() : "");
+        this.classWithCourseInfo = classWithCourseInfo;
+        // The details are shown in the header row of the list.
+        headerAdapter.setClassWithCourseInfo(classWithCourseInfo);
     }
 }
@@ -4,6 +4,7 @@ import android.os.Bundle;
 import android.text.Editable;
 import android.text.TextWatcher;
 import android.view.View;
+import android.widget.AutoCompleteTextView;
 import android.widget.Button;
 import android.widget.EditText;
 import android.widget.ImageView;
@@ -14,8 +15,14 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.lifecycle.ViewModelProvider;
 
 import com.example.yogaAdmin.R;
+import com.example.yogaAdmin.adapter.InstructorSuggestionAdapter;
+import com.example.yogaAdmin.models.ClassWithCourseInfo;
+import com.example.yogaAdmin.models.RoomBooking;
 import com.example.yogaAdmin.models.YogaClass;
 import com.example.yogaAdmin.models.YogaCourse;
+import com.example.yogaAdmin.repository.InstructorDirectory;
+import com.example.yogaAdmin.repository.RoomOccupancyIndex;
+import com.example.yogaAdmin.utils.DateUtils;
 import com.example.yogaAdmin.utils.NetworkStatusLiveData;
 import com.example.yogaAdmin.viewmodel.YogaClassViewModel;
 
@@ -23,14 +30,9 @@ import com.google.android.material.datepicker.CalendarConstraints;
 import com.google.android.material.datepicker.DateValidatorPointForward;
 import com.google.android.material.datepicker.MaterialDatePicker;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Calendar;
-import java.util.Date;
 import java.util.List;
 import java.util.Locale;
-import java.util.TimeZone;
 import java.util.concurrent.ExecutionException;
 
 /**
@@ -53,11 +55,15 @@ public class CreateClassActivity extends AppCompatActivity {
     private long classId = -1;
 
     // UI Components
-    private EditText editDate, editInstructor, editCapacity, editComments, editRepeatWeeks;
+    private EditText editDate, editCapacity, editComments, editRepeatWeeks;
+    private AutoCompleteTextView editInstructor;
     private TextView tvCourseName, tvCourseDetails, tvDefaultCapacity;
     private Button btnClear, btnCreateClass;
     private ImageView ivErrorDate, ivErrorInstructor;
 
+    private RoomOccupancyIndex roomOccupancyIndex; // Room timeline used to detect room clashes.
+    private boolean saveAwaitingRoomIndex; // Whether a save is waiting for the room timeline to load.
+
     private String selectedDate = null;
     private boolean isEditMode = false;
     private String firebaseKey = null;
@@ -93,6 +99,9 @@ public class CreateClassActivity extends AppCompatActivity {
             return;
         }
 
+        // Start loading the room timeline so it is ready when the form is saved.
+        roomOccupancyIndex = RoomOccupancyIndex.getInstance(getApplication());
+
         initializeViews();
         setupViewModel();
         setupClickListeners();
@@ -118,6 +127,9 @@ public class CreateClassActivity extends AppCompatActivity {
         ivErrorDate = findViewById(R.id.iv_error_date);
         ivErrorInstructor = findViewById(R.id.iv_error_instructor);
 
+        // Suggest known instructor names, most used first, to avoid spelling variants.
+        editInstructor.setAdapter(new InstructorSuggestionAdapter(this, InstructorDirectory.getInstance(getApplication())));
+
         ImageView btnBack = findViewById(R.id.btn_back);
         btnBack.setOnClickListener(v -> finish());
 
@@ -171,7 +183,7 @@ public class CreateClassActivity extends AppCompatActivity {
         if (course.getInstructorName() != null && !course.getInstructorName().trim().isEmpty()) {
             details.append(String.format("\n👨‍🏫 Default instructor: %s", course.getInstructorName()));
             if (!isEditMode) {
-                editInstructor.setText(course.getInstructorName());
+                editInstructor.setText(course.getInstructorName(), false);
             }
         }
 
@@ -188,7 +200,7 @@ public class CreateClassActivity extends AppCompatActivity {
     private void populateClassInfo() {
         editDate.setText(existingClass.getDate());
         selectedDate = existingClass.getDate();
-        editInstructor.setText(existingClass.getAssignedInstructor());
+        editInstructor.setText(existingClass.getAssignedInstructor(), false);
         editCapacity.setText(String.valueOf(existingClass.getActualCapacity()));
         editComments.setText(existingClass.getAdditionalComments());
         firebaseKey = existingClass.getFirebaseKey();
@@ -212,19 +224,13 @@ public class CreateClassActivity extends AppCompatActivity {
 
         // Set the initial date for the picker (today or the already selected date).
         long initialSelection = MaterialDatePicker.todayInUtcMilliseconds();
-        if (selectedDate != null) {
-            try {
-                SimpleDateFormat sdf = new SimpleDateFormat("dd/MM/yyyy", Locale.UK);
-                Date date = sdf.parse(selectedDate);
-                if (date != null) {
-                    initialSelection = date.getTime();
-                }
-            } catch (ParseException e) {
-                // Ignore and use today's date if parsing fails.
-            }
+        long selectedDay = DateUtils.parseClassDate(selectedDate);
+        if (selectedDay != DateUtils.INVALID_DATE) {
+            // The picker works in UTC midnights; an unparsable date falls back to today.
+            initialSelection = DateUtils.utcMillisOfEpochDay(selectedDay);
         }
 
-        int courseDayOfWeek = getCalendarDayOfWeek(course.getDayOfWeek());
+        int courseDayOfWeek = DateUtils.parseDayOfWeek(course.getDayOfWeek());
 
         // Set up constraints for the date picker.
         CalendarConstraints.Builder constraintsBuilder = new CalendarConstraints.Builder();
@@ -244,14 +250,8 @@ public class CreateClassActivity extends AppCompatActivity {
                 .build();
 
         datePicker.addOnPositiveButtonClickListener(selection -> {
-            // Convert the selected UTC timestamp to a local date string.
-            Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
-            calendar.setTimeInMillis(selection);
-            Calendar localCalendar = Calendar.getInstance();
-            localCalendar.set(calendar.get(Calendar.YEAR), calendar.get(Calendar.MONTH), calendar.get(Calendar.DAY_OF_MONTH));
-
-            SimpleDateFormat sdf = new SimpleDateFormat("dd/MM/yyyy", Locale.UK);
-            selectedDate = sdf.format(localCalendar.getTime());
+            // The selection is midnight UTC of the chosen day, so its UTC epoch day is the calendar date.
+            selectedDate = DateUtils.formatClassDate(DateUtils.epochDayOfUtcMillis(selection));
             editDate.setText(selectedDate);
             hideFieldError(editDate, ivErrorDate); // Clear any previous error state.
         });
@@ -260,24 +260,6 @@ public class CreateClassActivity extends AppCompatActivity {
     }
 
 
-    /**
-     * Converts a day of the week string (e.g., "Monday") to a Calendar day constant (e.g., Calendar.MONDAY).
-     * @param dayOfWeek The string representation of the day.
-     * @return The corresponding Calendar constant, or -1 if invalid.
-     */
-    private int getCalendarDayOfWeek(String dayOfWeek) {
-        switch (dayOfWeek.toLowerCase()) {
-            case "sunday": return Calendar.SUNDAY;
-            case "monday": return Calendar.MONDAY;
-            case "tuesday": return Calendar.TUESDAY;
-            case "wednesday": return Calendar.WEDNESDAY;
-            case "thursday": return Calendar.THURSDAY;
-            case "friday": return Calendar.FRIDAY;
-            case "saturday": return Calendar.SATURDAY;
-            default: return -1; // Invalid day
-        }
-    }
-
     /**
      * Sets up TextWatchers to hide field errors as the user types.
      */
@@ -312,7 +294,7 @@ public class CreateClassActivity extends AppCompatActivity {
     private void clearForm() {
         editDate.setText("");
         // Reset instructor to the course default if available.
-        editInstructor.setText(course != null && course.getInstructorName() != null ? course.getInstructorName() : "");
+        editInstructor.setText(course != null && course.getInstructorName() != null ? course.getInstructorName() : "", false);
         editCapacity.setText("");
         editComments.setText("");
         editRepeatWeeks.setText("");
@@ -382,9 +364,82 @@ public class CreateClassActivity extends AppCompatActivity {
             return false;
         }
 
+        // Check that the instructor is not already teaching at the same time on any of the dates.
+        if (course != null) {
+            try {
+                List<ClassWithCourseInfo> conflicts = yogaClassViewModel.findInstructorConflicts(
+                        editInstructor.getText().toString().trim(), getScheduledDates(), course.getTime(),
+                        course.getDuration(), isEditMode ? classId : -1);
+                if (!conflicts.isEmpty()) {
+                    ClassWithCourseInfo conflict = conflicts.get(0);
+                    String message = String.format(Locale.UK, "%s is already teaching %s at %s on %s",
+                            conflict.yogaClass.getAssignedInstructor(), conflict.yogaCourse.getClassType(),
+                            conflict.yogaCourse.getTime(), conflict.yogaClass.getDate());
+                    if (conflicts.size() > 1) {
+                        message += String.format(Locale.UK, " (and %d more clashes)", conflicts.size() - 1);
+                    }
+                    Toast.makeText(this, message, Toast.LENGTH_LONG).show();
+                    showFieldError(editInstructor, ivErrorInstructor);
+                    return false;
+                }
+            } catch (ExecutionException | InterruptedException e) {
+                Toast.makeText(this, "Error checking the instructor's schedule.", Toast.LENGTH_SHORT).show();
+                return false;
+            }
+
+            // Check that no other course's class occupies the course's room at the same time.
+            // The timeline is empty until it has loaded, so the save is retried once it has.
+            if (!roomOccupancyIndex.isLoaded()) {
+                if (!saveAwaitingRoomIndex) {
+                    saveAwaitingRoomIndex = true;
+                    Toast.makeText(this, "Checking room availability...", Toast.LENGTH_SHORT).show();
+                    roomOccupancyIndex.runWhenLoaded(() -> {
+                        saveAwaitingRoomIndex = false;
+                        if (!isFinishing() && !isDestroyed()) {
+                            validateAndSaveClass();
+                        }
+                    });
+                }
+                return false;
+            }
+            List<RoomBooking> clashes = roomOccupancyIndex.findClashes(course.getRoomNumber(), getScheduledDates(),
+                    course.getTime(), course.getDuration(), courseId);
+            if (!clashes.isEmpty()) {
+                RoomBooking clash = clashes.get(0);
+                List<String> freeRooms = roomOccupancyIndex.freeRooms(clash.date, course.getTime(), course.getDuration());
+                String message = String.format(Locale.UK, "%s is taken by %s at %s on %s.", course.getRoomNumber(),
+                        clash.classType, clash.time, clash.date);
+                message += freeRooms.isEmpty() ? " No other room is free then."
+                        : " Free rooms then: " + String.join(", ", freeRooms) + ".";
+                Toast.makeText(this, message, Toast.LENGTH_LONG).show();
+                showFieldError(editDate, ivErrorDate);
+                return false;
+            }
+        }
+
         return true;
     }
 
+    /**
+     * Returns the dates the form would schedule: the selected date in edit mode, or every week of
+     * the repeat series in create mode.
+     * @return The dates in "dd/MM/yyyy" format.
+     */
+    private List<String> getScheduledDates() {
+        List<String> dates = new ArrayList<>();
+        int repeatWeeks = 1;
+        if (!isEditMode && !editRepeatWeeks.getText().toString().trim().isEmpty()) {
+            repeatWeeks = Integer.parseInt(editRepeatWeeks.getText().toString().trim());
+        }
+        for (int i = 0; i < repeatWeeks; i++) {
+            String classDate = DateUtils.addWeeks(selectedDate, i);
+            if (classDate != null) {
+                dates.add(classDate);
+            }
+        }
+        return dates;
+    }
+
     /**
      * Updates an existing YogaClass with the new data from the form.
      */
@@ -407,7 +462,7 @@ public class CreateClassActivity extends AppCompatActivity {
      */
     private void createClasses(String startDate, String instructor, int customCapacity, String comments, int repeatWeeks) {
         for (int i = 0; i < repeatWeeks; i++) {
-            String classDate = calculateDateForWeek(startDate, i);
+            String classDate = DateUtils.addWeeks(startDate, i);
             if (classDate != null) {
                 YogaClass yogaClass = new YogaClass();
                 yogaClass.setCourseId(courseId);
@@ -428,28 +483,6 @@ public class CreateClassActivity extends AppCompatActivity {
         finish();
     }
 
-    /**
-     * Calculates a new date string by adding a number of weeks to a start date.
-     * @param startDate The starting date string in "dd/MM/yyyy" format.
-     * @param weekOffset The number of weeks to add.
-     * @return The new date string, or null if parsing fails.
-     */
-    private String calculateDateForWeek(String startDate, int weekOffset) {
-        try {
-            SimpleDateFormat sdf = new SimpleDateFormat("dd/MM/yyyy", Locale.UK);
-            Date date = sdf.parse(startDate);
-            if (date != null) {
-                Calendar calendar = Calendar.getInstance();
-                calendar.setTime(date);
-                calendar.add(Calendar.WEEK_OF_YEAR, weekOffset);
-                return sdf.format(calendar.getTime());
-            }
-        } catch (ParseException e) {
-            e.printStackTrace();
-        }
-        return null;
-    }
-
     /**
      * Shows a visual error indicator on a form field.
      * @param field The EditText field to highlight.
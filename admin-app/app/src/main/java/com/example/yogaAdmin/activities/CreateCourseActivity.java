@@ -22,9 +22,14 @@ import androidx.core.view.WindowInsetsCompat;
 
 import com.example.yogaAdmin.R;
 import com.example.yogaAdmin.dialogs.TimePickerDialog;
+import com.example.yogaAdmin.models.RoomBooking;
 import com.example.yogaAdmin.models.YogaCourse;
+import com.example.yogaAdmin.repository.RoomOccupancyIndex;
 import com.example.yogaAdmin.utils.NetworkStatusLiveData;
 
+import java.util.List;
+import java.util.Locale;
+
 /**
  * Activity for creating a new yoga course or editing an existing one.
  * This activity provides a form to input all the details of a yoga course,
@@ -52,6 +57,8 @@ public class CreateCourseActivity extends AppCompatActivity {
     private long courseId = -1; // -1 indicates a new course, otherwise it's the ID of the course being edited.
     private long existingCourseCreatedDate = 0; // To preserve the original creation date on edit.
     private String firebaseKey = null; // Firebase key for the course being edited.
+    private RoomOccupancyIndex roomOccupancyIndex; // Room timeline used to detect room clashes.
+    private boolean saveAwaitingRoomIndex; // Whether a save is waiting for the room timeline to load.
 
     // Network status monitoring
     private NetworkStatusLiveData networkStatusLiveData;
@@ -81,6 +88,9 @@ public class CreateCourseActivity extends AppCompatActivity {
             tvOffline.setVisibility(isOnline ? View.GONE : View.VISIBLE);
         });
 
+        // Start loading the room timeline so it is ready when the form is saved.
+        roomOccupancyIndex = RoomOccupancyIndex.getInstance(getApplication());
+
         // Initialize all UI views.
         initializeViews();
         // Setup input formatters for fields like time and price.
@@ -307,11 +317,42 @@ public class CreateCourseActivity extends AppCompatActivity {
             return;
         }
 
+        // When editing, check that the course's existing classes would not clash with another course's room booking.
+        String room = editRoom.getText().toString().trim();
+        if (courseId != -1) {
+            // The timeline is empty until it has loaded, so the save is retried once it has.
+            if (!roomOccupancyIndex.isLoaded()) {
+                if (!saveAwaitingRoomIndex) {
+                    saveAwaitingRoomIndex = true;
+                    Toast.makeText(this, "Checking room availability...", Toast.LENGTH_SHORT).show();
+                    roomOccupancyIndex.runWhenLoaded(() -> {
+                        saveAwaitingRoomIndex = false;
+                        if (!isFinishing() && !isDestroyed()) {
+                            validateAndCreateCourse();
+                        }
+                    });
+                }
+                return;
+            }
+            List<RoomBooking> clashes = roomOccupancyIndex.findCourseClashes(courseId, room, time, duration);
+            if (!clashes.isEmpty()) {
+                RoomBooking clash = clashes.get(0);
+                List<String> freeRooms = roomOccupancyIndex.freeRooms(clash.date, time, duration);
+                String message = String.format(Locale.UK, "%s is taken by %s at %s on %s.", room,
+                        clash.classType, clash.time, clash.date);
+                message += freeRooms.isEmpty() ? " No other room is free then."
+                        : " Free rooms then: " + String.join(", ", freeRooms) + ".";
+                Toast.makeText(this, message, Toast.LENGTH_LONG).show();
+                editRoom.requestFocus();
+                return;
+            }
+        }
+
         // Create a new YogaCourse object with the form data.
         YogaCourse course = new YogaCourse(dayOfWeek, time, capacity, duration, price, classType);
         course.setDescription(editDescription.getText().toString().trim());
         course.setInstructorName(editInstructor.getText().toString().trim());
-        course.setRoomNumber(editRoom.getText().toString().trim());
+        course.setRoomNumber(room);
         course.setDifficultyLevel(spinnerDifficulty.getSelectedItem().toString());
         course.setEquipmentNeeded(editEquipment.getText().toString().trim());
         course.setAgeGroup(spinnerAgeGroup.getSelectedItem().toString());
@@ -1,9 +1,8 @@
 package com.example.yogaAdmin.activities;
 
 import android.os.Parcel;
+import com.example.yogaAdmin.utils.DateUtils;
 import com.google.android.material.datepicker.CalendarConstraints;
-import java.util.Calendar;
-import java.util.TimeZone;
 
 /**
  * A {@link CalendarConstraints.DateValidator} that validates whether a given date
@@ -14,15 +13,16 @@ import java.util.TimeZone;
 public class DayOfWeekValidator implements CalendarConstraints.DateValidator {
 
     /**
-     * The target day of the week to validate against, using {@link Calendar} constants
-     * (e.g., {@code Calendar.MONDAY}, {@code Calendar.TUESDAY}).
+     * The target day of the week to validate against, as an ISO day number
+     * (1 for Monday through 7 for Sunday, as in {@link java.time.DayOfWeek#getValue()}).
      */
     private final int dayOfWeek;
 
     /**
      * Constructs a {@code DayOfWeekValidator}.
      *
-     * @param dayOfWeek The day of the week to validate against, as a {@link Calendar} constant.
+     * @param dayOfWeek The day of the week to validate against, as an ISO day number,
+     *                  e.g. from {@link DateUtils#parseDayOfWeek(String)}.
      */
     public DayOfWeekValidator(int dayOfWeek) {
         this.dayOfWeek = dayOfWeek;
@@ -46,12 +46,9 @@ public class DayOfWeekValidator implements CalendarConstraints.DateValidator {
      */
     @Override
     public boolean isValid(long date) {
-        // Create a Calendar instance with UTC timezone to ensure consistency across devices.
-        Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
-        // Set the calendar to the given date.
-        calendar.setTimeInMillis(date);
-        // Check if the day of the week of the given date matches the target dayOfWeek.
-        return calendar.get(Calendar.DAY_OF_WEEK) == dayOfWeek;
+        // The picker calls this for every day cell it renders, so work on the UTC epoch day
+        // directly instead of creating a Calendar per call.
+        return DateUtils.dayOfWeek(DateUtils.epochDayOfUtcMillis(date)) == dayOfWeek;
     }
 
     /**
@@ -1,5 +1,6 @@
 package com.example.yogaAdmin.activities;
 
+import android.content.Context;
 import android.content.Intent;
 import android.os.Bundle;
 import android.text.Editable;
@@ -23,13 +24,17 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.yogaAdmin.R;
 import com.example.yogaAdmin.adapter.YogaCourseAdapter;
+import com.example.yogaAdmin.database.AppDatabase;
+import com.example.yogaAdmin.metrics.SlowQueryLog;
 import com.example.yogaAdmin.models.YogaCourse;
+import com.example.yogaAdmin.repository.InstructorConflictDetector;
 import com.example.yogaAdmin.utils.NetworkStatusLiveData;
 import com.example.yogaAdmin.viewmodel.YogaCourseViewModel;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
 
 /**
  * The main activity of the application, displaying a list of all yoga courses.
@@ -42,13 +47,14 @@ public class MainActivity extends AppCompatActivity {
     public static final int EDIT_COURSE_REQUEST = 2;
     // Key for passing YogaCourse data in Intents.
     public static final String EXTRA_COURSE = "com.example.yogaAdmin.EXTRA_COURSE";
+    // Name of the file the slow query log is exported to.
+    private static final String SLOW_QUERIES_FILE_NAME = "slow_queries.txt";
 
     private YogaCourseViewModel yogaCourseViewModel;
     private RecyclerView recyclerView;
     private LinearLayout emptyStateLayout;
     private EditText editSearch;
     private YogaCourseAdapter adapter;
-    private List<YogaCourse> allCourses = new ArrayList<>(); // Cached list of all courses
     private NetworkStatusLiveData networkStatusLiveData;
     private TextView tvOffline;
 
@@ -96,15 +102,12 @@ public class MainActivity extends AppCompatActivity {
         adapter = new YogaCourseAdapter();
         recyclerView.setAdapter(adapter);
 
-        // Initialize ViewModel and observe the list of courses.
+        // Initialize ViewModel and observe the courses matching the search query.
+        // Filtering runs in the background and is re-applied whenever the courses change.
         yogaCourseViewModel = new ViewModelProvider(this).get(YogaCourseViewModel.class);
-        yogaCourseViewModel.getAllCourses().observe(this, courses -> {
-            allCourses.clear();
-            if (courses != null) {
-                allCourses.addAll(courses);
-            }
-            // Re-apply the current filter when the data changes.
-            filterCourses(editSearch.getText().toString());
+        yogaCourseViewModel.getFilteredCourses().observe(this, courses -> {
+            adapter.submitList(courses);
+            updateEmptyState(courses.size());
         });
 
         // Set up click listeners for the adapter items.
@@ -140,7 +143,7 @@ public class MainActivity extends AppCompatActivity {
 
             @Override
             public void onTextChanged(CharSequence s, int start, int before, int count) {
-                filterCourses(s.toString());
+                yogaCourseViewModel.setSearchQuery(s.toString());
             }
 
             @Override
@@ -148,31 +151,6 @@ public class MainActivity extends AppCompatActivity {
         });
     }
 
-    /**
-     * Filters the displayed list of courses based on a search query.
-     * The search is performed on the course type, instructor name, and day of the week.
-     * @param query The text to search for.
-     */
-    private void filterCourses(String query) {
-        List<YogaCourse> filteredList = new ArrayList<>();
-        if (query.isEmpty()) {
-            // If the query is empty, show all courses.
-            filteredList.addAll(allCourses);
-        } else {
-            // Otherwise, filter the list.
-            String lowerCaseQuery = query.toLowerCase().trim();
-            for (YogaCourse course : allCourses) {
-                if ((course.getClassType() != null && course.getClassType().toLowerCase().contains(lowerCaseQuery)) ||
-                        (course.getInstructorName() != null && course.getInstructorName().toLowerCase().contains(lowerCaseQuery)) ||
-                        (course.getDayOfWeek() != null && course.getDayOfWeek().toLowerCase().contains(lowerCaseQuery))) {
-                    filteredList.add(course);
-                }
-            }
-        }
-        adapter.submitList(filteredList);
-        updateEmptyState(filteredList.size());
-    }
-
     /**
      * Shows or hides the "empty state" layout depending on whether the list is empty.
      * @param itemCount The number of items in the current list.
@@ -216,7 +194,7 @@ public class MainActivity extends AppCompatActivity {
     }
 
     /**
-     * Displays a popup menu with options for Sync, Reset, and About.
+     * Displays a popup menu with options for Sync, Instructor Clashes, Slow Queries, Reset, and About.
      * @param view The view to which the popup menu should be anchored.
      */
     private void showPopupMenu(View view) {
@@ -228,6 +206,12 @@ public class MainActivity extends AppCompatActivity {
                 Toast.makeText(this, "Syncing data...", Toast.LENGTH_SHORT).show();
                 yogaCourseViewModel.syncData(); // Trigger manual data sync.
                 return true;
+            } else if (itemId == R.id.action_audit_instructors) {
+                showInstructorConflicts(); // Scan the schedule for double-booked instructors.
+                return true;
+            } else if (itemId == R.id.action_slow_queries) {
+                showSlowQueries(); // List the recent slow database statements.
+                return true;
             } else if (itemId == R.id.action_reset_database) {
                 showResetConfirmationDialog(); // Show confirmation for database reset.
                 return true;
@@ -278,6 +262,73 @@ public class MainActivity extends AppCompatActivity {
         }
     }
 
+    /**
+     * Scans the whole schedule for instructors assigned to overlapping classes on the same date
+     * and lists the clashes in a dialog.
+     */
+    private void showInstructorConflicts() {
+        yogaCourseViewModel.auditInstructorConflicts().observe(this, conflicts -> {
+            StringBuilder message = new StringBuilder();
+            if (conflicts.isEmpty()) {
+                message.append("No instructor is booked into overlapping classes.");
+            }
+            for (InstructorConflictDetector.Conflict conflict : conflicts) {
+                if (message.length() > 0) {
+                    message.append("\n\n");
+                }
+                message.append(String.format(Locale.UK, "%s on %s:\n• %s at %s\n• %s at %s",
+                        conflict.first.yogaClass.getAssignedInstructor(), conflict.first.yogaClass.getDate(),
+                        conflict.first.yogaCourse.getClassType(), conflict.first.yogaCourse.getTime(),
+                        conflict.second.yogaCourse.getClassType(), conflict.second.yogaCourse.getTime()));
+            }
+            new AlertDialog.Builder(this)
+                    .setTitle(conflicts.isEmpty() ? "No Instructor Clashes" : String.format(Locale.UK, "%d Instructor Clashes", conflicts.size()))
+                    .setMessage(message.toString())
+                    .setPositiveButton("OK", null)
+                    .create()
+                    .show();
+        });
+    }
+
+    /**
+     * Lists the recent database statements that exceeded the slow query threshold, with their
+     * query plans, and offers to export them to a file or clear them.
+     */
+    private void showSlowQueries() {
+        SlowQueryLog slowQueryLog = SlowQueryLog.getInstance();
+        new AlertDialog.Builder(this)
+                .setTitle("Slow Queries")
+                .setMessage(slowQueryLog.format())
+                .setPositiveButton("OK", null)
+                .setNegativeButton("Export", (dialogInterface, which) -> exportSlowQueries(slowQueryLog))
+                .setNeutralButton("Clear", (dialogInterface, which) -> slowQueryLog.clear())
+                .create()
+                .show();
+    }
+
+    /**
+     * Writes the slow query log to the app's external files directory, which can be read over USB
+     * without any permission, or to its internal files directory if there is no external storage.
+     * The file is written on a background thread, and the result is shown on the main thread.
+     *
+     * @param slowQueryLog The log to export.
+     */
+    private void exportSlowQueries(SlowQueryLog slowQueryLog) {
+        Context context = getApplicationContext();
+        AppDatabase.databaseWriteExecutor.execute(() -> {
+            File directory = context.getExternalFilesDir(null);
+            File file = new File(directory != null ? directory : context.getFilesDir(), SLOW_QUERIES_FILE_NAME);
+            try {
+                slowQueryLog.writeTo(file);
+                runOnUiThread(() -> Toast.makeText(context, "Slow queries exported to " + file.getAbsolutePath(),
+                        Toast.LENGTH_LONG).show());
+            } catch (IOException e) {
+                runOnUiThread(() -> Toast.makeText(context, "Failed to export slow queries",
+                        Toast.LENGTH_SHORT).show());
+            }
+        });
+    }
+
     /**
      * Shows a simple dialog with information about the application.
      */
@@ -7,8 +7,10 @@ import android.text.Editable;
 import android.text.TextWatcher;
 import android.view.View;
 import android.widget.AdapterView;
+import android.widget.AutoCompleteTextView;
 import android.widget.Button;
 import android.widget.EditText;
+import android.widget.HorizontalScrollView;
 import android.widget.ImageView;
 import android.widget.LinearLayout;
 import android.widget.Spinner;
@@ -21,21 +23,31 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.yogaAdmin.R;
 import com.example.yogaAdmin.adapter.ClassWithCourseInfoAdapter;
+import com.example.yogaAdmin.adapter.InstructorSuggestionAdapter;
+import com.example.yogaAdmin.repository.InstructorDirectory;
 import com.example.yogaAdmin.utils.NetworkStatusLiveData;
 import com.example.yogaAdmin.viewmodel.SearchViewModel;
 import com.example.yogaAdmin.viewmodel.YogaClassViewModel;
+import com.google.android.material.chip.Chip;
+import com.google.android.material.chip.ChipGroup;
 
 import java.util.Calendar;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
 
 /**
  * Activity that provides a dedicated search interface for finding yoga classes.
- * Users can search by instructor name, date, or day of the week.
+ * Users can search by instructor name, date, or day of the week, and narrow the results with
+ * facet chips showing how many classes each status, class type, difficulty, age group, room and
+ * price band would match.
  * The results are displayed in a RecyclerView, and users can interact with the results.
  */
 public class SearchActivity extends AppCompatActivity implements ClassWithCourseInfoAdapter.OnStatusChangeListener {
 
     // UI elements for search input
-    private EditText editInstructorSearch, editDateSearch;
+    private AutoCompleteTextView editInstructorSearch;
+    private EditText editDateSearch;
     private Spinner spinnerDaySearch;
     // UI for displaying results
     private RecyclerView recyclerViewResults;
@@ -47,6 +59,12 @@ public class SearchActivity extends AppCompatActivity implements ClassWithCourse
     private Button btnClearAll;
     private ImageView btnAdvancedSearch;
     private LinearLayout advancedSearchContainer;
+    // Container for one row of chips per facet
+    private LinearLayout facetContainer;
+    // Chip group of each facet, keyed by facet name
+    private final Map<String, ChipGroup> facetChipGroups = new HashMap<>();
+    // Chip of each facet value, keyed by facet name and then by value
+    private final Map<String, Map<String, Chip>> facetChips = new HashMap<>();
     // ViewModel for handling search logic
     private SearchViewModel searchViewModel;
     // Network status monitoring
@@ -82,15 +100,42 @@ public class SearchActivity extends AppCompatActivity implements ClassWithCourse
             tvOffline.setVisibility(isOnline ? View.GONE : View.VISIBLE);
         });
 
+        // Observe the search results, which are recomputed whenever the criteria or the classes change.
+        searchViewModel.getResults().observe(this, results -> {
+            adapter.submitList(results.classes);
+            bindFacets(results.facetCounts);
+            updateUIWithResults(results.classes.size());
+        });
+
         // Perform an initial search to populate the list with all classes.
         performSearch();
     }
 
+    /**
+     * Starts receiving live booking counts for the search results.
+     */
+    @Override
+    protected void onStart() {
+        super.onStart();
+        adapter.attachBookingCounts(searchViewModel.getBookingCountAggregator());
+    }
+
+    /**
+     * Stops receiving live booking counts while the activity is not visible.
+     */
+    @Override
+    protected void onStop() {
+        super.onStop();
+        adapter.detachBookingCounts();
+    }
+
     /**
      * Initializes all UI views by finding them by their ID from the layout file.
      */
     private void initViews() {
         editInstructorSearch = findViewById(R.id.edit_instructor_search);
+        // Suggest known instructor names as the user types.
+        editInstructorSearch.setAdapter(new InstructorSuggestionAdapter(this, InstructorDirectory.getInstance(getApplication())));
         editDateSearch = findViewById(R.id.edit_date_search);
         spinnerDaySearch = findViewById(R.id.spinner_day_search);
         recyclerViewResults = findViewById(R.id.recycler_view_results);
@@ -100,6 +145,7 @@ public class SearchActivity extends AppCompatActivity implements ClassWithCourse
         btnClearAll = findViewById(R.id.btn_clear_all);
         btnAdvancedSearch = findViewById(R.id.btn_advanced_search);
         advancedSearchContainer = findViewById(R.id.advanced_search_container);
+        facetContainer = findViewById(R.id.facet_container);
 
         // Setup back button.
         ImageView btnBack = findViewById(R.id.btn_back);
@@ -198,6 +244,13 @@ public class SearchActivity extends AppCompatActivity implements ClassWithCourse
             editInstructorSearch.setText("");
             editDateSearch.setText("");
             spinnerDaySearch.setSelection(0);
+            // Clear the selection first, so unchecking the chips does not search once per chip.
+            searchViewModel.clearFacetSelection();
+            for (Map<String, Chip> chips : facetChips.values()) {
+                for (Chip chip : chips.values()) {
+                    chip.setChecked(false);
+                }
+            }
             performSearch();
         });
     }
@@ -221,19 +274,113 @@ public class SearchActivity extends AppCompatActivity implements ClassWithCourse
 
     /**
      * Gathers the current search criteria from the input fields and triggers the search in the ViewModel.
-     * The results are observed and submitted to the adapter.
+     * The results are delivered to the observer of {@link SearchViewModel#getResults()}.
      */
     private void performSearch() {
-        String instructorName = editInstructorSearch.getText().toString().trim();
+        String text = editInstructorSearch.getText().toString().trim();
         String date = editDateSearch.getText().toString().trim();
         String dayOfWeek = spinnerDaySearch.getSelectedItem().toString();
+        searchViewModel.search(text, date, dayOfWeek);
+    }
+
+    /**
+     * Shows a chip for every value of every facet, labelled with the number of classes that
+     * would match if it were selected. Chips are created once per value and then only relabelled,
+     * and chips of values no longer present in any class are removed.
+     *
+     * @param facetCounts The counts keyed by facet name and then by value, in display order.
+     */
+    private void bindFacets(Map<String, Map<String, Integer>> facetCounts) {
+        for (Map.Entry<String, Map<String, Integer>> facet : facetCounts.entrySet()) {
+            String facetName = facet.getKey();
+            ChipGroup chipGroup = getOrCreateChipGroup(facetName);
+            Map<String, Chip> chips = facetChips.get(facetName);
 
-        // Observe the search results from the ViewModel.
-        searchViewModel.search(instructorName, date, dayOfWeek).observe(this, results -> {
-            if (results == null) return;
-            adapter.submitList(results);
-            updateUIWithResults(results.size());
+            // Remove the chips of values that have disappeared, dropping them from the selection.
+            Iterator<Map.Entry<String, Chip>> iterator = chips.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, Chip> entry = iterator.next();
+                if (!facet.getValue().containsKey(entry.getKey())) {
+                    chipGroup.removeView(entry.getValue());
+                    iterator.remove();
+                    if (searchViewModel.isFacetValueSelected(facetName, entry.getKey())) {
+                        searchViewModel.setFacetValueSelected(facetName, entry.getKey(), false);
+                    }
+                }
+            }
+
+            int index = 0;
+            for (Map.Entry<String, Integer> value : facet.getValue().entrySet()) {
+                Chip chip = chips.get(value.getKey());
+                if (chip == null) {
+                    chip = createFacetChip(facetName, value.getKey());
+                    chips.put(value.getKey(), chip);
+                    chipGroup.addView(chip, index);
+                }
+                chip.setText(String.format("%s (%d)", value.getKey(), value.getValue()));
+                index++;
+            }
+        }
+    }
+
+    /**
+     * Returns the chip group of a facet, adding a labelled row for it to the facet container
+     * the first time the facet is seen.
+     *
+     * @param facetName The name of the facet.
+     * @return The chip group holding the facet's chips.
+     */
+    private ChipGroup getOrCreateChipGroup(String facetName) {
+        ChipGroup chipGroup = facetChipGroups.get(facetName);
+        if (chipGroup != null) {
+            return chipGroup;
+        }
+        TextView label = new TextView(this);
+        label.setText(facetName);
+        label.setTextColor(getColor(R.color.secondary_text));
+        label.setPadding(0, dpToPx(8), 0, 0);
+        facetContainer.addView(label);
+
+        chipGroup = new ChipGroup(this);
+        chipGroup.setSingleLine(true);
+        HorizontalScrollView scrollView = new HorizontalScrollView(this);
+        scrollView.setHorizontalScrollBarEnabled(false);
+        scrollView.addView(chipGroup);
+        facetContainer.addView(scrollView);
+
+        facetChipGroups.put(facetName, chipGroup);
+        facetChips.put(facetName, new HashMap<>());
+        return chipGroup;
+    }
+
+    /**
+     * Creates a checkable chip that selects or deselects a facet value.
+     *
+     * @param facetName The name of the facet.
+     * @param value The facet value the chip stands for.
+     * @return The new chip.
+     */
+    private Chip createFacetChip(String facetName, String value) {
+        Chip chip = new Chip(this);
+        chip.setCheckable(true);
+        // Restore the selection before listening, so restoring it does not trigger a search.
+        chip.setChecked(searchViewModel.isFacetValueSelected(facetName, value));
+        chip.setOnCheckedChangeListener((buttonView, isChecked) -> {
+            if (isChecked != searchViewModel.isFacetValueSelected(facetName, value)) {
+                searchViewModel.setFacetValueSelected(facetName, value, isChecked);
+            }
         });
+        return chip;
+    }
+
+    /**
+     * Converts density-independent pixels to pixels.
+     *
+     * @param dp The value in dp.
+     * @return The value in pixels.
+     */
+    private int dpToPx(int dp) {
+        return Math.round(dp * getResources().getDisplayMetrics().density);
     }
 
     /**
@@ -246,7 +393,8 @@ public class SearchActivity extends AppCompatActivity implements ClassWithCourse
         // Determine if any search query has been entered.
         boolean hasSearchQuery = !editInstructorSearch.getText().toString().trim().isEmpty() ||
                 !editDateSearch.getText().toString().trim().isEmpty() ||
-                (spinnerDaySearch.getSelectedItemPosition() > 0 && !spinnerDaySearch.getSelectedItem().toString().equals("All Days"));
+                (spinnerDaySearch.getSelectedItemPosition() > 0 && !spinnerDaySearch.getSelectedItem().toString().equals("All Days")) ||
+                searchViewModel.hasFacetSelection();
 
         if (count > 0) {
             // If results are found, show the RecyclerView and the results count.
@@ -268,7 +416,7 @@ public class SearchActivity extends AppCompatActivity implements ClassWithCourse
                 emptySubtitle.setText("No classes match your search criteria. Try adjusting your search terms.");
             } else {
                 emptyTitle.setText("Ready to Search");
-                emptySubtitle.setText("Enter an instructor name or use advanced search to find classes");
+                emptySubtitle.setText("Enter an instructor, class type, room or note, or use advanced search to find classes");
             }
         }
     }
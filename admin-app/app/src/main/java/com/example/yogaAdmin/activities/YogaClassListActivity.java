@@ -103,6 +103,29 @@ public class YogaClassListActivity extends AppCompatActivity {
         setupClickListeners();
     }
 
+    /**
+     * Starts receiving live booking counts for the visible class list.
+     */
+    @Override
+    protected void onStart() {
+        super.onStart();
+        // The adapter is not created if the activity finished early because of a missing course.
+        if (adapter != null) {
+            adapter.attachBookingCounts(yogaClassViewModel.getBookingCountAggregator());
+        }
+    }
+
+    /**
+     * Stops receiving live booking counts while the activity is not visible.
+     */
+    @Override
+    protected void onStop() {
+        super.onStop();
+        if (adapter != null) {
+            adapter.detachBookingCounts();
+        }
+    }
+
     /**
      * Initializes all UI views from the layout file.
      */
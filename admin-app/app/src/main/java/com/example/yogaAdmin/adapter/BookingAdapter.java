@@ -1,30 +1,73 @@
 package com.example.yogaAdmin.adapter;
 
+import android.os.Handler;
+import android.os.Looper;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncDifferConfig;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.yogaAdmin.R;
+import com.example.yogaAdmin.metrics.InstrumentedThreadPool;
+import com.example.yogaAdmin.metrics.MetricsRegistry;
 import com.example.yogaAdmin.models.Booking;
+import com.example.yogaAdmin.utils.DateUtils;
 
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
-import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
 
 /**
  * RecyclerView adapter for displaying a list of {@link Booking} objects.
  * This adapter is used to show the details of users who have booked a specific class.
+ * The display strings of each booking are computed once on a background thread, where the
+ * {@link DiffUtil} pass of the {@link ListAdapter} also runs, so binding a row only sets text.
  */
-public class BookingAdapter extends RecyclerView.Adapter<BookingAdapter.BookingViewHolder> {
+public class BookingAdapter extends ListAdapter<BookingAdapter.BookingItem, BookingAdapter.BookingViewHolder> {
 
-    // List to hold the booking data.
-    private List<Booking> bookings = new ArrayList<>();
+    // Single background thread that formats and diffs the lists in the order they are submitted.
+    private static final ExecutorService BACKGROUND_EXECUTOR = new InstrumentedThreadPool("bookingAdapter", 1, MetricsRegistry.getInstance());
+
+    // Handler used to hand formatted lists back to the main thread.
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    // Incremented on every call to setBookings, so results of superseded lists are dropped.
+    private int generation;
+
+    /**
+     * Default constructor for the adapter.
+     * Initializes the adapter with the DiffUtil callback and the background executor.
+     */
+    public BookingAdapter() {
+        super(new AsyncDifferConfig.Builder<>(DIFF_CALLBACK)
+                .setBackgroundThreadExecutor(BACKGROUND_EXECUTOR)
+                .build());
+    }
+
+    /**
+     * DiffUtil.ItemCallback for calculating the difference between two {@link BookingItem}s.
+     * Only the precomputed display strings are compared, since they are all that is bound.
+     */
+    private static final DiffUtil.ItemCallback<BookingItem> DIFF_CALLBACK = new DiffUtil.ItemCallback<BookingItem>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull BookingItem oldItem, @NonNull BookingItem newItem) {
+            // Two items are considered the same if they have the same booking ID.
+            return Objects.equals(oldItem.id, newItem.id);
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull BookingItem oldItem, @NonNull BookingItem newItem) {
+            return Objects.equals(oldItem.userName, newItem.userName) &&
+                    Objects.equals(oldItem.userEmail, newItem.userEmail) &&
+                    Objects.equals(oldItem.bookingDateText, newItem.bookingDateText);
+        }
+    };
 
     /**
      * Called when RecyclerView needs a new {@link BookingViewHolder} of the given type to represent an item.
@@ -51,42 +94,68 @@ public class BookingAdapter extends RecyclerView.Adapter<BookingAdapter.BookingV
      */
     @Override
     public void onBindViewHolder(@NonNull BookingViewHolder holder, int position) {
-        // Get the booking at the current position.
-        Booking currentBooking = bookings.get(position);
-        // Bind the booking data to the views in the ViewHolder.
-        holder.tvUserName.setText(currentBooking.getUserName());
-        holder.tvUserEmail.setText(currentBooking.getUserEmail());
-        
-        try {
-            // Attempt to parse and format the ISO date string to a more readable format.
-            SimpleDateFormat isoFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", Locale.getDefault());
-            Date date = isoFormat.parse(currentBooking.getBookingDate());
-            SimpleDateFormat readableFormat = new SimpleDateFormat("dd MMM yyyy, HH:mm", Locale.getDefault());
-            holder.tvBookingDate.setText("Booked on: " + readableFormat.format(date));
-        } catch (Exception e) {
-            // If parsing fails, display the original date string as a fallback.
-            holder.tvBookingDate.setText("Booked on: " + currentBooking.getBookingDate());
-        }
+        // Bind the precomputed display strings to the views in the ViewHolder.
+        BookingItem currentItem = getItem(position);
+        holder.tvUserName.setText(currentItem.userName);
+        holder.tvUserEmail.setText(currentItem.userEmail);
+        holder.tvBookingDate.setText(currentItem.bookingDateText);
     }
 
     /**
-     * Returns the total number of items in the data set held by the adapter.
+     * Updates the list of bookings.
+     * The display strings are computed and the list is diffed against the current one on a
+     * background thread, after which only the rows that changed are rebound.
+     * Must be called on the main thread.
      *
-     * @return The total number of items in this adapter.
+     * @param bookings The new list of bookings to display.
      */
-    @Override
-    public int getItemCount() {
-        return bookings.size();
+    public void setBookings(List<Booking> bookings) {
+        int submittedGeneration = ++generation;
+        BACKGROUND_EXECUTOR.execute(() -> {
+            List<BookingItem> items = new ArrayList<>(bookings.size());
+            for (Booking booking : bookings) {
+                items.add(new BookingItem(booking));
+            }
+            mainHandler.post(() -> {
+                if (submittedGeneration == generation) {
+                    submitList(items);
+                }
+            });
+        });
     }
 
     /**
-     * Updates the list of bookings and notifies the adapter to refresh the view.
+     * Formats an ISO booking date for display.
      *
-     * @param bookings The new list of bookings to display.
+     * @param bookingDate The ISO date string of the booking.
+     * @return The text to display for the booking date.
      */
-    public void setBookings(List<Booking> bookings) {
-        this.bookings = bookings;
-        notifyDataSetChanged(); // Notify the adapter that the data set has changed.
+    private static String formatBookingDate(String bookingDate) {
+        String readable = DateUtils.formatBookingDate(bookingDate);
+        // If parsing fails, display the original date string as a fallback.
+        return "Booked on: " + (readable != null ? readable : bookingDate);
+    }
+
+    /**
+     * An immutable row of the booking list holding the display strings of a {@link Booking}.
+     */
+    static final class BookingItem {
+        private final String id;
+        private final String userName;
+        private final String userEmail;
+        private final String bookingDateText;
+
+        /**
+         * Creates the row for a booking, formatting its booking date.
+         *
+         * @param booking The booking to display.
+         */
+        BookingItem(Booking booking) {
+            id = booking.getId();
+            userName = booking.getUserName();
+            userEmail = booking.getUserEmail();
+            bookingDateText = formatBookingDate(booking.getBookingDate());
+        }
     }
 
     /**
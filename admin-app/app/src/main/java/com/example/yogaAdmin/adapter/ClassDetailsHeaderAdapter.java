@@ -0,0 +1,160 @@
+package com.example.yogaAdmin.adapter;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.Button;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.yogaAdmin.R;
+import com.example.yogaAdmin.models.ClassWithCourseInfo;
+import com.example.yogaAdmin.models.YogaClass;
+import com.example.yogaAdmin.models.YogaCourse;
+
+/**
+ * RecyclerView adapter holding the single header row of the class details page.
+ * The row shows the details of the class and its course above the bookings, and the message
+ * shown while the class has no bookings. It is placed before a {@link BookingAdapter} in a
+ * {@link androidx.recyclerview.widget.ConcatAdapter}, so the whole page scrolls as one list and
+ * only the visible booking rows are laid out.
+ */
+public class ClassDetailsHeaderAdapter extends RecyclerView.Adapter<ClassDetailsHeaderAdapter.HeaderViewHolder> {
+
+    // The class and course to display, or null until they have loaded.
+    private ClassWithCourseInfo classWithCourseInfo;
+    // Whether the message for a class without bookings is shown.
+    private boolean noBookings = true;
+    // Listener for the button that finds a substitute instructor.
+    private View.OnClickListener onFindSubstituteClickListener;
+
+    /**
+     * Sets the class and course to display and rebinds the header.
+     *
+     * @param classWithCourseInfo An object containing both {@link YogaClass} and {@link YogaCourse} details.
+     */
+    public void setClassWithCourseInfo(ClassWithCourseInfo classWithCourseInfo) {
+        this.classWithCourseInfo = classWithCourseInfo;
+        notifyItemChanged(0);
+    }
+
+    /**
+     * Shows or hides the message for a class without bookings.
+     *
+     * @param noBookings True if the class has no bookings to list.
+     */
+    public void setNoBookings(boolean noBookings) {
+        if (this.noBookings != noBookings) {
+            this.noBookings = noBookings;
+            notifyItemChanged(0);
+        }
+    }
+
+    /**
+     * Sets the listener for the button that finds a substitute instructor.
+     *
+     * @param listener The listener to be invoked when the button is clicked.
+     */
+    public void setOnFindSubstituteClickListener(View.OnClickListener listener) {
+        this.onFindSubstituteClickListener = listener;
+        notifyItemChanged(0);
+    }
+
+    /**
+     * Called when RecyclerView needs a new {@link HeaderViewHolder} to represent the header.
+     *
+     * @param parent The ViewGroup into which the new View will be added after it is bound to an adapter position.
+     * @param viewType The view type of the new View.
+     * @return A new HeaderViewHolder that holds the header view.
+     */
+    @NonNull
+    @Override
+    public HeaderViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View itemView = LayoutInflater.from(parent.getContext())
+                .inflate(R.layout.item_class_details_header, parent, false);
+        return new HeaderViewHolder(itemView);
+    }
+
+    /**
+     * Called by RecyclerView to display the header.
+     *
+     * @param holder The HeaderViewHolder which should be updated.
+     * @param position The position of the header, which is always 0.
+     */
+    @Override
+    public void onBindViewHolder(@NonNull HeaderViewHolder holder, int position) {
+        holder.btnFindSubstitute.setOnClickListener(onFindSubstituteClickListener);
+        holder.tvNoBookings.setVisibility(noBookings ? View.VISIBLE : View.GONE);
+        if (classWithCourseInfo == null) {
+            return;
+        }
+        // Extract YogaClass and YogaCourse from the combined object for easier access.
+        YogaClass yogaClass = classWithCourseInfo.yogaClass;
+        YogaCourse yogaCourse = classWithCourseInfo.yogaCourse;
+
+        // Populate Class Details section of the header.
+        holder.tvClassDate.setText(yogaClass.getDate());
+        holder.tvAssignedInstructor.setText(yogaClass.getAssignedInstructor());
+        holder.tvCapacity.setText(String.valueOf(yogaClass.getActualCapacity()));
+        holder.tvStatus.setText(yogaClass.getStatus());
+        holder.tvComments.setText(yogaClass.getAdditionalComments() != null ? yogaClass.getAdditionalComments() : "");
+
+        // Populate Course Details section of the header.
+        holder.tvClassType.setText(yogaCourse.getClassType());
+        holder.tvDayOfWeek.setText(yogaCourse.getDayOfWeek());
+        holder.tvTime.setText(yogaCourse.getTime());
+        holder.tvDuration.setText(yogaCourse.getFormattedDuration());
+        holder.tvPrice.setText(yogaCourse.getFormattedPrice());
+        holder.tvDescription.setText(yogaCourse.getDescription() != null ? yogaCourse.getDescription() : "");
+    }
+
+    /**
+     * Returns the number of rows held by this adapter, which is always the single header.
+     *
+     * @return 1.
+     */
+    @Override
+    public int getItemCount() {
+        return 1;
+    }
+
+    /**
+     * ViewHolder class for the header view.
+     * Holds references to the UI components showing the class and course details.
+     */
+    static class HeaderViewHolder extends RecyclerView.ViewHolder {
+        // Views for displaying class-specific details.
+        private final TextView tvClassDate, tvAssignedInstructor, tvCapacity, tvStatus, tvComments;
+        // Views for displaying course-specific details.
+        private final TextView tvClassType, tvDayOfWeek, tvTime, tvDuration, tvPrice, tvDescription;
+        // Message shown when there are no bookings for the class.
+        private final TextView tvNoBookings;
+        // Button that lists the instructors free to cover the class.
+        private final Button btnFindSubstitute;
+
+        /**
+         * Constructor for the HeaderViewHolder.
+         *
+         * @param itemView The view of the header.
+         */
+        HeaderViewHolder(@NonNull View itemView) {
+            super(itemView);
+            tvClassDate = itemView.findViewById(R.id.tv_class_date);
+            tvAssignedInstructor = itemView.findViewById(R.id.tv_assigned_instructor);
+            tvCapacity = itemView.findViewById(R.id.tv_capacity);
+            tvStatus = itemView.findViewById(R.id.tv_status);
+            tvComments = itemView.findViewById(R.id.tv_comments);
+            btnFindSubstitute = itemView.findViewById(R.id.btn_find_substitute);
+
+            tvClassType = itemView.findViewById(R.id.tv_class_type);
+            tvDayOfWeek = itemView.findViewById(R.id.tv_day_of_week);
+            tvTime = itemView.findViewById(R.id.tv_time);
+            tvDuration = itemView.findViewById(R.id.tv_duration);
+            tvPrice = itemView.findViewById(R.id.tv_price);
+            tvDescription = itemView.findViewById(R.id.tv_description);
+            tvNoBookings = itemView.findViewById(R.id.tv_no_bookings);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.example.yogaAdmin.adapter;
 
 import android.content.Context;
 import android.graphics.Typeface;
+import android.graphics.drawable.Drawable;
 import android.view.Gravity;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -20,8 +21,12 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.example.yogaAdmin.R;
 import com.example.yogaAdmin.models.ClassWithCourseInfo;
 import com.example.yogaAdmin.models.YogaClass;
+import com.example.yogaAdmin.repository.BookingCountAggregator;
 
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -30,12 +35,30 @@ import java.util.Objects;
  * from both a {@link YogaClass} and its associated {@link com.example.yogaAdmin.models.YogaCourse}.
  * It uses a {@link ListAdapter} with {@link DiffUtil} for efficient updates.
  */
-public class ClassWithCourseInfoAdapter extends ListAdapter<ClassWithCourseInfo, ClassWithCourseInfoAdapter.ClassWithCourseInfoViewHolder> {
+public class ClassWithCourseInfoAdapter extends ListAdapter<ClassWithCourseInfo, ClassWithCourseInfoAdapter.ClassWithCourseInfoViewHolder>
+        implements BookingCountAggregator.OnBookingCountChangedListener {
+
+    // Payload used to rebind only the booking count of a row.
+    private static final Object PAYLOAD_BOOKING_COUNT = new Object();
 
     // Listener for item click events.
     private OnItemClickListener listener;
     // Listener for status change events from the spinner.
     private OnStatusChangeListener statusChangeListener;
+    // Source of the live booking counts, set while the list is visible.
+    private BookingCountAggregator bookingCountAggregator;
+    // Adapter positions keyed by the Firebase key of the class, rebuilt whenever the list changes.
+    private final Map<String, Integer> positionsByKey = new HashMap<>();
+    // Status spinner adapter shared by every row, created along with the first row.
+    private ArrayAdapter<String> statusAdapter;
+    // Positions of the statuses in the spinner, keyed by status.
+    private final Map<String, Integer> statusPositions = new HashMap<>();
+    // Created date labels by position, built the first time their row is bound after a list is
+    // committed, so rebinding a row does not allocate and rows never shown are never formatted.
+    private String[] createdDateLabels = new String[0];
+    // Capacity labels by position, cleared when the booking count of their class changes and
+    // rebuilt when the row is next bound.
+    private String[] capacityLabels = new String[0];
 
     /**
      * Default constructor for the adapter.
@@ -44,6 +67,113 @@ public class ClassWithCourseInfoAdapter extends ListAdapter<ClassWithCourseInfo,
         super(DIFF_CALLBACK);
     }
 
+    /**
+     * Starts showing live booking counts, registering this adapter for row-level count updates.
+     * Should be paired with {@link #detachBookingCounts()}, e.g. in onStart and onStop.
+     *
+     * @param aggregator The aggregator providing the booking counts.
+     */
+    public void attachBookingCounts(BookingCountAggregator aggregator) {
+        bookingCountAggregator = aggregator;
+        aggregator.addListener(this);
+        // Counts kept by the aggregator may have changed while this adapter was not registered.
+        onBookingCountsReset();
+    }
+
+    /**
+     * Stops receiving booking count updates.
+     */
+    public void detachBookingCounts() {
+        if (bookingCountAggregator != null) {
+            bookingCountAggregator.removeListener(this);
+        }
+    }
+
+    /**
+     * Rebinds the booking count of the row showing the given class, if it is in the list.
+     *
+     * @param classKey The Firebase key of the class.
+     * @param count The new number of bookings.
+     */
+    @Override
+    public void onBookingCountChanged(String classKey, int count) {
+        Integer position = positionsByKey.get(classKey);
+        if (position != null) {
+            capacityLabels[position] = null;
+            notifyItemChanged(position, PAYLOAD_BOOKING_COUNT);
+        }
+    }
+
+    /**
+     * Rebinds the booking count of every row.
+     * Only the rows that are bound again format their capacity.
+     */
+    @Override
+    public void onBookingCountsReset() {
+        Arrays.fill(capacityLabels, null);
+        notifyItemRangeChanged(0, getItemCount(), PAYLOAD_BOOKING_COUNT);
+    }
+
+    /**
+     * Rebuilds the lookup of positions by class key and clears the labels of the rows after a new
+     * list has been committed.
+     *
+     * @param previousList The previously displayed list.
+     * @param currentList The newly displayed list.
+     */
+    @Override
+    public void onCurrentListChanged(@NonNull List<ClassWithCourseInfo> previousList, @NonNull List<ClassWithCourseInfo> currentList) {
+        positionsByKey.clear();
+        createdDateLabels = new String[currentList.size()];
+        capacityLabels = new String[currentList.size()];
+        for (int i = 0; i < currentList.size(); i++) {
+            String firebaseKey = currentList.get(i).yogaClass.getFirebaseKey();
+            if (firebaseKey != null) {
+                positionsByKey.put(firebaseKey, i);
+            }
+        }
+    }
+
+    /**
+     * Returns the created date label of the row at a position, building it on first use.
+     */
+    private String createdDateLabel(int position) {
+        if (createdDateLabels[position] == null) {
+            createdDateLabels[position] = getItem(position).yogaClass.getFormattedCreatedDate();
+        }
+        return createdDateLabels[position];
+    }
+
+    /**
+     * Returns the capacity label of the row at a position, building it on first use.
+     */
+    private String capacityLabel(int position) {
+        if (capacityLabels[position] == null) {
+            capacityLabels[position] = capacityLabel(getItem(position).yogaClass);
+        }
+        return capacityLabels[position];
+    }
+
+    /**
+     * Formats the capacity of a class with its current booking count.
+     */
+    private String capacityLabel(YogaClass yogaClass) {
+        int booked = bookingCountAggregator != null
+                ? bookingCountAggregator.getBookingCount(yogaClass.getFirebaseKey())
+                : BookingCountAggregator.UNKNOWN;
+        return capacityLabel(yogaClass, booked);
+    }
+
+    /**
+     * Formats the capacity of a class with a booking count, or alone if the count is unknown.
+     */
+    private static String capacityLabel(YogaClass yogaClass, int booked) {
+        if (booked == BookingCountAggregator.UNKNOWN) {
+            return String.valueOf(yogaClass.getActualCapacity());
+        }
+        return booked + "/" + yogaClass.getActualCapacity() + " booked";
+    }
+
     /**
      * DiffUtil.ItemCallback for calculating the difference between two non-null items in a list.
      * This allows the ListAdapter to determine which items have changed, been added, or been removed.
@@ -73,6 +203,9 @@ public class ClassWithCourseInfoAdapter extends ListAdapter<ClassWithCourseInfo,
     @NonNull
     @Override
     public ClassWithCourseInfoViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        if (statusAdapter == null) {
+            statusAdapter = createStatusAdapter(parent.getContext());
+        }
         View itemView = LayoutInflater.from(parent.getContext())
                 .inflate(R.layout.item_seach_result, parent, false);
         return new ClassWithCourseInfoViewHolder(itemView);
@@ -87,7 +220,68 @@ public class ClassWithCourseInfoAdapter extends ListAdapter<ClassWithCourseInfo,
     @Override
     public void onBindViewHolder(@NonNull ClassWithCourseInfoViewHolder holder, int position) {
         ClassWithCourseInfo currentClass = getItem(position);
-        holder.bind(currentClass, statusChangeListener);
+        holder.bind(currentClass, position);
+    }
+
+    /**
+     * Creates the status spinner adapter shared by every row, styling the selected item
+     * and the drop-down items, and indexes the position of each status.
+     *
+     * @param context The context used to load the statuses and style the items.
+     * @return The shared status adapter.
+     */
+    private ArrayAdapter<String> createStatusAdapter(Context context) {
+        String[] statuses = context.getResources().getStringArray(R.array.class_status_array);
+        for (int i = 0; i < statuses.length; i++) {
+            statusPositions.put(statuses[i], i);
+        }
+        int white = ContextCompat.getColor(context, R.color.white);
+        int primaryText = ContextCompat.getColor(context, R.color.primary_text);
+        // Custom ArrayAdapter to style the spinner's selected item view.
+        ArrayAdapter<String> adapter = new ArrayAdapter<String>(context, android.R.layout.simple_spinner_item, statuses) {
+            @NonNull
+            @Override
+            public View getView(int position, View convertView, @NonNull ViewGroup parent) {
+                View view = super.getView(position, convertView, parent);
+                TextView textView = (TextView) view;
+                textView.setTextColor(white);
+                textView.setTypeface(textView.getTypeface(), Typeface.BOLD);
+                textView.setGravity(Gravity.CENTER);
+                return view;
+            }
+
+            @Override
+            public View getDropDownView(int position, View convertView, @NonNull ViewGroup parent) {
+                View view = super.getDropDownView(position, convertView, parent);
+                TextView textView = (TextView) view;
+                textView.setTextColor(primaryText);
+                return view;
+            }
+        };
+        adapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+        return adapter;
+    }
+
+    /**
+     * Called by RecyclerView to display the data at the specified position, with payloads
+     * describing which part of the row changed. Only the booking count is rebound for a
+     * booking count payload, otherwise the whole row is bound.
+     *
+     * @param holder The ViewHolder which should be updated.
+     * @param position The position of the item within the adapter's data set.
+     * @param payloads The payloads of the pending partial updates, or an empty list for a full bind.
+     */
+    @Override
+    public void onBindViewHolder(@NonNull ClassWithCourseInfoViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+        for (Object payload : payloads) {
+            if (payload == PAYLOAD_BOOKING_COUNT) {
+                holder.bindCapacity(position);
+            }
+        }
     }
 
     /**
@@ -97,11 +291,14 @@ public class ClassWithCourseInfoAdapter extends ListAdapter<ClassWithCourseInfo,
     public class ClassWithCourseInfoViewHolder extends RecyclerView.ViewHolder {
         private final TextView tvClassDate, tvAssignedInstructor, tvCourseInfo, tvClassDayOfWeek, tvCapacity, tvComments, tvCreatedDate;
         private final Spinner spinnerStatus;
-        private final Context context;
+        // Status backgrounds, resolved once per row.
+        private final Drawable activeBackground, completedBackground, cancelledBackground, defaultBackground;
+        // The item currently bound to this row.
+        private ClassWithCourseInfo boundItem;
 
         public ClassWithCourseInfoViewHolder(@NonNull View itemView) {
             super(itemView);
-            context = itemView.getContext();
+            Context context = itemView.getContext();
             tvClassDate = itemView.findViewById(R.id.tv_class_date);
             tvAssignedInstructor = itemView.findViewById(R.id.tv_assigned_instructor);
             tvCourseInfo = itemView.findViewById(R.id.tv_course_info);
@@ -110,6 +307,29 @@ public class ClassWithCourseInfoAdapter extends ListAdapter<ClassWithCourseInfo,
             spinnerStatus = itemView.findViewById(R.id.spinner_status);
             tvComments = itemView.findViewById(R.id.tv_comments);
             tvCreatedDate = itemView.findViewById(R.id.tv_created_date);
+            activeBackground = ContextCompat.getDrawable(context, R.drawable.status_active_background);
+            completedBackground = ContextCompat.getDrawable(context, R.drawable.status_completed_background);
+            cancelledBackground = ContextCompat.getDrawable(context, R.drawable.status_cancelled_background);
+            defaultBackground = ContextCompat.getDrawable(context, R.drawable.details_card_background);
+            spinnerStatus.setAdapter(statusAdapter);
+
+            spinnerStatus.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
+                @Override
+                public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
+                    String newStatus = statusAdapter.getItem(position);
+                    updateSpinnerBackground(newStatus);
+
+                    // Notify the listener only if the status has actually changed.
+                    if (boundItem != null && !newStatus.equals(boundItem.yogaClass.getStatus())) {
+                        if (statusChangeListener != null) {
+                            statusChangeListener.onStatusChanged(boundItem.yogaClass, newStatus);
+                        }
+                    }
+                }
+
+                @Override
+                public void onNothingSelected(AdapterView<?> parent) {}
+            });
 
             // Set a click listener on the entire item view.
             itemView.setOnClickListener(v -> {
@@ -124,14 +344,15 @@ public class ClassWithCourseInfoAdapter extends ListAdapter<ClassWithCourseInfo,
          * Binds the data from a {@link ClassWithCourseInfo} object to the views in the ViewHolder.
          *
          * @param classWithCourseInfo The data object to bind.
-         * @param statusChangeListener The listener for status changes.
+         * @param position The position of the item in the list.
          */
-        public void bind(ClassWithCourseInfo classWithCourseInfo, OnStatusChangeListener statusChangeListener) {
+        public void bind(ClassWithCourseInfo classWithCourseInfo, int position) {
+            boundItem = classWithCourseInfo;
             tvClassDate.setText(classWithCourseInfo.yogaClass.getDate());
             tvAssignedInstructor.setText(classWithCourseInfo.yogaClass.getAssignedInstructor());
             tvCourseInfo.setText(classWithCourseInfo.yogaCourse.getClassType());
             tvClassDayOfWeek.setText(classWithCourseInfo.yogaCourse.getDayOfWeek());
-            tvCapacity.setText(String.valueOf(classWithCourseInfo.yogaClass.getActualCapacity()));
+            bindCapacity(position);
 
             // Show or hide the comments view based on whether comments exist.
             if (classWithCourseInfo.yogaClass.getAdditionalComments() != null && !classWithCourseInfo.yogaClass.getAdditionalComments().isEmpty()) {
@@ -140,68 +361,24 @@ public class ClassWithCourseInfoAdapter extends ListAdapter<ClassWithCourseInfo,
             } else {
                 tvComments.setVisibility(View.GONE);
             }
-            tvCreatedDate.setText(classWithCourseInfo.yogaClass.getFormattedCreatedDate());
+            tvCreatedDate.setText(createdDateLabel(position));
 
-            // Setup the status spinner with its adapter and listeners.
-            setupStatusSpinner(classWithCourseInfo, statusChangeListener);
+            // Select the class's current status without notifying the listener of a change.
+            String currentStatus = classWithCourseInfo.yogaClass.getStatus();
+            Integer currentStatusPosition = currentStatus != null ? statusPositions.get(currentStatus) : null;
+            if (currentStatusPosition != null) {
+                spinnerStatus.setSelection(currentStatusPosition, false);
+                updateSpinnerBackground(currentStatus);
+            }
         }
 
         /**
-         * Sets up the status spinner, including its adapter, initial selection, and item selection listener.
+         * Binds the capacity of the class, along with its live booking count once known.
          *
-         * @param classWithCourseInfo The data object for the current item.
-         * @param statusChangeListener The listener to be notified of status changes.
+         * @param position The position of the item in the list.
          */
-        private void setupStatusSpinner(ClassWithCourseInfo classWithCourseInfo, OnStatusChangeListener statusChangeListener) {
-            String[] statuses = context.getResources().getStringArray(R.array.class_status_array);
-            // Custom ArrayAdapter to style the spinner's selected item view.
-            ArrayAdapter<String> adapter = new ArrayAdapter<String>(context, android.R.layout.simple_spinner_item, statuses) {
-                @NonNull
-                @Override
-                public View getView(int position, View convertView, @NonNull ViewGroup parent) {
-                    View view = super.getView(position, convertView, parent);
-                    TextView textView = (TextView) view;
-                    textView.setTextColor(ContextCompat.getColor(context, R.color.white));
-                    textView.setTypeface(textView.getTypeface(), Typeface.BOLD);
-                    textView.setGravity(Gravity.CENTER);
-                    return view;
-                }
-
-                @Override
-                public View getDropDownView(int position, View convertView, @NonNull ViewGroup parent) {
-                    View view = super.getDropDownView(position, convertView, parent);
-                    TextView textView = (TextView) view;
-                    textView.setTextColor(ContextCompat.getColor(context, R.color.primary_text));
-                    return view;
-                }
-            };
-            adapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
-            spinnerStatus.setAdapter(adapter);
-
-            // Set the initial selection of the spinner based on the class's current status.
-            int currentStatusPosition = Arrays.asList(statuses).indexOf(classWithCourseInfo.yogaClass.getStatus());
-            if (currentStatusPosition >= 0) {
-                spinnerStatus.setSelection(currentStatusPosition, false); // false to prevent firing listener on setup
-                updateSpinnerBackground(classWithCourseInfo.yogaClass.getStatus());
-            }
-
-            spinnerStatus.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
-                @Override
-                public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
-                    String newStatus = (String) parent.getItemAtPosition(position);
-                    updateSpinnerBackground(newStatus);
-
-                    // Notify the listener only if the status has actually changed.
-                    if (!newStatus.equals(classWithCourseInfo.yogaClass.getStatus())) {
-                        if (statusChangeListener != null) {
-                            statusChangeListener.onStatusChanged(classWithCourseInfo.yogaClass, newStatus);
-                        }
-                    }
-                }
-
-                @Override
-                public void onNothingSelected(AdapterView<?> parent) {}
-            });
+        void bindCapacity(int position) {
+            tvCapacity.setText(capacityLabel(position));
         }
 
         /**
@@ -210,22 +387,24 @@ public class ClassWithCourseInfoAdapter extends ListAdapter<ClassWithCourseInfo,
          * @param status The status string ("Active", "Completed", "Cancelled").
          */
         private void updateSpinnerBackground(String status) {
-            int drawableId;
+            Drawable background;
             switch (status) {
                 case "Active":
-                    drawableId = R.drawable.status_active_background;
+                    background = activeBackground;
                     break;
                 case "Completed":
-                    drawableId = R.drawable.status_completed_background;
+                    background = completedBackground;
                     break;
                 case "Cancelled":
-                    drawableId = R.drawable.status_cancelled_background;
+                    background = cancelledBackground;
                     break;
                 default:
-                    drawableId = R.drawable.details_card_background; // A default background
+                    background = defaultBackground; // A default background
                     break;
             }
-            spinnerStatus.setBackground(ContextCompat.getDrawable(context, drawableId));
+            if (spinnerStatus.getBackground() != background) {
+                spinnerStatus.setBackground(background);
+            }
         }
     }
 
@@ -0,0 +1,73 @@
+package com.example.yogaAdmin.adapter;
+
+import android.content.Context;
+import android.widget.ArrayAdapter;
+import android.widget.Filter;
+
+import androidx.annotation.NonNull;
+
+import com.example.yogaAdmin.repository.InstructorDirectory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Adapter for an {@link android.widget.AutoCompleteTextView} suggesting instructor names.
+ * Suggestions come from the in-memory {@link InstructorDirectory}, ranked by how often each name
+ * is used, and are looked up on the filter's worker thread.
+ */
+public class InstructorSuggestionAdapter extends ArrayAdapter<String> {
+
+    // Maximum number of suggestions shown in the dropdown.
+    private static final int MAX_SUGGESTIONS = 8;
+
+    // The directory the suggestions are looked up in.
+    private final InstructorDirectory directory;
+    // Filter that replaces the adapter's items with the suggestions for the typed text.
+    private final Filter filter = new Filter() {
+        @Override
+        protected FilterResults performFiltering(CharSequence constraint) {
+            List<String> suggestions = constraint != null
+                    ? directory.suggest(constraint.toString(), MAX_SUGGESTIONS)
+                    : Collections.emptyList();
+            FilterResults results = new FilterResults();
+            results.values = suggestions;
+            results.count = suggestions.size();
+            return results;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected void publishResults(CharSequence constraint, FilterResults results) {
+            setNotifyOnChange(false);
+            clear();
+            if (results.values != null) {
+                addAll((List<String>) results.values);
+            }
+            notifyDataSetChanged();
+        }
+    };
+
+    /**
+     * Constructor for the adapter.
+     *
+     * @param context The context used to inflate the dropdown rows.
+     * @param directory The directory the suggestions are looked up in.
+     */
+    public InstructorSuggestionAdapter(@NonNull Context context, @NonNull InstructorDirectory directory) {
+        super(context, android.R.layout.simple_dropdown_item_1line, new ArrayList<>());
+        this.directory = directory;
+    }
+
+    /**
+     * Returns the filter that looks suggestions up in the directory.
+     *
+     * @return The suggestion filter.
+     */
+    @NonNull
+    @Override
+    public Filter getFilter() {
+        return filter;
+    }
+}
@@ -5,6 +5,7 @@ import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.graphics.Typeface;
+import android.graphics.drawable.Drawable;
 import android.view.Gravity;
 import android.widget.AdapterView;
 import android.widget.ArrayAdapter;
@@ -20,22 +21,52 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.example.yogaAdmin.R;
 import com.example.yogaAdmin.models.YogaClass;
 import com.example.yogaAdmin.models.YogaCourse;
+import com.example.yogaAdmin.repository.BookingCountAggregator;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 
 /**
  * RecyclerView adapter for displaying a list of {@link YogaClass} objects.
  * It uses a {@link ListAdapter} with {@link DiffUtil} for efficient list updates.
  * This adapter also handles user actions like editing, deleting, and updating the status of a class.
  */
-public class YogaClassAdapter extends ListAdapter<YogaClass, YogaClassAdapter.YogaClassHolder> {
+public class YogaClassAdapter extends ListAdapter<YogaClass, YogaClassAdapter.YogaClassHolder>
+        implements BookingCountAggregator.OnBookingCountChangedListener {
+
+    // Payload used to rebind only the booking count of a row.
+    private static final Object PAYLOAD_BOOKING_COUNT = new Object();
+    // Payload used to rebind only the course-derived text of a row.
+    private static final Object PAYLOAD_COURSE = new Object();
 
     // Listener for actions performed on a class item (edit, delete, status update).
     private final OnClassActionListener actionListener;
     // Listener for clicks on the entire class item.
     private OnItemClickListener listener;
-    // The course associated with the list of classes, used for displaying shared details.
-    private YogaCourse yogaCourse;
+    // Course type, time and price shared by every row, or null until the course is loaded.
+    private String courseInfoText;
+    // Day of the week of the course, shown on every row.
+    private String courseDayOfWeek;
+    // Source of the live booking counts, set while the list is visible.
+    private BookingCountAggregator bookingCountAggregator;
+    // Adapter positions keyed by the Firebase key of the class, rebuilt whenever the list changes.
+    private final Map<String, Integer> positionsByKey = new HashMap<>();
+    // Status spinner adapter shared by every row, created along with the first row.
+    private ArrayAdapter<String> statusAdapter;
+    // Positions of the statuses in the spinner, keyed by status.
+    private final Map<String, Integer> statusPositions = new HashMap<>();
+    // Instructor and created date labels by position, built the first time their row is bound
+    // after a list is committed, so rebinding a row does not allocate and rows never shown are
+    // never formatted.
+    private String[] instructorLabels = new String[0];
+    private String[] createdDateLabels = new String[0];
+    // Capacity labels by position, cleared when the booking count of their class changes and
+    // rebuilt when the row is next bound.
+    private String[] capacityLabels = new String[0];
 
     /**
      * Constructor for the adapter.
@@ -50,12 +81,137 @@ public class YogaClassAdapter extends ListAdapter<YogaClass, YogaClassAdapter.Yo
     /**
      * Sets the {@link YogaCourse} for the classes being displayed.
      * This is used to show details like the course type, time, and price on each class item.
+     * The text is formatted once per course, and only the course-derived text of each row is
+     * rebound, and only if the text has changed.
      *
      * @param yogaCourse The course to associate with the classes.
      */
     public void setYogaCourse(YogaCourse yogaCourse) {
-        this.yogaCourse = yogaCourse;
-        notifyDataSetChanged(); // Redraw the list to show the new course info.
+        String info = String.format(Locale.UK, "%s • %s • %s", yogaCourse.getClassType(), yogaCourse.getTime(), yogaCourse.getFormattedPrice());
+        if (info.equals(courseInfoText) && Objects.equals(yogaCourse.getDayOfWeek(), courseDayOfWeek)) {
+            return;
+        }
+        courseInfoText = info;
+        courseDayOfWeek = yogaCourse.getDayOfWeek();
+        notifyItemRangeChanged(0, getItemCount(), PAYLOAD_COURSE);
+    }
+
+    /**
+     * Starts showing live booking counts, registering this adapter for row-level count updates.
+     * Should be paired with {@link #detachBookingCounts()}, e.g. in onStart and onStop.
+     *
+     * @param aggregator The aggregator providing the booking counts.
+     */
+    public void attachBookingCounts(BookingCountAggregator aggregator) {
+        bookingCountAggregator = aggregator;
+        aggregator.addListener(this);
+        // Counts kept by the aggregator may have changed while this adapter was not registered.
+        onBookingCountsReset();
+    }
+
+    /**
+     * Stops receiving booking count updates.
+     */
+    public void detachBookingCounts() {
+        if (bookingCountAggregator != null) {
+            bookingCountAggregator.removeListener(this);
+        }
+    }
+
+    /**
+     * Rebinds the booking count of the row showing the given class, if it is in the list.
+     *
+     * @param classKey The Firebase key of the class.
+     * @param count The new number of bookings.
+     */
+    @Override
+    public void onBookingCountChanged(String classKey, int count) {
+        Integer position = positionsByKey.get(classKey);
+        if (position != null) {
+            capacityLabels[position] = null;
+            notifyItemChanged(position, PAYLOAD_BOOKING_COUNT);
+        }
+    }
+
+    /**
+     * Rebinds the booking count of every row.
+     * Only the rows that are bound again format their capacity.
+     */
+    @Override
+    public void onBookingCountsReset() {
+        Arrays.fill(capacityLabels, null);
+        notifyItemRangeChanged(0, getItemCount(), PAYLOAD_BOOKING_COUNT);
+    }
+
+    /**
+     * Rebuilds the lookup of positions by class key and clears the labels of the rows after a new
+     * list has been committed.
+     *
+     * @param previousList The previously displayed list.
+     * @param currentList The newly displayed list.
+     */
+    @Override
+    public void onCurrentListChanged(@NonNull List<YogaClass> previousList, @NonNull List<YogaClass> currentList) {
+        positionsByKey.clear();
+        instructorLabels = new String[currentList.size()];
+        createdDateLabels = new String[currentList.size()];
+        capacityLabels = new String[currentList.size()];
+        for (int i = 0; i < currentList.size(); i++) {
+            String firebaseKey = currentList.get(i).getFirebaseKey();
+            if (firebaseKey != null) {
+                positionsByKey.put(firebaseKey, i);
+            }
+        }
+    }
+
+    /**
+     * Returns the instructor label of the row at a position, building it on first use.
+     */
+    private String instructorLabel(int position) {
+        if (instructorLabels[position] == null) {
+            instructorLabels[position] = "With " + getItem(position).getAssignedInstructor();
+        }
+        return instructorLabels[position];
+    }
+
+    /**
+     * Returns the created date label of the row at a position, building it on first use.
+     */
+    private String createdDateLabel(int position) {
+        if (createdDateLabels[position] == null) {
+            createdDateLabels[position] = getItem(position).getFormattedCreatedDate();
+        }
+        return createdDateLabels[position];
+    }
+
+    /**
+     * Returns the capacity label of the row at a position, building it on first use.
+     */
+    private String capacityLabel(int position) {
+        if (capacityLabels[position] == null) {
+            capacityLabels[position] = capacityLabel(getItem(position));
+        }
+        return capacityLabels[position];
+    }
+
+    /**
+     * Formats the capacity of a class with its current booking count.
+     */
+    private String capacityLabel(YogaClass yogaClass) {
+        int booked = bookingCountAggregator != null
+                ? bookingCountAggregator.getBookingCount(yogaClass.getFirebaseKey())
+                : BookingCountAggregator.UNKNOWN;
+        return capacityLabel(yogaClass, booked);
+    }
+
+    /**
+     * Formats the capacity of a class with a booking count, or alone if the count is unknown.
+     */
+    private static String capacityLabel(YogaClass yogaClass, int booked) {
+        if (booked == BookingCountAggregator.UNKNOWN) {
+            return yogaClass.getActualCapacity() + " spots";
+        }
+        return booked + "/" + yogaClass.getActualCapacity() + " booked";
     }
 
     /**
@@ -71,11 +227,8 @@ public class YogaClassAdapter extends ListAdapter<YogaClass, YogaClassAdapter.Yo
 
         @Override
         public boolean areContentsTheSame(@NonNull YogaClass oldItem, @NonNull YogaClass newItem) {
-            // Contents are the same if these specific fields match.
-            return oldItem.getDate().equals(newItem.getDate()) &&
-                    oldItem.getStatus().equals(newItem.getStatus()) &&
-                    oldItem.getAssignedInstructor().equals(newItem.getAssignedInstructor()) &&
-                    oldItem.getCreatedDate() == newItem.getCreatedDate();
+            // Contents are the same if every persisted field matches.
+            return oldItem.equals(newItem);
         }
     };
 
@@ -89,6 +242,9 @@ public class YogaClassAdapter extends ListAdapter<YogaClass, YogaClassAdapter.Yo
     @NonNull
     @Override
     public YogaClassHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        if (statusAdapter == null) {
+            statusAdapter = createStatusAdapter(parent.getContext());
+        }
         View itemView = LayoutInflater.from(parent.getContext())
                 .inflate(R.layout.item_yoga_class, parent, false);
         return new YogaClassHolder(itemView);
@@ -103,7 +259,71 @@ public class YogaClassAdapter extends ListAdapter<YogaClass, YogaClassAdapter.Yo
     @Override
     public void onBindViewHolder(@NonNull YogaClassHolder holder, int position) {
         YogaClass currentClass = getItem(position);
-        holder.bind(currentClass, yogaCourse, actionListener);
+        holder.bind(currentClass, position);
+    }
+
+    /**
+     * Creates the status spinner adapter shared by every row, styling the selected item
+     * and the drop-down items, and indexes the position of each status.
+     *
+     * @param context The context used to load the statuses and style the items.
+     * @return The shared status adapter.
+     */
+    private ArrayAdapter<String> createStatusAdapter(Context context) {
+        String[] statuses = context.getResources().getStringArray(R.array.class_status_array);
+        for (int i = 0; i < statuses.length; i++) {
+            statusPositions.put(statuses[i], i);
+        }
+        int white = ContextCompat.getColor(context, android.R.color.white);
+        // Custom ArrayAdapter to style the spinner's appearance.
+        ArrayAdapter<String> adapter = new ArrayAdapter<String>(context, android.R.layout.simple_spinner_item, statuses) {
+            @NonNull
+            @Override
+            public View getView(int position, View convertView, @NonNull ViewGroup parent) {
+                View view = super.getView(position, convertView, parent);
+                TextView textView = (TextView) view;
+                textView.setTextColor(white);
+                textView.setTypeface(null, Typeface.BOLD);
+                textView.setGravity(Gravity.CENTER);
+                return view;
+            }
+
+            @Override
+            public View getDropDownView(int position, View convertView, @NonNull ViewGroup parent) {
+                View view = super.getDropDownView(position, convertView, parent);
+                TextView textView = (TextView) view;
+                textView.setPadding(32, 32, 32, 32);
+                textView.setGravity(Gravity.CENTER_VERTICAL);
+                return view;
+            }
+        };
+        adapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+        return adapter;
+    }
+
+    /**
+     * Called by RecyclerView to display the data at the specified position, with payloads
+     * describing which part of the row changed. Only the booking count is rebound for a
+     * booking count payload and only the course text for a course payload, otherwise the whole
+     * row is bound.
+     *
+     * @param holder The ViewHolder which should be updated.
+     * @param position The position of the item within the adapter's data set.
+     * @param payloads The payloads of the pending partial updates, or an empty list for a full bind.
+     */
+    @Override
+    public void onBindViewHolder(@NonNull YogaClassHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+        for (Object payload : payloads) {
+            if (payload == PAYLOAD_BOOKING_COUNT) {
+                holder.bindCapacity(position);
+            } else if (payload == PAYLOAD_COURSE) {
+                holder.bindCourse();
+            }
+        }
     }
 
     /**
@@ -124,11 +344,14 @@ public class YogaClassAdapter extends ListAdapter<YogaClass, YogaClassAdapter.Yo
         private final TextView tvClassDate, tvClassDayOfWeek, tvAssignedInstructor, tvCourseInfo, tvCapacity, tvComments, tvCreatedDate;
         private final Spinner spinnerStatus;
         private final View btnEdit, btnDelete;
-        private final Context context;
+        // Status backgrounds, resolved once per row.
+        private final Drawable activeBackground, completedBackground, cancelledBackground;
+        // The class currently bound to this row.
+        private YogaClass boundClass;
 
         public YogaClassHolder(View itemView) {
             super(itemView);
-            context = itemView.getContext();
+            Context context = itemView.getContext();
             // Initialize all views from the item layout.
             tvClassDate = itemView.findViewById(R.id.tv_class_date);
             tvClassDayOfWeek = itemView.findViewById(R.id.tv_class_day_of_week);
@@ -140,6 +363,46 @@ public class YogaClassAdapter extends ListAdapter<YogaClass, YogaClassAdapter.Yo
             spinnerStatus = itemView.findViewById(R.id.spinner_status);
             btnEdit = itemView.findViewById(R.id.btn_edit);
             btnDelete = itemView.findViewById(R.id.btn_delete);
+            activeBackground = ContextCompat.getDrawable(context, R.drawable.status_active_background);
+            completedBackground = ContextCompat.getDrawable(context, R.drawable.status_completed_background);
+            cancelledBackground = ContextCompat.getDrawable(context, R.drawable.status_cancelled_background);
+            spinnerStatus.setAdapter(statusAdapter);
+            int white = ContextCompat.getColor(context, android.R.color.white);
+
+            spinnerStatus.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
+                @Override
+                public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
+                    String newStatus = statusAdapter.getItem(position);
+                    updateSpinnerBackground(newStatus);
+
+                    // Style the selected item's text view.
+                    if (view instanceof TextView) {
+                        ((TextView) view).setTextColor(white);
+                        ((TextView) view).setTypeface(null, Typeface.BOLD);
+                        ((TextView) view).setGravity(Gravity.CENTER);
+                    }
+
+                    // Notify the listener only if the status has actually changed.
+                    if (boundClass != null && !newStatus.equals(boundClass.getStatus())) {
+                        actionListener.onUpdateStatus(boundClass, newStatus);
+                    }
+                }
+
+                @Override
+                public void onNothingSelected(AdapterView<?> parent) {}
+            });
+
+            // Set click listeners for the edit and delete buttons.
+            btnEdit.setOnClickListener(v -> {
+                if (boundClass != null) {
+                    actionListener.onEditClass(boundClass);
+                }
+            });
+            btnDelete.setOnClickListener(v -> {
+                if (boundClass != null) {
+                    actionListener.onDeleteClass(boundClass);
+                }
+            });
 
             // Set a click listener for the entire item view.
             itemView.setOnClickListener(v -> {
@@ -151,24 +414,19 @@ public class YogaClassAdapter extends ListAdapter<YogaClass, YogaClassAdapter.Yo
         }
 
         /**
-         * Binds the data from a {@link YogaClass} and its {@link YogaCourse} to the views.
+         * Binds the data from a {@link YogaClass} and the labels and course text of the adapter
+         * to the views.
          *
          * @param yogaClass The class data to bind.
-         * @param yogaCourse The associated course data.
-         * @param actionListener The listener for actions.
+         * @param position The position of the class in the list.
          */
-        public void bind(YogaClass yogaClass, YogaCourse yogaCourse, OnClassActionListener actionListener) {
+        public void bind(YogaClass yogaClass, int position) {
+            boundClass = yogaClass;
             tvClassDate.setText(yogaClass.getDate());
-            tvAssignedInstructor.setText("With " + yogaClass.getAssignedInstructor());
-            if (yogaCourse != null) {
-                // Display combined course information if available.
-                tvCourseInfo.setText(String.format(Locale.UK, "%s • %s • %s", yogaCourse.getClassType(), yogaCourse.getTime(), yogaCourse.getFormattedPrice()));
-                tvClassDayOfWeek.setText(yogaCourse.getDayOfWeek());
-            } else {
-                tvCourseInfo.setText("Course Info Placeholder"); // Placeholder text if course data is not yet loaded.
-            }
-            tvCapacity.setText(yogaClass.getActualCapacity() + " spots");
-            tvCreatedDate.setText(yogaClass.getFormattedCreatedDate());
+            tvAssignedInstructor.setText(instructorLabel(position));
+            bindCourse();
+            bindCapacity(position);
+            tvCreatedDate.setText(createdDateLabel(position));
 
             // Show or hide the comments view based on content.
             if (yogaClass.getAdditionalComments() != null && !yogaClass.getAdditionalComments().isEmpty()) {
@@ -178,76 +436,35 @@ public class YogaClassAdapter extends ListAdapter<YogaClass, YogaClassAdapter.Yo
                 tvComments.setVisibility(View.GONE);
             }
 
-            // Setup the status spinner.
-            setupStatusSpinner(yogaClass, actionListener);
-
-            // Set click listeners for the edit and delete buttons.
-            btnEdit.setOnClickListener(v -> actionListener.onEditClass(yogaClass));
-            btnDelete.setOnClickListener(v -> actionListener.onDeleteClass(yogaClass));
+            // Select the class's current status without notifying the listener of a change.
+            String currentStatus = yogaClass.getStatus();
+            Integer spinnerPosition = currentStatus != null ? statusPositions.get(currentStatus) : null;
+            if (spinnerPosition != null) {
+                spinnerStatus.setSelection(spinnerPosition, false);
+                updateSpinnerBackground(currentStatus);
+            }
         }
 
         /**
-         * Sets up the status spinner with a custom adapter, initial selection, and listener.
-         *
-         * @param yogaClass The class data for this item.
-         * @param actionListener The listener to notify of status changes.
+         * Binds the course information shared by every row.
          */
-        private void setupStatusSpinner(YogaClass yogaClass, OnClassActionListener actionListener) {
-            // Custom ArrayAdapter to style the spinner's appearance.
-            final ArrayAdapter<CharSequence> adapter = new ArrayAdapter<CharSequence>(context, android.R.layout.simple_spinner_item, context.getResources().getTextArray(R.array.class_status_array)) {
-                @Override
-                public View getView(int position, View convertView, ViewGroup parent) {
-                    View view = super.getView(position, convertView, parent);
-                    TextView textView = (TextView) view;
-                    textView.setTextColor(ContextCompat.getColor(context, android.R.color.white));
-                    textView.setTypeface(null, Typeface.BOLD);
-                    textView.setGravity(Gravity.CENTER);
-                    return view;
-                }
-
-                @Override
-                public View getDropDownView(int position, View convertView, ViewGroup parent) {
-                    View view = super.getDropDownView(position, convertView, parent);
-                    TextView textView = (TextView) view;
-                    textView.setPadding(32, 32, 32, 32);
-                    textView.setGravity(Gravity.CENTER_VERTICAL);
-                    return view;
-                }
-            };
-
-            adapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
-            spinnerStatus.setAdapter(adapter);
-
-            // Set the initial selection based on the class's current status.
-            String currentStatus = yogaClass.getStatus();
-            if (currentStatus != null) {
-                int spinnerPosition = adapter.getPosition(currentStatus);
-                spinnerStatus.setSelection(spinnerPosition);
-                updateSpinnerBackground(currentStatus);
+        void bindCourse() {
+            if (courseInfoText != null) {
+                // Display combined course information if available.
+                tvCourseInfo.setText(courseInfoText);
+                tvClassDayOfWeek.setText(courseDayOfWeek);
+            } else {
+                tvCourseInfo.setText("Course Info Placeholder"); // Placeholder text if course data is not yet loaded.
             }
+        }
 
-            spinnerStatus.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
-                @Override
-                public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
-                    String newStatus = (String) parent.getItemAtPosition(position);
-                    updateSpinnerBackground(newStatus);
-
-                    // Style the selected item's text view.
-                    if (view instanceof TextView) {
-                        ((TextView) view).setTextColor(ContextCompat.getColor(context, android.R.color.white));
-                        ((TextView) view).setTypeface(null, Typeface.BOLD);
-                        ((TextView) view).setGravity(Gravity.CENTER);
-                    }
-
-                    // Notify the listener only if the status has actually changed.
-                    if (!newStatus.equals(yogaClass.getStatus())) {
-                        actionListener.onUpdateStatus(yogaClass, newStatus);
-                    }
-                }
-
-                @Override
-                public void onNothingSelected(AdapterView<?> parent) {}
-            });
+        /**
+         * Binds the capacity of the class, along with its live booking count once known.
+         *
+         * @param position The position of the class in the list.
+         */
+        void bindCapacity(int position) {
+            tvCapacity.setText(capacityLabel(position));
         }
 
         /**
@@ -256,19 +473,21 @@ public class YogaClassAdapter extends ListAdapter<YogaClass, YogaClassAdapter.Yo
          * @param status The current status string.
          */
         private void updateSpinnerBackground(String status) {
-            int backgroundRes;
+            Drawable background;
             switch (status) {
                 case "Completed":
-                    backgroundRes = R.drawable.status_completed_background;
+                    background = completedBackground;
                     break;
                 case "Cancelled":
-                    backgroundRes = R.drawable.status_cancelled_background;
+                    background = cancelledBackground;
                     break;
                 default: // "Active"
-                    backgroundRes = R.drawable.status_active_background;
+                    background = activeBackground;
                     break;
             }
-            spinnerStatus.setBackground(ContextCompat.getDrawable(context, backgroundRes));
+            if (spinnerStatus.getBackground() != background) {
+                spinnerStatus.setBackground(background);
+            }
         }
     }
 
@@ -0,0 +1,128 @@
+package com.example.yogaAdmin.dao;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import com.example.yogaAdmin.models.Booking;
+
+import java.util.List;
+
+/**
+ * Data Access Object (DAO) for the {@link Booking} entity.
+ * The 'bookings' table is a local cache of the bookings stored in Firebase,
+ * so this interface only offers the upserts and deletes needed by the sync
+ * alongside the indexed queries used by the UI.
+ */
+@Dao
+public interface BookingDao {
+
+    /**
+     * Maximum number of keys bound by a single IN clause, well under SQLite's limit of 999
+     * bound parameters on older Android versions.
+     */
+    int MAX_KEYS_PER_STATEMENT = 500;
+
+    /**
+     * Inserts a booking into the database. If the booking already exists, it replaces it.
+     * @param booking The booking to insert.
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insert(Booking booking);
+
+    /**
+     * Inserts bookings into the database in a single transaction, replacing existing ones.
+     * @param bookings The bookings to insert.
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertAll(List<Booking> bookings);
+
+    /**
+     * Deletes a booking by its ID.
+     * @param bookingId The ID of the booking to delete.
+     */
+    @Query("DELETE FROM bookings WHERE id = :bookingId")
+    void deleteById(String bookingId);
+
+    /**
+     * Deletes the bookings with the given IDs.
+     * @param bookingIds The IDs of the bookings to delete.
+     */
+    @Query("DELETE FROM bookings WHERE id IN (:bookingIds)")
+    void deleteByIds(List<String> bookingIds);
+
+    /**
+     * Deletes all bookings of the given classes in one transaction.
+     * The keys are bound in chunks of {@link #MAX_KEYS_PER_STATEMENT}, since SQLite before
+     * Android 11 allows at most 999 bound parameters per statement.
+     * @param classIds The Firebase keys of the classes.
+     */
+    @Transaction
+    default void deleteForClasses(List<String> classIds) {
+        for (int from = 0; from < classIds.size(); from += MAX_KEYS_PER_STATEMENT) {
+            deleteForClassChunk(classIds.subList(from, Math.min(from + MAX_KEYS_PER_STATEMENT, classIds.size())));
+        }
+    }
+
+    /**
+     * Deletes all bookings of at most {@link #MAX_KEYS_PER_STATEMENT} classes.
+     * Use {@link #deleteForClasses(List)}, which accepts any number of classes.
+     * @param classIds The Firebase keys of the classes.
+     */
+    @Query("DELETE FROM bookings WHERE classId IN (:classIds)")
+    void deleteForClassChunk(List<String> classIds);
+
+    /**
+     * Deletes all bookings from the database.
+     */
+    @Query("DELETE FROM bookings")
+    void deleteAllBookings();
+
+    /**
+     * Retrieves the IDs of all cached bookings for a class synchronously.
+     * This should be called from a background thread.
+     * @param classId The Firebase key of the class.
+     * @return A list of booking IDs.
+     */
+    @Query("SELECT id FROM bookings WHERE classId = :classId")
+    List<String> getBookingIdsForClass(String classId);
+
+    /**
+     * Retrieves all bookings for a class, oldest booking first.
+     * @param classId The Firebase key of the class.
+     * @return A LiveData list of bookings for the given class.
+     */
+    @Query("SELECT * FROM bookings WHERE classId = :classId ORDER BY bookingDate ASC")
+    LiveData<List<Booking>> getBookingsForClass(String classId);
+
+    /**
+     * Retrieves the first bookings for a class in the order of their Firebase keys,
+     * which is the order in which {@code BookingPagingSource} loads them.
+     * @param classId The Firebase key of the class.
+     * @param limit The maximum number of bookings to return, or -1 for no limit.
+     * @return A LiveData list of bookings for the given class.
+     */
+    @Query("SELECT * FROM bookings WHERE classId = :classId ORDER BY userId ASC LIMIT :limit")
+    LiveData<List<Booking>> getBookingsForClassPaged(String classId, int limit);
+
+    /**
+     * Retrieves all bookings made by a user, most recent booking first.
+     * @param userId The ID of the user.
+     * @return A LiveData list of bookings for the given user.
+     */
+    @Query("SELECT * FROM bookings WHERE userId = :userId ORDER BY bookingDate DESC")
+    LiveData<List<Booking>> getBookingsForUser(String userId);
+
+    /**
+     * Retrieves all bookings made within a time range.
+     * Booking dates are ISO 8601 strings, which sort in chronological order.
+     * @param from The inclusive start of the range, as an ISO 8601 string.
+     * @param to The exclusive end of the range, as an ISO 8601 string.
+     * @return A LiveData list of bookings made within the range, oldest first.
+     */
+    @Query("SELECT * FROM bookings WHERE bookingDate >= :from AND bookingDate < :to ORDER BY bookingDate ASC")
+    LiveData<List<Booking>> getBookingsBetween(String from, String to);
+}
@@ -10,6 +10,8 @@ import androidx.room.Transaction;
 import androidx.room.Update;
 
 import com.example.yogaAdmin.models.ClassWithCourseInfo;
+import com.example.yogaAdmin.models.InstructorAssignment;
+import com.example.yogaAdmin.models.InstructorName;
 import com.example.yogaAdmin.models.YogaClass;
 
 import java.util.List;
@@ -22,6 +24,18 @@ import java.util.List;
 @Dao
 public interface YogaClassDao {
 
+    // SQL of the queries whose plans and latency are checked by the Room performance tests.
+    String CLASSES_FOR_COURSE_QUERY = "SELECT * FROM yoga_classes WHERE courseId = :courseId "
+            + "ORDER BY SUBSTR(date, 7, 4) ASC, SUBSTR(date, 4, 2) ASC, SUBSTR(date, 1, 2) ASC";
+    String CLASS_BY_FIREBASE_KEY_QUERY = "SELECT * FROM yoga_classes WHERE firebaseKey = :firebaseKey";
+    String ALL_CLASSES_QUERY = "SELECT * FROM yoga_classes ORDER BY date DESC";
+    String CLASSES_ON_DATE_QUERY = "SELECT * FROM yoga_classes WHERE date = :date";
+    String SEARCH_QUERY = "SELECT * FROM yoga_classes "
+            + "WHERE (:instructorName IS NULL OR assignedInstructor LIKE :instructorName) "
+            + "AND (:date IS NULL OR date = :date) "
+            + "AND (:dayOfWeek IS NULL OR courseId IN (SELECT id FROM yoga_courses WHERE dayOfWeek LIKE :dayOfWeek)) "
+            + "ORDER BY SUBSTR(date, 7, 4) ASC, SUBSTR(date, 4, 2) ASC, SUBSTR(date, 1, 2) ASC";
+
     /**
      * Inserts a yoga class into the database. If the class already exists, it replaces it.
      * @param yogaClass The yoga class to insert.
@@ -30,6 +44,13 @@ public interface YogaClassDao {
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     long insert(YogaClass yogaClass);
 
+    /**
+     * Inserts yoga classes into the database in a single transaction, replacing existing ones.
+     * @param yogaClasses The yoga classes to insert.
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertAll(List<YogaClass> yogaClasses);
+
     /**
      * Updates an existing yoga class in the database.
      * @param yogaClass The yoga class with updated information.
@@ -56,7 +77,7 @@ public interface YogaClassDao {
      * @param courseId The ID of the course.
      * @return A LiveData list of yoga classes for the given course.
      */
-    @Query("SELECT * FROM yoga_classes WHERE courseId = :courseId ORDER BY SUBSTR(date, 7, 4) ASC, SUBSTR(date, 4, 2) ASC, SUBSTR(date, 1, 2) ASC")
+    @Query(CLASSES_FOR_COURSE_QUERY)
     LiveData<List<YogaClass>> getClassesForCourse(long courseId);
 
     /**
@@ -81,7 +102,7 @@ public interface YogaClassDao {
      * @param firebaseKey The Firebase key of the class.
      * @return The yoga class with the matching Firebase key.
      */
-    @Query("SELECT * FROM yoga_classes WHERE firebaseKey = :firebaseKey")
+    @Query(CLASS_BY_FIREBASE_KEY_QUERY)
     YogaClass getClassByFirebaseKey(String firebaseKey);
 
     /**
@@ -104,7 +125,7 @@ public interface YogaClassDao {
      * Retrieves all yoga classes from the database, ordered by date descending.
      * @return A LiveData list of all yoga classes.
      */
-    @Query("SELECT * FROM yoga_classes ORDER BY date DESC")
+    @Query(ALL_CLASSES_QUERY)
     LiveData<List<YogaClass>> getAllClasses();
 
     /**
@@ -114,6 +135,23 @@ public interface YogaClassDao {
     @Query("SELECT * FROM yoga_classes")
     List<YogaClass> getClassList();
 
+    /**
+     * Retrieves the assigned instructor of every class, without loading the rest of the rows.
+     * @return A LiveData list of class IDs and instructor names.
+     */
+    @Query("SELECT id, assignedInstructor AS name FROM yoga_classes")
+    LiveData<List<InstructorName>> getInstructorNames();
+
+    /**
+     * Retrieves when the instructor of every class is busy, joined with the class type, start time
+     * and duration of its course, without loading the rest of the rows.
+     * @return A LiveData list of instructor assignments.
+     */
+    @Query("SELECT c.id AS classId, c.assignedInstructor AS assignedInstructor, c.date AS date, c.status AS status, " +
+            "co.classType AS classType, co.time AS time, co.duration AS duration " +
+            "FROM yoga_classes c INNER JOIN yoga_courses co ON co.id = c.courseId")
+    LiveData<List<InstructorAssignment>> getInstructorAssignments();
+
     /**
      * Retrieves all yoga classes with their associated course info.
      * @return A LiveData list of all yoga classes with course info.
@@ -121,6 +159,33 @@ public interface YogaClassDao {
     @Query("SELECT * FROM yoga_classes ORDER BY date DESC")
     LiveData<List<YogaClass>> getAllClassesWithCourseInfo();
 
+    /**
+     * Retrieves all yoga classes with their associated course, ordered by date ascending.
+     * @return A LiveData list of all yoga classes with course info.
+     */
+    @Transaction
+    @Query("SELECT * FROM yoga_classes ORDER BY SUBSTR(date, 7, 4) ASC, SUBSTR(date, 4, 2) ASC, SUBSTR(date, 1, 2) ASC")
+    LiveData<List<ClassWithCourseInfo>> getAllClassesWithCourses();
+
+    /**
+     * Retrieves the classes on any of the given dates with their associated course, synchronously.
+     * This should be called from a background thread.
+     * @param dates The dates, in "dd/MM/yyyy" format.
+     * @return A list of the classes on those dates with course info.
+     */
+    @Transaction
+    @Query("SELECT * FROM yoga_classes WHERE date IN (:dates)")
+    List<ClassWithCourseInfo> getClassesWithCoursesOnDates(List<String> dates);
+
+    /**
+     * Retrieves all yoga classes with their associated course, synchronously.
+     * This should be called from a background thread.
+     * @return A list of all yoga classes with course info.
+     */
+    @Transaction
+    @Query("SELECT * FROM yoga_classes")
+    List<ClassWithCourseInfo> getAllClassesWithCoursesSync();
+
     /**
      * Searches for classes by instructor name.
      * @param instructorName The name of the instructor to search for.
@@ -136,7 +201,7 @@ public interface YogaClassDao {
      * @return A LiveData list of classes with course info matching the search criteria.
      */
     @Transaction
-    @Query("SELECT * FROM yoga_classes WHERE date = :date")
+    @Query(CLASSES_ON_DATE_QUERY)
     LiveData<List<ClassWithCourseInfo>> searchByDate(String date);
 
     /**
@@ -157,10 +222,6 @@ public interface YogaClassDao {
      * @return A LiveData list of classes with course info matching the search criteria.
      */
     @Transaction
-    @Query("SELECT * FROM yoga_classes " +
-            "WHERE (:instructorName IS NULL OR assignedInstructor LIKE :instructorName) " +
-            "AND (:date IS NULL OR date = :date) " +
-            "AND (:dayOfWeek IS NULL OR courseId IN (SELECT id FROM yoga_courses WHERE dayOfWeek LIKE :dayOfWeek))" +
-            "ORDER BY SUBSTR(date, 7, 4) ASC, SUBSTR(date, 4, 2) ASC, SUBSTR(date, 1, 2) ASC")
+    @Query(SEARCH_QUERY)
     LiveData<List<ClassWithCourseInfo>> search(String instructorName, String date, String dayOfWeek);
 }
\ No newline at end of file
@@ -8,6 +8,8 @@ import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
 import androidx.room.Update;
 
+import com.example.yogaAdmin.models.InstructorName;
+import com.example.yogaAdmin.models.RoomBooking;
 import com.example.yogaAdmin.models.YogaCourse;
 
 import java.util.List;
@@ -20,6 +22,9 @@ import java.util.List;
 @Dao
 public interface YogaCourseDao {
 
+    // SQL of the query whose plan is checked by the Room performance tests.
+    String COURSE_BY_FIREBASE_KEY_QUERY = "SELECT * FROM yoga_courses WHERE firebaseKey = :firebaseKey";
+
     /**
      * Inserts a yoga course into the database. If the course already exists, it replaces it.
      * @param yogaCourse The yoga course to insert.
@@ -28,6 +33,13 @@ public interface YogaCourseDao {
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     long insert(YogaCourse yogaCourse);
 
+    /**
+     * Inserts yoga courses into the database in a single transaction, replacing existing ones.
+     * @param yogaCourses The yoga courses to insert.
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertAll(List<YogaCourse> yogaCourses);
+
     /**
      * Updates an existing yoga course in the database.
      * @param yogaCourse The yoga course with updated information.
@@ -64,6 +76,23 @@ public interface YogaCourseDao {
     @Query("SELECT * FROM yoga_courses")
     List<YogaCourse> getCourseList();
 
+    /**
+     * Retrieves the default instructor of every course, without loading the rest of the rows.
+     * @return A LiveData list of course IDs and instructor names.
+     */
+    @Query("SELECT id, instructorName AS name FROM yoga_courses")
+    LiveData<List<InstructorName>> getInstructorNames();
+
+    /**
+     * Retrieves the room, start time and duration of every class, plus one row for each course
+     * without classes, without loading the rest of the rows.
+     * @return A LiveData list of room bookings.
+     */
+    @Query("SELECT co.id AS courseId, co.classType AS classType, co.roomNumber AS roomNumber, " +
+            "co.time AS time, co.duration AS duration, c.id AS classId, c.date AS date, c.status AS status " +
+            "FROM yoga_courses co LEFT JOIN yoga_classes c ON c.courseId = co.id")
+    LiveData<List<RoomBooking>> getRoomBookings();
+
     /**
      * Retrieves a specific yoga course by its ID.
      * @param courseId The ID of the course.
@@ -77,6 +106,6 @@ public interface YogaCourseDao {
      * @param firebaseKey The Firebase key of the course.
      * @return The yoga course with the matching Firebase key.
      */
-    @Query("SELECT * FROM yoga_courses WHERE firebaseKey = :firebaseKey")
+    @Query(COURSE_BY_FIREBASE_KEY_QUERY)
     YogaCourse getCourseByFirebaseKey(String firebaseKey);
 }
@@ -8,23 +8,29 @@ import androidx.room.RoomDatabase;
 
 import androidx.room.migration.Migration;
 import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.framework.FrameworkSQLiteOpenHelperFactory;
 
+import com.example.yogaAdmin.dao.BookingDao;
 import com.example.yogaAdmin.dao.YogaClassDao;
 import com.example.yogaAdmin.dao.YogaCourseDao;
+import com.example.yogaAdmin.metrics.InstrumentedThreadPool;
+import com.example.yogaAdmin.metrics.MetricsRegistry;
+import com.example.yogaAdmin.metrics.SlowQueryLog;
+import com.example.yogaAdmin.models.Booking;
 import com.example.yogaAdmin.models.YogaClass;
 import com.example.yogaAdmin.models.YogaCourse;
 
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * The main database class for the application, built using Room Persistence Library.
  * It defines the database configuration, serves as the main access point to the persisted data,
- * and provides access to the DAOs.
+ * and provides access to the DAOs. Every statement is timed by a {@link QueryTimer}, which keeps
+ * the slow ones in the {@link SlowQueryLog}.
  *
- * @version 10
+ * @version 12
  */
-@Database(entities = {YogaCourse.class, YogaClass.class}, version = 10, exportSchema = false)
+@Database(entities = {YogaCourse.class, YogaClass.class, Booking.class}, version = 12, exportSchema = false)
 public abstract class AppDatabase extends RoomDatabase {
 
     /**
@@ -39,13 +45,24 @@ public abstract class AppDatabase extends RoomDatabase {
      */
     public abstract YogaClassDao yogaClassDao();
 
+    /**
+     * Provides access to the {@link BookingDao}.
+     * @return The Data Access Object for the local booking cache.
+     */
+    public abstract BookingDao bookingDao();
+
     // Singleton instance of the AppDatabase to prevent having multiple instances of the database opened at the same time.
     private static volatile AppDatabase INSTANCE;
     // Number of threads for the database write executor.
     private static final int NUMBER_OF_THREADS = 4;
     // Executor service to run database operations asynchronously on a background thread.
+    // Its queue and task times are reported as the executor.db metrics.
     public static final ExecutorService databaseWriteExecutor =
-            Executors.newFixedThreadPool(NUMBER_OF_THREADS);
+            new InstrumentedThreadPool("db", NUMBER_OF_THREADS, MetricsRegistry.getInstance());
+    // Single thread applying the changes received from Firebase, so each change is written after
+    // the ones received before it. Reported as the executor.sync metrics.
+    public static final ExecutorService syncExecutor =
+            new InstrumentedThreadPool("sync", 1, MetricsRegistry.getInstance());
 
     /**
      * A sample migration object. Although fallbackToDestructiveMigration is used,
@@ -72,11 +89,19 @@ public abstract class AppDatabase extends RoomDatabase {
         if (INSTANCE == null) {
             synchronized (AppDatabase.class) {
                 if (INSTANCE == null) {
+                    // Times every statement and logs the slow ones with their query plan.
+                    QueryTimer queryTimer = new QueryTimer(MetricsRegistry.getInstance(), SlowQueryLog.getInstance());
                     // Create the Room database instance.
                     INSTANCE = Room.databaseBuilder(context.getApplicationContext(),
                                     AppDatabase.class, "yoga_database")
                             // Wipes and rebuilds the database instead of migrating if no Migration object is provided.
                             .fallbackToDestructiveMigration()
+                            // Runs the LiveData queries, reported as the executor.room metrics.
+                            .setQueryExecutor(new InstrumentedThreadPool("room", NUMBER_OF_THREADS,
+                                    MetricsRegistry.getInstance()))
+                            .openHelperFactory(queryTimer.wrap(new FrameworkSQLiteOpenHelperFactory()))
+                            // Called on the thread running each statement, so its arguments can be logged with it.
+                            .setQueryCallback(queryTimer::onQuery, Runnable::run)
                             .build();
                 }
             }
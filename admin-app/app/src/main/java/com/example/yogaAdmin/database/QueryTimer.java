@@ -0,0 +1,286 @@
+package com.example.yogaAdmin.database;
+
+import android.database.Cursor;
+import android.util.Log;
+
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.SupportSQLiteOpenHelper;
+import androidx.sqlite.db.SupportSQLiteQuery;
+import androidx.sqlite.db.SupportSQLiteStatement;
+
+import com.example.yogaAdmin.metrics.Histogram;
+import com.example.yogaAdmin.metrics.MetricsRegistry;
+import com.example.yogaAdmin.metrics.SlowQueryLog;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Times every SQL statement run on a Room database and logs the slow ones with their query plan.
+ * It takes two parts, both installed on the database builder: {@link #wrap} wraps the
+ * open helper factory so that each query, statement and {@code execSQL} is timed, and
+ * {@link #onQuery} is the Room query callback, which receives the bind arguments of each statement
+ * just before it runs. The callback must be installed with a direct executor, so it is called on
+ * the thread running the statement.
+ * Durations are recorded in the histograms {@code sql.select}, {@code sql.insert},
+ * {@code sql.update}, {@code sql.delete} and {@code sql.other}. A statement that reaches the
+ * threshold of the {@link SlowQueryLog} is added to it with the output of
+ * {@code EXPLAIN QUERY PLAN}, so a full scan or a temporary sort shows next to its duration.
+ * A query is timed until its cursor has filled its first window, which is when SQLite runs it.
+ */
+public class QueryTimer {
+
+    private static final String TAG = "QueryTimer";
+    // First keyword of a statement, which decides its histogram and whether it has a query plan.
+    private static final Pattern KIND = Pattern.compile("^\\s*(SELECT|WITH|INSERT|REPLACE|UPDATE|DELETE)\\b",
+            Pattern.CASE_INSENSITIVE);
+
+    private final SlowQueryLog slowQueryLog;
+    private final Histogram selectTime;
+    private final Histogram insertTime;
+    private final Histogram updateTime;
+    private final Histogram deleteTime;
+    private final Histogram otherTime;
+    // The statement last reported to the query callback on this thread, with its bind arguments.
+    private final ThreadLocal<ReportedQuery> reportedQuery = new ThreadLocal<>();
+
+    /**
+     * Constructor for a timer.
+     *
+     * @param registry The registry to record durations into.
+     * @param slowQueryLog The log to add slow statements to.
+     */
+    public QueryTimer(MetricsRegistry registry, SlowQueryLog slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+        selectTime = registry.histogram("sql.select");
+        insertTime = registry.histogram("sql.insert");
+        updateTime = registry.histogram("sql.update");
+        deleteTime = registry.histogram("sql.delete");
+        otherTime = registry.histogram("sql.other");
+    }
+
+    /**
+     * Receives a statement and its bind arguments from Room just before the statement runs.
+     *
+     * @param sql The SQL of the statement.
+     * @param bindArgs The arguments bound to it.
+     */
+    public void onQuery(String sql, List<?> bindArgs) {
+        reportedQuery.set(new ReportedQuery(sql, bindArgs));
+    }
+
+    /**
+     * Returns a factory whose open helpers time the statements run on their databases.
+     *
+     * @param factory The factory creating the actual open helpers.
+     * @return The timing factory.
+     */
+    public SupportSQLiteOpenHelper.Factory wrap(SupportSQLiteOpenHelper.Factory factory) {
+        return configuration -> proxy(SupportSQLiteOpenHelper.class,
+                new TimedOpenHelper(factory.create(configuration)));
+    }
+
+    /**
+     * Records the duration of a statement and logs it if it is slow.
+     *
+     * @param database The database it ran on, used to explain it.
+     * @param sql The SQL of the statement.
+     * @param startNanos The time it started, as returned by {@link System#nanoTime()}.
+     */
+    private void finished(SupportSQLiteDatabase database, String sql, long startNanos) {
+        long durationNanos = System.nanoTime() - startNanos;
+        Matcher kind = KIND.matcher(sql);
+        boolean hasPlan = kind.lookingAt();
+        histogramOf(hasPlan ? kind.group(1).toUpperCase(Locale.ROOT) : "").record(durationNanos);
+        if (!slowQueryLog.isSlow(durationNanos)) {
+            return;
+        }
+        ReportedQuery reported = reportedQuery.get();
+        List<?> bindArgs = reported != null && reported.sql.equals(sql)
+                ? reported.bindArgs : Collections.emptyList();
+        List<String> plan = hasPlan ? explain(database, sql, bindArgs) : Collections.emptyList();
+        slowQueryLog.add(sql, bindArgs, durationNanos, plan);
+    }
+
+    /**
+     * Returns the histogram of a kind of statement.
+     */
+    private Histogram histogramOf(String keyword) {
+        switch (keyword) {
+            case "SELECT":
+            case "WITH":
+                return selectTime;
+            case "INSERT":
+            case "REPLACE":
+                return insertTime;
+            case "UPDATE":
+                return updateTime;
+            case "DELETE":
+                return deleteTime;
+            default:
+                return otherTime;
+        }
+    }
+
+    /**
+     * Returns the query plan of a statement, one step per row. Runs on the unwrapped database, so
+     * it is neither timed nor reported to the query callback.
+     */
+    private static List<String> explain(SupportSQLiteDatabase database, String sql, List<?> bindArgs) {
+        List<String> plan = new ArrayList<>();
+        try (Cursor cursor = database.query("EXPLAIN QUERY PLAN " + sql, bindArgs.toArray())) {
+            int detail = cursor.getColumnIndexOrThrow("detail");
+            while (cursor.moveToNext()) {
+                plan.add(cursor.getString(detail));
+            }
+        } catch (RuntimeException e) {
+            Log.w(TAG, "Failed to explain " + sql, e);
+        }
+        return plan;
+    }
+
+    /**
+     * Creates a proxy implementing an interface.
+     */
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    /**
+     * Calls a method on an object, rethrowing what the method throws rather than its reflective wrapper.
+     */
+    private static Object forward(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * A statement reported to the query callback.
+     */
+    private static final class ReportedQuery {
+        final String sql;
+        final List<?> bindArgs;
+
+        ReportedQuery(String sql, List<?> bindArgs) {
+            this.sql = sql;
+            this.bindArgs = bindArgs;
+        }
+    }
+
+    /**
+     * Hands out timing wrappers of the databases of an open helper.
+     */
+    private final class TimedOpenHelper implements InvocationHandler {
+        private final SupportSQLiteOpenHelper helper;
+        // The last database handed out and its wrapper, as the helper returns the same one each time.
+        private SupportSQLiteDatabase database;
+        private SupportSQLiteDatabase timedDatabase;
+
+        TimedOpenHelper(SupportSQLiteOpenHelper helper) {
+            this.helper = helper;
+        }
+
+        @Override
+        public Object invoke(Object self, Method method, Object[] args) throws Throwable {
+            Object result = forward(helper, method, args);
+            if (!(result instanceof SupportSQLiteDatabase)) {
+                return result;
+            }
+            synchronized (this) {
+                if (result != database) {
+                    database = (SupportSQLiteDatabase) result;
+                    timedDatabase = proxy(SupportSQLiteDatabase.class, new TimedDatabase(database));
+                }
+                return timedDatabase;
+            }
+        }
+    }
+
+    /**
+     * Times the queries and {@code execSQL} calls of a database, and wraps its compiled statements.
+     */
+    private final class TimedDatabase implements InvocationHandler {
+        private final SupportSQLiteDatabase database;
+
+        TimedDatabase(SupportSQLiteDatabase database) {
+            this.database = database;
+        }
+
+        @Override
+        public Object invoke(Object self, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "query": {
+                    String sql = args[0] instanceof SupportSQLiteQuery
+                            ? ((SupportSQLiteQuery) args[0]).getSql() : (String) args[0];
+                    long start = System.nanoTime();
+                    Cursor cursor = (Cursor) forward(database, method, args);
+                    try {
+                        // SQLite runs the query when the cursor fills its first window.
+                        cursor.getCount();
+                    } catch (RuntimeException e) {
+                        cursor.close();
+                        throw e;
+                    }
+                    finished(database, sql, start);
+                    return cursor;
+                }
+                case "execSQL": {
+                    long start = System.nanoTime();
+                    forward(database, method, args);
+                    finished(database, (String) args[0], start);
+                    return null;
+                }
+                case "compileStatement": {
+                    SupportSQLiteStatement statement = (SupportSQLiteStatement) forward(database, method, args);
+                    return proxy(SupportSQLiteStatement.class, new TimedStatement(database, (String) args[0], statement));
+                }
+                default:
+                    return forward(database, method, args);
+            }
+        }
+    }
+
+    /**
+     * Times each execution of a compiled statement.
+     */
+    private final class TimedStatement implements InvocationHandler {
+        private final SupportSQLiteDatabase database;
+        private final String sql;
+        private final SupportSQLiteStatement statement;
+
+        TimedStatement(SupportSQLiteDatabase database, String sql, SupportSQLiteStatement statement) {
+            this.database = database;
+            this.sql = sql;
+            this.statement = statement;
+        }
+
+        @Override
+        public Object invoke(Object self, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "execute":
+                case "executeInsert":
+                case "executeUpdateDelete":
+                case "simpleQueryForLong":
+                case "simpleQueryForString": {
+                    long start = System.nanoTime();
+                    Object result = forward(statement, method, args);
+                    finished(database, sql, start);
+                    return result;
+                }
+                default:
+                    return forward(statement, method, args);
+            }
+        }
+    }
+}
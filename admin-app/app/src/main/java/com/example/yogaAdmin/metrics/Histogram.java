@@ -0,0 +1,200 @@
+package com.example.yogaAdmin.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of durations in nanoseconds, with buckets laid out as in HdrHistogram:
+ * every power of two is split into {@value #SUB_BUCKET_COUNT} equal buckets, so any recorded
+ * value is known to within about 6% while the whole range from 1 ns to about 36.6 minutes takes
+ * only {@value #BUCKET_COUNT} counters.
+ * Recording is a single atomic increment and may happen on any thread. Values above the range are
+ * counted in the last bucket.
+ */
+public final class Histogram {
+
+    // Each power of two is split into 2^SUB_BUCKET_BITS buckets.
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    // Highest power of two in the range, 2^40 ns or about 18.3 minutes. Its buckets run up to
+    // MAX_VALUE, 2^41 - 1 ns or about 36.6 minutes.
+    private static final int MAX_EXPONENT = 40;
+    private static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+    private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKET_COUNT;
+
+    // Number of values recorded in each bucket.
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    // Exact sum of the recorded values, for the mean.
+    private final LongAdder sum = new LongAdder();
+
+    /**
+     * Records a duration.
+     *
+     * @param nanos The duration in nanoseconds. Negative values are recorded as zero.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, Math.min(nanos, MAX_VALUE));
+        counts.incrementAndGet(bucketOf(value));
+        sum.add(value);
+    }
+
+    /**
+     * Records the time elapsed since a start time.
+     *
+     * @param startNanos The start time, as returned by {@link System#nanoTime()}.
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Returns the counts recorded so far. Values recorded while the snapshot is being taken may or
+     * may not be included.
+     *
+     * @return The snapshot.
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            copy[i] = counts.get(i);
+        }
+        return new Snapshot(copy, sum.sum());
+    }
+
+    /**
+     * Returns the bucket of a value: values below {@link #SUB_BUCKET_COUNT} have a bucket each,
+     * larger ones are placed by their highest bit and the {@link #SUB_BUCKET_BITS} bits below it.
+     */
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    /**
+     * Returns the lowest value counted in a bucket.
+     */
+    static long lowestValueOf(int bucket) {
+        if (bucket < SUB_BUCKET_COUNT) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+        long subBucket = bucket % SUB_BUCKET_COUNT;
+        return (SUB_BUCKET_COUNT + subBucket) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    /**
+     * Returns the highest value counted in a bucket.
+     */
+    static long highestValueOf(int bucket) {
+        return bucket + 1 < BUCKET_COUNT ? lowestValueOf(bucket + 1) - 1 : MAX_VALUE;
+    }
+
+    /**
+     * The counts of a histogram at one point in time, from which the count, mean and percentiles
+     * are read. Values read from the buckets are the highest value of their bucket, as in
+     * HdrHistogram, so they never understate a latency.
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long sum;
+        private final long count;
+
+        Snapshot(long[] counts, long sum) {
+            this.counts = counts;
+            this.sum = sum;
+            long total = 0;
+            for (long bucketCount : counts) {
+                total += bucketCount;
+            }
+            count = total;
+        }
+
+        /**
+         * Returns the values recorded between an earlier snapshot of the same histogram and this one.
+         *
+         * @param earlier The earlier snapshot.
+         * @return The snapshot of the interval.
+         */
+        public Snapshot since(Snapshot earlier) {
+            long[] difference = new long[counts.length];
+            for (int i = 0; i < counts.length; i++) {
+                difference[i] = counts[i] - earlier.counts[i];
+            }
+            return new Snapshot(difference, sum - earlier.sum);
+        }
+
+        /**
+         * Returns the number of recorded values.
+         *
+         * @return The count.
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Returns the mean of the recorded values.
+         *
+         * @return The mean in nanoseconds, or 0 if nothing was recorded.
+         */
+        public long getMeanNanos() {
+            return count == 0 ? 0 : sum / count;
+        }
+
+        /**
+         * Returns the value below or at which a given percentage of the recorded values lie.
+         *
+         * @param percentile The percentage, from 0 to 100.
+         * @return The value in nanoseconds, or 0 if nothing was recorded.
+         */
+        public long getValueAtPercentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return highestValueOf(i);
+                }
+            }
+            return MAX_VALUE;
+        }
+
+        /**
+         * Returns the largest recorded value.
+         *
+         * @return The value in nanoseconds, or 0 if nothing was recorded.
+         */
+        public long getMaxNanos() {
+            for (int i = counts.length - 1; i >= 0; i--) {
+                if (counts[i] != 0) {
+                    return highestValueOf(i);
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * Writes the count, mean, percentiles and maximum as a JSON object, in microseconds.
+         *
+         * @param out The builder to append to.
+         */
+        void appendJson(StringBuilder out) {
+            out.append("{\"count\":").append(count)
+                    .append(",\"meanUs\":").append(TimeUnit.NANOSECONDS.toMicros(getMeanNanos()))
+                    .append(",\"p50Us\":").append(TimeUnit.NANOSECONDS.toMicros(getValueAtPercentile(50)))
+                    .append(",\"p90Us\":").append(TimeUnit.NANOSECONDS.toMicros(getValueAtPercentile(90)))
+                    .append(",\"p99Us\":").append(TimeUnit.NANOSECONDS.toMicros(getValueAtPercentile(99)))
+                    .append(",\"p999Us\":").append(TimeUnit.NANOSECONDS.toMicros(getValueAtPercentile(99.9)))
+                    .append(",\"maxUs\":").append(TimeUnit.NANOSECONDS.toMicros(getMaxNanos()))
+                    .append('}');
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.yogaAdmin.metrics;
+
+import java.util.Objects;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A fixed-size thread pool that records how long its tasks wait in the queue and how long they
+ * run, in the histograms {@code executor.<name>.wait} and {@code executor.<name>.run}, and reports
+ * its queue length and busy threads in the gauges {@code executor.<name>.queued} and
+ * {@code executor.<name>.active}.
+ */
+public class InstrumentedThreadPool extends ThreadPoolExecutor {
+
+    private final Histogram waitTime;
+    private final Histogram runTime;
+
+    /**
+     * Constructor for a pool with an unbounded queue, like {@code Executors.newFixedThreadPool}.
+     *
+     * @param name The name of the pool in the metrics.
+     * @param threads The number of threads.
+     * @param registry The registry to record into.
+     */
+    public InstrumentedThreadPool(String name, int threads, MetricsRegistry registry) {
+        super(threads, threads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+        waitTime = registry.histogram("executor." + name + ".wait");
+        runTime = registry.histogram("executor." + name + ".run");
+        registry.gauge("executor." + name + ".queued", () -> getQueue().size());
+        registry.gauge("executor." + name + ".active", this::getActiveCount);
+    }
+
+    /**
+     * Queues a task, noting the time so its wait can be measured when it starts.
+     *
+     * @param command The task.
+     */
+    @Override
+    public void execute(Runnable command) {
+        Objects.requireNonNull(command);
+        long queuedAt = System.nanoTime();
+        super.execute(() -> {
+            long start = System.nanoTime();
+            waitTime.record(start - queuedAt);
+            try {
+                command.run();
+            } finally {
+                runTime.recordSince(start);
+            }
+        });
+    }
+}
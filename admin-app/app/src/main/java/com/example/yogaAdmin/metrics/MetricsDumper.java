@@ -0,0 +1,121 @@
+package com.example.yogaAdmin.metrics;
+
+import android.content.Context;
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
+import android.os.Build;
+import android.util.Log;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically appends the metrics of a {@link MetricsRegistry} to a local file, one JSON object
+ * per line, so that runs of different builds can be compared.
+ * Each line holds the counters and histograms of the interval since the previous line, the gauges
+ * at the time of writing, and the app version. The file is {@code files/metrics/metrics.jsonl};
+ * when it grows past {@value #MAX_FILE_BYTES} bytes it is renamed with a {@code .1} suffix,
+ * replacing the previous one, and a new file is started.
+ */
+public class MetricsDumper {
+
+    private static final String TAG = "MetricsDumper";
+    // Time between two dumps.
+    private static final long DUMP_INTERVAL_MINUTES = 5;
+    private static final long MAX_FILE_BYTES = 512 * 1024;
+    private static final String DIRECTORY = "metrics";
+    private static final String FILE_NAME = "metrics.jsonl";
+
+    private final MetricsRegistry registry;
+    private final File file;
+    private final Map<String, String> attributes = new LinkedHashMap<>();
+    // Single thread writing the dumps.
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private ScheduledFuture<?> schedule;
+    // Snapshot written last, which the next interval starts from. Only accessed on the scheduler.
+    private MetricsSnapshot previous;
+
+    /**
+     * Constructor for the dumper.
+     *
+     * @param context The application context.
+     * @param registry The registry to dump.
+     */
+    public MetricsDumper(Context context, MetricsRegistry registry) {
+        this.registry = registry;
+        file = new File(new File(context.getFilesDir(), DIRECTORY), FILE_NAME);
+        try {
+            PackageInfo info = context.getPackageManager().getPackageInfo(context.getPackageName(), 0);
+            attributes.put("version", info.versionName + " (" + info.getLongVersionCode() + ")");
+        } catch (PackageManager.NameNotFoundException e) {
+            attributes.put("version", "unknown");
+        }
+        attributes.put("device", Build.MANUFACTURER + " " + Build.MODEL);
+        previous = registry.snapshot();
+    }
+
+    /**
+     * Starts dumping every {@value #DUMP_INTERVAL_MINUTES} minutes. Does nothing if already started.
+     */
+    public synchronized void start() {
+        if (schedule == null) {
+            schedule = scheduler.scheduleWithFixedDelay(this::dump, DUMP_INTERVAL_MINUTES,
+                    DUMP_INTERVAL_MINUTES, TimeUnit.MINUTES);
+        }
+    }
+
+    /**
+     * Stops the periodic dumps, writing the interval since the last one.
+     */
+    public synchronized void stop() {
+        if (schedule != null) {
+            schedule.cancel(false);
+            schedule = null;
+            scheduler.execute(this::dump);
+        }
+    }
+
+    /**
+     * Returns the file the metrics are written to.
+     *
+     * @return The file.
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Writes the metrics of the interval since the previous dump. Runs on the scheduler; an error
+     * is logged and the interval is written with the next dump.
+     */
+    private void dump() {
+        MetricsSnapshot current = registry.snapshot();
+        String line = current.since(previous).toJson(attributes);
+        try {
+            File directory = file.getParentFile();
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException("Cannot create " + directory);
+            }
+            if (file.length() > MAX_FILE_BYTES && !file.renameTo(new File(directory, FILE_NAME + ".1"))) {
+                throw new IOException("Cannot rotate " + file);
+            }
+            try (Writer writer = new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8)) {
+                writer.write(line);
+                writer.write('\n');
+            }
+            previous = current;
+        } catch (IOException e) {
+            Log.e(TAG, "Failed to write metrics.", e);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.yogaAdmin.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Holds the counters, gauges and latency histograms of the app, by name.
+ * Names are dotted paths such as {@code dao.YogaClassDao.getClassList} or
+ * {@code remote.updateChildren}. Looking a metric up creates it on first use; callers on hot
+ * paths look it up once and keep it in a field. Counters and histograms are updated without
+ * locks, and {@link #snapshot()} may be taken at any time from any thread.
+ */
+public final class MetricsRegistry {
+
+    private static volatile MetricsRegistry INSTANCE;
+
+    // Metrics by name.
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for a registry. The app uses the one of {@link #getInstance()}.
+     */
+    MetricsRegistry() {
+    }
+
+    /**
+     * Returns the registry of the app.
+     *
+     * @return The singleton MetricsRegistry instance.
+     */
+    public static MetricsRegistry getInstance() {
+        if (INSTANCE == null) {
+            synchronized (MetricsRegistry.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new MetricsRegistry();
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the counter with a name, creating it if needed.
+     *
+     * @param name The name of the counter.
+     * @return The counter.
+     */
+    public LongAdder counter(String name) {
+        LongAdder counter = counters.get(name);
+        return counter != null ? counter : counters.computeIfAbsent(name, key -> new LongAdder());
+    }
+
+    /**
+     * Returns the histogram with a name, creating it if needed.
+     *
+     * @param name The name of the histogram.
+     * @return The histogram.
+     */
+    public Histogram histogram(String name) {
+        Histogram histogram = histograms.get(name);
+        return histogram != null ? histogram : histograms.computeIfAbsent(name, key -> new Histogram());
+    }
+
+    /**
+     * Registers a gauge, read each time a snapshot is taken. A gauge registered under the same
+     * name replaces the previous one.
+     *
+     * @param name The name of the gauge.
+     * @param value Supplies the current value. It must be cheap and safe to call from any thread.
+     */
+    public void gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    /**
+     * Reads every metric.
+     *
+     * @return The current values, sorted by name.
+     */
+    public MetricsSnapshot snapshot() {
+        Map<String, Long> counterValues = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> entry : counters.entrySet()) {
+            counterValues.put(entry.getKey(), entry.getValue().sum());
+        }
+        Map<String, Long> gaugeValues = new TreeMap<>();
+        for (Map.Entry<String, LongSupplier> entry : gauges.entrySet()) {
+            gaugeValues.put(entry.getKey(), entry.getValue().getAsLong());
+        }
+        Map<String, Histogram.Snapshot> histogramValues = new TreeMap<>();
+        for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            histogramValues.put(entry.getKey(), entry.getValue().snapshot());
+        }
+        return new MetricsSnapshot(System.currentTimeMillis(), counterValues, gaugeValues, histogramValues);
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.yogaAdmin.metrics;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The values of all metrics of a {@link MetricsRegistry} at one point in time.
+ * Counters and histograms accumulate from the start of the process; {@link #since(MetricsSnapshot)}
+ * turns two snapshots into the activity of the interval between them.
+ */
+public final class MetricsSnapshot {
+
+    // Wall-clock time the snapshot was taken, in milliseconds since the epoch.
+    private final long timeMillis;
+    private final Map<String, Long> counters;
+    private final Map<String, Long> gauges;
+    private final Map<String, Histogram.Snapshot> histograms;
+
+    MetricsSnapshot(long timeMillis, Map<String, Long> counters, Map<String, Long> gauges,
+                    Map<String, Histogram.Snapshot> histograms) {
+        this.timeMillis = timeMillis;
+        this.counters = Collections.unmodifiableMap(counters);
+        this.gauges = Collections.unmodifiableMap(gauges);
+        this.histograms = Collections.unmodifiableMap(histograms);
+    }
+
+    /**
+     * Returns the counters and histograms of the interval since an earlier snapshot of the same
+     * registry. Gauges keep their values from this snapshot.
+     *
+     * @param earlier The earlier snapshot.
+     * @return The snapshot of the interval.
+     */
+    public MetricsSnapshot since(MetricsSnapshot earlier) {
+        Map<String, Long> counterValues = new TreeMap<>();
+        for (Map.Entry<String, Long> entry : counters.entrySet()) {
+            Long before = earlier.counters.get(entry.getKey());
+            counterValues.put(entry.getKey(), entry.getValue() - (before == null ? 0 : before));
+        }
+        Map<String, Histogram.Snapshot> histogramValues = new TreeMap<>();
+        for (Map.Entry<String, Histogram.Snapshot> entry : histograms.entrySet()) {
+            Histogram.Snapshot before = earlier.histograms.get(entry.getKey());
+            histogramValues.put(entry.getKey(), before == null ? entry.getValue() : entry.getValue().since(before));
+        }
+        return new MetricsSnapshot(timeMillis, counterValues, new TreeMap<>(gauges), histogramValues);
+    }
+
+    /**
+     * Returns the time the snapshot was taken.
+     *
+     * @return The wall-clock time in milliseconds since the epoch.
+     */
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    /**
+     * Returns the value of a counter.
+     *
+     * @param name The name of the counter.
+     * @return The value, or 0 if the counter does not exist.
+     */
+    public long getCounter(String name) {
+        Long value = counters.get(name);
+        return value == null ? 0 : value;
+    }
+
+    /**
+     * Returns the value of a gauge.
+     *
+     * @param name The name of the gauge.
+     * @return The value, or 0 if the gauge does not exist.
+     */
+    public long getGauge(String name) {
+        Long value = gauges.get(name);
+        return value == null ? 0 : value;
+    }
+
+    /**
+     * Returns a histogram.
+     *
+     * @param name The name of the histogram.
+     * @return The histogram, or null if it does not exist.
+     */
+    public Histogram.Snapshot getHistogram(String name) {
+        return histograms.get(name);
+    }
+
+    /**
+     * Returns all counters.
+     *
+     * @return The counters by name, sorted by name.
+     */
+    public Map<String, Long> getCounters() {
+        return counters;
+    }
+
+    /**
+     * Returns all gauges.
+     *
+     * @return The gauges by name, sorted by name.
+     */
+    public Map<String, Long> getGauges() {
+        return gauges;
+    }
+
+    /**
+     * Returns all histograms.
+     *
+     * @return The histograms by name, sorted by name.
+     */
+    public Map<String, Histogram.Snapshot> getHistograms() {
+        return histograms;
+    }
+
+    /**
+     * Writes the snapshot as one line of JSON, with histogram values in microseconds. Histograms
+     * with nothing recorded are left out.
+     *
+     * @param attributes Additional string fields written first, such as the app version.
+     * @return The JSON object.
+     */
+    public String toJson(Map<String, String> attributes) {
+        StringBuilder out = new StringBuilder("{\"time\":").append(timeMillis);
+        for (Map.Entry<String, String> attribute : attributes.entrySet()) {
+            out.append(',');
+            appendString(out, attribute.getKey());
+            out.append(':');
+            appendString(out, attribute.getValue());
+        }
+        appendValues(out, "counters", counters);
+        appendValues(out, "gauges", gauges);
+        out.append(",\"histograms\":{");
+        boolean first = true;
+        for (Map.Entry<String, Histogram.Snapshot> entry : histograms.entrySet()) {
+            if (entry.getValue().getCount() == 0) {
+                continue;
+            }
+            if (!first) {
+                out.append(',');
+            }
+            first = false;
+            appendString(out, entry.getKey());
+            out.append(':');
+            entry.getValue().appendJson(out);
+        }
+        return out.append("}}").toString();
+    }
+
+    /**
+     * Writes a map of values as a JSON object field.
+     */
+    private static void appendValues(StringBuilder out, String field, Map<String, Long> values) {
+        out.append(",\"").append(field).append("\":{");
+        boolean first = true;
+        for (Map.Entry<String, Long> entry : values.entrySet()) {
+            if (!first) {
+                out.append(',');
+            }
+            first = false;
+            appendString(out, entry.getKey());
+            out.append(':').append(entry.getValue());
+        }
+        out.append('}');
+    }
+
+    /**
+     * Writes a JSON string, escaping quotes, backslashes and control characters.
+     */
+    private static void appendString(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c < 0x20) {
+                out.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+            } else {
+                out.append(c);
+            }
+        }
+        out.append('"');
+    }
+}
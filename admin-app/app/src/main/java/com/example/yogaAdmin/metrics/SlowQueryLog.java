@@ -0,0 +1,198 @@
+package com.example.yogaAdmin.metrics;
+
+import com.example.yogaAdmin.utils.DateUtils;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Keeps the most recent SQL statements that took longer than a threshold, with their bind
+ * arguments and query plan, in a fixed-size ring buffer. Older entries are overwritten, so the log
+ * never grows past {@value #CAPACITY} entries.
+ * Adding an entry takes no lock, so statements may be logged from any database thread.
+ */
+public final class SlowQueryLog {
+
+    private static final int CAPACITY = 100;
+    // Statements slower than one frame at 60 Hz are logged by default.
+    private static final long DEFAULT_THRESHOLD_MILLIS = 16;
+
+    private static volatile SlowQueryLog INSTANCE;
+
+    // Entry i of the log is kept in slot i % capacity until it is overwritten.
+    private final AtomicReferenceArray<Entry> slots;
+    // Number of entries ever added, which is also the sequence number of the next one.
+    private final AtomicLong added = new AtomicLong();
+    private volatile long thresholdNanos;
+
+    /**
+     * Constructor for a log. The app database logs to the one of {@link #getInstance()}.
+     *
+     * @param capacity The number of entries kept.
+     * @param thresholdMillis The duration above which a statement is logged.
+     */
+    public SlowQueryLog(int capacity, long thresholdMillis) {
+        slots = new AtomicReferenceArray<>(capacity);
+        setThresholdMillis(thresholdMillis);
+    }
+
+    /**
+     * Returns the slow query log of the app database.
+     *
+     * @return The singleton SlowQueryLog instance.
+     */
+    public static SlowQueryLog getInstance() {
+        if (INSTANCE == null) {
+            synchronized (SlowQueryLog.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new SlowQueryLog(CAPACITY, DEFAULT_THRESHOLD_MILLIS);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Sets the duration above which a statement is logged.
+     *
+     * @param thresholdMillis The threshold in milliseconds; 0 logs every statement.
+     */
+    public void setThresholdMillis(long thresholdMillis) {
+        thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+    }
+
+    /**
+     * Returns whether a statement that took a given time should be logged.
+     *
+     * @param durationNanos The duration of the statement in nanoseconds.
+     * @return {@code true} if it reached the threshold.
+     */
+    public boolean isSlow(long durationNanos) {
+        return durationNanos >= thresholdNanos;
+    }
+
+    /**
+     * Adds a statement to the log, overwriting the oldest entry if the log is full.
+     *
+     * @param sql The SQL of the statement.
+     * @param bindArgs The arguments bound to it.
+     * @param durationNanos How long it took, in nanoseconds.
+     * @param plan The rows of its query plan, or an empty list if it has none.
+     */
+    public void add(String sql, List<?> bindArgs, long durationNanos, List<String> plan) {
+        List<String> args = new ArrayList<>(bindArgs.size());
+        for (Object arg : bindArgs) {
+            args.add(arg instanceof byte[] ? "<" + ((byte[]) arg).length + " bytes>" : String.valueOf(arg));
+        }
+        long sequence = added.getAndIncrement();
+        slots.set((int) (sequence % slots.length()), new Entry(sequence, System.currentTimeMillis(), sql,
+                Collections.unmodifiableList(args), durationNanos, Thread.currentThread().getName(), plan));
+    }
+
+    /**
+     * Returns the entries in the log.
+     *
+     * @return The entries, newest first.
+     */
+    public List<Entry> getEntries() {
+        long end = added.get();
+        List<Entry> entries = new ArrayList<>();
+        for (long sequence = end - 1; sequence >= Math.max(0, end - slots.length()); sequence--) {
+            Entry entry = slots.get((int) (sequence % slots.length()));
+            // Skips a slot cleared or overwritten by a newer entry since reading the count.
+            if (entry != null && entry.sequence == sequence) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, null);
+        }
+    }
+
+    /**
+     * Formats the entries as plain text, newest first.
+     *
+     * @return The text, or a line saying the log is empty.
+     */
+    public String format() {
+        List<Entry> entries = getEntries();
+        if (entries.isEmpty()) {
+            return "No statement took longer than " + TimeUnit.NANOSECONDS.toMillis(thresholdNanos) + " ms.";
+        }
+        StringBuilder out = new StringBuilder();
+        for (Entry entry : entries) {
+            if (out.length() > 0) {
+                out.append("\n\n");
+            }
+            out.append(String.format(Locale.UK, "%s  %.1f ms  on %s\n%s",
+                    DateUtils.formatLogTimestamp(entry.timeMillis), entry.durationNanos / 1e6, entry.thread,
+                    entry.sql));
+            if (!entry.bindArgs.isEmpty()) {
+                out.append("\nArguments: ").append(entry.bindArgs);
+            }
+            for (String step : entry.plan) {
+                out.append("\n  ").append(step);
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * Writes the formatted entries to a file, replacing its contents.
+     *
+     * @param file The file to write.
+     * @throws IOException If the file cannot be written.
+     */
+    public void writeTo(File file) throws IOException {
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+            writer.write(format());
+            writer.write('\n');
+        }
+    }
+
+    /**
+     * A statement in the log.
+     */
+    public static final class Entry {
+        // Position of the entry among all entries ever added.
+        final long sequence;
+        // Wall-clock time the statement finished, in milliseconds since the epoch.
+        public final long timeMillis;
+        public final String sql;
+        public final List<String> bindArgs;
+        public final long durationNanos;
+        // Name of the thread that ran the statement.
+        public final String thread;
+        // Rows of the EXPLAIN QUERY PLAN output, empty for statements without a plan.
+        public final List<String> plan;
+
+        Entry(long sequence, long timeMillis, String sql, List<String> bindArgs, long durationNanos,
+              String thread, List<String> plan) {
+            this.sequence = sequence;
+            this.timeMillis = timeMillis;
+            this.sql = sql;
+            this.bindArgs = bindArgs;
+            this.durationNanos = durationNanos;
+            this.thread = thread;
+            this.plan = plan;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.yogaAdmin.metrics;
+
+import androidx.lifecycle.LiveData;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Wraps a Room DAO so that every call through it is measured in a {@link MetricsRegistry}.
+ * A method that runs its query is timed in the histogram {@code dao.<Dao>.<method>}. A method that
+ * returns {@link LiveData} only builds the query, which Room runs later on its own threads, so its
+ * calls are counted in the counter of the same name instead.
+ * This class cannot be instantiated.
+ */
+public final class TimedDao {
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private TimedDao() {
+    }
+
+    /**
+     * Returns a DAO that measures each call and forwards it to another.
+     *
+     * @param daoType The DAO interface.
+     * @param dao The DAO generated by Room.
+     * @param registry The registry to record into.
+     * @param <T> The type of the DAO.
+     * @return The measuring DAO.
+     */
+    public static <T> T wrap(Class<T> daoType, T dao, MetricsRegistry registry) {
+        // Metrics are looked up once here, so a call only pays for the proxy and the recording.
+        Map<Method, Histogram> timers = new HashMap<>();
+        Map<Method, LongAdder> calls = new HashMap<>();
+        for (Method method : daoType.getMethods()) {
+            String name = "dao." + daoType.getSimpleName() + "." + method.getName();
+            if (LiveData.class.isAssignableFrom(method.getReturnType())) {
+                calls.put(method, registry.counter(name));
+            } else {
+                timers.put(method, registry.histogram(name));
+            }
+        }
+        Object proxy = Proxy.newProxyInstance(daoType.getClassLoader(), new Class<?>[]{daoType},
+                (self, method, args) -> {
+                    Histogram timer = timers.get(method);
+                    if (timer == null) {
+                        LongAdder counter = calls.get(method);
+                        if (counter != null) {
+                            counter.increment();
+                        }
+                        return invoke(dao, method, args);
+                    }
+                    long start = System.nanoTime();
+                    try {
+                        return invoke(dao, method, args);
+                    } finally {
+                        timer.recordSince(start);
+                    }
+                });
+        return daoType.cast(proxy);
+    }
+
+    /**
+     * Calls a method on the DAO, rethrowing what the method throws rather than its reflective wrapper.
+     */
+    private static Object invoke(Object dao, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(dao, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -1,13 +1,23 @@
 package com.example.yogaAdmin.models;
 
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
 /**
  * Represents a booking made by a user for a specific yoga class.
- * This class is a Plain Old Java Object (POJO) used for mapping data
- * from the Firebase Realtime Database.
+ * This class is used for mapping data from the Firebase Realtime Database and as a Room entity,
+ * stored in the 'bookings' table as a local cache of the bookings that have been synced.
  */
+@Entity(tableName = "bookings",
+        // Indexes for the local lookups by class, by user, and by booking date range.
+        indices = {@Index("classId"), @Index("userId"), @Index("bookingDate")})
 public class Booking {
-    // Unique identifier for the booking.
-    private String id;
+    // Unique identifier for the booking, matching its key in Firebase.
+    @PrimaryKey
+    @NonNull
+    private String id = "";
     // ID of the user who made the booking.
     private String userId;
     // ID of the class that was booked.
@@ -28,13 +38,26 @@ public class Booking {
     public Booking() {
     }
 
+    /**
+     * Builds the deterministic key under which a booking is stored in the 'bookings' node.
+     * The user app writes each booking to {@code bookings/{userId}_{classId}}.
+     *
+     * @param userId The ID of the user who made the booking.
+     * @param classId The Firebase key of the booked class.
+     * @return The booking key.
+     */
+    public static String buildId(String userId, String classId) {
+        return userId + "_" + classId;
+    }
+
     // Getters and Setters for all fields.
 
+    @NonNull
     public String getId() {
         return id;
     }
 
-    public void setId(String id) {
+    public void setId(@NonNull String id) {
         this.id = id;
     }
 
@@ -4,6 +4,7 @@ import androidx.room.Embedded;
 import androidx.room.Relation;
 
 import java.io.Serializable;
+import java.util.Objects;
 
 /**
  * A data class that combines a {@link YogaClass} with its corresponding {@link YogaCourse}.
@@ -39,4 +40,29 @@ public class ClassWithCourseInfo implements Serializable {
         this.yogaClass = yogaClass;
         this.yogaCourse = yogaCourse;
     }
+
+    /**
+     * Compares this item with another object by the value of its class and course.
+     *
+     * @param o The object to compare with.
+     * @return {@code true} if the other object holds an equal class and course.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ClassWithCourseInfo that = (ClassWithCourseInfo) o;
+        return Objects.equals(yogaClass, that.yogaClass) &&
+                Objects.equals(yogaCourse, that.yogaCourse);
+    }
+
+    /**
+     * Returns a hash code consistent with {@link #equals(Object)}.
+     *
+     * @return The hash code of the class and course.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(yogaClass, yogaCourse);
+    }
 }
@@ -0,0 +1,75 @@
+package com.example.yogaAdmin.models;
+
+import java.util.Objects;
+
+/**
+ * A lightweight projection of a class joined with the class type, start time and duration of its
+ * course, describing when its instructor is busy. Used by Room to load the instructor schedule
+ * without loading whole rows.
+ */
+public class InstructorAssignment {
+    /**
+     * The ID of the class.
+     */
+    public long classId;
+
+    /**
+     * The instructor assigned to the class.
+     */
+    public String assignedInstructor;
+
+    /**
+     * The date of the class in "dd/MM/yyyy" format.
+     */
+    public String date;
+
+    /**
+     * The status of the class, e.g. "Active" or "Cancelled".
+     */
+    public String status;
+
+    /**
+     * The class type of the course, e.g. "Flow Yoga".
+     */
+    public String classType;
+
+    /**
+     * The start time of the course, e.g. "10:00".
+     */
+    public String time;
+
+    /**
+     * The duration of the course in minutes.
+     */
+    public int duration;
+
+    /**
+     * Compares all projected columns.
+     *
+     * @param o The object to compare with.
+     * @return True if the other object is an {@code InstructorAssignment} with the same column values.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        InstructorAssignment that = (InstructorAssignment) o;
+        return classId == that.classId &&
+                duration == that.duration &&
+                Objects.equals(assignedInstructor, that.assignedInstructor) &&
+                Objects.equals(date, that.date) &&
+                Objects.equals(status, that.status) &&
+                Objects.equals(classType, that.classType) &&
+                Objects.equals(time, that.time);
+    }
+
+    /**
+     * Returns a hash code consistent with {@link #equals(Object)}.
+     *
+     * @return The hash code of the projected columns.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(classId, assignedInstructor, date, status, classType, time, duration);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.yogaAdmin.models;
+
+/**
+ * A lightweight projection pairing the ID of a class or course with the instructor name stored
+ * on it. Used by Room to load instructor names without loading whole rows.
+ */
+public class InstructorName {
+    /**
+     * The ID of the class or course.
+     */
+    public long id;
+
+    /**
+     * The instructor name, or null if none was entered.
+     */
+    public String name;
+}
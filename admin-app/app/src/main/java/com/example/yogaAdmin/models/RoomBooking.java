@@ -0,0 +1,91 @@
+package com.example.yogaAdmin.models;
+
+import java.util.Objects;
+
+/**
+ * A lightweight projection of a class joined with the room, start time and duration of its
+ * course. Used by Room to load room occupancy without loading whole rows. A course without any
+ * class yields one row with a null class ID, so every room in use by a course is known.
+ */
+public class RoomBooking {
+    /**
+     * The ID of the course.
+     */
+    public long courseId;
+
+    /**
+     * The class type of the course, e.g. "Flow Yoga".
+     */
+    public String classType;
+
+    /**
+     * The room of the course, or null if none was entered.
+     */
+    public String roomNumber;
+
+    /**
+     * The start time of the course, e.g. "10:00".
+     */
+    public String time;
+
+    /**
+     * The duration of the course in minutes.
+     */
+    public int duration;
+
+    /**
+     * The ID of the class, or null for a course without classes.
+     */
+    public Long classId;
+
+    /**
+     * The date of the class in "dd/MM/yyyy" format, or null for a course without classes.
+     */
+    public String date;
+
+    /**
+     * The status of the class, e.g. "Active" or "Cancelled".
+     */
+    public String status;
+
+    /**
+     * Returns a key identifying the row: the class for class rows, or the course for a course
+     * without classes.
+     *
+     * @return The row key.
+     */
+    public String rowKey() {
+        return classId != null ? "class:" + classId : "course:" + courseId;
+    }
+
+    /**
+     * Compares all projected columns.
+     *
+     * @param o The object to compare with.
+     * @return True if the other object is a {@code RoomBooking} with the same column values.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        RoomBooking that = (RoomBooking) o;
+        return courseId == that.courseId &&
+                duration == that.duration &&
+                Objects.equals(classType, that.classType) &&
+                Objects.equals(roomNumber, that.roomNumber) &&
+                Objects.equals(time, that.time) &&
+                Objects.equals(classId, that.classId) &&
+                Objects.equals(date, that.date) &&
+                Objects.equals(status, that.status);
+    }
+
+    /**
+     * Returns a hash code consistent with {@link #equals(Object)}.
+     *
+     * @return The hash code of the projected columns.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(courseId, classType, roomNumber, time, duration, classId, date, status);
+    }
+}
@@ -6,12 +6,11 @@ import androidx.room.Ignore;
 import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
+import com.example.yogaAdmin.utils.DateUtils;
 import com.google.firebase.database.Exclude;
 
 import java.io.Serializable;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.Locale;
+import java.util.Objects;
 
 /**
  * Represents a specific instance of a yoga class scheduled on a particular date.
@@ -24,8 +23,8 @@ import java.util.Locale;
                 parentColumns = "id",
                 childColumns = "courseId",
                 onDelete = ForeignKey.CASCADE), // Deleting a course will delete its classes.
-        // Creates an index on the courseId column for faster queries.
-        indices = {@Index("courseId")})
+        // Indexes for the lookups by course, by date, and by Firebase key during sync.
+        indices = {@Index("courseId"), @Index("date"), @Index("firebaseKey")})
 public class YogaClass implements Serializable {
     /**
      * The unique identifier for the class in the local Room database.
@@ -84,6 +83,27 @@ public class YogaClass implements Serializable {
         this.createdDate = System.currentTimeMillis();
     }
 
+    /**
+     * Copy constructor, used to change a class without mutating an instance held by LiveData or
+     * an adapter. Marked with {@code @Ignore} so Room doesn't try to use it for object creation.
+     *
+     * @param other The class to copy.
+     */
+    @Ignore
+    public YogaClass(YogaClass other) {
+        this.id = other.id;
+        this.firebaseKey = other.firebaseKey;
+        this.courseId = other.courseId;
+        this.courseFirebaseKey = other.courseFirebaseKey;
+        this.date = other.date;
+        this.assignedInstructor = other.assignedInstructor;
+        this.actualCapacity = other.actualCapacity;
+        this.slotsAvailable = other.slotsAvailable;
+        this.additionalComments = other.additionalComments;
+        this.status = other.status;
+        this.createdDate = other.createdDate;
+    }
+
     // --- Getters and Setters ---
 
     public long getId() { return id; }
@@ -135,8 +155,42 @@ public class YogaClass implements Serializable {
      */
     @Exclude
     public String getFormattedCreatedDate() {
-        SimpleDateFormat sdf = new SimpleDateFormat("dd/MM/yyyy HH:mm", Locale.getDefault());
-        return "Created: " + sdf.format(new Date(createdDate));
+        return "Created: " + DateUtils.formatCreatedDate(createdDate);
     }
-}
 
+    /**
+     * Compares this class with another object by value, over every persisted field.
+     * Lets list diffing detect unchanged rows across the fresh instances emitted by Room.
+     *
+     * @param o The object to compare with.
+     * @return {@code true} if the other object is a YogaClass with equal field values.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        YogaClass that = (YogaClass) o;
+        return id == that.id &&
+                courseId == that.courseId &&
+                actualCapacity == that.actualCapacity &&
+                slotsAvailable == that.slotsAvailable &&
+                createdDate == that.createdDate &&
+                Objects.equals(firebaseKey, that.firebaseKey) &&
+                Objects.equals(courseFirebaseKey, that.courseFirebaseKey) &&
+                Objects.equals(date, that.date) &&
+                Objects.equals(assignedInstructor, that.assignedInstructor) &&
+                Objects.equals(additionalComments, that.additionalComments) &&
+                Objects.equals(status, that.status);
+    }
+
+    /**
+     * Returns a hash code consistent with {@link #equals(Object)}.
+     *
+     * @return The hash code of the persisted fields.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, firebaseKey, courseFirebaseKey, courseId, date, assignedInstructor,
+                actualCapacity, slotsAvailable, additionalComments, status, createdDate);
+    }
+}
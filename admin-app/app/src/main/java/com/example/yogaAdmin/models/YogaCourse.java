@@ -2,20 +2,22 @@ package com.example.yogaAdmin.models;
 
 import androidx.room.Entity;
 import androidx.room.Ignore;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
 import java.io.Serializable;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.Locale;
+import java.util.Objects;
 
+import com.example.yogaAdmin.utils.DateUtils;
 import com.google.firebase.database.Exclude;
 
 /**
  * Represents a single yoga course.
  * This class is used as a Room entity for local database storage and as a data model for Firebase.
  */
-@Entity(tableName = "yoga_courses")
+@Entity(tableName = "yoga_courses",
+        // Index for the lookups by Firebase key during sync.
+        indices = {@Index("firebaseKey")})
 public class YogaCourse implements Serializable {
     /**
      * Unique identifier for the course in the local database.
@@ -188,7 +190,46 @@ public class YogaCourse implements Serializable {
      */
     @Exclude
     public String getFormattedCreatedDate() {
-        SimpleDateFormat sdf = new SimpleDateFormat("dd/MM/yyyy HH:mm", Locale.getDefault());
-        return "Created: " + sdf.format(new Date(createdDate));
+        return "Created: " + DateUtils.formatCreatedDate(createdDate);
+    }
+
+    /**
+     * Compares this course with another object by value, over every persisted field.
+     * Lets list diffing detect unchanged rows across the fresh instances emitted by Room.
+     *
+     * @param o The object to compare with.
+     * @return {@code true} if the other object is a YogaCourse with equal field values.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        YogaCourse that = (YogaCourse) o;
+        return id == that.id &&
+                capacity == that.capacity &&
+                duration == that.duration &&
+                Double.compare(price, that.price) == 0 &&
+                createdDate == that.createdDate &&
+                Objects.equals(firebaseKey, that.firebaseKey) &&
+                Objects.equals(dayOfWeek, that.dayOfWeek) &&
+                Objects.equals(time, that.time) &&
+                Objects.equals(classType, that.classType) &&
+                Objects.equals(description, that.description) &&
+                Objects.equals(instructorName, that.instructorName) &&
+                Objects.equals(roomNumber, that.roomNumber) &&
+                Objects.equals(difficultyLevel, that.difficultyLevel) &&
+                Objects.equals(equipmentNeeded, that.equipmentNeeded) &&
+                Objects.equals(ageGroup, that.ageGroup);
+    }
+
+    /**
+     * Returns a hash code consistent with {@link #equals(Object)}.
+     *
+     * @return The hash code of the persisted fields.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, firebaseKey, dayOfWeek, time, capacity, duration, price, classType,
+                description, instructorName, roomNumber, difficultyLevel, equipmentNeeded, ageGroup, createdDate);
     }
 }
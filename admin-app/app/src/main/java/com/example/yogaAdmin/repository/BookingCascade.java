@@ -0,0 +1,56 @@
+package com.example.yogaAdmin.repository;
+
+import com.example.yogaAdmin.models.Booking;
+import com.example.yogaAdmin.services.RemoteSnapshot;
+import com.example.yogaAdmin.services.RemoteStore;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the Firebase multi-path updates that remove the bookings of deleted classes.
+ * A booking is stored in three places by the user app: {@code bookings/{uid}_{classId}},
+ * {@code userBookings/{uid}/{classId}} and {@code classBookings/{classId}/{uid}}.
+ * The {@code classBookings} fan-out of each class is read once, in parallel, and every path is
+ * collected into a single map so the caller can delete the bookings together with the classes
+ * in one atomic {@link RemoteStore#updateChildren(Map)}.
+ */
+final class BookingCascade {
+
+    private BookingCascade() {}
+
+    /**
+     * Collects the paths to delete for every booking of the given classes.
+     *
+     * @param remoteStore The store to read the fan-outs from.
+     * @param classKeys The Firebase keys of the classes being deleted.
+     * @return A task resolving to a map of paths to {@code null}, or failing if any fan-out read failed.
+     */
+    static Task<Map<String, Object>> collectDeletes(RemoteStore remoteStore, List<String> classKeys) {
+        List<Task<RemoteSnapshot>> reads = new ArrayList<>(classKeys.size());
+        for (String classKey : classKeys) {
+            reads.add(remoteStore.get("classBookings/" + classKey));
+        }
+        return Tasks.whenAllSuccess(reads).continueWith(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            Map<String, Object> updates = new HashMap<>();
+            for (int i = 0; i < classKeys.size(); i++) {
+                String classKey = classKeys.get(i);
+                RemoteSnapshot members = reads.get(i).getResult();
+                for (RemoteSnapshot member : members.getChildren()) {
+                    String userId = member.getKey();
+                    updates.put("/bookings/" + Booking.buildId(userId, classKey), null);
+                    updates.put("/userBookings/" + userId + "/" + classKey, null);
+                }
+                updates.put("/classBookings/" + classKey, null);
+            }
+            return updates;
+        });
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.yogaAdmin.repository;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.example.yogaAdmin.services.RemoteSnapshot;
+import com.example.yogaAdmin.services.RemoteStore;
+import com.example.yogaAdmin.services.RemoteStores;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the number of bookings of every class from a single listener on the
+ * {@code classBookings} fan-out, so class lists can show live occupancy without
+ * querying the bookings of each class separately.
+ * The listener is attached while at least one {@link OnBookingCountChangedListener} is registered,
+ * and each change is pushed to the listeners for the affected class only. When the last listener
+ * unregisters, the Firebase listener is kept attached for the same grace period as the booking
+ * listeners of {@link BookingListenerRegistry}, so the counts survive switching between activities.
+ * All methods are expected to run on the main thread, which is where Firebase events are delivered.
+ */
+public class BookingCountAggregator implements RemoteStore.ChildListener {
+    private static final String TAG = "BookingCountAggregator";
+
+    /**
+     * Value returned by {@link #getBookingCount(String)} while the counts have not been loaded yet.
+     */
+    public static final int UNKNOWN = -1;
+
+    private static volatile BookingCountAggregator INSTANCE;
+
+    // Path of the fan-out node listened to.
+    private static final String CLASS_BOOKINGS_PATH = "classBookings";
+
+    // Store through which Firebase is read.
+    private final RemoteStore remoteStore;
+    // Handler used to schedule delayed detaching once no listeners remain.
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    // Detaches the Firebase listener when run, and whether it is currently scheduled.
+    private final Runnable pendingDetach = this::detach;
+    private boolean detachScheduled;
+    // Registration of the child listener, or null while detached.
+    private RemoteStore.Registration registration;
+    // Number of bookings keyed by the Firebase key of the class. Classes without bookings are absent.
+    private final Map<String, Integer> counts = new HashMap<>();
+    private final List<OnBookingCountChangedListener> listeners = new ArrayList<>();
+    // Whether the initial snapshot of the fan-out has been received.
+    private boolean loaded;
+
+    private BookingCountAggregator() {
+        remoteStore = RemoteStores.getInstance();
+    }
+
+    /**
+     * Returns the singleton instance of the aggregator.
+     *
+     * @return The single instance of {@link BookingCountAggregator}.
+     */
+    public static BookingCountAggregator getInstance() {
+        if (INSTANCE == null) {
+            synchronized (BookingCountAggregator.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new BookingCountAggregator();
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Registers a listener for booking count changes, attaching the Firebase listener if it is
+     * not attached yet.
+     *
+     * @param listener The listener to register.
+     */
+    public void addListener(OnBookingCountChangedListener listener) {
+        if (listeners.contains(listener)) {
+            return;
+        }
+        listeners.add(listener);
+        // Cancel a pending detach, the listener is needed again.
+        if (detachScheduled) {
+            mainHandler.removeCallbacks(pendingDetach);
+            detachScheduled = false;
+        }
+        if (registration == null) {
+            attach();
+        }
+    }
+
+    /**
+     * Unregisters a listener. Once no listeners remain, the Firebase listener is detached after a
+     * grace period unless a new listener registers in the meantime.
+     *
+     * @param listener The listener to unregister.
+     */
+    public void removeListener(OnBookingCountChangedListener listener) {
+        if (listeners.remove(listener) && listeners.isEmpty()) {
+            mainHandler.postDelayed(pendingDetach, BookingListenerRegistry.DETACH_GRACE_PERIOD_MS);
+            detachScheduled = true;
+        }
+    }
+
+    /**
+     * Returns the number of bookings of a class.
+     *
+     * @param classKey The Firebase key of the class.
+     * @return The number of bookings, or {@link #UNKNOWN} if the counts have not been loaded yet.
+     */
+    public int getBookingCount(String classKey) {
+        if (!loaded) {
+            return UNKNOWN;
+        }
+        Integer count = counts.get(classKey);
+        return count != null ? count : 0;
+    }
+
+    private void attach() {
+        RemoteStore.Registration attached = remoteStore.addChildListener(CLASS_BOOKINGS_PATH, this);
+        registration = attached;
+        // The read is delivered after the initial child events, so every count is known here.
+        remoteStore.readOnce(CLASS_BOOKINGS_PATH, new RemoteStore.ValueListener() {
+            @Override
+            public void onValue(RemoteSnapshot dataSnapshot) {
+                if (registration != attached) {
+                    // Detached, and possibly attached again, before the counts finished loading.
+                    return;
+                }
+                loaded = true;
+                for (OnBookingCountChangedListener listener : new ArrayList<>(listeners)) {
+                    listener.onBookingCountsReset();
+                }
+            }
+
+            @Override
+            public void onCancelled(Exception error) {
+                Log.e(TAG, "Failed to load booking counts.", error);
+            }
+        });
+    }
+
+    private void detach() {
+        detachScheduled = false;
+        registration.remove();
+        registration = null;
+        counts.clear();
+        loaded = false;
+    }
+
+    @Override
+    public void onChildAdded(RemoteSnapshot snapshot) {
+        update(snapshot.getKey(), (int) snapshot.getChildrenCount());
+    }
+
+    @Override
+    public void onChildChanged(RemoteSnapshot snapshot) {
+        update(snapshot.getKey(), (int) snapshot.getChildrenCount());
+    }
+
+    @Override
+    public void onChildRemoved(RemoteSnapshot snapshot) {
+        update(snapshot.getKey(), 0);
+    }
+
+    @Override
+    public void onCancelled(Exception error) {
+        Log.e(TAG, "Booking count listener cancelled.", error);
+    }
+
+    /**
+     * Stores the count of a class and, once the initial load is done, notifies the listeners.
+     */
+    private void update(String classKey, int count) {
+        Integer previous = count > 0 ? counts.put(classKey, count) : counts.remove(classKey);
+        if (!loaded || (previous != null ? previous : 0) == count) {
+            return;
+        }
+        for (OnBookingCountChangedListener listener : new ArrayList<>(listeners)) {
+            listener.onBookingCountChanged(classKey, count);
+        }
+    }
+
+    /**
+     * Interface for receiving booking count updates.
+     */
+    public interface OnBookingCountChangedListener {
+        /**
+         * Called when the number of bookings of a single class changes.
+         *
+         * @param classKey The Firebase key of the class.
+         * @param count The new number of bookings.
+         */
+        void onBookingCountChanged(String classKey, int count);
+
+        /**
+         * Called when all counts may have changed, such as when they finish loading.
+         */
+        void onBookingCountsReset();
+    }
+}
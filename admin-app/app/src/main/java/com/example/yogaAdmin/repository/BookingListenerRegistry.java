@@ -0,0 +1,318 @@
+package com.example.yogaAdmin.repository;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
+
+import com.example.yogaAdmin.dao.BookingDao;
+import com.example.yogaAdmin.database.AppDatabase;
+import com.example.yogaAdmin.models.Booking;
+import com.example.yogaAdmin.services.RemoteSnapshot;
+import com.example.yogaAdmin.services.RemoteStore;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Shares one Firebase booking listener per class between every observer of that class's bookings.
+ * Each {@link LiveData} handed out by {@link #observe(String, LiveData)} serves the bookings cached
+ * in Room and takes a reference on the listener when it becomes active, releasing it when it becomes
+ * inactive. While referenced, the listener applies bookings added or cancelled in Firebase to the
+ * cache; existing bookings are loaded page by page through {@link BookingPagingSource}.
+ * When the last reference is released the listener is kept alive for a short grace period, so
+ * navigating back to a class that was just viewed does not re-download its bookings.
+ * All methods are expected to run on the main thread, which is where LiveData lifecycle
+ * callbacks and Firebase events are delivered.
+ */
+class BookingListenerRegistry {
+    private static final String TAG = "BookingListenerRegistry";
+    // How long a listener with no remaining observers is kept attached before it is removed.
+    static final long DETACH_GRACE_PERIOD_MS = 15_000;
+    // How long to wait before downloading a booking again after the download failed.
+    static final long FETCH_RETRY_DELAY_MS = 2_000;
+
+    private static volatile BookingListenerRegistry INSTANCE;
+
+    // Store through which Firebase is read.
+    private final RemoteStore remoteStore;
+    // DAO for the local booking cache.
+    private final BookingDao bookingDao;
+    // Handler used to schedule delayed detaching of unused listeners.
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    // Active listener entries keyed by the Firebase key of the class.
+    private final Map<String, Entry> entries = new HashMap<>();
+    // Listeners told of the bookings removed from each class, keyed by the Firebase key of the class.
+    private final Map<String, List<RemovalListener>> removalListeners = new HashMap<>();
+
+    private BookingListenerRegistry(RemoteStore remoteStore, BookingDao bookingDao) {
+        this.remoteStore = remoteStore;
+        this.bookingDao = bookingDao;
+    }
+
+    /**
+     * Returns the process-wide registry instance.
+     *
+     * @param remoteStore The store to read the bookings from, used on first creation.
+     * @param bookingDao The DAO of the local booking cache, used on first creation.
+     * @return The single instance of {@link BookingListenerRegistry}.
+     */
+    static BookingListenerRegistry getInstance(RemoteStore remoteStore, BookingDao bookingDao) {
+        if (INSTANCE == null) {
+            synchronized (BookingListenerRegistry.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new BookingListenerRegistry(remoteStore, bookingDao);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Creates a LiveData that emits the cached bookings of a class immediately and keeps the
+     * cache up to date with Firebase while it has active observers.
+     *
+     * @param classId The Firebase key of the class.
+     * @param localBookings The Room query providing the cached bookings to emit.
+     * @return A {@link LiveData} list of {@link Booking}s backed by Room and the shared listener.
+     */
+    LiveData<List<Booking>> observe(String classId, LiveData<List<Booking>> localBookings) {
+        return new ClassBookingsLiveData(classId, localBookings);
+    }
+
+    /**
+     * Registers a listener to be told of each booking of a class that the shared listener sees
+     * removed from Firebase, e.g. so a page being downloaded can drop the bookings cancelled
+     * while it was read.
+     *
+     * @param classId The Firebase key of the class.
+     * @param listener The listener to register.
+     */
+    void addRemovalListener(String classId, RemovalListener listener) {
+        List<RemovalListener> listeners = removalListeners.get(classId);
+        if (listeners == null) {
+            listeners = new ArrayList<>();
+            removalListeners.put(classId, listeners);
+        }
+        listeners.add(listener);
+    }
+
+    /**
+     * Unregisters a listener added with {@link #addRemovalListener(String, RemovalListener)}.
+     *
+     * @param classId The Firebase key of the class.
+     * @param listener The listener to unregister.
+     */
+    void removeRemovalListener(String classId, RemovalListener listener) {
+        List<RemovalListener> listeners = removalListeners.get(classId);
+        if (listeners != null && listeners.remove(listener) && listeners.isEmpty()) {
+            removalListeners.remove(classId);
+        }
+    }
+
+    /**
+     * Takes a reference on the listener for a class, attaching it if necessary.
+     */
+    private void acquire(String classId) {
+        Entry entry = entries.get(classId);
+        if (entry == null) {
+            entry = new Entry(classId);
+            entries.put(classId, entry);
+            entry.attach();
+        }
+        // Cancel a pending detach, the listener is needed again.
+        if (entry.pendingDetach != null) {
+            mainHandler.removeCallbacks(entry.pendingDetach);
+            entry.pendingDetach = null;
+        }
+        entry.references++;
+    }
+
+    /**
+     * Releases a reference on the listener for a class.
+     * The listener is detached once the grace period expires without a new reference being taken.
+     */
+    private void release(String classId) {
+        Entry entry = entries.get(classId);
+        if (entry == null || --entry.references > 0) {
+            return;
+        }
+        entry.pendingDetach = () -> {
+            entry.detach();
+            entries.remove(classId);
+        };
+        mainHandler.postDelayed(entry.pendingDetach, DETACH_GRACE_PERIOD_MS);
+    }
+
+    /**
+     * Holds the shared Firebase listener of a single class and the number of LiveData
+     * instances currently referencing it.
+     * Membership is read through child events on the {@code classBookings/{classId}} fan-out
+     * written by the user app. The members present when the listener is attached are only used to
+     * drop cancelled bookings from Room, since their records are loaded on demand by
+     * {@link BookingPagingSource}. After that, the record of each added member is fetched by its
+     * deterministic key and upserted into Room, and removed members are deleted from Room,
+     * so the cache is updated incrementally and each change costs one read at most.
+     * A member added again by a redelivered event is not downloaded twice, a download that fails is
+     * retried while the member remains, and a record downloaded after its member was removed is
+     * dropped. Room is written on {@link AppDatabase#syncExecutor}, so a delete is never overtaken
+     * by the insert of an earlier download.
+     */
+    private class Entry implements RemoteStore.ChildListener {
+        private final String classId;
+        private final String membershipPath;
+        // Registration of the child listener, or null once detached.
+        private RemoteStore.Registration registration;
+        // Keys of the users currently in the fan-out, as delivered by the child events.
+        private final Set<String> members = new HashSet<>();
+        private int references;
+        private Runnable pendingDetach;
+        // Whether the child events for the members present at attach time have been delivered.
+        private boolean initialMembersDelivered;
+
+        Entry(String classId) {
+            this.classId = classId;
+            membershipPath = "classBookings/" + classId;
+        }
+
+        void attach() {
+            registration = remoteStore.addChildListener(membershipPath, this);
+            // The read is delivered after the initial child events, so this runs once the
+            // current members are known and removes bookings cancelled while nobody was listening.
+            remoteStore.readOnce(membershipPath, new RemoteStore.ValueListener() {
+                @Override
+                public void onValue(RemoteSnapshot dataSnapshot) {
+                    initialMembersDelivered = true;
+                    Set<String> currentIds = new HashSet<>();
+                    for (RemoteSnapshot snapshot : dataSnapshot.getChildren()) {
+                        currentIds.add(Booking.buildId(snapshot.getKey(), classId));
+                    }
+                    AppDatabase.syncExecutor.execute(() -> {
+                        List<String> staleIds = new ArrayList<>();
+                        for (String bookingId : bookingDao.getBookingIdsForClass(classId)) {
+                            if (!currentIds.contains(bookingId)) {
+                                staleIds.add(bookingId);
+                            }
+                        }
+                        if (!staleIds.isEmpty()) {
+                            bookingDao.deleteByIds(staleIds);
+                        }
+                    });
+                }
+
+                @Override
+                public void onCancelled(Exception error) {
+                    Log.e(TAG, "Failed to reconcile bookings of class " + classId, error);
+                }
+            });
+        }
+
+        void detach() {
+            registration.remove();
+            registration = null;
+        }
+
+        @Override
+        public void onChildAdded(RemoteSnapshot snapshot) {
+            // A redelivered event for a known member needs no download.
+            if (!members.add(snapshot.getKey()) || !initialMembersDelivered) {
+                // Existing members are loaded page by page instead.
+                return;
+            }
+            fetch(snapshot.getKey());
+        }
+
+        /**
+         * Downloads the record of a member's booking into Room, retrying until it succeeds or the
+         * member is removed.
+         */
+        private void fetch(String userId) {
+            String bookingId = Booking.buildId(userId, classId);
+            // Fetch the record of the new booking by its deterministic key.
+            remoteStore.get("bookings/" + bookingId).addOnCompleteListener(task -> {
+                if (registration == null || !members.contains(userId)) {
+                    // Detached, or the booking was cancelled while it was downloaded.
+                    return;
+                }
+                if (!task.isSuccessful()) {
+                    Log.e(TAG, "Failed to load booking " + bookingId, task.getException());
+                    mainHandler.postDelayed(() -> fetch(userId), FETCH_RETRY_DELAY_MS);
+                    return;
+                }
+                // Deserialize the data into a Booking object.
+                Booking booking = task.getResult().getValue(Booking.class);
+                if (booking != null) {
+                    booking.setId(bookingId);
+                    AppDatabase.syncExecutor.execute(() -> bookingDao.insert(booking));
+                }
+            });
+        }
+
+        @Override
+        public void onChildChanged(RemoteSnapshot snapshot) {
+            // Fan-out entries only hold a flag, so a change carries no booking data.
+        }
+
+        @Override
+        public void onChildRemoved(RemoteSnapshot snapshot) {
+            members.remove(snapshot.getKey());
+            String bookingId = Booking.buildId(snapshot.getKey(), classId);
+            AppDatabase.syncExecutor.execute(() -> bookingDao.deleteById(bookingId));
+            List<RemovalListener> listeners = removalListeners.get(classId);
+            if (listeners != null) {
+                for (RemovalListener listener : new ArrayList<>(listeners)) {
+                    listener.onBookingRemoved(bookingId);
+                }
+            }
+        }
+
+        @Override
+        public void onCancelled(Exception error) {
+            // The cached bookings remain available, so only log the failure.
+            Log.e(TAG, "Booking listener cancelled for class " + classId, error);
+        }
+    }
+
+    /**
+     * Interface for being told of the bookings removed from a class.
+     */
+    interface RemovalListener {
+        /**
+         * Called on the main thread after the deletion of a removed booking has been queued.
+         *
+         * @param bookingId The ID of the removed booking.
+         */
+        void onBookingRemoved(String bookingId);
+    }
+
+    /**
+     * A {@link LiveData} that mirrors the Room query of a class's bookings and holds a reference
+     * on the shared listener of its class only while it has active observers.
+     */
+    private class ClassBookingsLiveData extends MediatorLiveData<List<Booking>> {
+        private final String classId;
+
+        ClassBookingsLiveData(String classId, LiveData<List<Booking>> localBookings) {
+            this.classId = classId;
+            addSource(localBookings, this::setValue);
+        }
+
+        @Override
+        protected void onActive() {
+            super.onActive();
+            acquire(classId);
+        }
+
+        @Override
+        protected void onInactive() {
+            super.onInactive();
+            release(classId);
+        }
+    }
+}
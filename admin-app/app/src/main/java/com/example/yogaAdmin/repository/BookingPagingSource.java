@@ -0,0 +1,166 @@
+package com.example.yogaAdmin.repository;
+
+import android.util.Log;
+
+import com.example.yogaAdmin.dao.BookingDao;
+import com.example.yogaAdmin.database.AppDatabase;
+import com.example.yogaAdmin.models.Booking;
+import com.example.yogaAdmin.services.RemoteSnapshot;
+import com.example.yogaAdmin.services.RemoteStore;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Loads the bookings of a class from Firebase one page at a time into the local Room cache.
+ * Pages are read from the {@code classBookings/{classId}} fan-out ordered by key, using the key of
+ * the last member read as the cursor of the next page, and the booking records of each page are
+ * then fetched in parallel by their deterministic keys. If any record of a page cannot be read,
+ * the cursor stays before the page so the next call reads it again.
+ * Bookings the {@link BookingListenerRegistry} sees cancelled while a page is being read are left
+ * out of the page, so a record read just before its cancellation is not written back to Room.
+ * All methods are expected to run on the main thread, which is where Firebase results are delivered.
+ */
+public class BookingPagingSource {
+    private static final String TAG = "BookingPagingSource";
+
+    // Store through which Firebase is read.
+    private final RemoteStore remoteStore;
+    // DAO for the local booking cache.
+    private final BookingDao bookingDao;
+    // Registry of the shared listeners, which reports the bookings cancelled while a page is read.
+    private final BookingListenerRegistry listenerRegistry;
+    // The Firebase key of the class whose bookings are loaded.
+    private final String classId;
+    // Key of the last member read, or null if no page has been loaded yet.
+    private String nextKey;
+    // Whether the last page has been loaded.
+    private boolean endReached;
+    // Whether a page is currently being loaded.
+    private boolean loading;
+
+    /**
+     * Constructor for the BookingPagingSource.
+     *
+     * @param remoteStore The store to read the bookings from.
+     * @param bookingDao The DAO of the local booking cache.
+     * @param listenerRegistry The registry reporting the bookings removed from the class.
+     * @param classId The Firebase key of the class whose bookings are loaded.
+     */
+    BookingPagingSource(RemoteStore remoteStore, BookingDao bookingDao, BookingListenerRegistry listenerRegistry,
+                        String classId) {
+        this.remoteStore = remoteStore;
+        this.bookingDao = bookingDao;
+        this.listenerRegistry = listenerRegistry;
+        this.classId = classId;
+    }
+
+    /**
+     * Returns whether more pages may be available.
+     *
+     * @return {@code true} until a page shorter than requested has been loaded.
+     */
+    public boolean hasMore() {
+        return !endReached;
+    }
+
+    /**
+     * Returns whether a page is currently being loaded.
+     *
+     * @return {@code true} while a call to {@link #loadNextPage(int, LoadCallback)} is in progress.
+     */
+    public boolean isLoading() {
+        return loading;
+    }
+
+    /**
+     * Loads the next page of bookings into the local cache.
+     * The call is ignored if a page is already being loaded or the last page has been reached.
+     *
+     * @param pageSize The maximum number of bookings to load.
+     * @param callback The callback to be invoked once the page has been loaded.
+     */
+    public void loadNextPage(int pageSize, LoadCallback callback) {
+        if (loading || endReached) {
+            return;
+        }
+        loading = true;
+        String pageStartKey = nextKey;
+        // Collect the bookings cancelled from now until the page is written.
+        Set<String> removedIds = new HashSet<>();
+        BookingListenerRegistry.RemovalListener removalListener = removedIds::add;
+        listenerRegistry.addRemovalListener(classId, removalListener);
+        remoteStore.getChildrenAfter("classBookings/" + classId, nextKey, pageSize).addOnCompleteListener(membersTask -> {
+            if (!membersTask.isSuccessful()) {
+                listenerRegistry.removeRemovalListener(classId, removalListener);
+                loading = false;
+                Log.e(TAG, "Failed to load booking page of class " + classId, membersTask.getException());
+                callback.onError(membersTask.getException());
+                return;
+            }
+            List<String> bookingIds = new ArrayList<>();
+            List<Task<RemoteSnapshot>> reads = new ArrayList<>();
+            for (RemoteSnapshot member : membersTask.getResult().getChildren()) {
+                nextKey = member.getKey();
+                String bookingId = Booking.buildId(member.getKey(), classId);
+                bookingIds.add(bookingId);
+                reads.add(remoteStore.get("bookings/" + bookingId));
+            }
+            boolean lastPage = bookingIds.size() < pageSize;
+            Tasks.whenAllComplete(reads).addOnCompleteListener(recordsTask -> {
+                List<Booking> page = new ArrayList<>(reads.size());
+                Exception failure = null;
+                for (int i = 0; i < reads.size(); i++) {
+                    Task<RemoteSnapshot> read = reads.get(i);
+                    if (!read.isSuccessful()) {
+                        Log.e(TAG, "Failed to load booking " + bookingIds.get(i), read.getException());
+                        failure = read.getException();
+                        continue;
+                    }
+                    Booking booking = read.getResult().getValue(Booking.class);
+                    // A booking cancelled during the read has already been deleted from Room.
+                    if (booking != null && !removedIds.contains(bookingIds.get(i))) {
+                        booking.setId(bookingIds.get(i));
+                        page.add(booking);
+                    }
+                }
+                AppDatabase.syncExecutor.execute(() -> bookingDao.insertAll(page));
+                // Later cancellations are deleted after this insert, as the executor runs in order.
+                listenerRegistry.removeRemovalListener(classId, removalListener);
+                loading = false;
+                if (failure != null) {
+                    // Read the whole page again next time, so the bookings that failed are not skipped.
+                    nextKey = pageStartKey;
+                    callback.onError(failure);
+                    return;
+                }
+                endReached = lastPage;
+                callback.onPageLoaded(bookingIds.size(), lastPage);
+            });
+        });
+    }
+
+    /**
+     * Interface for receiving the result of a page load.
+     */
+    public interface LoadCallback {
+        /**
+         * Called when a page has been loaded and handed to the local cache.
+         *
+         * @param count The number of bookings in the page.
+         * @param endReached Whether this was the last page.
+         */
+        void onPageLoaded(int count, boolean endReached);
+
+        /**
+         * Called when the page could not be loaded.
+         *
+         * @param e The exception that occurred.
+         */
+        void onError(Exception e);
+    }
+}
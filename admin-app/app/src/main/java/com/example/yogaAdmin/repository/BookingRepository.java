@@ -1,72 +1,90 @@
 package com.example.yogaAdmin.repository;
 
+import android.app.Application;
+
 import androidx.lifecycle.LiveData;
-import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Transformations;
 
+import com.example.yogaAdmin.dao.BookingDao;
+import com.example.yogaAdmin.database.AppDatabase;
+import com.example.yogaAdmin.metrics.MetricsRegistry;
+import com.example.yogaAdmin.metrics.TimedDao;
 import com.example.yogaAdmin.models.Booking;
-import com.google.firebase.database.DataSnapshot;
-import com.google.firebase.database.DatabaseError;
-import com.google.firebase.database.DatabaseReference;
-import com.google.firebase.database.FirebaseDatabase;
-import com.google.firebase.database.ValueEventListener;
+import com.example.yogaAdmin.services.RemoteStore;
+import com.example.yogaAdmin.services.RemoteStores;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Repository for handling booking data.
- * This class abstracts the data source for bookings, which is the Firebase Realtime Database.
+ * This class abstracts the data sources for bookings, which are the Firebase Realtime Database
+ * and the local Room cache of the bookings synced from it.
  * It provides a clean API for the rest of the app to interact with booking data.
  */
 public class BookingRepository {
-    // Reference to the "bookings" node in the Firebase Realtime Database.
-    private DatabaseReference databaseReference;
+    // Store through which Firebase is read.
+    private final RemoteStore remoteStore;
+    // Data Access Object for the local booking cache.
+    private final BookingDao bookingDao;
+    // Registry that shares one booking listener per class across all observers.
+    private final BookingListenerRegistry listenerRegistry;
 
     /**
      * Constructor for the BookingRepository.
-     * Initializes the Firebase Database reference.
+     * Initializes the remote store and the local booking cache.
+     *
+     * @param application The application context, used to get the database instance.
      */
-    public BookingRepository() {
-        // Get a reference to the 'bookings' node in the Firebase database.
-        databaseReference = FirebaseDatabase.getInstance().getReference("bookings");
+    public BookingRepository(Application application) {
+        bookingDao = TimedDao.wrap(BookingDao.class, AppDatabase.getDatabase(application).bookingDao(),
+                MetricsRegistry.getInstance());
+        remoteStore = RemoteStores.getInstance();
+        listenerRegistry = BookingListenerRegistry.getInstance(remoteStore, bookingDao);
     }
 
     /**
-     * Retrieves all bookings for a specific class from Firebase.
+     * Retrieves the bookings of a class that have been loaded page by page.
+     * The cached bookings are emitted up to the current limit, in the order in which
+     * {@link BookingPagingSource} loads them, and bookings added or cancelled in Firebase are
+     * applied while the LiveData is observed.
      *
      * @param classId The Firebase key of the class for which to fetch bookings.
+     * @param limit A {@link LiveData} holding the number of bookings to show, or -1 for all of them.
      * @return A {@link LiveData} object containing a list of {@link Booking}s.
-     *         The LiveData will be updated in real-time as the data changes in Firebase.
      */
-    public LiveData<List<Booking>> getBookingsForClass(String classId) {
-        // Use MutableLiveData to hold the list of bookings.
-        MutableLiveData<List<Booking>> bookingsLiveData = new MutableLiveData<>();
-        
-        // Create a query to fetch bookings where the 'classId' child matches the provided classId.
-        databaseReference.orderByChild("classId").equalTo(classId).addValueEventListener(new ValueEventListener() {
-            @Override
-            public void onDataChange(DataSnapshot dataSnapshot) {
-                List<Booking> bookings = new ArrayList<>();
-                // Iterate through the results of the query.
-                for (DataSnapshot snapshot : dataSnapshot.getChildren()) {
-                    // Deserialize the data into a Booking object.
-                    Booking booking = snapshot.getValue(Booking.class);
-                    if (booking != null) {
-                        bookings.add(booking);
-                    }
-                }
-                // Post the updated list of bookings to the LiveData object.
-                bookingsLiveData.postValue(bookings);
-            }
+    public LiveData<List<Booking>> getBookingsForClass(String classId, LiveData<Integer> limit) {
+        return listenerRegistry.observe(classId,
+                Transformations.switchMap(limit, count -> bookingDao.getBookingsForClassPaged(classId, count)));
+    }
+
+    /**
+     * Creates a paging source that loads the bookings of a class into the local cache.
+     *
+     * @param classId The Firebase key of the class.
+     * @return A new {@link BookingPagingSource} positioned before the first page.
+     */
+    public BookingPagingSource getPagingSource(String classId) {
+        return new BookingPagingSource(remoteStore, bookingDao, listenerRegistry, classId);
+    }
+
+    /**
+     * Retrieves the cached bookings made by a specific user.
+     *
+     * @param userId The ID of the user.
+     * @return A {@link LiveData} list of the user's {@link Booking}s, most recent first.
+     */
+    public LiveData<List<Booking>> getBookingsForUser(String userId) {
+        return bookingDao.getBookingsForUser(userId);
+    }
 
-            @Override
-            public void onCancelled(DatabaseError databaseError) {
-                // Handle any errors that occur during the data fetch.
-                // Post null to the LiveData to indicate an error.
-                bookingsLiveData.postValue(null);
-            }
-        });
-        
-        return bookingsLiveData;
+    /**
+     * Retrieves the cached bookings made within a time range.
+     *
+     * @param from The inclusive start of the range, as an ISO 8601 string.
+     * @param to The exclusive end of the range, as an ISO 8601 string.
+     * @return A {@link LiveData} list of {@link Booking}s made within the range, oldest first.
+     */
+    public LiveData<List<Booking>> getBookingsBetween(String from, String to) {
+        return bookingDao.getBookingsBetween(from, to);
     }
 }
@@ -0,0 +1,141 @@
+package com.example.yogaAdmin.repository;
+
+import com.example.yogaAdmin.models.ClassWithCourseInfo;
+import com.example.yogaAdmin.utils.DateUtils;
+import com.example.yogaAdmin.utils.FrequencyTrie;
+import com.example.yogaAdmin.utils.IntervalTree;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Detects instructors assigned to overlapping classes on the same date.
+ * The schedule is indexed as one {@link IntervalTree} per instructor and date, where each class
+ * occupies its course's start time plus its duration. A proposed class, or each class of a repeat
+ * series, is then checked with a single O(log n) lookup, and {@link #audit()} scans the whole
+ * schedule for existing double bookings.
+ * Instructor names are compared in their normalized form, so spelling variants that differ only in
+ * case, accents or spacing count as the same instructor. Cancelled classes do not occupy the
+ * instructor.
+ */
+public class InstructorConflictDetector {
+
+    // Status of classes that no longer occupy their instructor.
+    private static final String STATUS_CANCELLED = "Cancelled";
+
+    // Interval tree of the classes of each instructor on each date, keyed by instructorDateKey.
+    private final Map<String, IntervalTree<ClassWithCourseInfo>> trees = new HashMap<>();
+
+    /**
+     * Builds the index over a schedule.
+     *
+     * @param classes Every class together with its course.
+     */
+    public InstructorConflictDetector(List<ClassWithCourseInfo> classes) {
+        Map<String, List<IntervalTree.Interval<ClassWithCourseInfo>>> intervalsByKey = new HashMap<>();
+        for (ClassWithCourseInfo item : classes) {
+            if (item.yogaCourse == null || STATUS_CANCELLED.equals(item.yogaClass.getStatus())) {
+                continue;
+            }
+            String instructor = FrequencyTrie.normalizeKey(item.yogaClass.getAssignedInstructor());
+            int start = DateUtils.parseTimeMinutes(item.yogaCourse.getTime());
+            if (instructor.isEmpty() || item.yogaClass.getDate() == null || start < 0 || item.yogaCourse.getDuration() <= 0) {
+                continue;
+            }
+            String key = instructorDateKey(instructor, item.yogaClass.getDate());
+            List<IntervalTree.Interval<ClassWithCourseInfo>> intervals = intervalsByKey.get(key);
+            if (intervals == null) {
+                intervals = new ArrayList<>();
+                intervalsByKey.put(key, intervals);
+            }
+            intervals.add(new IntervalTree.Interval<>(start, start + item.yogaCourse.getDuration(), item));
+        }
+        for (Map.Entry<String, List<IntervalTree.Interval<ClassWithCourseInfo>>> entry : intervalsByKey.entrySet()) {
+            trees.put(entry.getKey(), new IntervalTree<>(entry.getValue()));
+        }
+    }
+
+    /**
+     * Finds the existing classes that would overlap a proposed class or repeat series.
+     *
+     * @param instructor The instructor of the proposed classes.
+     * @param dates The dates of the proposed classes, in "dd/MM/yyyy" format.
+     * @param time The start time of the proposed classes, e.g. "10:00".
+     * @param duration The duration of the proposed classes in minutes.
+     * @param excludedClassId The ID of a class to ignore, e.g. the class being edited, or -1.
+     * @return The overlapping classes, in the order of the dates and then by start time.
+     */
+    public List<ClassWithCourseInfo> findConflicts(String instructor, List<String> dates, String time,
+                                                   int duration, long excludedClassId) {
+        List<ClassWithCourseInfo> conflicts = new ArrayList<>();
+        String normalizedInstructor = FrequencyTrie.normalizeKey(instructor);
+        int start = DateUtils.parseTimeMinutes(time);
+        if (normalizedInstructor.isEmpty() || start < 0 || duration <= 0) {
+            return conflicts;
+        }
+        for (String date : dates) {
+            IntervalTree<ClassWithCourseInfo> tree = trees.get(instructorDateKey(normalizedInstructor, date));
+            if (tree == null) {
+                continue;
+            }
+            for (ClassWithCourseInfo existing : tree.overlapping(start, start + duration)) {
+                if (existing.yogaClass.getId() != excludedClassId) {
+                    conflicts.add(existing);
+                }
+            }
+        }
+        return conflicts;
+    }
+
+    /**
+     * Scans the whole schedule for instructors booked into overlapping classes.
+     *
+     * @return Every pair of overlapping classes, each reported once.
+     */
+    public List<Conflict> audit() {
+        List<Conflict> conflicts = new ArrayList<>();
+        for (IntervalTree<ClassWithCourseInfo> tree : trees.values()) {
+            if (tree.size() < 2) {
+                continue;
+            }
+            // Query each class against its own tree, keeping each pair from its lower ID only.
+            for (ClassWithCourseInfo item : tree.overlapping(Integer.MIN_VALUE, Integer.MAX_VALUE)) {
+                int start = DateUtils.parseTimeMinutes(item.yogaCourse.getTime());
+                for (ClassWithCourseInfo other : tree.overlapping(start, start + item.yogaCourse.getDuration())) {
+                    if (other.yogaClass.getId() > item.yogaClass.getId()) {
+                        conflicts.add(new Conflict(item, other));
+                    }
+                }
+            }
+        }
+        return conflicts;
+    }
+
+    /**
+     * Returns the key of the tree of an instructor on a date.
+     */
+    private static String instructorDateKey(String normalizedInstructor, String date) {
+        return normalizedInstructor + '\u0000' + date;
+    }
+
+    /**
+     * Two classes of the same instructor that overlap in time on the same date.
+     */
+    public static final class Conflict {
+        public final ClassWithCourseInfo first;
+        public final ClassWithCourseInfo second;
+
+        /**
+         * Constructor for a conflict.
+         *
+         * @param first The class with the lower ID.
+         * @param second The class with the higher ID.
+         */
+        public Conflict(ClassWithCourseInfo first, ClassWithCourseInfo second) {
+            this.first = first;
+            this.second = second;
+        }
+    }
+}
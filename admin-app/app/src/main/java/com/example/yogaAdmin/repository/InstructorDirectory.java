@@ -0,0 +1,129 @@
+package com.example.yogaAdmin.repository;
+
+import android.app.Application;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.lifecycle.LiveData;
+
+import com.example.yogaAdmin.database.AppDatabase;
+import com.example.yogaAdmin.metrics.InstrumentedThreadPool;
+import com.example.yogaAdmin.metrics.MetricsRegistry;
+import com.example.yogaAdmin.models.InstructorName;
+import com.example.yogaAdmin.utils.FrequencyTrie;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Directory of the distinct instructor names used across classes and courses, for autocompleting
+ * instructor fields. Names are ranked by how many classes and courses use them.
+ * The directory observes a projection of the instructor columns, so it follows local writes and
+ * Firebase sync alike. Each emission is diffed by row ID against the previous one, and only the
+ * names that were added, changed or removed are applied to an in-memory {@link FrequencyTrie};
+ * suggestions are then served from memory without querying the database per keystroke.
+ * It follows a singleton pattern so the trie is built once per process.
+ */
+public class InstructorDirectory {
+    private static final String TAG = "InstructorDirectory";
+    private static volatile InstructorDirectory INSTANCE;
+
+    // Ranked trie of instructor names. Guarded by its own monitor.
+    private final FrequencyTrie trie = new FrequencyTrie();
+    // Single background thread that applies changes in the order they were emitted.
+    private final ExecutorService updateExecutor = new InstrumentedThreadPool("instructorDirectory", 1, MetricsRegistry.getInstance());
+    // Last seen instructor name of each class and course, keyed by row ID. Only accessed on the update executor.
+    private final Map<Long, String> classInstructors = new HashMap<>();
+    private final Map<Long, String> courseInstructors = new HashMap<>();
+
+    /**
+     * Private constructor for the singleton pattern.
+     * Starts observing the instructor names of classes and courses on the main thread.
+     *
+     * @param application The application context.
+     */
+    private InstructorDirectory(Application application) {
+        AppDatabase db = AppDatabase.getDatabase(application);
+        LiveData<List<InstructorName>> classNames = db.yogaClassDao().getInstructorNames();
+        LiveData<List<InstructorName>> courseNames = db.yogaCourseDao().getInstructorNames();
+        new Handler(Looper.getMainLooper()).post(() -> {
+            classNames.observeForever(names -> apply(names, classInstructors));
+            courseNames.observeForever(names -> apply(names, courseInstructors));
+        });
+    }
+
+    /**
+     * Returns the singleton instance of the directory.
+     *
+     * @param application The application context.
+     * @return The single instance of {@link InstructorDirectory}.
+     */
+    public static InstructorDirectory getInstance(Application application) {
+        if (INSTANCE == null) {
+            synchronized (InstructorDirectory.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new InstructorDirectory(application);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the instructor names with a word starting with a prefix, most used first.
+     * Safe to call from any thread.
+     *
+     * @param prefix The text typed so far.
+     * @param limit The maximum number of suggestions.
+     * @return The matching instructor names in their most used spelling.
+     */
+    public List<String> suggest(String prefix, int limit) {
+        synchronized (trie) {
+            return trie.suggest(prefix, limit);
+        }
+    }
+
+    /**
+     * Applies the difference between an emission of instructor names and the previous one to the
+     * trie on the update executor.
+     *
+     * @param names The latest instructor names of one table, or null.
+     * @param lastSeen The names last applied for that table, keyed by row ID.
+     */
+    private void apply(List<InstructorName> names, Map<Long, String> lastSeen) {
+        if (names == null) {
+            return;
+        }
+        updateExecutor.execute(() -> {
+            // Rows left in this map once every emitted row is matched have been deleted.
+            Map<Long, String> removed = new HashMap<>(lastSeen);
+            int changes = 0;
+            int distinctNames;
+            synchronized (trie) {
+                for (InstructorName row : names) {
+                    boolean known = lastSeen.containsKey(row.id);
+                    String previous = removed.remove(row.id);
+                    if (!known || !Objects.equals(previous, row.name)) {
+                        trie.remove(previous);
+                        trie.add(row.name);
+                        lastSeen.put(row.id, row.name);
+                        changes++;
+                    }
+                }
+                for (Map.Entry<Long, String> row : removed.entrySet()) {
+                    trie.remove(row.getValue());
+                    lastSeen.remove(row.getKey());
+                    changes++;
+                }
+                distinctNames = trie.size();
+            }
+            if (changes > 0) {
+                Log.d(TAG, "Applied " + changes + " instructor changes, " + distinctNames + " distinct names.");
+            }
+        });
+    }
+}
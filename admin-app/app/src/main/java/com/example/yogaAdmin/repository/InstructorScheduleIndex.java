@@ -0,0 +1,351 @@
+package com.example.yogaAdmin.repository;
+
+import android.app.Application;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.example.yogaAdmin.database.AppDatabase;
+import com.example.yogaAdmin.metrics.InstrumentedThreadPool;
+import com.example.yogaAdmin.metrics.MetricsRegistry;
+import com.example.yogaAdmin.models.InstructorAssignment;
+import com.example.yogaAdmin.utils.DateUtils;
+import com.example.yogaAdmin.utils.FrequencyTrie;
+import com.example.yogaAdmin.utils.SortedIntervalList;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * In-memory index of when each instructor is busy and which class types they teach, for finding
+ * a substitute when an instructor is unavailable.
+ * For every instructor the index keeps a {@link SortedIntervalList} of assignments per date and a
+ * count of classes taught per class type, so checking whether an instructor is free for a slot is a
+ * binary search over one day of their schedule, and a substitute query is one such lookup per
+ * instructor.
+ * The index observes a projection of classes joined with their course, so it follows local writes
+ * and Firebase sync alike. Each emission is diffed by class against the previous one, and only the
+ * assignments that were added, changed or removed are applied. Cancelled classes neither keep an
+ * instructor busy nor count as taught.
+ * Changes are applied to copies of the schedules they touch and then published as a new immutable
+ * snapshot, so lookups read the latest snapshot without locking and never wait for an update.
+ * It follows a singleton pattern so the index is built once per process.
+ */
+public class InstructorScheduleIndex {
+    private static final String TAG = "InstructorScheduleIndex";
+    private static volatile InstructorScheduleIndex INSTANCE;
+    // Status of classes that no longer occupy their instructor.
+    private static final String STATUS_CANCELLED = "Cancelled";
+
+    // Single background thread that applies changes in the order they were emitted.
+    private final ExecutorService updateExecutor = new InstrumentedThreadPool("instructorSchedule", 1, MetricsRegistry.getInstance());
+    // The latest published state of the index, never modified once published. Only replaced on the update executor.
+    private volatile Snapshot snapshot = new Snapshot(new HashMap<>(), new HashMap<>());
+
+    /**
+     * Private constructor for the singleton pattern.
+     * Starts observing the instructor assignments on the main thread.
+     *
+     * @param application The application context.
+     */
+    private InstructorScheduleIndex(Application application) {
+        AppDatabase db = AppDatabase.getDatabase(application);
+        new Handler(Looper.getMainLooper()).post(() ->
+                db.yogaClassDao().getInstructorAssignments().observeForever(this::apply));
+    }
+
+    /**
+     * Returns the singleton instance of the index.
+     *
+     * @param application The application context.
+     * @return The single instance of {@link InstructorScheduleIndex}.
+     */
+    public static InstructorScheduleIndex getInstance(Application application) {
+        if (INSTANCE == null) {
+            synchronized (InstructorScheduleIndex.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new InstructorScheduleIndex(application);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Finds the instructors free to cover a class, best suited first.
+     * An instructor is free if none of their classes overlaps the class on its date. Candidates
+     * are ranked by how many classes of the same class type they have taught, then by how many
+     * classes they have taught in total.
+     *
+     * @param classId The ID of the class needing a substitute.
+     * @param limit The maximum number of substitutes to return.
+     * @return The free instructors, best suited first; empty if the class is unknown.
+     */
+    public List<Substitute> findSubstitutes(long classId, int limit) {
+        Snapshot current = snapshot;
+        InstructorAssignment assignment = current.assignmentsByClass.get(classId);
+        if (assignment == null) {
+            return new ArrayList<>();
+        }
+        return findSubstitutes(current, assignment.date, assignment.time, assignment.duration, assignment.classType,
+                assignment.assignedInstructor, limit);
+    }
+
+    /**
+     * Finds the instructors free during a slot, best suited for a class type first.
+     *
+     * @param date The date of the slot, in "dd/MM/yyyy" format.
+     * @param time The start time of the slot, e.g. "10:00".
+     * @param duration The duration of the slot in minutes.
+     * @param classType The class type to rank experience by.
+     * @param excludedInstructor An instructor to leave out, e.g. the one being replaced, or null.
+     * @param limit The maximum number of substitutes to return.
+     * @return The free instructors, best suited first.
+     */
+    public List<Substitute> findSubstitutes(String date, String time, int duration, String classType,
+                                            String excludedInstructor, int limit) {
+        return findSubstitutes(snapshot, date, time, duration, classType, excludedInstructor, limit);
+    }
+
+    /**
+     * Finds the instructors free during a slot in a snapshot of the index, best suited for a
+     * class type first.
+     */
+    private static List<Substitute> findSubstitutes(Snapshot snapshot, String date, String time, int duration,
+                                                    String classType, String excludedInstructor, int limit) {
+        List<Substitute> substitutes = new ArrayList<>();
+        int start = DateUtils.parseTimeMinutes(time);
+        if (start < 0 || duration <= 0) {
+            return substitutes;
+        }
+        String excluded = FrequencyTrie.normalizeKey(excludedInstructor);
+        for (Map.Entry<String, InstructorSchedule> entry : snapshot.schedules.entrySet()) {
+            InstructorSchedule schedule = entry.getValue();
+            if (entry.getKey().equals(excluded) || schedule.totalClasses == 0) {
+                continue;
+            }
+            SortedIntervalList<InstructorAssignment> day = schedule.busyByDate.get(date);
+            if (day != null && !day.overlapping(start, start + duration).isEmpty()) {
+                continue;
+            }
+            Integer sameType = schedule.classesByType.get(classType);
+            substitutes.add(new Substitute(schedule.displayName, sameType != null ? sameType : 0,
+                    schedule.totalClasses));
+        }
+        substitutes.sort((a, b) -> {
+            if (a.classTypeCount != b.classTypeCount) {
+                return Integer.compare(b.classTypeCount, a.classTypeCount);
+            }
+            if (a.totalCount != b.totalCount) {
+                return Integer.compare(b.totalCount, a.totalCount);
+            }
+            return a.name.compareToIgnoreCase(b.name);
+        });
+        return substitutes.size() > limit ? new ArrayList<>(substitutes.subList(0, limit)) : substitutes;
+    }
+
+    /**
+     * Applies the difference between an emission of assignments and the previous one on the
+     * update executor, then publishes the result as the new snapshot.
+     *
+     * @param assignments The latest assignments, or null.
+     */
+    private void apply(List<InstructorAssignment> assignments) {
+        if (assignments == null) {
+            return;
+        }
+        updateExecutor.execute(() -> {
+            int changes = 0;
+            Update update = new Update(snapshot);
+            // Classes left in this map once every emitted row is matched have been deleted.
+            Map<Long, InstructorAssignment> removed = new HashMap<>(update.assignmentsByClass);
+            for (InstructorAssignment assignment : assignments) {
+                InstructorAssignment previous = removed.remove(assignment.classId);
+                if (!assignment.equals(previous)) {
+                    if (previous != null) {
+                        update.unindex(previous);
+                    }
+                    update.index(assignment);
+                    update.assignmentsByClass.put(assignment.classId, assignment);
+                    changes++;
+                }
+            }
+            for (Map.Entry<Long, InstructorAssignment> row : removed.entrySet()) {
+                update.unindex(row.getValue());
+                update.assignmentsByClass.remove(row.getKey());
+                changes++;
+            }
+            if (changes > 0) {
+                snapshot = new Snapshot(update.assignmentsByClass, update.schedules);
+                Log.d(TAG, "Applied " + changes + " instructor assignment changes.");
+            }
+        });
+    }
+
+    /**
+     * A published state of the index. Neither the maps nor the schedules they hold are modified
+     * once the snapshot is published.
+     */
+    private static final class Snapshot {
+        // Last applied assignment of each class, keyed by class ID.
+        final Map<Long, InstructorAssignment> assignmentsByClass;
+        // Schedule of each instructor, keyed by normalized name.
+        final Map<String, InstructorSchedule> schedules;
+
+        Snapshot(Map<Long, InstructorAssignment> assignmentsByClass, Map<String, InstructorSchedule> schedules) {
+            this.assignmentsByClass = assignmentsByClass;
+            this.schedules = schedules;
+        }
+    }
+
+    /**
+     * The changes of one emission, applied on top of a snapshot without modifying it.
+     * A schedule or day is copied the first time the update touches it, and the copy is then
+     * modified in place, so an update costs the size of the schedules it changes.
+     */
+    private static final class Update {
+        final Map<Long, InstructorAssignment> assignmentsByClass;
+        final Map<String, InstructorSchedule> schedules;
+        // Schedules and days created or copied by this update, which it may modify in place.
+        private final Set<InstructorSchedule> ownedSchedules = Collections.newSetFromMap(new IdentityHashMap<>());
+        private final Set<SortedIntervalList<InstructorAssignment>> ownedDays = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        Update(Snapshot base) {
+            assignmentsByClass = new HashMap<>(base.assignmentsByClass);
+            schedules = new HashMap<>(base.schedules);
+        }
+
+        /**
+         * Adds an assignment to its instructor's schedule and class type counts.
+         */
+        void index(InstructorAssignment assignment) {
+            String instructor = FrequencyTrie.normalizeKey(assignment.assignedInstructor);
+            if (instructor.isEmpty() || STATUS_CANCELLED.equals(assignment.status)) {
+                return;
+            }
+            InstructorSchedule schedule = ownedSchedule(instructor);
+            schedule.displayName = assignment.assignedInstructor.trim();
+            schedule.totalClasses++;
+            Integer sameType = schedule.classesByType.get(assignment.classType);
+            schedule.classesByType.put(assignment.classType, sameType != null ? sameType + 1 : 1);
+            int start = DateUtils.parseTimeMinutes(assignment.time);
+            if (start >= 0 && assignment.date != null && assignment.duration > 0) {
+                ownedDay(schedule, assignment.date).add(start, start + assignment.duration, assignment);
+            }
+        }
+
+        /**
+         * Removes an assignment previously added with {@link #index(InstructorAssignment)}.
+         */
+        void unindex(InstructorAssignment assignment) {
+            String instructor = FrequencyTrie.normalizeKey(assignment.assignedInstructor);
+            if (!schedules.containsKey(instructor) || STATUS_CANCELLED.equals(assignment.status)) {
+                return;
+            }
+            InstructorSchedule schedule = ownedSchedule(instructor);
+            if (--schedule.totalClasses == 0) {
+                schedules.remove(instructor);
+                return;
+            }
+            Integer sameType = schedule.classesByType.get(assignment.classType);
+            if (sameType != null && sameType > 1) {
+                schedule.classesByType.put(assignment.classType, sameType - 1);
+            } else {
+                schedule.classesByType.remove(assignment.classType);
+            }
+            if (!schedule.busyByDate.containsKey(assignment.date)) {
+                return;
+            }
+            int start = DateUtils.parseTimeMinutes(assignment.time);
+            SortedIntervalList<InstructorAssignment> day = ownedDay(schedule, assignment.date);
+            if (day.remove(start, assignment) && day.isEmpty()) {
+                schedule.busyByDate.remove(assignment.date);
+            }
+        }
+
+        /**
+         * Returns the schedule of an instructor that this update may modify, copying the
+         * published one or creating it if necessary.
+         */
+        private InstructorSchedule ownedSchedule(String instructor) {
+            InstructorSchedule schedule = schedules.get(instructor);
+            if (schedule == null || !ownedSchedules.contains(schedule)) {
+                schedule = schedule != null ? new InstructorSchedule(schedule) : new InstructorSchedule();
+                schedules.put(instructor, schedule);
+                ownedSchedules.add(schedule);
+            }
+            return schedule;
+        }
+
+        /**
+         * Returns the busy intervals of an owned schedule on a date that this update may modify,
+         * copying the published ones or creating them if necessary.
+         */
+        private SortedIntervalList<InstructorAssignment> ownedDay(InstructorSchedule schedule, String date) {
+            SortedIntervalList<InstructorAssignment> day = schedule.busyByDate.get(date);
+            if (day == null || !ownedDays.contains(day)) {
+                day = day != null ? new SortedIntervalList<>(day) : new SortedIntervalList<>();
+                schedule.busyByDate.put(date, day);
+                ownedDays.add(day);
+            }
+            return day;
+        }
+    }
+
+    /**
+     * The busy intervals and teaching history of one instructor.
+     */
+    private static final class InstructorSchedule {
+        // The spelling of the name used by the most recently indexed class.
+        String displayName;
+        // Number of classes taught that are not cancelled.
+        int totalClasses;
+        // Number of classes taught per class type.
+        final Map<String, Integer> classesByType;
+        // Busy intervals on each date, keyed by date. The lists may be shared with other copies.
+        final Map<String, SortedIntervalList<InstructorAssignment>> busyByDate;
+
+        InstructorSchedule() {
+            classesByType = new HashMap<>();
+            busyByDate = new HashMap<>();
+        }
+
+        /**
+         * Copies a schedule, sharing its busy interval lists.
+         */
+        InstructorSchedule(InstructorSchedule other) {
+            displayName = other.displayName;
+            totalClasses = other.totalClasses;
+            classesByType = new HashMap<>(other.classesByType);
+            busyByDate = new HashMap<>(other.busyByDate);
+        }
+    }
+
+    /**
+     * An instructor free to cover a class, with the experience used to rank them.
+     */
+    public static final class Substitute {
+        public final String name;
+        public final int classTypeCount;
+        public final int totalCount;
+
+        /**
+         * Constructor for a substitute.
+         *
+         * @param name The instructor's name.
+         * @param classTypeCount The number of classes of the requested class type they have taught.
+         * @param totalCount The total number of classes they have taught.
+         */
+        public Substitute(String name, int classTypeCount, int totalCount) {
+            this.name = name;
+            this.classTypeCount = classTypeCount;
+            this.totalCount = totalCount;
+        }
+    }
+}
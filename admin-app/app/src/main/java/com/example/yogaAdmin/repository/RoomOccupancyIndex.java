@@ -0,0 +1,321 @@
+package com.example.yogaAdmin.repository;
+
+import android.app.Application;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.example.yogaAdmin.database.AppDatabase;
+import com.example.yogaAdmin.metrics.InstrumentedThreadPool;
+import com.example.yogaAdmin.metrics.MetricsRegistry;
+import com.example.yogaAdmin.models.RoomBooking;
+import com.example.yogaAdmin.utils.DateUtils;
+import com.example.yogaAdmin.utils.FrequencyTrie;
+import com.example.yogaAdmin.utils.SortedIntervalList;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * In-memory timeline of which room each class occupies and when, for detecting room clashes
+ * between courses and finding free rooms.
+ * Every class occupies its course's room from the course's start time for its duration on the
+ * class date. The bookings are kept in a {@link SortedIntervalList} per room and date, and in one
+ * per date across all rooms, so a clash check or a "free rooms at this slot" query is a binary
+ * search over one day rather than a scan of the schedule.
+ * The index observes a projection of classes joined with their course, so it follows local writes
+ * and Firebase sync alike. Each emission is diffed by row against the previous one, and only the
+ * bookings that were added, changed or removed are applied. Cancelled classes do not occupy a room.
+ * It follows a singleton pattern so the index is built once per process.
+ */
+public class RoomOccupancyIndex {
+    private static final String TAG = "RoomOccupancyIndex";
+    private static volatile RoomOccupancyIndex INSTANCE;
+    // Status of classes that no longer occupy their room.
+    private static final String STATUS_CANCELLED = "Cancelled";
+
+    // Single background thread that applies changes in the order they were emitted.
+    private final ExecutorService updateExecutor = new InstrumentedThreadPool("roomOccupancy", 1, MetricsRegistry.getInstance());
+    // Last applied booking of each row, keyed by RoomBooking#rowKey. Guarded by this index's monitor.
+    private final Map<String, RoomBooking> bookingsByRow = new HashMap<>();
+    // Timeline of each room on each date, keyed by roomDateKey. Guarded by this index's monitor.
+    private final Map<String, SortedIntervalList<RoomBooking>> roomTimelines = new HashMap<>();
+    // Timeline of all rooms on each date, keyed by date. Guarded by this index's monitor.
+    private final Map<String, SortedIntervalList<RoomBooking>> dateTimelines = new HashMap<>();
+    // Number of rows using each room, keyed by normalized room. Guarded by this index's monitor.
+    private final Map<String, Integer> roomUsage = new HashMap<>();
+    // Display name of each room, keyed and ordered by normalized room. Guarded by this index's monitor.
+    private final TreeMap<String, String> roomNames = new TreeMap<>();
+    // Whether the first emission has been applied. Guarded by this index's monitor.
+    private boolean loaded;
+    // Actions waiting for the first emission to be applied. Guarded by this index's monitor.
+    private final List<Runnable> loadedActions = new ArrayList<>();
+    // Handler used to run the waiting actions on the main thread.
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    /**
+     * Private constructor for the singleton pattern.
+     * Starts observing the room bookings on the main thread.
+     *
+     * @param application The application context.
+     */
+    private RoomOccupancyIndex(Application application) {
+        AppDatabase db = AppDatabase.getDatabase(application);
+        mainHandler.post(() ->
+                db.yogaCourseDao().getRoomBookings().observeForever(this::apply));
+    }
+
+    /**
+     * Returns the singleton instance of the index.
+     *
+     * @param application The application context.
+     * @return The single instance of {@link RoomOccupancyIndex}.
+     */
+    public static RoomOccupancyIndex getInstance(Application application) {
+        if (INSTANCE == null) {
+            synchronized (RoomOccupancyIndex.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new RoomOccupancyIndex(application);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Returns whether the index has been built from the database yet. Until then it holds no
+     * bookings, so a clash check would miss every clash.
+     *
+     * @return {@code true} once the first set of bookings has been applied.
+     */
+    public synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Runs an action on the main thread once the index has been built from the database.
+     * Must be called on the main thread; the action runs immediately if the index is loaded.
+     *
+     * @param action The action to run.
+     */
+    public void runWhenLoaded(Runnable action) {
+        synchronized (this) {
+            if (!loaded) {
+                loadedActions.add(action);
+                return;
+            }
+        }
+        action.run();
+    }
+
+    /**
+     * Finds the classes of other courses occupying a room at overlapping times on any of the dates.
+     *
+     * @param room The room to check.
+     * @param dates The dates to check, in "dd/MM/yyyy" format.
+     * @param time The start time, e.g. "10:00".
+     * @param duration The duration in minutes.
+     * @param excludedCourseId The ID of the course whose own classes are ignored, or -1.
+     * @return The clashing bookings, in the order of the dates.
+     */
+    public synchronized List<RoomBooking> findClashes(String room, List<String> dates, String time,
+                                                      int duration, long excludedCourseId) {
+        List<RoomBooking> clashes = new ArrayList<>();
+        String normalizedRoom = FrequencyTrie.normalizeKey(room);
+        int start = DateUtils.parseTimeMinutes(time);
+        if (normalizedRoom.isEmpty() || start < 0 || duration <= 0) {
+            return clashes;
+        }
+        for (String date : dates) {
+            SortedIntervalList<RoomBooking> timeline = roomTimelines.get(roomDateKey(normalizedRoom, date));
+            if (timeline == null) {
+                continue;
+            }
+            for (RoomBooking booking : timeline.overlapping(start, start + duration)) {
+                if (booking.courseId != excludedCourseId) {
+                    clashes.add(booking);
+                }
+            }
+        }
+        return clashes;
+    }
+
+    /**
+     * Finds the classes of other courses that a course's existing classes would clash with if the
+     * course moved to the given room, start time and duration.
+     *
+     * @param courseId The ID of the course being edited.
+     * @param room The new room of the course.
+     * @param time The new start time of the course.
+     * @param duration The new duration of the course in minutes.
+     * @return The clashing bookings of other courses.
+     */
+    public synchronized List<RoomBooking> findCourseClashes(long courseId, String room, String time, int duration) {
+        List<String> dates = new ArrayList<>();
+        for (RoomBooking booking : bookingsByRow.values()) {
+            if (booking.courseId == courseId && occupiedStart(booking) >= 0) {
+                dates.add(booking.date);
+            }
+        }
+        return findClashes(room, dates, time, duration, courseId);
+    }
+
+    /**
+     * Returns the rooms with no class overlapping a slot.
+     *
+     * @param date The date of the slot, in "dd/MM/yyyy" format.
+     * @param time The start time of the slot, e.g. "10:00".
+     * @param duration The duration of the slot in minutes.
+     * @return The display names of the free rooms, in alphabetical order.
+     */
+    public synchronized List<String> freeRooms(String date, String time, int duration) {
+        int start = DateUtils.parseTimeMinutes(time);
+        Set<String> busyRooms = new HashSet<>();
+        SortedIntervalList<RoomBooking> timeline = dateTimelines.get(date);
+        if (timeline != null && start >= 0 && duration > 0) {
+            for (RoomBooking booking : timeline.overlapping(start, start + duration)) {
+                busyRooms.add(FrequencyTrie.normalizeKey(booking.roomNumber));
+            }
+        }
+        List<String> free = new ArrayList<>(Math.max(0, roomNames.size() - busyRooms.size()));
+        for (Map.Entry<String, String> room : roomNames.entrySet()) {
+            if (!busyRooms.contains(room.getKey())) {
+                free.add(room.getValue());
+            }
+        }
+        return free;
+    }
+
+    /**
+     * Applies the difference between an emission of room bookings and the previous one on the
+     * update executor.
+     *
+     * @param bookings The latest room bookings, or null.
+     */
+    private void apply(List<RoomBooking> bookings) {
+        if (bookings == null) {
+            return;
+        }
+        updateExecutor.execute(() -> {
+            int changes = 0;
+            synchronized (this) {
+                // Rows left in this map once every emitted row is matched have been deleted.
+                Map<String, RoomBooking> removed = new HashMap<>(bookingsByRow);
+                for (RoomBooking booking : bookings) {
+                    String rowKey = booking.rowKey();
+                    RoomBooking previous = removed.remove(rowKey);
+                    if (!booking.equals(previous)) {
+                        if (previous != null) {
+                            unindex(previous);
+                        }
+                        index(booking);
+                        bookingsByRow.put(rowKey, booking);
+                        changes++;
+                    }
+                }
+                for (Map.Entry<String, RoomBooking> row : removed.entrySet()) {
+                    unindex(row.getValue());
+                    bookingsByRow.remove(row.getKey());
+                    changes++;
+                }
+                loaded = true;
+                for (Runnable action : loadedActions) {
+                    mainHandler.post(action);
+                }
+                loadedActions.clear();
+            }
+            if (changes > 0) {
+                Log.d(TAG, "Applied " + changes + " room booking changes.");
+            }
+        });
+    }
+
+    /**
+     * Adds a booking to the room list and, if it occupies a room, to the timelines.
+     */
+    private void index(RoomBooking booking) {
+        String room = FrequencyTrie.normalizeKey(booking.roomNumber);
+        if (room.isEmpty()) {
+            return;
+        }
+        Integer usage = roomUsage.get(room);
+        roomUsage.put(room, usage == null ? 1 : usage + 1);
+        roomNames.put(room, booking.roomNumber.trim());
+        int start = occupiedStart(booking);
+        if (start >= 0) {
+            timeline(roomTimelines, roomDateKey(room, booking.date)).add(start, start + booking.duration, booking);
+            timeline(dateTimelines, booking.date).add(start, start + booking.duration, booking);
+        }
+    }
+
+    /**
+     * Removes a booking previously added with {@link #index(RoomBooking)}.
+     */
+    private void unindex(RoomBooking booking) {
+        String room = FrequencyTrie.normalizeKey(booking.roomNumber);
+        if (room.isEmpty()) {
+            return;
+        }
+        Integer usage = roomUsage.get(room);
+        if (usage == null || usage <= 1) {
+            roomUsage.remove(room);
+            roomNames.remove(room);
+        } else {
+            roomUsage.put(room, usage - 1);
+        }
+        int start = occupiedStart(booking);
+        if (start >= 0) {
+            removeFrom(roomTimelines, roomDateKey(room, booking.date), start, booking);
+            removeFrom(dateTimelines, booking.date, start, booking);
+        }
+    }
+
+    /**
+     * Returns the start of the interval a booking occupies in minutes after midnight, or -1 if it
+     * does not occupy its room: it has no class, the class is cancelled, or its time is invalid.
+     */
+    private static int occupiedStart(RoomBooking booking) {
+        if (booking.classId == null || booking.date == null || booking.duration <= 0
+                || STATUS_CANCELLED.equals(booking.status)) {
+            return -1;
+        }
+        return DateUtils.parseTimeMinutes(booking.time);
+    }
+
+    /**
+     * Returns the timeline for a key, creating it if needed.
+     */
+    private static SortedIntervalList<RoomBooking> timeline(Map<String, SortedIntervalList<RoomBooking>> timelines,
+                                                            String key) {
+        SortedIntervalList<RoomBooking> timeline = timelines.get(key);
+        if (timeline == null) {
+            timeline = new SortedIntervalList<>();
+            timelines.put(key, timeline);
+        }
+        return timeline;
+    }
+
+    /**
+     * Removes a booking from the timeline for a key, dropping the timeline once it is empty.
+     */
+    private static void removeFrom(Map<String, SortedIntervalList<RoomBooking>> timelines, String key,
+                                   int start, RoomBooking booking) {
+        SortedIntervalList<RoomBooking> timeline = timelines.get(key);
+        if (timeline != null && timeline.remove(start, booking) && timeline.isEmpty()) {
+            timelines.remove(key);
+        }
+    }
+
+    /**
+     * Returns the key of the timeline of a room on a date.
+     */
+    private static String roomDateKey(String normalizedRoom, String date) {
+        return normalizedRoom + '\u0000' + date;
+    }
+}
@@ -1,26 +1,32 @@
 package com.example.yogaAdmin.repository;
 
 import android.app.Application;
-import androidx.annotation.NonNull;
+import android.util.Log;
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import com.example.yogaAdmin.dao.BookingDao;
 import com.example.yogaAdmin.dao.YogaClassDao;
 import com.example.yogaAdmin.dao.YogaCourseDao;
 import com.example.yogaAdmin.database.AppDatabase;
+import com.example.yogaAdmin.metrics.Histogram;
+import com.example.yogaAdmin.metrics.MetricsRegistry;
+import com.example.yogaAdmin.metrics.TimedDao;
 import com.example.yogaAdmin.models.ClassWithCourseInfo;
 import com.example.yogaAdmin.models.YogaClass;
 import com.example.yogaAdmin.models.YogaCourse;
-import com.google.firebase.database.DataSnapshot;
-import com.google.firebase.database.DatabaseError;
-import com.google.firebase.database.DatabaseReference;
-import com.google.firebase.database.FirebaseDatabase;
-import com.google.firebase.database.Query;
-import com.google.firebase.database.ValueEventListener;
+import com.example.yogaAdmin.services.RemoteStore;
+import com.example.yogaAdmin.services.RemoteStores;
+import com.example.yogaAdmin.services.SyncBatch;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Repository for handling {@link YogaClass} data.
@@ -29,11 +35,22 @@ import java.util.concurrent.Future;
  * It follows a singleton pattern to ensure a single instance throughout the app.
  */
 public class YogaClassRepository {
+    private static final String TAG = "YogaClassRepository";
     private static volatile YogaClassRepository INSTANCE;
+    private final AppDatabase database;
     private final YogaClassDao yogaClassDao;
     private final YogaCourseDao yogaCourseDao;
-    private final DatabaseReference firebaseDatabase;
-    private final Map<Long, ValueEventListener> activeListeners = new HashMap<>();
+    private final BookingDao bookingDao;
+    private final RemoteStore remoteStore;
+    // Latest snapshot of the classes waiting to be applied, or null if none is pending.
+    private final AtomicReference<List<YogaClass>> pendingSync = new AtomicReference<>();
+    // Classes of the last applied snapshot whose course has not been synced yet.
+    // Only accessed on AppDatabase.syncExecutor.
+    private List<YogaClass> orphanedClasses = Collections.emptyList();
+    // Time taken to apply a snapshot, snapshots superseded before their turn, and rows written.
+    private final Histogram syncApplyTime;
+    private final LongAdder syncSuperseded;
+    private final LongAdder syncWrites;
 
     /**
      * Private constructor for the singleton pattern.
@@ -42,9 +59,15 @@ public class YogaClassRepository {
      */
     private YogaClassRepository(Application application) {
         AppDatabase db = AppDatabase.getDatabase(application);
-        yogaClassDao = db.yogaClassDao();
-        yogaCourseDao = db.yogaCourseDao();
-        firebaseDatabase = FirebaseDatabase.getInstance().getReference();
+        database = db;
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        yogaClassDao = TimedDao.wrap(YogaClassDao.class, db.yogaClassDao(), metrics);
+        yogaCourseDao = TimedDao.wrap(YogaCourseDao.class, db.yogaCourseDao(), metrics);
+        bookingDao = TimedDao.wrap(BookingDao.class, db.bookingDao(), metrics);
+        remoteStore = RemoteStores.getInstance();
+        syncApplyTime = metrics.histogram("sync.classes.apply");
+        syncSuperseded = metrics.counter("sync.classes.superseded");
+        syncWrites = metrics.counter("sync.classes.written");
     }
 
     /**
@@ -115,12 +138,12 @@ public class YogaClassRepository {
             long id = yogaClassDao.insert(yogaClass);
             yogaClass.setId(id);
             // Generate a new key in Firebase.
-            String firebaseKey = firebaseDatabase.child("classes").push().getKey();
+            String firebaseKey = remoteStore.push("classes");
             yogaClass.setFirebaseKey(firebaseKey);
             // Update the local entry with the Firebase key.
             yogaClassDao.update(yogaClass);
             // Push the full object to Firebase.
-            firebaseDatabase.child("classes").child(firebaseKey).setValue(yogaClass);
+            remoteStore.set("classes/" + firebaseKey, yogaClass);
         });
     }
 
@@ -152,6 +175,87 @@ public class YogaClassRepository {
         AppDatabase.databaseWriteExecutor.execute(() -> yogaClassDao.update(yogaClass));
     }
 
+    /**
+     * Brings the local classes in line with a Firebase snapshot of all classes.
+     * Snapshots are applied on {@link AppDatabase#syncExecutor} in the order they were received,
+     * and a snapshot superseded before its turn comes is skipped. Only the classes that are new or
+     * changed are written, in a single transaction. Classes are linked to their local course, and
+     * kept aside if that course has not been synced yet until {@link #retryOrphansFromSync()}.
+     *
+     * @param remoteClasses The classes of the snapshot.
+     */
+    public void applyFromSync(List<YogaClass> remoteClasses) {
+        if (pendingSync.getAndSet(remoteClasses) == null) {
+            AppDatabase.syncExecutor.execute(() -> applySync(pendingSync.getAndSet(null)));
+        } else {
+            syncSuperseded.increment();
+        }
+    }
+
+    /**
+     * Applies the classes of the last snapshot that were kept aside because their course had not
+     * been synced yet. Called after a snapshot of the courses has been handed to
+     * {@link YogaCourseRepository#applyFromSync(List)}, so it runs once the courses are written.
+     */
+    public void retryOrphansFromSync() {
+        AppDatabase.syncExecutor.execute(() -> {
+            // A pending snapshot is applied next anyway.
+            if (!orphanedClasses.isEmpty() && pendingSync.get() == null) {
+                applySync(orphanedClasses);
+            }
+        });
+    }
+
+    /**
+     * Writes the new and changed classes of a snapshot. Runs on {@link AppDatabase#syncExecutor}.
+     *
+     * @param remoteClasses The classes of the snapshot.
+     */
+    private void applySync(List<YogaClass> remoteClasses) {
+        long start = System.nanoTime();
+        Map<String, Long> courseIds = new HashMap<>();
+        for (YogaCourse course : yogaCourseDao.getCourseList()) {
+            if (course.getFirebaseKey() != null) {
+                courseIds.put(course.getFirebaseKey(), course.getId());
+            }
+        }
+        // The course ID in Firebase is the local ID on the device that created the class, so link
+        // each class to the local ID of its course before comparing it with its row.
+        List<YogaClass> linked = new ArrayList<>(remoteClasses.size());
+        List<YogaClass> orphans = new ArrayList<>();
+        for (YogaClass yogaClass : remoteClasses) {
+            Long courseId = courseIds.get(yogaClass.getCourseFirebaseKey());
+            if (courseId != null) {
+                yogaClass.setCourseId(courseId);
+                linked.add(yogaClass);
+            } else {
+                orphans.add(yogaClass);
+            }
+        }
+        orphanedClasses = orphans;
+        SyncBatch<YogaClass> batch = SyncBatch.plan(linked, yogaClassDao.getClassList(),
+                YogaClass::getFirebaseKey, YogaClass::getId, YogaClass::setId);
+        if (batch.isEmpty() && orphans.isEmpty()) {
+            syncApplyTime.recordSince(start);
+            return;
+        }
+        database.runInTransaction(() -> {
+            for (YogaClass yogaClass : batch.getInserts()) {
+                // Likewise, the ID in Firebase may belong to another class here.
+                yogaClass.setId(0);
+                yogaClassDao.insert(yogaClass);
+            }
+            for (YogaClass yogaClass : batch.getUpdates()) {
+                yogaClassDao.update(yogaClass);
+            }
+        });
+        syncApplyTime.recordSince(start);
+        syncWrites.add(batch.getInserts().size() + batch.getUpdates().size());
+        Log.d(TAG, "Synced classes: " + batch.getInserts().size() + " inserted, "
+                + batch.getUpdates().size() + " updated, " + batch.getUnchangedCount() + " unchanged, "
+                + orphans.size() + " waiting for their course.");
+    }
+
     /**
      * Updates an existing yoga class in both the local Room database and Firebase.
      *
@@ -161,13 +265,13 @@ public class YogaClassRepository {
         AppDatabase.databaseWriteExecutor.execute(() -> {
             yogaClassDao.update(yogaClass);
             if (yogaClass.getFirebaseKey() != null) {
-                firebaseDatabase.child("classes").child(yogaClass.getFirebaseKey()).setValue(yogaClass);
+                remoteStore.set("classes/" + yogaClass.getFirebaseKey(), yogaClass);
             }
         });
     }
 
     /**
-     * Deletes a yoga class from both the local Room database and Firebase.
+     * Deletes a yoga class and its bookings from both the local Room database and Firebase.
      *
      * @param yogaClass The yoga class to delete.
      */
@@ -175,7 +279,7 @@ public class YogaClassRepository {
         AppDatabase.databaseWriteExecutor.execute(() -> {
             yogaClassDao.delete(yogaClass);
             if (yogaClass.getFirebaseKey() != null) {
-                firebaseDatabase.child("classes").child(yogaClass.getFirebaseKey()).removeValue();
+                deleteFromFirebase(Collections.singletonList(yogaClass.getFirebaseKey()));
             }
         });
     }
@@ -189,20 +293,44 @@ public class YogaClassRepository {
         AppDatabase.databaseWriteExecutor.execute(() -> {
             // Get all classes for the course to delete them from Firebase.
             List<YogaClass> classes = yogaClassDao.getClassesForCourseSync(courseId);
-            Map<String, Object> updates = new HashMap<>();
+            List<String> classKeys = new ArrayList<>();
             for(YogaClass yogaClass : classes) {
                 if (yogaClass.getFirebaseKey() != null) {
-                    updates.put("/classes/" + yogaClass.getFirebaseKey(), null);
+                    classKeys.add(yogaClass.getFirebaseKey());
                 }
             }
-            if (!updates.isEmpty()){
-                firebaseDatabase.updateChildren(updates);
+            if (!classKeys.isEmpty()){
+                deleteFromFirebase(classKeys);
             }
             // Delete all classes for the course from Room.
             yogaClassDao.deleteClassesByCourseId(courseId);
         });
     }
 
+    /**
+     * Deletes classes together with all of their bookings and booking fan-out entries from Firebase
+     * in one atomic multi-path update, and drops their cached bookings from Room.
+     *
+     * @param classKeys The Firebase keys of the classes to delete.
+     */
+    private void deleteFromFirebase(List<String> classKeys) {
+        BookingCascade.collectDeletes(remoteStore, classKeys).addOnCompleteListener(collectTask -> {
+            if (!collectTask.isSuccessful()) {
+                Log.e(TAG, "Failed to collect bookings of deleted classes.", collectTask.getException());
+                return;
+            }
+            Map<String, Object> updates = collectTask.getResult();
+            for (String classKey : classKeys) {
+                updates.put("/classes/" + classKey, null);
+            }
+            remoteStore.updateChildren(updates).addOnCompleteListener(task -> {
+                if (task.isSuccessful()) {
+                    AppDatabase.databaseWriteExecutor.execute(() -> bookingDao.deleteForClasses(classKeys));
+                }
+            });
+        });
+    }
+
     /**
      * Checks if a class already exists for a given course and date.
      *
@@ -219,18 +347,53 @@ public class YogaClassRepository {
     }
 
     /**
-     * Performs a search for classes based on instructor name, date, and day of the week.
+     * Finds the classes the instructor is already teaching at overlapping times on the given dates.
+     * Only the classes on those dates are loaded, and each date is checked with a single interval
+     * tree lookup.
+     *
+     * @param instructor The instructor of the proposed classes.
+     * @param dates The dates of the proposed classes, e.g. every week of a repeat series.
+     * @param time The start time of the proposed classes.
+     * @param duration The duration of the proposed classes in minutes.
+     * @param excludedClassId The ID of a class to ignore, e.g. the class being edited, or -1.
+     * @return The overlapping classes, empty if there is no conflict.
+     * @throws ExecutionException If the computation threw an exception.
+     * @throws InterruptedException If the current thread was interrupted while waiting.
+     */
+    public List<ClassWithCourseInfo> findInstructorConflicts(String instructor, List<String> dates, String time,
+                                                             int duration, long excludedClassId)
+            throws ExecutionException, InterruptedException {
+        Callable<List<ClassWithCourseInfo>> callable = () ->
+                new InstructorConflictDetector(yogaClassDao.getClassesWithCoursesOnDates(dates))
+                        .findConflicts(instructor, dates, time, duration, excludedClassId);
+        Future<List<ClassWithCourseInfo>> future = AppDatabase.databaseWriteExecutor.submit(callable);
+        return future.get();
+    }
+
+    /**
+     * Scans the whole schedule for instructors assigned to overlapping classes on the same date.
+     * The scan runs on a background thread and its result is posted once to the returned LiveData.
+     *
+     * @return A LiveData that receives every pair of overlapping classes.
+     */
+    public LiveData<List<InstructorConflictDetector.Conflict>> auditInstructorConflicts() {
+        MutableLiveData<List<InstructorConflictDetector.Conflict>> result = new MutableLiveData<>();
+        AppDatabase.databaseWriteExecutor.execute(() -> {
+            List<InstructorConflictDetector.Conflict> conflicts =
+                    new InstructorConflictDetector(yogaClassDao.getAllClassesWithCoursesSync()).audit();
+            Log.d(TAG, "Instructor audit found " + conflicts.size() + " conflicts.");
+            result.postValue(conflicts);
+        });
+        return result;
+    }
+
+    /**
+     * Retrieves every class together with its course, ordered by date.
+     * Used to keep the in-memory search index of the search screen up to date.
      *
-     * @param instructorName The name of the instructor (can be partial).
-     * @param date The specific date of the class.
-     * @param dayOfWeek The day of the week.
-     * @return A LiveData list of {@link ClassWithCourseInfo} matching the criteria.
+     * @return A LiveData list of all {@link ClassWithCourseInfo}s.
      */
-    public LiveData<List<ClassWithCourseInfo>> search(String instructorName, String date, String dayOfWeek) {
-        // Prepare the query parameters, adding wildcards for LIKE queries.
-        String instructorQuery = (instructorName == null || instructorName.isEmpty()) ? null : "%" + instructorName + "%";
-        String dateQuery = (date == null || date.isEmpty()) ? null : date;
-        String dayOfWeekQuery = (dayOfWeek == null || dayOfWeek.isEmpty() || dayOfWeek.equals("All Days")) ? null : "%" + dayOfWeek + "%";
-        return yogaClassDao.search(instructorQuery, dateQuery, dayOfWeekQuery);
+    public LiveData<List<ClassWithCourseInfo>> getAllClassesWithCourses() {
+        return yogaClassDao.getAllClassesWithCourses();
     }
 }
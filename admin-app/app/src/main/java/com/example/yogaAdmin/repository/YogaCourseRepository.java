@@ -1,27 +1,28 @@
 package com.example.yogaAdmin.repository;
 
 import android.app.Application;
+import android.util.Log;
 
 import androidx.lifecycle.LiveData;
 
+import com.example.yogaAdmin.dao.BookingDao;
 import com.example.yogaAdmin.dao.YogaClassDao;
 import com.example.yogaAdmin.dao.YogaCourseDao;
 import com.example.yogaAdmin.database.AppDatabase;
+import com.example.yogaAdmin.metrics.Histogram;
+import com.example.yogaAdmin.metrics.MetricsRegistry;
+import com.example.yogaAdmin.metrics.TimedDao;
 import com.example.yogaAdmin.models.YogaClass;
 import com.example.yogaAdmin.models.YogaCourse;
-import com.google.firebase.database.DatabaseReference;
-import com.google.firebase.database.FirebaseDatabase;
+import com.example.yogaAdmin.services.RemoteStore;
+import com.example.yogaAdmin.services.RemoteStores;
+import com.example.yogaAdmin.services.SyncBatch;
 
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-
-import com.google.firebase.database.DataSnapshot;
-import com.google.firebase.database.DatabaseError;
-import com.google.firebase.database.ValueEventListener;
-import androidx.annotation.NonNull;
-
-import com.google.firebase.database.Query;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Repository for handling {@link YogaCourse} data.
@@ -30,14 +31,24 @@ import com.google.firebase.database.Query;
  */
 public class YogaCourseRepository {
 
+    private static final String TAG = "YogaCourseRepository";
+
+    // The local database, for writes that must happen in one transaction.
+    private AppDatabase mDatabase;
     // Data Access Objects for local database operations.
     private YogaCourseDao mYogaCourseDao;
     private YogaClassDao mYogaClassDao;
+    private BookingDao mBookingDao;
     // LiveData list of all courses, observed by the UI.
     private LiveData<List<YogaCourse>> mAllCourses;
-    // Firebase database references.
-    private DatabaseReference firebaseDatabase;
-    private DatabaseReference coursesRef;
+    // Store through which Firebase is read and written.
+    private RemoteStore remoteStore;
+    // Latest snapshot of the courses waiting to be applied, or null if none is pending.
+    private final AtomicReference<List<YogaCourse>> pendingSync = new AtomicReference<>();
+    // Time taken to apply a snapshot, snapshots superseded before their turn, and rows written.
+    private final Histogram syncApplyTime;
+    private final LongAdder syncSuperseded;
+    private final LongAdder syncWrites;
 
     /**
      * Constructor for the repository.
@@ -46,11 +57,16 @@ public class YogaCourseRepository {
      */
     public YogaCourseRepository(Application application) {
         AppDatabase db = AppDatabase.getDatabase(application);
-        mYogaCourseDao = db.yogaCourseDao();
-        mYogaClassDao = db.yogaClassDao();
+        mDatabase = db;
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        mYogaCourseDao = TimedDao.wrap(YogaCourseDao.class, db.yogaCourseDao(), metrics);
+        mYogaClassDao = TimedDao.wrap(YogaClassDao.class, db.yogaClassDao(), metrics);
+        mBookingDao = TimedDao.wrap(BookingDao.class, db.bookingDao(), metrics);
         mAllCourses = mYogaCourseDao.getAllCourses();
-        firebaseDatabase = FirebaseDatabase.getInstance().getReference();
-        coursesRef = firebaseDatabase.child("courses");
+        remoteStore = RemoteStores.getInstance();
+        syncApplyTime = metrics.histogram("sync.courses.apply");
+        syncSuperseded = metrics.counter("sync.courses.superseded");
+        syncWrites = metrics.counter("sync.courses.written");
     }
 
     /**
@@ -121,13 +137,13 @@ public class YogaCourseRepository {
             yogaCourse.setId(id);
 
             // Generate a new key in Firebase.
-            String firebaseKey = firebaseDatabase.child("courses").push().getKey();
+            String firebaseKey = remoteStore.push("courses");
             yogaCourse.setFirebaseKey(firebaseKey);
             // Update the local entry with the Firebase key.
             mYogaCourseDao.update(yogaCourse);
 
             // Push the full object to Firebase.
-            firebaseDatabase.child("courses").child(firebaseKey).setValue(yogaCourse);
+            remoteStore.set("courses/" + firebaseKey, yogaCourse);
         });
     }
 
@@ -149,6 +165,51 @@ public class YogaCourseRepository {
         AppDatabase.databaseWriteExecutor.execute(() -> mYogaCourseDao.update(yogaCourse));
     }
 
+    /**
+     * Brings the local courses in line with a Firebase snapshot of all courses.
+     * Snapshots are applied on {@link AppDatabase#syncExecutor} in the order they were received,
+     * and a snapshot superseded before its turn comes is skipped. Only the courses that are new or
+     * changed are written, in a single transaction.
+     *
+     * @param remoteCourses The courses of the snapshot.
+     */
+    public void applyFromSync(List<YogaCourse> remoteCourses) {
+        if (pendingSync.getAndSet(remoteCourses) == null) {
+            AppDatabase.syncExecutor.execute(this::applyPendingSync);
+        } else {
+            syncSuperseded.increment();
+        }
+    }
+
+    /**
+     * Applies the latest pending snapshot of the courses. Runs on {@link AppDatabase#syncExecutor}.
+     */
+    private void applyPendingSync() {
+        long start = System.nanoTime();
+        List<YogaCourse> remoteCourses = pendingSync.getAndSet(null);
+        SyncBatch<YogaCourse> batch = SyncBatch.plan(remoteCourses, mYogaCourseDao.getCourseList(),
+                YogaCourse::getFirebaseKey, YogaCourse::getId, YogaCourse::setId);
+        if (batch.isEmpty()) {
+            syncApplyTime.recordSince(start);
+            return;
+        }
+        mDatabase.runInTransaction(() -> {
+            for (YogaCourse course : batch.getInserts()) {
+                // The ID in Firebase is the local ID on the device that created the course, which may
+                // belong to another course here and would be replaced, along with its classes.
+                course.setId(0);
+                mYogaCourseDao.insert(course);
+            }
+            for (YogaCourse course : batch.getUpdates()) {
+                mYogaCourseDao.update(course);
+            }
+        });
+        syncApplyTime.recordSince(start);
+        syncWrites.add(batch.getInserts().size() + batch.getUpdates().size());
+        Log.d(TAG, "Synced courses: " + batch.getInserts().size() + " inserted, "
+                + batch.getUpdates().size() + " updated, " + batch.getUnchangedCount() + " unchanged.");
+    }
+
     /**
      * Updates an existing yoga course in both the local Room database and Firebase.
      *
@@ -158,13 +219,15 @@ public class YogaCourseRepository {
         AppDatabase.databaseWriteExecutor.execute(() -> {
             mYogaCourseDao.update(yogaCourse);
             if (yogaCourse.getFirebaseKey() != null) {
-                firebaseDatabase.child("courses").child(yogaCourse.getFirebaseKey()).setValue(yogaCourse);
+                remoteStore.set("courses/" + yogaCourse.getFirebaseKey(), yogaCourse);
             }
         });
     }
 
     /**
      * Deletes a yoga course and all its associated classes and bookings from both Room and Firebase.
+     * The booking fan-out of every class is read first, then the course, its classes and all of
+     * their bookings and fan-out entries are removed from Firebase in one atomic multi-path update.
      *
      * @param yogaCourse The yoga course to delete.
      */
@@ -172,48 +235,42 @@ public class YogaCourseRepository {
         AppDatabase.databaseWriteExecutor.execute(() -> {
             // Get all associated classes to delete them from Firebase.
             List<YogaClass> classesToDelete = mYogaClassDao.getClassesForCourseSync(yogaCourse.getId());
-            Map<String, Object> childUpdates = new HashMap<>();
-
-            // Prepare to delete the course from Firebase.
-            childUpdates.put("/courses/" + yogaCourse.getFirebaseKey(), null);
-
-            // Prepare to delete all associated classes from Firebase.
+            List<String> classKeys = new ArrayList<>();
             for (YogaClass yogaClass : classesToDelete) {
                 if (yogaClass.getFirebaseKey() != null) {
-                    childUpdates.put("/classes/" + yogaClass.getFirebaseKey(), null);
+                    classKeys.add(yogaClass.getFirebaseKey());
                 }
             }
 
-            // Also delete associated bookings from Firebase for each class.
-            for (YogaClass yogaClass : classesToDelete) {
-                if (yogaClass.getFirebaseKey() != null) {
-                    DatabaseReference bookingsRef = firebaseDatabase.child("bookings");
-                    Query bookingQuery = bookingsRef.orderByChild("classId").equalTo(yogaClass.getFirebaseKey());
-                    bookingQuery.addListenerForSingleValueEvent(new ValueEventListener() {
-                        @Override
-                        public void onDataChange(@NonNull DataSnapshot dataSnapshot) {
-                            for (DataSnapshot bookingSnapshot : dataSnapshot.getChildren()) {
-                                bookingSnapshot.getRef().removeValue();
-                            }
-                        }
-
-                        @Override
-                        public void onCancelled(@NonNull DatabaseError databaseError) {
-                            // Handle potential errors during booking deletion.
-                        }
-                    });
+            // Collect the bookings of all classes, then delete everything in a single update.
+            BookingCascade.collectDeletes(remoteStore, classKeys).addOnCompleteListener(collectTask -> {
+                if (!collectTask.isSuccessful()) {
+                    Log.e(TAG, "Failed to collect bookings of course " + yogaCourse.getFirebaseKey(), collectTask.getException());
+                    return;
                 }
-            }
+                Map<String, Object> childUpdates = collectTask.getResult();
 
-            // Perform the atomic deletion from Firebase for courses and classes.
-            firebaseDatabase.updateChildren(childUpdates).addOnCompleteListener(task -> {
-                if (task.isSuccessful()) {
-                    // Once Firebase deletion is complete, delete the course from Room.
-                    // The associated classes are deleted automatically due to cascading delete.
-                    AppDatabase.databaseWriteExecutor.execute(() -> {
-                        mYogaCourseDao.delete(yogaCourse);
-                    });
+                // Prepare to delete the course from Firebase.
+                childUpdates.put("/courses/" + yogaCourse.getFirebaseKey(), null);
+
+                // Prepare to delete all associated classes from Firebase.
+                for (String classKey : classKeys) {
+                    childUpdates.put("/classes/" + classKey, null);
                 }
+
+                // Perform the atomic deletion from Firebase for the course, classes and bookings.
+                remoteStore.updateChildren(childUpdates).addOnCompleteListener(task -> {
+                    if (task.isSuccessful()) {
+                        // Once Firebase deletion is complete, delete the course from Room.
+                        // The associated classes are deleted automatically due to cascading delete.
+                        AppDatabase.databaseWriteExecutor.execute(() -> {
+                            mYogaCourseDao.delete(yogaCourse);
+                            if (!classKeys.isEmpty()) {
+                                mBookingDao.deleteForClasses(classKeys);
+                            }
+                        });
+                    }
+                });
             });
         });
     }
@@ -226,12 +283,14 @@ public class YogaCourseRepository {
         AppDatabase.databaseWriteExecutor.execute(() -> {
             // Delete all courses from Room. Cascading delete will handle classes.
             mYogaCourseDao.deleteAllCourses();
+            // Clear the local booking cache as well.
+            mBookingDao.deleteAllBookings();
             // Remove all data from the corresponding Firebase nodes.
-            firebaseDatabase.child("courses").removeValue();
-            firebaseDatabase.child("classes").removeValue();
-            firebaseDatabase.child("bookings").removeValue();
-            firebaseDatabase.child("classBookings").removeValue();
-            firebaseDatabase.child("userBookings").removeValue();
+            remoteStore.set("courses", null);
+            remoteStore.set("classes", null);
+            remoteStore.set("bookings", null);
+            remoteStore.set("classBookings", null);
+            remoteStore.set("userBookings", null);
         });
     }
 }
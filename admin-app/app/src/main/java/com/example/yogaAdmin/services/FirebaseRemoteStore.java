@@ -0,0 +1,229 @@
+package com.example.yogaAdmin.services;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.firebase.database.ChildEventListener;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.MutableData;
+import com.google.firebase.database.Query;
+import com.google.firebase.database.Transaction.Handler;
+import com.google.firebase.database.ValueEventListener;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * The {@link RemoteStore} backed by the Firebase Realtime Database, used by the app.
+ * Each call maps directly onto the corresponding {@link DatabaseReference} call, so listeners are
+ * called on the main thread and writes are applied locally before they reach the server.
+ */
+public class FirebaseRemoteStore implements RemoteStore {
+
+    // Reference to the root of the Firebase Realtime Database.
+    private final DatabaseReference rootReference;
+
+    /**
+     * Constructor for a store backed by a Firebase database.
+     *
+     * @param database The Firebase database.
+     */
+    public FirebaseRemoteStore(FirebaseDatabase database) {
+        rootReference = database.getReference();
+    }
+
+    @Override
+    public Task<RemoteSnapshot> get(String path) {
+        return rootReference.child(path).get().continueWith(task -> new FirebaseSnapshot(task.getResult()));
+    }
+
+    @Override
+    public Task<RemoteSnapshot> getChildrenAfter(String path, @Nullable String afterKey, int limit) {
+        Query query = rootReference.child(path).orderByKey();
+        if (afterKey != null) {
+            query = query.startAfter(afterKey);
+        }
+        return query.limitToFirst(limit).get().continueWith(task -> new FirebaseSnapshot(task.getResult()));
+    }
+
+    @Override
+    public void readOnce(String path, ValueListener listener) {
+        rootReference.child(path).addListenerForSingleValueEvent(new ValueAdapter(listener));
+    }
+
+    @Override
+    public Registration addValueListener(String path, ValueListener listener) {
+        DatabaseReference reference = rootReference.child(path);
+        ValueEventListener adapter = reference.addValueEventListener(new ValueAdapter(listener));
+        return () -> reference.removeEventListener(adapter);
+    }
+
+    @Override
+    public Registration addChildListener(String path, ChildListener listener) {
+        DatabaseReference reference = rootReference.child(path);
+        ChildEventListener adapter = reference.addChildEventListener(new ChildAdapter(listener));
+        return () -> reference.removeEventListener(adapter);
+    }
+
+    @Override
+    public String push(String path) {
+        return rootReference.child(path).push().getKey();
+    }
+
+    @Override
+    public Task<Void> set(String path, @Nullable Object value) {
+        return rootReference.child(path).setValue(value);
+    }
+
+    @Override
+    public Task<Void> updateChildren(Map<String, Object> updates) {
+        return rootReference.updateChildren(updates);
+    }
+
+    @Override
+    public Task<Boolean> runTransaction(String path, Transaction transaction) {
+        TaskCompletionSource<Boolean> result = new TaskCompletionSource<>();
+        rootReference.child(path).runTransaction(new Handler() {
+            @NonNull
+            @Override
+            public com.google.firebase.database.Transaction.Result doTransaction(@NonNull MutableData currentData) {
+                Object value = transaction.apply(currentData.getValue());
+                if (value == ABORT) {
+                    return com.google.firebase.database.Transaction.abort();
+                }
+                currentData.setValue(value);
+                return com.google.firebase.database.Transaction.success(currentData);
+            }
+
+            @Override
+            public void onComplete(@Nullable DatabaseError error, boolean committed,
+                                   @Nullable DataSnapshot currentData) {
+                if (error != null) {
+                    result.setException(error.toException());
+                } else {
+                    result.setResult(committed);
+                }
+            }
+        });
+        return result.getTask();
+    }
+
+    /**
+     * A {@link RemoteSnapshot} wrapping a Firebase {@link DataSnapshot}.
+     */
+    private static final class FirebaseSnapshot implements RemoteSnapshot {
+        private final DataSnapshot snapshot;
+
+        FirebaseSnapshot(DataSnapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        @Nullable
+        @Override
+        public String getKey() {
+            return snapshot.getKey();
+        }
+
+        @Override
+        public boolean exists() {
+            return snapshot.exists();
+        }
+
+        @Override
+        public long getChildrenCount() {
+            return snapshot.getChildrenCount();
+        }
+
+        @Override
+        public Iterable<RemoteSnapshot> getChildren() {
+            Iterable<DataSnapshot> children = snapshot.getChildren();
+            return () -> new Iterator<RemoteSnapshot>() {
+                private final Iterator<DataSnapshot> iterator = children.iterator();
+
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public RemoteSnapshot next() {
+                    return new FirebaseSnapshot(iterator.next());
+                }
+            };
+        }
+
+        @Nullable
+        @Override
+        public Object getValue() {
+            return snapshot.getValue();
+        }
+
+        @Nullable
+        @Override
+        public <T> T getValue(Class<T> type) {
+            return snapshot.getValue(type);
+        }
+    }
+
+    /**
+     * Delivers Firebase value events to a {@link ValueListener}.
+     */
+    private static final class ValueAdapter implements ValueEventListener {
+        private final ValueListener listener;
+
+        ValueAdapter(ValueListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void onDataChange(@NonNull DataSnapshot snapshot) {
+            listener.onValue(new FirebaseSnapshot(snapshot));
+        }
+
+        @Override
+        public void onCancelled(@NonNull DatabaseError error) {
+            listener.onCancelled(error.toException());
+        }
+    }
+
+    /**
+     * Delivers Firebase child events to a {@link ChildListener}.
+     */
+    private static final class ChildAdapter implements ChildEventListener {
+        private final ChildListener listener;
+
+        ChildAdapter(ChildListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void onChildAdded(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+            listener.onChildAdded(new FirebaseSnapshot(snapshot));
+        }
+
+        @Override
+        public void onChildChanged(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+            listener.onChildChanged(new FirebaseSnapshot(snapshot));
+        }
+
+        @Override
+        public void onChildRemoved(@NonNull DataSnapshot snapshot) {
+            listener.onChildRemoved(new FirebaseSnapshot(snapshot));
+        }
+
+        @Override
+        public void onChildMoved(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+            // Children are always ordered by key, so they never move.
+        }
+
+        @Override
+        public void onCancelled(@NonNull DatabaseError error) {
+            listener.onCancelled(error.toException());
+        }
+    }
+}
@@ -3,39 +3,31 @@ package com.example.yogaAdmin.services;
 import android.app.Application;
 import android.content.Context;
 import android.util.Log;
-import androidx.annotation.NonNull;
 
-import com.example.yogaAdmin.database.AppDatabase;
 import com.example.yogaAdmin.models.YogaClass;
 import com.example.yogaAdmin.models.YogaCourse;
 import com.example.yogaAdmin.repository.YogaClassRepository;
 import com.example.yogaAdmin.repository.YogaCourseRepository;
-import com.google.firebase.database.DataSnapshot;
-import com.google.firebase.database.DatabaseError;
-import com.google.firebase.database.DatabaseReference;
-import com.google.firebase.database.FirebaseDatabase;
-import com.google.firebase.database.ValueEventListener;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Manages the synchronization of data between the local Room database and the Firebase Realtime Database.
  * It handles the initial data pull and sets up real-time listeners for continuous updates.
+ * Firebase is reached through the {@link RemoteStore} of {@link RemoteStores}.
  */
 public class FirebaseSyncManager {
 
     private static final String TAG = "FirebaseSyncManager";
-    private final DatabaseReference databaseReference;
+    private final RemoteStore remoteStore;
     private final YogaCourseRepository courseRepository;
     private final YogaClassRepository classRepository;
     private final SharedPreferencesManager prefsManager;
 
     // Listeners for real-time data changes from Firebase.
-    private ValueEventListener coursesListener;
-    private ValueEventListener classesListener;
-    // References to the specific nodes in Firebase.
-    private DatabaseReference coursesRef;
-    private DatabaseReference classesRef;
+    private RemoteStore.Registration coursesListener;
+    private RemoteStore.Registration classesListener;
 
     /**
      * Constructor for the FirebaseSyncManager.
@@ -43,7 +35,7 @@ public class FirebaseSyncManager {
      * @param context The application context.
      */
     public FirebaseSyncManager(Context context) {
-        databaseReference = FirebaseDatabase.getInstance().getReference();
+        remoteStore = RemoteStores.getInstance();
         Application application = (Application) context.getApplicationContext();
         courseRepository = new YogaCourseRepository(application);
         classRepository = YogaClassRepository.getInstance(application);
@@ -72,20 +64,15 @@ public class FirebaseSyncManager {
     }
 
     /**
-     * Fetches all courses from Firebase and inserts them into the local Room database.
+     * Fetches all courses from Firebase and applies them to the local Room database.
      *
      * @param onComplete A callback to be executed after the sync is complete.
      */
     private void syncCourses(final Runnable onComplete) {
-        databaseReference.child("courses").addListenerForSingleValueEvent(new ValueEventListener() {
+        remoteStore.readOnce("courses", new RemoteStore.ValueListener() {
             @Override
-            public void onDataChange(@NonNull DataSnapshot dataSnapshot) {
-                for (DataSnapshot snapshot : dataSnapshot.getChildren()) {
-                    YogaCourse course = snapshot.getValue(YogaCourse.class);
-                    if (course != null) {
-                        courseRepository.insertFromSync(course);
-                    }
-                }
+            public void onValue(RemoteSnapshot dataSnapshot) {
+                courseRepository.applyFromSync(readCourses(dataSnapshot));
                 Log.d(TAG, "Courses synced.");
                 if (onComplete != null) {
                     onComplete.run();
@@ -93,27 +80,24 @@ public class FirebaseSyncManager {
             }
 
             @Override
-            public void onCancelled(@NonNull DatabaseError databaseError) {
-                Log.e(TAG, "Failed to sync courses.", databaseError.toException());
+            public void onCancelled(Exception error) {
+                Log.e(TAG, "Failed to sync courses.", error);
             }
         });
     }
 
     /**
-     * Fetches all classes from Firebase and inserts them into the local Room database.
+     * Fetches all classes from Firebase and applies them to the local Room database.
+     * The snapshot is applied after the courses handed over before it, so every class whose course
+     * was in that snapshot finds it.
      *
      * @param onComplete A callback to be executed after the sync is complete.
      */
     private void syncClasses(final Runnable onComplete) {
-        databaseReference.child("classes").addListenerForSingleValueEvent(new ValueEventListener() {
+        remoteStore.readOnce("classes", new RemoteStore.ValueListener() {
             @Override
-            public void onDataChange(@NonNull DataSnapshot dataSnapshot) {
-                for (DataSnapshot snapshot : dataSnapshot.getChildren()) {
-                    YogaClass yogaClass = snapshot.getValue(YogaClass.class);
-                    if (yogaClass != null) {
-                        classRepository.insertFromSync(yogaClass);
-                    }
-                }
+            public void onValue(RemoteSnapshot dataSnapshot) {
+                classRepository.applyFromSync(readClasses(dataSnapshot));
                 Log.d(TAG, "Classes synced.");
                 if (onComplete != null) {
                     onComplete.run();
@@ -121,8 +105,8 @@ public class FirebaseSyncManager {
             }
 
             @Override
-            public void onCancelled(@NonNull DatabaseError databaseError) {
-                Log.e(TAG, "Failed to sync classes.", databaseError.toException());
+            public void onCancelled(Exception error) {
+                Log.e(TAG, "Failed to sync classes.", error);
             }
         });
     }
@@ -135,60 +119,28 @@ public class FirebaseSyncManager {
         stopRealtimeSync(); // Ensure no duplicate listeners are attached.
 
         // Listener for the 'courses' node.
-        coursesRef = databaseReference.child("courses");
-        coursesListener = new ValueEventListener() {
+        coursesListener = remoteStore.addValueListener("courses", new RemoteStore.ValueListener() {
             @Override
-            public void onDataChange(@NonNull DataSnapshot dataSnapshot) {
-                for (DataSnapshot snapshot : dataSnapshot.getChildren()) {
-                    YogaCourse course = snapshot.getValue(YogaCourse.class);
-                    if (course != null && course.getFirebaseKey() != null) {
-                        AppDatabase.databaseWriteExecutor.execute(() -> {
-                            // Check if the course already exists locally.
-                            YogaCourse existingCourse = courseRepository.getCourseByFirebaseKey(course.getFirebaseKey());
-                            if (existingCourse != null) {
-                                // If it exists, update it.
-                                course.setId(existingCourse.getId());
-                                courseRepository.updateFromSync(course);
-                            } else {
-                                // If not, insert it.
-                                courseRepository.insertFromSync(course);
-                            }
-                        });
-                    }
-                }
+            public void onValue(RemoteSnapshot dataSnapshot) {
+                // Apply the whole snapshot as one batch, writing only the courses that changed.
+                courseRepository.applyFromSync(readCourses(dataSnapshot));
+                // Classes received before their course can now be linked to it.
+                classRepository.retryOrphansFromSync();
             }
             @Override
-            public void onCancelled(@NonNull DatabaseError databaseError) {}
-        };
-        coursesRef.addValueEventListener(coursesListener);
+            public void onCancelled(Exception error) {}
+        });
 
         // Listener for the 'classes' node.
-        classesRef = databaseReference.child("classes");
-        classesListener = new ValueEventListener() {
+        classesListener = remoteStore.addValueListener("classes", new RemoteStore.ValueListener() {
             @Override
-            public void onDataChange(@NonNull DataSnapshot dataSnapshot) {
-                for (DataSnapshot snapshot : dataSnapshot.getChildren()) {
-                    YogaClass yogaClass = snapshot.getValue(YogaClass.class);
-                    if (yogaClass != null && yogaClass.getFirebaseKey() != null) {
-                        AppDatabase.databaseWriteExecutor.execute(() -> {
-                            // Check if the class already exists locally.
-                            YogaClass existingClass = classRepository.getClassByFirebaseKey(yogaClass.getFirebaseKey());
-                            if (existingClass != null) {
-                                // If it exists, update it.
-                                yogaClass.setId(existingClass.getId());
-                                classRepository.updateFromSync(yogaClass);
-                            } else {
-                                // If not, insert it.
-                                classRepository.insertFromSync(yogaClass);
-                            }
-                        });
-                    }
-                }
+            public void onValue(RemoteSnapshot dataSnapshot) {
+                // Apply the whole snapshot as one batch, writing only the classes that changed.
+                classRepository.applyFromSync(readClasses(dataSnapshot));
             }
             @Override
-            public void onCancelled(@NonNull DatabaseError databaseError) {}
-        };
-        classesRef.addValueEventListener(classesListener);
+            public void onCancelled(Exception error) {}
+        });
         Log.d(TAG, "Real-time sync listeners started.");
     }
 
@@ -196,17 +148,51 @@ public class FirebaseSyncManager {
      * Stops the real-time synchronization by removing the Firebase listeners.
      */
     public void stopRealtimeSync() {
-        if (coursesListener != null && coursesRef != null) {
-            coursesRef.removeEventListener(coursesListener);
+        if (coursesListener != null) {
+            coursesListener.remove();
             coursesListener = null;
         }
-        if (classesListener != null && classesRef != null) {
-            classesRef.removeEventListener(classesListener);
+        if (classesListener != null) {
+            classesListener.remove();
             classesListener = null;
         }
         Log.d(TAG, "Real-time sync listeners stopped.");
     }
 
+    /**
+     * Maps a snapshot of the 'courses' node to the courses that have a Firebase key.
+     *
+     * @param dataSnapshot The snapshot of the node.
+     * @return The courses.
+     */
+    private static List<YogaCourse> readCourses(RemoteSnapshot dataSnapshot) {
+        List<YogaCourse> courses = new ArrayList<>((int) dataSnapshot.getChildrenCount());
+        for (RemoteSnapshot snapshot : dataSnapshot.getChildren()) {
+            YogaCourse course = snapshot.getValue(YogaCourse.class);
+            if (course != null && course.getFirebaseKey() != null) {
+                courses.add(course);
+            }
+        }
+        return courses;
+    }
+
+    /**
+     * Maps a snapshot of the 'classes' node to the classes that have a Firebase key.
+     *
+     * @param dataSnapshot The snapshot of the node.
+     * @return The classes.
+     */
+    private static List<YogaClass> readClasses(RemoteSnapshot dataSnapshot) {
+        List<YogaClass> classes = new ArrayList<>((int) dataSnapshot.getChildrenCount());
+        for (RemoteSnapshot snapshot : dataSnapshot.getChildren()) {
+            YogaClass yogaClass = snapshot.getValue(YogaClass.class);
+            if (yogaClass != null && yogaClass.getFirebaseKey() != null) {
+                classes.add(yogaClass);
+            }
+        }
+        return classes;
+    }
+
     /**
      * Uploads all local data (courses and classes) to Firebase.
      * This can be used to overwrite Firebase data with local data.
@@ -215,20 +201,18 @@ public class FirebaseSyncManager {
      * @param classes The list of classes to upload.
      */
     public void uploadAllData(List<YogaCourse> courses, List<YogaClass> classes) {
-        DatabaseReference coursesRef = databaseReference.child("courses");
         if (courses != null) {
             for (YogaCourse course : courses) {
                 if (course.getFirebaseKey() != null && !course.getFirebaseKey().isEmpty()) {
-                    coursesRef.child(course.getFirebaseKey()).setValue(course);
+                    remoteStore.set("courses/" + course.getFirebaseKey(), course);
                 }
             }
         }
 
-        DatabaseReference classesRef = databaseReference.child("classes");
         if (classes != null) {
             for (YogaClass yogaClass : classes) {
                 if (yogaClass.getFirebaseKey() != null && !yogaClass.getFirebaseKey().isEmpty()) {
-                    classesRef.child(yogaClass.getFirebaseKey()).setValue(yogaClass);
+                    remoteStore.set("classes/" + yogaClass.getFirebaseKey(), yogaClass);
                 }
             }
         }
@@ -5,20 +5,16 @@ import android.content.Intent;
 import android.os.IBinder;
 import android.util.Log;
 
-import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import com.example.yogaAdmin.dao.YogaClassDao;
 import com.example.yogaAdmin.dao.YogaCourseDao;
 import com.example.yogaAdmin.database.AppDatabase;
+import com.example.yogaAdmin.metrics.MetricsRegistry;
+import com.example.yogaAdmin.metrics.TimedDao;
 import com.example.yogaAdmin.models.YogaClass;
 import com.example.yogaAdmin.models.YogaCourse;
 import com.example.yogaAdmin.utils.SharedPreferencesManager;
-import com.google.firebase.database.DataSnapshot;
-import com.google.firebase.database.DatabaseError;
-import com.google.firebase.database.DatabaseReference;
-import com.google.firebase.database.FirebaseDatabase;
-import com.google.firebase.database.ValueEventListener;
 
 /**
  * A background service for performing the initial data synchronization from Firebase.
@@ -34,24 +30,23 @@ public class FirebaseSyncService extends Service {
     private YogaClassDao yogaClassDao;
     // Manager for shared preferences to track sync status.
     private SharedPreferencesManager sharedPreferencesManager;
-    // Firebase database references.
-    private DatabaseReference coursesRef;
-    private DatabaseReference classesRef;
+    // Store through which Firebase is read.
+    private RemoteStore remoteStore;
 
     /**
      * Called by the system when the service is first created.
-     * Initializes database and Firebase references.
+     * Initializes the database and the remote store.
      */
     @Override
     public void onCreate() {
         super.onCreate();
         Log.d(TAG, "Service created");
         AppDatabase db = AppDatabase.getDatabase(getApplicationContext());
-        yogaCourseDao = db.yogaCourseDao();
-        yogaClassDao = db.yogaClassDao();
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        yogaCourseDao = TimedDao.wrap(YogaCourseDao.class, db.yogaCourseDao(), metrics);
+        yogaClassDao = TimedDao.wrap(YogaClassDao.class, db.yogaClassDao(), metrics);
         sharedPreferencesManager = new SharedPreferencesManager(this);
-        coursesRef = FirebaseDatabase.getInstance().getReference("courses");
-        classesRef = FirebaseDatabase.getInstance().getReference("classes");
+        remoteStore = RemoteStores.getInstance();
     }
 
     /**
@@ -77,10 +72,10 @@ public class FirebaseSyncService extends Service {
      * After courses are synced, it proceeds to sync classes.
      */
     private void syncData() {
-        coursesRef.addListenerForSingleValueEvent(new ValueEventListener() {
+        remoteStore.readOnce("courses", new RemoteStore.ValueListener() {
             @Override
-            public void onDataChange(@NonNull DataSnapshot dataSnapshot) {
-                for (DataSnapshot snapshot : dataSnapshot.getChildren()) {
+            public void onValue(RemoteSnapshot dataSnapshot) {
+                for (RemoteSnapshot snapshot : dataSnapshot.getChildren()) {
                     YogaCourse course = snapshot.getValue(YogaCourse.class);
                     if (course != null) {
                         // Insert each course into the local database on a background thread.
@@ -94,8 +89,8 @@ public class FirebaseSyncService extends Service {
             }
 
             @Override
-            public void onCancelled(@NonNull DatabaseError databaseError) {
-                Log.e(TAG, "Failed to read courses.", databaseError.toException());
+            public void onCancelled(Exception error) {
+                Log.e(TAG, "Failed to read courses.", error);
             }
         });
     }
@@ -105,10 +100,10 @@ public class FirebaseSyncService extends Service {
      * After completion, it marks the initial sync as complete and stops the service.
      */
     private void syncClasses() {
-        classesRef.addListenerForSingleValueEvent(new ValueEventListener() {
+        remoteStore.readOnce("classes", new RemoteStore.ValueListener() {
             @Override
-            public void onDataChange(@NonNull DataSnapshot dataSnapshot) {
-                for (DataSnapshot snapshot : dataSnapshot.getChildren()) {
+            public void onValue(RemoteSnapshot dataSnapshot) {
+                for (RemoteSnapshot snapshot : dataSnapshot.getChildren()) {
                     YogaClass yogaClass = snapshot.getValue(YogaClass.class);
                     if (yogaClass != null) {
                         // Insert each class into the local database on a background thread.
@@ -125,8 +120,8 @@ public class FirebaseSyncService extends Service {
             }
 
             @Override
-            public void onCancelled(@NonNull DatabaseError databaseError) {
-                Log.e(TAG, "Failed to read classes.", databaseError.toException());
+            public void onCancelled(Exception error) {
+                Log.e(TAG, "Failed to read classes.", error);
             }
         });
     }
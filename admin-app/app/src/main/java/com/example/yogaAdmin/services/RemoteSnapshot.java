@@ -0,0 +1,56 @@
+package com.example.yogaAdmin.services;
+
+import androidx.annotation.Nullable;
+
+/**
+ * An immutable copy of the value at a path of a {@link RemoteStore}.
+ */
+public interface RemoteSnapshot {
+
+    /**
+     * Returns the last segment of the path of this snapshot.
+     *
+     * @return The key, or null for the root.
+     */
+    @Nullable
+    String getKey();
+
+    /**
+     * Returns whether there is a value at the path.
+     *
+     * @return {@code true} if the value is not null.
+     */
+    boolean exists();
+
+    /**
+     * Returns the number of children of the value.
+     *
+     * @return The number of children, 0 if the value is not a map.
+     */
+    long getChildrenCount();
+
+    /**
+     * Returns the children of the value, ordered by key.
+     *
+     * @return The snapshots of the children, empty if the value is not a map.
+     */
+    Iterable<RemoteSnapshot> getChildren();
+
+    /**
+     * Returns the value as maps, strings, numbers and booleans.
+     *
+     * @return The value, or null if it does not exist.
+     */
+    @Nullable
+    Object getValue();
+
+    /**
+     * Returns the value mapped to a model class with the Firebase mapping.
+     *
+     * @param type The class to map the value to.
+     * @param <T> The type to map the value to.
+     * @return The mapped value, or null if it does not exist.
+     */
+    @Nullable
+    <T> T getValue(Class<T> type);
+}
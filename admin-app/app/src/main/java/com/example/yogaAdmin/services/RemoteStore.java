@@ -0,0 +1,188 @@
+package com.example.yogaAdmin.services;
+
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.tasks.Task;
+
+import java.util.Map;
+
+/**
+ * The remote tree the app syncs with, as used by the repositories and the sync manager.
+ * Data is addressed by slash-separated paths from the root, e.g. {@code "classes/-Nabc"}, and
+ * stored as a tree of maps, strings, numbers and booleans, exactly as in the Firebase Realtime
+ * Database. Model objects are written and read with the Firebase mapping, so {@code @Exclude}d
+ * getters are not stored.
+ * Listener callbacks are delivered in the order the changes were made, and the initial events of a
+ * listener are delivered before any event queued after it was added. Results of the returned tasks
+ * are delivered where {@link Task} delivers them, on the main thread by default.
+ * {@link FirebaseRemoteStore} is the implementation used by the app, and an in-memory store in
+ * the test sources stands in for it in tests.
+ */
+public interface RemoteStore {
+
+    /**
+     * Returned by a {@link Transaction} to abort without writing.
+     */
+    Object ABORT = new Object();
+
+    /**
+     * Reads the current value at a path.
+     *
+     * @param path The path to read.
+     * @return A task resolving to the snapshot of the path, which may not exist.
+     */
+    Task<RemoteSnapshot> get(String path);
+
+    /**
+     * Reads a page of the children of a path, ordered by key.
+     *
+     * @param path The path whose children to read.
+     * @param afterKey Only children with a key after this one are read, or null to start at the first.
+     * @param limit The maximum number of children to read.
+     * @return A task resolving to a snapshot of the path holding the children read.
+     */
+    Task<RemoteSnapshot> getChildrenAfter(String path, @Nullable String afterKey, int limit);
+
+    /**
+     * Delivers the current value at a path once, after any event already queued for the path.
+     * Unlike {@link #get(String)}, a read queued after a child listener is added is delivered
+     * after that listener's initial events.
+     *
+     * @param path The path to read.
+     * @param listener The listener to deliver the value to.
+     */
+    void readOnce(String path, ValueListener listener);
+
+    /**
+     * Listens to the value at a path. The current value is delivered first, then the whole value
+     * again every time anything under the path changes.
+     *
+     * @param path The path to listen to.
+     * @param listener The listener to deliver the values to.
+     * @return The registration to remove the listener with.
+     */
+    Registration addValueListener(String path, ValueListener listener);
+
+    /**
+     * Listens to the children of a path. Every current child is delivered as added first, then
+     * each child added, changed or removed.
+     *
+     * @param path The path whose children to listen to.
+     * @param listener The listener to deliver the children to.
+     * @return The registration to remove the listener with.
+     */
+    Registration addChildListener(String path, ChildListener listener);
+
+    /**
+     * Generates a new, unique child key for a path, ordered after the keys generated before it.
+     * Nothing is written.
+     *
+     * @param path The path to generate a child key for.
+     * @return The new key.
+     */
+    String push(String path);
+
+    /**
+     * Replaces the value at a path.
+     *
+     * @param path The path to write.
+     * @param value The new value, a model object, map or primitive, or null to delete the path.
+     * @return A task completing once the write has been applied.
+     */
+    Task<Void> set(String path, @Nullable Object value);
+
+    /**
+     * Writes several paths at once, atomically: listeners see either none or all of the writes.
+     *
+     * @param updates The new value of each path, relative to the root; a null value deletes the path.
+     * @return A task completing once the writes have been applied.
+     */
+    Task<Void> updateChildren(Map<String, Object> updates);
+
+    /**
+     * Atomically replaces the value at a path with a function of its current value.
+     * The function may run more than once if the value changes concurrently, so it must not have
+     * side effects.
+     *
+     * @param path The path to update.
+     * @param transaction The function computing the new value.
+     * @return A task resolving to whether the new value was written, {@code false} if aborted.
+     */
+    Task<Boolean> runTransaction(String path, Transaction transaction);
+
+    /**
+     * Receives the value at a path.
+     */
+    interface ValueListener {
+        /**
+         * Called with the value at the path.
+         *
+         * @param snapshot The snapshot of the path, which may not exist.
+         */
+        void onValue(RemoteSnapshot snapshot);
+
+        /**
+         * Called if the listener is cancelled, e.g. because reading the path is not permitted.
+         *
+         * @param error The reason.
+         */
+        void onCancelled(Exception error);
+    }
+
+    /**
+     * Receives the children of a path as they are added, changed and removed.
+     */
+    interface ChildListener {
+        /**
+         * Called when a child is added, and for every child present when the listener is added.
+         *
+         * @param child The snapshot of the child.
+         */
+        void onChildAdded(RemoteSnapshot child);
+
+        /**
+         * Called when the value of a child changes.
+         *
+         * @param child The new snapshot of the child.
+         */
+        void onChildChanged(RemoteSnapshot child);
+
+        /**
+         * Called when a child is removed.
+         *
+         * @param child The last snapshot of the child.
+         */
+        void onChildRemoved(RemoteSnapshot child);
+
+        /**
+         * Called if the listener is cancelled, e.g. because reading the path is not permitted.
+         *
+         * @param error The reason.
+         */
+        void onCancelled(Exception error);
+    }
+
+    /**
+     * A listener added to the store.
+     */
+    interface Registration {
+        /**
+         * Removes the listener. No events are delivered to it afterwards.
+         */
+        void remove();
+    }
+
+    /**
+     * Computes the new value of a path in {@link #runTransaction(String, Transaction)}.
+     */
+    interface Transaction {
+        /**
+         * Returns the new value of the path.
+         *
+         * @param currentValue The current value as maps, strings, numbers and booleans, or null.
+         * @return The new value, null to delete the path, or {@link #ABORT} to leave it unchanged.
+         */
+        @Nullable
+        Object apply(@Nullable Object currentValue);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.yogaAdmin.services;
+
+import com.example.yogaAdmin.metrics.MetricsRegistry;
+import com.google.firebase.database.FirebaseDatabase;
+
+/**
+ * Holds the {@link RemoteStore} used by the repositories and the sync manager.
+ * The app uses a {@link FirebaseRemoteStore} on the default Firebase database, with its round
+ * trips measured by a {@link TimedRemoteStore}. Tests may install another store, such as the
+ * in-memory store of the test sources, before the repositories are first created.
+ * This class cannot be instantiated.
+ */
+public final class RemoteStores {
+
+    private static volatile RemoteStore INSTANCE;
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private RemoteStores() {
+    }
+
+    /**
+     * Returns the remote store, creating the Firebase one on first use if none was installed.
+     *
+     * @return The remote store.
+     */
+    public static RemoteStore getInstance() {
+        if (INSTANCE == null) {
+            synchronized (RemoteStores.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new TimedRemoteStore(new FirebaseRemoteStore(FirebaseDatabase.getInstance()),
+                            MetricsRegistry.getInstance());
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Installs the remote store to use instead of Firebase.
+     * Repositories and listeners already created keep the store they were created with.
+     *
+     * @param store The remote store.
+     */
+    public static void setInstance(RemoteStore store) {
+        synchronized (RemoteStores.class) {
+            INSTANCE = store;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.yogaAdmin.services;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ObjLongConsumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * The local writes needed to bring one node of the local database in line with a Firebase snapshot
+ * of that node.
+ * Firebase delivers the whole node whenever any child changes, so most children of a snapshot are
+ * identical to their local row. The batch coalesces the children by Firebase key, a later child
+ * replacing an earlier one, matches each to its local row by key and keeps only the children that
+ * are new or differ from their row, so a snapshot costs one pass in memory and the database is only
+ * written for real changes, in a single transaction.
+ * This class has no Android dependency.
+ *
+ * @param <T> The type of the synced entity.
+ */
+public class SyncBatch<T> {
+
+    // Children with no local row, in snapshot order.
+    private final List<T> inserts;
+    // Children whose local row differs, in snapshot order, carrying the local ID of their row.
+    private final List<T> updates;
+    // Number of children identical to their local row.
+    private final int unchangedCount;
+
+    /**
+     * Private constructor; use {@link #plan}.
+     */
+    private SyncBatch(List<T> inserts, List<T> updates, int unchangedCount) {
+        this.inserts = inserts;
+        this.updates = updates;
+        this.unchangedCount = unchangedCount;
+    }
+
+    /**
+     * Compares a snapshot with the local rows of the same node.
+     * Every remote child matching a local row is given the local ID of that row before the two are
+     * compared with {@link Object#equals(Object)}. Children without a Firebase key are ignored.
+     *
+     * @param remote The children of the snapshot.
+     * @param local The local rows of the node.
+     * @param keyOf Returns the Firebase key of an entity, or null.
+     * @param idOf Returns the local ID of an entity.
+     * @param setId Sets the local ID of an entity.
+     * @param <T> The type of the synced entity.
+     * @return The writes that apply the snapshot.
+     */
+    public static <T> SyncBatch<T> plan(List<T> remote, List<T> local, Function<T, String> keyOf,
+                                        ToLongFunction<T> idOf, ObjLongConsumer<T> setId) {
+        Map<String, T> localByKey = new HashMap<>(local.size() * 2);
+        for (T row : local) {
+            String key = keyOf.apply(row);
+            if (key != null) {
+                localByKey.put(key, row);
+            }
+        }
+        // A key seen twice in one snapshot keeps its last child, in the position of its first.
+        Map<String, T> remoteByKey = new LinkedHashMap<>(remote.size() * 2);
+        for (T child : remote) {
+            String key = keyOf.apply(child);
+            if (key != null) {
+                remoteByKey.put(key, child);
+            }
+        }
+
+        List<T> inserts = new ArrayList<>();
+        List<T> updates = new ArrayList<>();
+        int unchanged = 0;
+        for (Map.Entry<String, T> entry : remoteByKey.entrySet()) {
+            T child = entry.getValue();
+            T row = localByKey.get(entry.getKey());
+            if (row == null) {
+                inserts.add(child);
+                continue;
+            }
+            setId.accept(child, idOf.applyAsLong(row));
+            if (child.equals(row)) {
+                unchanged++;
+            } else {
+                updates.add(child);
+            }
+        }
+        return new SyncBatch<>(inserts, updates, unchanged);
+    }
+
+    /**
+     * Returns the children with no local row.
+     *
+     * @return The entities to insert.
+     */
+    public List<T> getInserts() {
+        return inserts;
+    }
+
+    /**
+     * Returns the children whose local row differs, each carrying the ID of that row.
+     *
+     * @return The entities to update.
+     */
+    public List<T> getUpdates() {
+        return updates;
+    }
+
+    /**
+     * Returns the number of children identical to their local row, which need no write.
+     *
+     * @return The number of unchanged children.
+     */
+    public int getUnchangedCount() {
+        return unchangedCount;
+    }
+
+    /**
+     * Returns whether the snapshot needs no local write.
+     *
+     * @return {@code true} if there is nothing to insert or update.
+     */
+    public boolean isEmpty() {
+        return inserts.isEmpty() && updates.isEmpty();
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.yogaAdmin.services;
+
+import androidx.annotation.Nullable;
+
+import com.example.yogaAdmin.metrics.Histogram;
+import com.example.yogaAdmin.metrics.MetricsRegistry;
+import com.google.android.gms.tasks.Task;
+
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link RemoteStore} that measures the round trips of another store in a {@link MetricsRegistry}.
+ * Each read and write is timed from the call until its task completes, or for
+ * {@link #readOnce(String, ValueListener)} until the listener is called, in the histogram
+ * {@code remote.<operation>}; failures are counted in {@code remote.<operation>.failed}. Events
+ * delivered to listeners are counted in {@code remote.events.value} and {@code remote.events.child}.
+ */
+public class TimedRemoteStore implements RemoteStore {
+
+    private final RemoteStore store;
+    private final Operation get;
+    private final Operation getChildrenAfter;
+    private final Operation readOnce;
+    private final Operation set;
+    private final Operation updateChildren;
+    private final Operation transaction;
+    private final LongAdder valueEvents;
+    private final LongAdder childEvents;
+
+    /**
+     * Constructor for a store measuring another.
+     *
+     * @param store The store to measure.
+     * @param registry The registry to record into.
+     */
+    public TimedRemoteStore(RemoteStore store, MetricsRegistry registry) {
+        this.store = store;
+        get = new Operation(registry, "get");
+        getChildrenAfter = new Operation(registry, "getChildrenAfter");
+        readOnce = new Operation(registry, "readOnce");
+        set = new Operation(registry, "set");
+        updateChildren = new Operation(registry, "updateChildren");
+        transaction = new Operation(registry, "transaction");
+        valueEvents = registry.counter("remote.events.value");
+        childEvents = registry.counter("remote.events.child");
+    }
+
+    @Override
+    public Task<RemoteSnapshot> get(String path) {
+        long start = System.nanoTime();
+        return get.time(store.get(path), start);
+    }
+
+    @Override
+    public Task<RemoteSnapshot> getChildrenAfter(String path, @Nullable String afterKey, int limit) {
+        long start = System.nanoTime();
+        return getChildrenAfter.time(store.getChildrenAfter(path, afterKey, limit), start);
+    }
+
+    @Override
+    public void readOnce(String path, ValueListener listener) {
+        long start = System.nanoTime();
+        store.readOnce(path, new ValueListener() {
+            @Override
+            public void onValue(RemoteSnapshot snapshot) {
+                readOnce.timer.recordSince(start);
+                listener.onValue(snapshot);
+            }
+
+            @Override
+            public void onCancelled(Exception error) {
+                readOnce.timer.recordSince(start);
+                readOnce.failures.increment();
+                listener.onCancelled(error);
+            }
+        });
+    }
+
+    @Override
+    public Registration addValueListener(String path, ValueListener listener) {
+        return store.addValueListener(path, new ValueListener() {
+            @Override
+            public void onValue(RemoteSnapshot snapshot) {
+                valueEvents.increment();
+                listener.onValue(snapshot);
+            }
+
+            @Override
+            public void onCancelled(Exception error) {
+                listener.onCancelled(error);
+            }
+        });
+    }
+
+    @Override
+    public Registration addChildListener(String path, ChildListener listener) {
+        return store.addChildListener(path, new ChildListener() {
+            @Override
+            public void onChildAdded(RemoteSnapshot child) {
+                childEvents.increment();
+                listener.onChildAdded(child);
+            }
+
+            @Override
+            public void onChildChanged(RemoteSnapshot child) {
+                childEvents.increment();
+                listener.onChildChanged(child);
+            }
+
+            @Override
+            public void onChildRemoved(RemoteSnapshot child) {
+                childEvents.increment();
+                listener.onChildRemoved(child);
+            }
+
+            @Override
+            public void onCancelled(Exception error) {
+                listener.onCancelled(error);
+            }
+        });
+    }
+
+    @Override
+    public String push(String path) {
+        // Keys are generated on the device, so there is no round trip to measure.
+        return store.push(path);
+    }
+
+    @Override
+    public Task<Void> set(String path, @Nullable Object value) {
+        long start = System.nanoTime();
+        return set.time(store.set(path, value), start);
+    }
+
+    @Override
+    public Task<Void> updateChildren(Map<String, Object> updates) {
+        long start = System.nanoTime();
+        return updateChildren.time(store.updateChildren(updates), start);
+    }
+
+    @Override
+    public Task<Boolean> runTransaction(String path, Transaction transaction) {
+        long start = System.nanoTime();
+        return this.transaction.time(store.runTransaction(path, transaction), start);
+    }
+
+    /**
+     * The histogram and failure counter of one kind of call.
+     */
+    private static final class Operation {
+        private final Histogram timer;
+        private final LongAdder failures;
+
+        Operation(MetricsRegistry registry, String name) {
+            timer = registry.histogram("remote." + name);
+            failures = registry.counter("remote." + name + ".failed");
+        }
+
+        /**
+         * Records the time from a start time until a task completes.
+         *
+         * @return The task.
+         */
+        <T> Task<T> time(Task<T> task, long startNanos) {
+            // Recorded on the completing thread, so no main thread hop is added.
+            task.addOnCompleteListener(Runnable::run, done -> {
+                timer.recordSince(startNanos);
+                if (!done.isSuccessful()) {
+                    failures.increment();
+                }
+            });
+            return task;
+        }
+    }
+}
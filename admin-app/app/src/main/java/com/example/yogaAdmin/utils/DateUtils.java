@@ -0,0 +1,300 @@
+package com.example.yogaAdmin.utils;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+/**
+ * Date and time helpers shared by the validators, repositories and adapters.
+ * Class dates ("dd/MM/yyyy") are handled as epoch days, the number of days since 1970-01-01,
+ * using the proleptic Gregorian calendar arithmetic of {@link java.time.LocalDate} without creating
+ * any objects, so validating a date picker cell, stepping a repeat series by weeks or comparing two
+ * dates needs no {@link java.util.Calendar} or {@link java.text.SimpleDateFormat}. Course start
+ * times are parsed into minutes after midnight the same way.
+ * Display formats that do need a formatter use cached {@link DateTimeFormatter}s, which are
+ * immutable and thread-safe.
+ * This class cannot be instantiated.
+ */
+public final class DateUtils {
+
+    /**
+     * Returned by {@link #parseClassDate(String)} for a string that is not a valid class date.
+     */
+    public static final long INVALID_DATE = Long.MIN_VALUE;
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+    // Days from 0000-03-01 to 1970-01-01 in the proleptic Gregorian calendar.
+    private static final long DAYS_0000_TO_1970 = 719_468L;
+    // Days in each 400-year cycle of the Gregorian calendar.
+    private static final long DAYS_PER_CYCLE = 146_097L;
+    // Names of the days of the week, indexed by ISO day number minus one.
+    private static final String[] DAY_NAMES =
+            {"Monday", "Tuesday", "Wednesday", "Thursday", "Friday", "Saturday", "Sunday"};
+
+    // Format of the creation timestamp of classes and courses, in the device's time zone.
+    private static final DateTimeFormatter CREATED_DATE_FORMAT =
+            DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm", Locale.getDefault()).withZone(ZoneId.systemDefault());
+    // Format of the ISO booking dates written by the user app.
+    private static final DateTimeFormatter BOOKING_ISO_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", Locale.ROOT);
+    // Format in which booking dates are displayed.
+    private static final DateTimeFormatter BOOKING_READABLE_FORMAT =
+            DateTimeFormatter.ofPattern("dd MMM yyyy, HH:mm", Locale.getDefault());
+    // Format of the timestamps of diagnostic logs, in the device's time zone.
+    private static final DateTimeFormatter LOG_TIMESTAMP_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS", Locale.UK).withZone(ZoneId.systemDefault());
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private DateUtils() {
+    }
+
+    /**
+     * Parses a class date into an epoch day.
+     *
+     * @param date The date, in "dd/MM/yyyy" format.
+     * @return The number of days since 1970-01-01, or {@link #INVALID_DATE} if the string is null,
+     *         malformed or not a real date.
+     */
+    public static long parseClassDate(String date) {
+        if (date == null || date.length() != 10 || date.charAt(2) != '/' || date.charAt(5) != '/') {
+            return INVALID_DATE;
+        }
+        int day = parseDigits(date, 0, 2);
+        int month = parseDigits(date, 3, 5);
+        int year = parseDigits(date, 6, 10);
+        if (day < 1 || month < 1 || month > 12 || year < 0 || day > lengthOfMonth(year, month)) {
+            return INVALID_DATE;
+        }
+        return toEpochDay(year, month, day);
+    }
+
+    /**
+     * Formats an epoch day as a class date.
+     *
+     * @param epochDay The number of days since 1970-01-01, for a date in years 0 to 9999.
+     * @return The date, in "dd/MM/yyyy" format.
+     */
+    public static String formatClassDate(long epochDay) {
+        // Civil-from-days over 400-year cycles starting on March 1st, so the leap day ends each year.
+        long days = epochDay + DAYS_0000_TO_1970;
+        long cycle = Math.floorDiv(days, DAYS_PER_CYCLE);
+        long dayOfCycle = days - cycle * DAYS_PER_CYCLE;
+        long yearOfCycle = (dayOfCycle - dayOfCycle / 1460 + dayOfCycle / 36524 - dayOfCycle / 146096) / 365;
+        long dayOfYear = dayOfCycle - (365 * yearOfCycle + yearOfCycle / 4 - yearOfCycle / 100);
+        int shiftedMonth = (int) ((5 * dayOfYear + 2) / 153);
+        int day = (int) (dayOfYear - (153 * shiftedMonth + 2) / 5 + 1);
+        int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        int year = (int) (yearOfCycle + cycle * 400 + (month <= 2 ? 1 : 0));
+
+        char[] chars = new char[10];
+        chars[0] = (char) ('0' + day / 10);
+        chars[1] = (char) ('0' + day % 10);
+        chars[2] = '/';
+        chars[3] = (char) ('0' + month / 10);
+        chars[4] = (char) ('0' + month % 10);
+        chars[5] = '/';
+        chars[6] = (char) ('0' + year / 1000);
+        chars[7] = (char) ('0' + year / 100 % 10);
+        chars[8] = (char) ('0' + year / 10 % 10);
+        chars[9] = (char) ('0' + year % 10);
+        return new String(chars);
+    }
+
+    /**
+     * Adds a number of weeks to a class date.
+     *
+     * @param date The date, in "dd/MM/yyyy" format.
+     * @param weeks The number of weeks to add, which may be negative.
+     * @return The new date in the same format, or null if the date cannot be parsed.
+     */
+    public static String addWeeks(String date, int weeks) {
+        long epochDay = parseClassDate(date);
+        return epochDay == INVALID_DATE ? null : formatClassDate(epochDay + 7L * weeks);
+    }
+
+    /**
+     * Returns the epoch day containing a UTC timestamp, e.g. a date picker selection.
+     *
+     * @param utcMillis Milliseconds since the UTC epoch.
+     * @return The number of days since 1970-01-01 in UTC.
+     */
+    public static long epochDayOfUtcMillis(long utcMillis) {
+        return Math.floorDiv(utcMillis, MILLIS_PER_DAY);
+    }
+
+    /**
+     * Returns the UTC timestamp of the start of an epoch day, as expected by the date picker.
+     *
+     * @param epochDay The number of days since 1970-01-01.
+     * @return Milliseconds since the UTC epoch at midnight UTC of that day.
+     */
+    public static long utcMillisOfEpochDay(long epochDay) {
+        return epochDay * MILLIS_PER_DAY;
+    }
+
+    /**
+     * Returns the day of the week of an epoch day.
+     *
+     * @param epochDay The number of days since 1970-01-01.
+     * @return The ISO day of the week, from 1 (Monday) to 7 (Sunday).
+     */
+    public static int dayOfWeek(long epochDay) {
+        // 1970-01-01 was a Thursday, ISO day 4.
+        return (int) Math.floorMod(epochDay + 3, 7L) + 1;
+    }
+
+    /**
+     * Converts the name of a day of the week, as stored on courses, to its ISO number.
+     *
+     * @param dayName The name of the day, e.g. "Monday", in any case.
+     * @return The ISO day of the week, from 1 (Monday) to 7 (Sunday), or -1 if the name is unknown.
+     */
+    public static int parseDayOfWeek(String dayName) {
+        if (dayName != null) {
+            String trimmed = dayName.trim();
+            for (int i = 0; i < DAY_NAMES.length; i++) {
+                if (DAY_NAMES[i].equalsIgnoreCase(trimmed)) {
+                    return i + 1;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Parses a course start time into minutes after midnight.
+     *
+     * @param time The start time, in "HH:mm" or "h:mm a" format, e.g. "09:30" or "9:30 PM".
+     * @return The minutes after midnight, or -1 if the time cannot be parsed.
+     */
+    public static int parseTimeMinutes(String time) {
+        if (time == null) {
+            return -1;
+        }
+        int end = time.length();
+        while (end > 0 && Character.isWhitespace(time.charAt(end - 1))) {
+            end--;
+        }
+        int begin = 0;
+        while (begin < end && Character.isWhitespace(time.charAt(begin))) {
+            begin++;
+        }
+        // An optional AM/PM marker after a space switches to the 12-hour clock.
+        int meridiem = 0;
+        if (end - begin >= 3 && time.charAt(end - 3) == ' '
+                && Character.toUpperCase(time.charAt(end - 1)) == 'M') {
+            char marker = Character.toUpperCase(time.charAt(end - 2));
+            if (marker != 'A' && marker != 'P') {
+                return -1;
+            }
+            meridiem = marker == 'A' ? 1 : 2;
+            end -= 3;
+        }
+        int colon = time.indexOf(':', begin);
+        if (colon < 0 || colon >= end || colon - begin < 1 || colon - begin > 2 || end - colon != 3) {
+            return -1;
+        }
+        int hour = parseDigits(time, begin, colon);
+        int minute = parseDigits(time, colon + 1, end);
+        if (hour < 0 || minute < 0 || minute > 59) {
+            return -1;
+        }
+        if (meridiem == 0) {
+            return hour > 23 ? -1 : hour * 60 + minute;
+        }
+        if (hour < 1 || hour > 12) {
+            return -1;
+        }
+        return ((hour % 12) + (meridiem == 2 ? 12 : 0)) * 60 + minute;
+    }
+
+    /**
+     * Formats the creation timestamp of a class or course in the device's time zone.
+     *
+     * @param millis Milliseconds since the UTC epoch.
+     * @return The timestamp, in "dd/MM/yyyy HH:mm" format.
+     */
+    public static String formatCreatedDate(long millis) {
+        return CREATED_DATE_FORMAT.format(Instant.ofEpochMilli(millis));
+    }
+
+    /**
+     * Formats a timestamp for a diagnostic log, to the millisecond.
+     *
+     * @param millis The time in milliseconds since the epoch.
+     * @return The time in "yyyy-MM-dd HH:mm:ss.SSS" format.
+     */
+    public static String formatLogTimestamp(long millis) {
+        return LOG_TIMESTAMP_FORMAT.format(Instant.ofEpochMilli(millis));
+    }
+
+    /**
+     * Formats an ISO booking date for display.
+     *
+     * @param isoDate The booking date, e.g. "2025-07-18T09:30:00.000Z".
+     * @return The date in "dd MMM yyyy, HH:mm" format, or null if it cannot be parsed.
+     */
+    public static String formatBookingDate(String isoDate) {
+        if (isoDate == null) {
+            return null;
+        }
+        try {
+            return BOOKING_READABLE_FORMAT.format(LocalDateTime.parse(isoDate, BOOKING_ISO_FORMAT));
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns whether a year is a leap year in the Gregorian calendar.
+     */
+    private static boolean isLeapYear(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    /**
+     * Returns the number of days in a month.
+     */
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2: return isLeapYear(year) ? 29 : 28;
+            case 4: case 6: case 9: case 11: return 30;
+            default: return 31;
+        }
+    }
+
+    /**
+     * Returns the epoch day of a valid date.
+     */
+    private static long toEpochDay(int year, int month, int day) {
+        // Days-from-civil over 400-year cycles starting on March 1st.
+        long shiftedYear = month <= 2 ? year - 1 : year;
+        long cycle = Math.floorDiv(shiftedYear, 400L);
+        long yearOfCycle = shiftedYear - cycle * 400;
+        long dayOfYear = (153L * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfCycle = yearOfCycle * 365 + yearOfCycle / 4 - yearOfCycle / 100 + dayOfYear;
+        return cycle * DAYS_PER_CYCLE + dayOfCycle - DAYS_0000_TO_1970;
+    }
+
+    /**
+     * Parses the decimal digits of a substring.
+     *
+     * @return The value, or -1 if the substring contains anything other than ASCII digits.
+     */
+    private static int parseDigits(String text, int begin, int end) {
+        int value = 0;
+        for (int i = begin; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.yogaAdmin.utils;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * An in-memory columnar index for faceted filtering of a list of rows.
+ * For every facet (an attribute such as a status or a room) the index keeps one {@link BitSet}
+ * per distinct value, with bit {@code i} set when row {@code i} of the latest list has that value.
+ * A selection is resolved by OR-ing the bitsets of the selected values of each facet and AND-ing
+ * the facets together, and facet counts are the cardinality of a value's bitset AND-ed with the
+ * rows matching every other facet.
+ * This class is not thread-safe; it is meant to be confined to a single background thread.
+ *
+ * @param <T> The type of the indexed rows.
+ */
+public class FacetIndex<T> {
+
+    // Extracts the value of each facet from a row, keyed by facet name in registration order.
+    private final Map<String, Function<T, String>> valueExtractors = new LinkedHashMap<>();
+    // Display order of the values of each facet, keyed by facet name.
+    private final Map<String, Comparator<String>> valueOrders = new HashMap<>();
+    // Rows having each value, keyed by facet name and then by value in display order.
+    private final Map<String, Map<String, BitSet>> bitsets = new HashMap<>();
+    // The latest list of rows; bit positions are positions in this list.
+    private List<T> rows = Collections.emptyList();
+
+    /**
+     * Registers a facet whose values are shown in their natural order.
+     *
+     * @param name The name of the facet.
+     * @param valueOf Returns the value of the facet for a row, or null if the row has none.
+     */
+    public void addFacet(String name, Function<T, String> valueOf) {
+        addFacet(name, valueOf, Comparator.naturalOrder());
+    }
+
+    /**
+     * Registers a facet. Facets must be registered before the first call to {@link #update(List)}.
+     *
+     * @param name The name of the facet.
+     * @param valueOf Returns the value of the facet for a row, or null if the row has none.
+     * @param valueOrder The order in which the values of the facet are reported.
+     */
+    public void addFacet(String name, Function<T, String> valueOf, Comparator<String> valueOrder) {
+        valueExtractors.put(name, valueOf);
+        valueOrders.put(name, valueOrder);
+        bitsets.put(name, new TreeMap<>(valueOrder));
+    }
+
+    /**
+     * Rebuilds the bitsets for a new list of rows, so that bit positions match list positions.
+     * This is a single pass over the rows per facet.
+     *
+     * @param newRows The latest list of rows.
+     */
+    public void update(List<T> newRows) {
+        rows = newRows;
+        for (Map.Entry<String, Function<T, String>> facet : valueExtractors.entrySet()) {
+            Map<String, BitSet> values = new TreeMap<>(valueOrders.get(facet.getKey()));
+            Function<T, String> valueOf = facet.getValue();
+            for (int i = 0; i < newRows.size(); i++) {
+                String value = valueOf.apply(newRows.get(i));
+                if (value == null) {
+                    continue;
+                }
+                BitSet rowsWithValue = values.get(value);
+                if (rowsWithValue == null) {
+                    rowsWithValue = new BitSet(newRows.size());
+                    values.put(value, rowsWithValue);
+                }
+                rowsWithValue.set(i);
+            }
+            bitsets.put(facet.getKey(), values);
+        }
+    }
+
+    /**
+     * Returns the rows matching a selection within a set of candidate rows.
+     * Values selected within one facet are OR-ed, and facets are AND-ed. Facets without any
+     * selected value do not restrict the result.
+     *
+     * @param candidates The candidate rows, e.g. the matches of a text query. Not modified.
+     * @param selection The selected values, keyed by facet name.
+     * @return A new bitset of the matching rows.
+     */
+    public BitSet filter(BitSet candidates, Map<String, Set<String>> selection) {
+        return filterExcept(candidates, selection, null);
+    }
+
+    /**
+     * Counts, for every value of the given facets, how many rows would match if that value were
+     * selected in addition to the current selection of the other facets.
+     *
+     * @param candidates The candidate rows, e.g. the matches of a text query. Not modified.
+     * @param selection The selected values, keyed by facet name.
+     * @param facetNames The facets to count, in the order they should be reported.
+     * @return The counts keyed by facet name and then by value, in display order.
+     */
+    public Map<String, Map<String, Integer>> count(BitSet candidates, Map<String, Set<String>> selection,
+                                                   List<String> facetNames) {
+        Map<String, Map<String, Integer>> counts = new LinkedHashMap<>();
+        for (String facetName : facetNames) {
+            // Selecting another value of the same facet widens the result, so this facet's own
+            // selection is left out of the rows the counts are taken over.
+            BitSet base = filterExcept(candidates, selection, facetName);
+            Map<String, Integer> valueCounts = new LinkedHashMap<>();
+            for (Map.Entry<String, BitSet> value : bitsets.get(facetName).entrySet()) {
+                BitSet matching = (BitSet) value.getValue().clone();
+                matching.and(base);
+                valueCounts.put(value.getKey(), matching.cardinality());
+            }
+            counts.put(facetName, valueCounts);
+        }
+        return counts;
+    }
+
+    /**
+     * Returns the rows at the positions set in a bitset, in list order.
+     *
+     * @param positions The positions of the rows.
+     * @return The rows at those positions.
+     */
+    public List<T> rowsAt(BitSet positions) {
+        List<T> result = new ArrayList<>(positions.cardinality());
+        for (int i = positions.nextSetBit(0); i >= 0; i = positions.nextSetBit(i + 1)) {
+            result.add(rows.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Applies the selection of every facet except one to the candidate rows.
+     */
+    private BitSet filterExcept(BitSet candidates, Map<String, Set<String>> selection, String excludedFacet) {
+        BitSet result = (BitSet) candidates.clone();
+        for (Map.Entry<String, Set<String>> facet : selection.entrySet()) {
+            if (facet.getKey().equals(excludedFacet) || facet.getValue().isEmpty()) {
+                continue;
+            }
+            Map<String, BitSet> values = bitsets.get(facet.getKey());
+            BitSet anyValue = new BitSet(rows.size());
+            for (String selectedValue : facet.getValue()) {
+                BitSet rowsWithValue = values != null ? values.get(selectedValue) : null;
+                if (rowsWithValue != null) {
+                    anyValue.or(rowsWithValue);
+                }
+            }
+            result.and(anyValue);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,250 @@
+package com.example.yogaAdmin.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A prefix trie of names ranked by how often each name is used, for autocompletion.
+ * Names are keyed by their normalized form (see {@link TrigramIndex#normalize(String)} with runs
+ * of whitespace collapsed), so spelling variants that differ only in case, accents or spacing
+ * share one entry, which is displayed in its most frequently used spelling.
+ * Every word of a name is indexed, so "joh" suggests both "John Smith" and "Sarah Johnson".
+ * Usage counts are adjusted incrementally with {@link #add(String)} and {@link #remove(String)}.
+ * This class is not thread-safe; callers sharing an instance must synchronize on it.
+ */
+public class FrequencyTrie {
+
+    // The root node, standing for the empty prefix.
+    private final Node root = new Node();
+    // Entries keyed by normalized name.
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    /**
+     * Records one more use of a name.
+     *
+     * @param name The name as entered, may be null or blank, in which case it is ignored.
+     */
+    public void add(String name) {
+        String key = normalizeKey(name);
+        if (key.isEmpty()) {
+            return;
+        }
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            entry = new Entry();
+            entries.put(key, entry);
+            for (int start : wordStarts(key)) {
+                insert(key.substring(start), entry);
+            }
+        }
+        entry.count++;
+        String spelling = name.trim();
+        Integer spellingCount = entry.spellings.get(spelling);
+        entry.spellings.put(spelling, spellingCount == null ? 1 : spellingCount + 1);
+        entry.updateDisplayName();
+    }
+
+    /**
+     * Records one less use of a name, dropping it from the suggestions once it is no longer used.
+     *
+     * @param name The name as entered, may be null or blank, in which case it is ignored.
+     */
+    public void remove(String name) {
+        String key = normalizeKey(name);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return;
+        }
+        String spelling = name.trim();
+        Integer spellingCount = entry.spellings.get(spelling);
+        if (spellingCount != null) {
+            if (spellingCount == 1) {
+                entry.spellings.remove(spelling);
+            } else {
+                entry.spellings.put(spelling, spellingCount - 1);
+            }
+        }
+        entry.count--;
+        if (entry.count > 0) {
+            entry.updateDisplayName();
+            return;
+        }
+        entries.remove(key);
+        for (int start : wordStarts(key)) {
+            delete(root, key.substring(start), 0, entry);
+        }
+    }
+
+    /**
+     * Removes every name from the trie.
+     */
+    public void clear() {
+        root.children.clear();
+        root.entries.clear();
+        entries.clear();
+    }
+
+    /**
+     * Returns the number of distinct names in the trie.
+     *
+     * @return The number of distinct names.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the number of times a name is used.
+     *
+     * @param name The name, in any of its spellings.
+     * @return The usage count, or 0 if the name is not in the trie.
+     */
+    public int countOf(String name) {
+        Entry entry = entries.get(normalizeKey(name));
+        return entry != null ? entry.count : 0;
+    }
+
+    /**
+     * Returns the names with a word starting with a prefix, most used first.
+     *
+     * @param prefix The prefix as typed; it is normalized like the names.
+     * @param limit The maximum number of suggestions to return.
+     * @return The display names of the matching entries, ordered by descending usage count and
+     *         then alphabetically. An empty prefix matches nothing.
+     */
+    public List<String> suggest(String prefix, int limit) {
+        String key = normalizeKey(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.children.get(key.charAt(i));
+        }
+        if (node == null) {
+            return Collections.emptyList();
+        }
+        // A name with several matching words is reached more than once, so collect into a set.
+        Set<Entry> matches = new LinkedHashSet<>();
+        collect(node, matches);
+        List<Entry> ranked = new ArrayList<>(matches);
+        ranked.sort((a, b) -> a.count != b.count
+                ? Integer.compare(b.count, a.count)
+                : a.displayName.compareToIgnoreCase(b.displayName));
+        List<String> suggestions = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (int i = 0; i < ranked.size() && i < limit; i++) {
+            suggestions.add(ranked.get(i).displayName);
+        }
+        return suggestions;
+    }
+
+    /**
+     * Normalizes a name for use as a key: folds case and accents and collapses whitespace.
+     *
+     * @param name The name, may be null.
+     * @return The normalized key, or an empty string if the name is null or blank.
+     */
+    public static String normalizeKey(String name) {
+        return TrigramIndex.normalize(name).replaceAll("\\s+", " ");
+    }
+
+    /**
+     * Returns the start index of every word of a normalized key.
+     */
+    private static List<Integer> wordStarts(String key) {
+        List<Integer> starts = new ArrayList<>();
+        for (int i = 0; i < key.length(); i++) {
+            if (key.charAt(i) != ' ' && (i == 0 || key.charAt(i - 1) == ' ')) {
+                starts.add(i);
+            }
+        }
+        return starts;
+    }
+
+    /**
+     * Adds the path of a word to the trie and attaches the entry at its end.
+     */
+    private void insert(String word, Entry entry) {
+        Node node = root;
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            Node child = node.children.get(c);
+            if (child == null) {
+                child = new Node();
+                node.children.put(c, child);
+            }
+            node = child;
+        }
+        node.entries.add(entry);
+    }
+
+    /**
+     * Detaches an entry from the end of a word's path, pruning nodes left empty.
+     *
+     * @return {@code true} if the node at {@code depth} is now empty and can be removed.
+     */
+    private static boolean delete(Node node, String word, int depth, Entry entry) {
+        if (depth == word.length()) {
+            node.entries.remove(entry);
+        } else {
+            char c = word.charAt(depth);
+            Node child = node.children.get(c);
+            if (child != null && delete(child, word, depth + 1, entry)) {
+                node.children.remove(c);
+            }
+        }
+        return node.entries.isEmpty() && node.children.isEmpty();
+    }
+
+    /**
+     * Collects the entries attached at or below a node.
+     */
+    private static void collect(Node node, Set<Entry> matches) {
+        matches.addAll(node.entries);
+        for (Node child : node.children.values()) {
+            collect(child, matches);
+        }
+    }
+
+    /**
+     * A node of the trie, standing for the prefix spelled by the path from the root.
+     */
+    private static final class Node {
+        // Child nodes keyed by the next character.
+        final Map<Character, Node> children = new HashMap<>(4);
+        // Entries with a word ending at this node.
+        final List<Entry> entries = new ArrayList<>(1);
+    }
+
+    /**
+     * A distinct name with its usage count and the spellings it was entered with.
+     */
+    private static final class Entry {
+        // Number of times the name is used.
+        int count;
+        // Number of uses of each spelling of the name.
+        final Map<String, Integer> spellings = new HashMap<>(2);
+        // The most used spelling, shown in suggestions.
+        String displayName;
+
+        void updateDisplayName() {
+            String best = null;
+            int bestCount = 0;
+            for (Map.Entry<String, Integer> spelling : spellings.entrySet()) {
+                if (spelling.getValue() > bestCount
+                        || (spelling.getValue() == bestCount && spelling.getKey().compareTo(best) < 0)) {
+                    best = spelling.getKey();
+                    bestCount = spelling.getValue();
+                }
+            }
+            if (best != null) {
+                displayName = best;
+            }
+        }
+    }
+}
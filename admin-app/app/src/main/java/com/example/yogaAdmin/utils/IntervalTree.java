@@ -0,0 +1,137 @@
+package com.example.yogaAdmin.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable interval tree answering "which intervals overlap [start, end)?" queries.
+ * The intervals are sorted by start and arranged as a perfectly balanced binary search tree, with
+ * every node also recording the largest end in its subtree. A query skips every subtree whose
+ * largest end is at or before the query start and every right subtree starting at or after the
+ * query end, so it visits O(log n + k) nodes for k overlaps.
+ * Intervals are half-open, so back-to-back intervals such as [600, 660) and [660, 720) do not
+ * overlap.
+ *
+ * @param <T> The type of the value attached to each interval.
+ */
+public class IntervalTree<T> {
+
+    // Interval starts, sorted ascending; the tree is laid out implicitly over these arrays.
+    private final int[] starts;
+    // Interval ends, in the same order as the starts.
+    private final int[] ends;
+    // Largest end within the subtree rooted at each index.
+    private final int[] maxEnds;
+    // Value attached to each interval, in the same order as the starts.
+    private final List<T> values;
+
+    /**
+     * Builds a tree over a list of intervals.
+     *
+     * @param intervals The intervals; the list is not modified.
+     */
+    public IntervalTree(List<Interval<T>> intervals) {
+        List<Interval<T>> sorted = new ArrayList<>(intervals);
+        Collections.sort(sorted, (a, b) -> a.start != b.start
+                ? Integer.compare(a.start, b.start)
+                : Integer.compare(a.end, b.end));
+        int size = sorted.size();
+        starts = new int[size];
+        ends = new int[size];
+        maxEnds = new int[size];
+        values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Interval<T> interval = sorted.get(i);
+            starts[i] = interval.start;
+            ends[i] = interval.end;
+            values.add(interval.value);
+        }
+        computeMaxEnds(0, size - 1);
+    }
+
+    /**
+     * Returns the number of intervals in the tree.
+     *
+     * @return The number of intervals.
+     */
+    public int size() {
+        return starts.length;
+    }
+
+    /**
+     * Finds the intervals overlapping [start, end).
+     *
+     * @param start The start of the query interval, inclusive.
+     * @param end The end of the query interval, exclusive.
+     * @return The values of the overlapping intervals, ordered by start.
+     */
+    public List<T> overlapping(int start, int end) {
+        List<T> result = new ArrayList<>();
+        if (start < end) {
+            collect(0, starts.length - 1, start, end, result);
+        }
+        return result;
+    }
+
+    /**
+     * Computes the largest end of every subtree of the range [low, high].
+     *
+     * @return The largest end of the range, or {@link Integer#MIN_VALUE} if it is empty.
+     */
+    private int computeMaxEnds(int low, int high) {
+        if (low > high) {
+            return Integer.MIN_VALUE;
+        }
+        int mid = (low + high) >>> 1;
+        int maxEnd = Math.max(ends[mid], Math.max(computeMaxEnds(low, mid - 1), computeMaxEnds(mid + 1, high)));
+        maxEnds[mid] = maxEnd;
+        return maxEnd;
+    }
+
+    /**
+     * Collects the overlapping intervals of the subtree of the range [low, high] in order.
+     */
+    private void collect(int low, int high, int start, int end, List<T> result) {
+        if (low > high) {
+            return;
+        }
+        int mid = (low + high) >>> 1;
+        if (maxEnds[mid] <= start) {
+            // Every interval in this subtree ends before the query starts.
+            return;
+        }
+        collect(low, mid - 1, start, end, result);
+        if (starts[mid] < end && ends[mid] > start) {
+            result.add(values.get(mid));
+        }
+        if (starts[mid] < end) {
+            // Intervals to the right start no earlier than this one.
+            collect(mid + 1, high, start, end, result);
+        }
+    }
+
+    /**
+     * A half-open interval [start, end) with an attached value.
+     *
+     * @param <T> The type of the attached value.
+     */
+    public static final class Interval<T> {
+        public final int start;
+        public final int end;
+        public final T value;
+
+        /**
+         * Constructor for an interval.
+         *
+         * @param start The start of the interval, inclusive.
+         * @param end The end of the interval, exclusive.
+         * @param value The value attached to the interval.
+         */
+        public Interval(int start, int end, T value) {
+            this.start = start;
+            this.end = end;
+            this.value = value;
+        }
+    }
+}
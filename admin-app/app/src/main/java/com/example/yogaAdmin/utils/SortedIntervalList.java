@@ -0,0 +1,144 @@
+package com.example.yogaAdmin.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A list of half-open intervals [start, end) kept sorted by start, supporting incremental inserts
+ * and removals. Overlap queries binary-search for the first interval starting at or after the
+ * query end and walk back only as far as the longest interval ever inserted could reach, so on a
+ * timeline where intervals rarely overlap a query touches O(log n + k) intervals for k overlaps.
+ * This class is not thread-safe.
+ *
+ * @param <T> The type of the value attached to each interval.
+ */
+public class SortedIntervalList<T> {
+
+    // Interval starts, ascending.
+    private final List<Integer> starts = new ArrayList<>();
+    // Interval ends, in the same order as the starts.
+    private final List<Integer> ends = new ArrayList<>();
+    // Values, in the same order as the starts.
+    private final List<T> values = new ArrayList<>();
+    // Length of the longest interval inserted so far; an upper bound on how far back a query must look.
+    private int maxLength;
+
+    /**
+     * Creates an empty list.
+     */
+    public SortedIntervalList() {
+    }
+
+    /**
+     * Creates a list holding the same intervals as another, which can then be modified
+     * independently of it.
+     *
+     * @param other The list to copy.
+     */
+    public SortedIntervalList(SortedIntervalList<T> other) {
+        starts.addAll(other.starts);
+        ends.addAll(other.ends);
+        values.addAll(other.values);
+        maxLength = other.maxLength;
+    }
+
+    /**
+     * Inserts an interval, keeping the list sorted by start.
+     *
+     * @param start The start of the interval, inclusive.
+     * @param end The end of the interval, exclusive.
+     * @param value The value attached to the interval.
+     */
+    public void add(int start, int end, T value) {
+        int index = upperBound(start);
+        starts.add(index, start);
+        ends.add(index, end);
+        values.add(index, value);
+        maxLength = Math.max(maxLength, end - start);
+    }
+
+    /**
+     * Removes an interval by its start and value.
+     *
+     * @param start The start the interval was inserted with.
+     * @param value The value the interval was inserted with, compared with {@link Object#equals(Object)}.
+     * @return {@code true} if the interval was found and removed.
+     */
+    public boolean remove(int start, T value) {
+        // Only intervals with the same start can match, and they are adjacent.
+        for (int i = lowerBound(start); i < starts.size() && starts.get(i) == start; i++) {
+            if (values.get(i).equals(value)) {
+                starts.remove(i);
+                ends.remove(i);
+                values.remove(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether the list holds no intervals.
+     *
+     * @return {@code true} if the list is empty.
+     */
+    public boolean isEmpty() {
+        return starts.isEmpty();
+    }
+
+    /**
+     * Finds the intervals overlapping [start, end).
+     *
+     * @param start The start of the query interval, inclusive.
+     * @param end The end of the query interval, exclusive.
+     * @return The values of the overlapping intervals, ordered by descending start.
+     */
+    public List<T> overlapping(int start, int end) {
+        List<T> result = new ArrayList<>();
+        if (start >= end) {
+            return result;
+        }
+        // Intervals starting at or before start - maxLength end at or before start.
+        long earliestStart = (long) start - maxLength;
+        for (int i = lowerBound(end) - 1; i >= 0 && starts.get(i) > earliestStart; i--) {
+            if (ends.get(i) > start) {
+                result.add(values.get(i));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the index of the first interval starting at or after a value.
+     */
+    private int lowerBound(int value) {
+        int low = 0;
+        int high = starts.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (starts.get(mid) < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the index of the first interval starting after a value.
+     */
+    private int upperBound(int value) {
+        int low = 0;
+        int high = starts.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (starts.get(mid) <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
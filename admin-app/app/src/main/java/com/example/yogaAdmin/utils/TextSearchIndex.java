@@ -0,0 +1,137 @@
+package com.example.yogaAdmin.utils;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Keeps a {@link TrigramIndex} in step with a list of items emitted by a repository and answers
+ * free-text queries over it in the order of the latest list.
+ * Each new list is compared with the previous one by item ID and {@link Object#equals(Object)},
+ * and only the items that were added, changed or removed are re-indexed.
+ * This class is not thread-safe; it is meant to be confined to a single background thread.
+ *
+ * @param <T> The type of the indexed items.
+ */
+public class TextSearchIndex<T> {
+
+    // Number of matches handled between two checks for cancellation.
+    private static final int CANCELLATION_CHECK_INTERVAL = 64;
+
+    // Extracts the unique ID of an item.
+    private final ToLongFunction<T> idOf;
+    // Extracts the searchable fields of an item.
+    private final Function<T, String[]> fieldsOf;
+    // The underlying substring index.
+    private final TrigramIndex trigramIndex = new TrigramIndex();
+    // The latest list of items, in display order.
+    private List<T> items = Collections.emptyList();
+    // The latest items keyed by ID, used to detect changes.
+    private Map<Long, T> itemsById = new HashMap<>();
+    // Position of each item in the latest list, keyed by ID.
+    private Map<Long, Integer> positionsById = new HashMap<>();
+
+    /**
+     * Constructor for the TextSearchIndex.
+     *
+     * @param idOf Returns the unique ID of an item.
+     * @param fieldsOf Returns the searchable fields of an item, any of which may be null.
+     */
+    public TextSearchIndex(ToLongFunction<T> idOf, Function<T, String[]> fieldsOf) {
+        this.idOf = idOf;
+        this.fieldsOf = fieldsOf;
+    }
+
+    /**
+     * Brings the index up to date with a new list of items, re-indexing only what changed.
+     *
+     * @param newItems The latest list of items, in display order.
+     */
+    public void update(List<T> newItems) {
+        Map<Long, T> newItemsById = new HashMap<>(newItems.size() * 2);
+        Map<Long, Integer> newPositionsById = new HashMap<>(newItems.size() * 2);
+        for (int i = 0; i < newItems.size(); i++) {
+            T item = newItems.get(i);
+            long id = idOf.applyAsLong(item);
+            newItemsById.put(id, item);
+            newPositionsById.put(id, i);
+            if (!Objects.equals(itemsById.get(id), item)) {
+                trigramIndex.put(id, TrigramIndex.joinFields(fieldsOf.apply(item)));
+            }
+        }
+        for (Long id : itemsById.keySet()) {
+            if (!newItemsById.containsKey(id)) {
+                trigramIndex.remove(id);
+            }
+        }
+        items = new ArrayList<>(newItems);
+        itemsById = newItemsById;
+        positionsById = newPositionsById;
+    }
+
+    /**
+     * Finds the items with a searchable field containing the query, ignoring case and accents.
+     *
+     * @param query The raw query typed by the user.
+     * @param isCancelled Checked after the index lookup and periodically while the matches are
+     *                    collected; once it returns {@code true} the search is abandoned.
+     * @return The matching items in the order of the latest list, or {@code null} if cancelled.
+     */
+    public List<T> search(String query, BooleanSupplier isCancelled) {
+        if (TrigramIndex.normalize(query).isEmpty()) {
+            return new ArrayList<>(items);
+        }
+        BitSet positions = searchPositions(query, isCancelled);
+        if (positions == null || isCancelled.getAsBoolean()) {
+            return null;
+        }
+        List<T> matches = new ArrayList<>(positions.cardinality());
+        for (int i = positions.nextSetBit(0); i >= 0; i = positions.nextSetBit(i + 1)) {
+            if (matches.size() % CANCELLATION_CHECK_INTERVAL == 0 && isCancelled.getAsBoolean()) {
+                return null;
+            }
+            matches.add(items.get(i));
+        }
+        return matches;
+    }
+
+    /**
+     * Finds the positions in the latest list of the items with a searchable field containing
+     * the query, ignoring case and accents. Every item matches an empty query.
+     *
+     * @param query The raw query typed by the user.
+     * @return A bitset with the positions of the matching items set.
+     */
+    public BitSet searchPositions(String query) {
+        return searchPositions(query, () -> false);
+    }
+
+    /**
+     * Finds the positions of the matching items, checking for cancellation periodically while
+     * the matching IDs are mapped to positions.
+     *
+     * @return A bitset with the positions of the matching items set, or {@code null} if cancelled.
+     */
+    private BitSet searchPositions(String query, BooleanSupplier isCancelled) {
+        BitSet positions = new BitSet(items.size());
+        if (TrigramIndex.normalize(query).isEmpty()) {
+            positions.set(0, items.size());
+            return positions;
+        }
+        long[] ids = trigramIndex.search(query);
+        for (int i = 0; i < ids.length; i++) {
+            if (i % CANCELLATION_CHECK_INTERVAL == 0 && isCancelled.getAsBoolean()) {
+                return null;
+            }
+            positions.set(positionsById.get(ids[i]));
+        }
+        return positions;
+    }
+}
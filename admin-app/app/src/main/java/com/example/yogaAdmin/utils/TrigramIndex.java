@@ -0,0 +1,301 @@
+package com.example.yogaAdmin.utils;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * An in-memory inverted index answering substring queries over short documents.
+ * Every normalized document is indexed by all of its 1-, 2- and 3-character grams. A query of up
+ * to three characters is answered by a single posting list, and a longer query by intersecting the
+ * posting lists of its trigrams and checking the few remaining candidates with
+ * {@link String#contains(CharSequence)}.
+ * Documents are stored in slots numbered in insertion order, so each posting list is an ascending
+ * array of slots that only ever grows at its end. Updating or removing a document frees its slot
+ * lazily, and the index compacts itself once most slots are free.
+ * This class is not thread-safe; it is meant to be confined to a single background thread.
+ */
+public class TrigramIndex {
+
+    /**
+     * Separator to place between the fields of a document, so a query cannot match across two
+     * fields. Grams containing it are not indexed and it never occurs in a normalized query.
+     */
+    public static final char FIELD_SEPARATOR = '\u0000';
+
+    // Matches the combining marks left behind by canonical decomposition, e.g. the accent of "é".
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    // Minimum number of free slots before the index considers compacting itself.
+    private static final int MIN_FREE_SLOTS_TO_COMPACT = 1024;
+
+    // Posting lists of ascending slots, keyed by the encoded gram.
+    private final Map<Long, IntList> postings = new HashMap<>();
+    // Slot of each indexed document, keyed by document ID.
+    private final Map<Long, Integer> slotById = new HashMap<>();
+    // Document ID stored in each slot.
+    private long[] slotIds = new long[16];
+    // Normalized text stored in each slot.
+    private String[] slotTexts = new String[16];
+    // Slots holding the current version of a document.
+    private final BitSet liveSlots = new BitSet();
+    // Number of slots used so far, live or free.
+    private int slotCount;
+
+    /**
+     * Adds a document to the index, replacing any previous version with the same ID.
+     *
+     * @param id The ID of the document.
+     * @param text The text of the document; it is normalized by the index.
+     */
+    public void put(long id, String text) {
+        String normalized = normalize(text);
+        Integer previousSlot = slotById.get(id);
+        if (previousSlot != null) {
+            if (slotTexts[previousSlot].equals(normalized)) {
+                return;
+            }
+            liveSlots.clear(previousSlot);
+        }
+        int slot = slotCount++;
+        if (slot == slotIds.length) {
+            slotIds = Arrays.copyOf(slotIds, slot * 2);
+            slotTexts = Arrays.copyOf(slotTexts, slot * 2);
+        }
+        slotIds[slot] = id;
+        slotTexts[slot] = normalized;
+        liveSlots.set(slot);
+        slotById.put(id, slot);
+        for (long gram : distinctGrams(normalized)) {
+            IntList postingList = postings.get(gram);
+            if (postingList == null) {
+                postingList = new IntList();
+                postings.put(gram, postingList);
+            }
+            postingList.add(slot);
+        }
+        compactIfSparse();
+    }
+
+    /**
+     * Removes a document from the index, if present.
+     *
+     * @param id The ID of the document.
+     */
+    public void remove(long id) {
+        Integer slot = slotById.remove(id);
+        if (slot != null) {
+            liveSlots.clear(slot);
+            compactIfSparse();
+        }
+    }
+
+    /**
+     * Returns the number of documents in the index.
+     *
+     * @return The number of indexed documents.
+     */
+    public int size() {
+        return slotById.size();
+    }
+
+    /**
+     * Finds the documents whose normalized text contains the normalized query.
+     *
+     * @param query The raw query.
+     * @return The IDs of the matching documents, in the order they were last put.
+     *         Every document matches an empty query.
+     */
+    public long[] search(String query) {
+        String normalized = normalize(query);
+        int[] slots;
+        if (normalized.isEmpty()) {
+            slots = liveSlots.stream().toArray();
+        } else if (normalized.length() <= 3) {
+            // The posting list of the whole query is exactly the set of matching documents.
+            IntList postingList = postings.get(encode(normalized, 0, normalized.length()));
+            slots = postingList != null ? liveOnly(postingList) : new int[0];
+        } else {
+            slots = searchLong(normalized);
+        }
+        long[] ids = new long[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            ids[i] = slotIds[slots[i]];
+        }
+        return ids;
+    }
+
+    /**
+     * Normalizes text for searching by trimming it, folding accents and lower-casing it.
+     * For example, " Café " and "cafe" both normalize to "cafe".
+     *
+     * @param text The text to normalize, may be null.
+     * @return The normalized text, or an empty string if the text is null.
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text.trim(), Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Joins the fields of a document with {@link #FIELD_SEPARATOR}, skipping null fields.
+     *
+     * @param fields The fields of the document.
+     * @return The text to index.
+     */
+    public static String joinFields(String... fields) {
+        StringBuilder builder = new StringBuilder();
+        for (String field : fields) {
+            if (field != null) {
+                builder.append(field).append(FIELD_SEPARATOR);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Answers a query longer than three characters by intersecting the posting lists of its
+     * trigrams, smallest first, and verifying the candidates against the stored text.
+     */
+    private int[] searchLong(String query) {
+        List<IntList> lists = new ArrayList<>(query.length() - 2);
+        for (int i = 0; i + 3 <= query.length(); i++) {
+            IntList postingList = postings.get(encode(query, i, 3));
+            if (postingList == null) {
+                return new int[0];
+            }
+            lists.add(postingList);
+        }
+        lists.sort((a, b) -> Integer.compare(a.size, b.size));
+        int[] candidates = liveOnly(lists.get(0));
+        int count = candidates.length;
+        for (int l = 1; l < lists.size() && count > 0; l++) {
+            IntList postingList = lists.get(l);
+            int kept = 0;
+            int from = 0;
+            for (int i = 0; i < count; i++) {
+                // Candidates are ascending, so each search can start where the previous one ended.
+                int found = Arrays.binarySearch(postingList.data, from, postingList.size, candidates[i]);
+                if (found >= 0) {
+                    candidates[kept++] = candidates[i];
+                    from = found + 1;
+                } else {
+                    from = -found - 1;
+                }
+            }
+            count = kept;
+        }
+        int matched = 0;
+        for (int i = 0; i < count; i++) {
+            // Sharing every trigram does not guarantee the trigrams appear in sequence.
+            if (slotTexts[candidates[i]].contains(query)) {
+                candidates[matched++] = candidates[i];
+            }
+        }
+        return Arrays.copyOf(candidates, matched);
+    }
+
+    /**
+     * Copies the live slots of a posting list.
+     */
+    private int[] liveOnly(IntList postingList) {
+        int[] slots = new int[postingList.size];
+        int count = 0;
+        for (int i = 0; i < postingList.size; i++) {
+            int slot = postingList.data[i];
+            if (liveSlots.get(slot)) {
+                slots[count++] = slot;
+            }
+        }
+        return count == slots.length ? slots : Arrays.copyOf(slots, count);
+    }
+
+    /**
+     * Returns the distinct encoded 1-, 2- and 3-character grams of a normalized text,
+     * leaving out grams that span a field separator.
+     */
+    private static long[] distinctGrams(String text) {
+        int length = text.length();
+        long[] grams = new long[length * 3];
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            for (int n = 1; n <= 3 && i + n <= length; n++) {
+                if (text.charAt(i + n - 1) == FIELD_SEPARATOR) {
+                    break;
+                }
+                grams[count++] = encode(text, i, n);
+            }
+        }
+        Arrays.sort(grams, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || grams[distinct - 1] != grams[i]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return Arrays.copyOf(grams, distinct);
+    }
+
+    /**
+     * Encodes a gram of one to three characters as a long, including its length so grams of
+     * different lengths never collide.
+     */
+    private static long encode(String text, int start, int length) {
+        long key = length;
+        for (int i = 0; i < length; i++) {
+            key = (key << 16) | text.charAt(start + i);
+        }
+        return key;
+    }
+
+    /**
+     * Rebuilds the index from its live documents once most of its slots are free, which bounds
+     * the memory held by replaced and removed documents.
+     */
+    private void compactIfSparse() {
+        int freeSlots = slotCount - slotById.size();
+        if (freeSlots < MIN_FREE_SLOTS_TO_COMPACT || freeSlots < slotById.size()) {
+            return;
+        }
+        long[] ids = new long[slotById.size()];
+        String[] texts = new String[ids.length];
+        int count = 0;
+        for (int slot = liveSlots.nextSetBit(0); slot >= 0; slot = liveSlots.nextSetBit(slot + 1)) {
+            ids[count] = slotIds[slot];
+            texts[count++] = slotTexts[slot];
+        }
+        postings.clear();
+        slotById.clear();
+        liveSlots.clear();
+        slotIds = new long[Math.max(16, count)];
+        slotTexts = new String[slotIds.length];
+        slotCount = 0;
+        for (int i = 0; i < count; i++) {
+            // The texts are already normalized, and normalizing is idempotent.
+            put(ids[i], texts[i]);
+        }
+    }
+
+    /**
+     * A growable array of ints, used for posting lists to avoid boxing every slot.
+     */
+    private static final class IntList {
+        private int[] data = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size * 2);
+            }
+            data[size++] = value;
+        }
+    }
+}
@@ -1,14 +1,17 @@
 package com.example.yogaAdmin.viewmodel;
 
 import android.app.Application;
+import android.util.Log;
 
 import androidx.annotation.NonNull;
 import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 import androidx.lifecycle.ViewModelProvider;
 
 import com.example.yogaAdmin.models.Booking;
+import com.example.yogaAdmin.repository.BookingPagingSource;
 import com.example.yogaAdmin.repository.BookingRepository;
 
 import java.util.List;
@@ -19,10 +22,20 @@ import java.util.List;
  * and provides it to the UI as {@link LiveData}.
  */
 public class BookingViewModel extends AndroidViewModel {
+    private static final String TAG = "BookingViewModel";
+    // Number of bookings loaded from Firebase per page.
+    public static final int PAGE_SIZE = 20;
+
     // The repository that handles data operations for bookings.
     private BookingRepository repository;
     // LiveData holding the list of bookings for a specific class.
     private LiveData<List<Booking>> bookings;
+    // Loads the bookings of the class from Firebase page by page.
+    private final BookingPagingSource pagingSource;
+    // Number of bookings to show, or -1 once every page has been loaded.
+    private final MutableLiveData<Integer> limit = new MutableLiveData<>(PAGE_SIZE);
+    // Number of bookings loaded from Firebase so far.
+    private int loadedCount;
 
     /**
      * Constructor for the BookingViewModel.
@@ -32,9 +45,36 @@ public class BookingViewModel extends AndroidViewModel {
      */
     public BookingViewModel(@NonNull Application application, String classId) {
         super(application);
-        repository = new BookingRepository();
+        repository = new BookingRepository(application);
         // Fetch the bookings for the given class ID from the repository.
-        bookings = repository.getBookingsForClass(classId);
+        // Cached bookings are shown first while the first page is loaded from Firebase.
+        bookings = repository.getBookingsForClass(classId, limit);
+        pagingSource = repository.getPagingSource(classId);
+        loadMore();
+    }
+
+    /**
+     * Loads the next page of bookings, unless a page is already loading or all have been loaded.
+     * The list returned by {@link #getBookings()} grows once the page has been cached.
+     */
+    public void loadMore() {
+        if (pagingSource.isLoading() || !pagingSource.hasMore()) {
+            return;
+        }
+        pagingSource.loadNextPage(PAGE_SIZE, new BookingPagingSource.LoadCallback() {
+            @Override
+            public void onPageLoaded(int count, boolean endReached) {
+                loadedCount += count;
+                // The first page is already covered by the initial limit.
+                limit.setValue(endReached ? -1 : Math.max(PAGE_SIZE, loadedCount));
+            }
+
+            @Override
+            public void onError(Exception e) {
+                // The cached bookings remain visible, and scrolling again retries the page.
+                Log.e(TAG, "Failed to load more bookings.", e);
+            }
+        });
     }
 
     /**
@@ -4,11 +4,15 @@ import android.app.Application;
 import androidx.annotation.NonNull;
 import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
 import androidx.lifecycle.Transformations;
 import androidx.lifecycle.ViewModel;
 import androidx.lifecycle.ViewModelProvider;
+import java.util.List;
+import com.example.yogaAdmin.models.ClassWithCourseInfo;
 import com.example.yogaAdmin.models.YogaClass;
 import com.example.yogaAdmin.models.YogaCourse;
+import com.example.yogaAdmin.repository.InstructorScheduleIndex;
 import com.example.yogaAdmin.repository.YogaClassRepository;
 import com.example.yogaAdmin.repository.YogaCourseRepository;
 
@@ -21,10 +25,18 @@ public class ClassDetailsViewModel extends AndroidViewModel {
     // Repositories for accessing class and course data.
     private final YogaClassRepository classRepository;
     private final YogaCourseRepository courseRepository;
+    // Index of instructor schedules used to find substitutes.
+    private final InstructorScheduleIndex instructorScheduleIndex;
+    // The ID of the class being displayed.
+    private final long classId;
     // LiveData object for the specific yoga class.
     private final LiveData<YogaClass> yogaClass;
     // LiveData object for the associated yoga course.
     public final LiveData<YogaCourse> yogaCourse;
+    // The class together with its course, emitted whenever either has changed and both are loaded.
+    private final MediatorLiveData<ClassWithCourseInfo> classWithCourseInfo = new MediatorLiveData<>();
+    // The Firebase key of the class, emitted only when it changes.
+    private final LiveData<String> classFirebaseKey;
 
     /**
      * Constructor for the ClassDetailsViewModel.
@@ -36,6 +48,8 @@ public class ClassDetailsViewModel extends AndroidViewModel {
         super(application);
         classRepository = YogaClassRepository.getInstance(application);
         courseRepository = new YogaCourseRepository(application);
+        instructorScheduleIndex = InstructorScheduleIndex.getInstance(application);
+        this.classId = classId;
 
         // Fetch the LiveData for the specific class from the repository.
         yogaClass = classRepository.getYogaClassById(classId);
@@ -50,6 +64,19 @@ public class ClassDetailsViewModel extends AndroidViewModel {
             // If the class is null, return null for the course.
             return null;
         });
+
+        // The course is queried again after every change to the class, so pairing each course
+        // emission with the current class covers changes to either of them.
+        classWithCourseInfo.addSource(yogaCourse, course -> {
+            YogaClass current = yogaClass.getValue();
+            if (current != null && course != null) {
+                classWithCourseInfo.setValue(new ClassWithCourseInfo(current, course));
+            }
+        });
+
+        // Edits such as assigning an instructor do not change the key, so they do not reload the bookings.
+        classFirebaseKey = Transformations.distinctUntilChanged(
+                Transformations.map(yogaClass, yc -> yc != null ? yc.getFirebaseKey() : null));
     }
 
     /**
@@ -62,6 +89,52 @@ public class ClassDetailsViewModel extends AndroidViewModel {
         return yogaClass;
     }
 
+    /**
+     * Returns the LiveData of the class together with its course.
+     * It emits once both are loaded and again whenever either of them changes.
+     *
+     * @return A {@link LiveData} object of the {@link ClassWithCourseInfo}.
+     */
+    public LiveData<ClassWithCourseInfo> getClassWithCourseInfo() {
+        return classWithCourseInfo;
+    }
+
+    /**
+     * Returns the LiveData of the Firebase key of the class, which emits only when the key changes.
+     * The UI can observe this to load the bookings of the class once rather than on every edit.
+     *
+     * @return A {@link LiveData} of the Firebase key, which is null while the class has none.
+     */
+    public LiveData<String> getClassFirebaseKey() {
+        return classFirebaseKey;
+    }
+
+    /**
+     * Finds the instructors free to cover this class, ranked by how often they have taught its
+     * class type. The lookup is answered from memory and is cheap enough for the main thread.
+     *
+     * @param limit The maximum number of substitutes to return.
+     * @return The free instructors, best suited first.
+     */
+    public List<InstructorScheduleIndex.Substitute> findSubstitutes(int limit) {
+        return instructorScheduleIndex.findSubstitutes(classId, limit);
+    }
+
+    /**
+     * Assigns another instructor to this class and saves it to Room and Firebase.
+     * A copy is saved, so the class held by the LiveData keeps its value until Room emits the change.
+     *
+     * @param instructor The name of the new instructor.
+     */
+    public void assignInstructor(String instructor) {
+        YogaClass current = yogaClass.getValue();
+        if (current != null) {
+            YogaClass updated = new YogaClass(current);
+            updated.setAssignedInstructor(instructor);
+            classRepository.update(updated);
+        }
+    }
+
     /**
      * A factory class for creating instances of {@link ClassDetailsViewModel} with parameters.
      */
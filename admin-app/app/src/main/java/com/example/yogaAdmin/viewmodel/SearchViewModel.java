@@ -4,19 +4,72 @@ import android.app.Application;
 import androidx.annotation.NonNull;
 import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
+import com.example.yogaAdmin.metrics.InstrumentedThreadPool;
+import com.example.yogaAdmin.metrics.MetricsRegistry;
 import com.example.yogaAdmin.models.ClassWithCourseInfo;
 import com.example.yogaAdmin.models.YogaClass;
+import com.example.yogaAdmin.models.YogaCourse;
+import com.example.yogaAdmin.repository.BookingCountAggregator;
 import com.example.yogaAdmin.repository.YogaClassRepository;
+import com.example.yogaAdmin.utils.FacetIndex;
+import com.example.yogaAdmin.utils.TextSearchIndex;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * ViewModel for the {@link com.example.yogaAdmin.activities.SearchActivity}.
  * It is responsible for handling the search logic by communicating with the
  * {@link YogaClassRepository} and providing the search results to the UI.
+ * Free-text queries are answered by an in-memory substring index over instructor names, class
+ * types, descriptions, room numbers and comments, which is updated incrementally as the classes
+ * change and queried on a background thread. The matches are then narrowed by facets (status,
+ * class type, difficulty, age group, room, price band, date and day of the week) resolved over
+ * per-value bitsets, which also provide the live count shown next to each facet value.
  */
 public class SearchViewModel extends AndroidViewModel {
+    // Names of the facets shown as filter chips, in display order.
+    public static final String FACET_STATUS = "Status";
+    public static final String FACET_CLASS_TYPE = "Class Type";
+    public static final String FACET_DIFFICULTY = "Difficulty";
+    public static final String FACET_AGE_GROUP = "Age Group";
+    public static final String FACET_ROOM = "Room";
+    public static final String FACET_PRICE = "Price";
+    // Names of the facets driven by the date field and the day spinner.
+    private static final String FACET_DATE = "Date";
+    private static final String FACET_DAY_OF_WEEK = "Day of Week";
+    // The facets whose value counts are reported with the results.
+    private static final List<String> COUNTED_FACETS = Arrays.asList(
+            FACET_STATUS, FACET_CLASS_TYPE, FACET_DIFFICULTY, FACET_AGE_GROUP, FACET_ROOM, FACET_PRICE);
+    // Price bands, in display order.
+    private static final List<String> PRICE_BANDS = Arrays.asList("Under £10", "£10–£20", "£20–£30", "£30+");
+
     // The repository that handles data operations for yoga classes.
     private final YogaClassRepository repository;
+    // The classes matching the current search criteria.
+    private final MediatorLiveData<SearchResults> results = new MediatorLiveData<>();
+    // Single background thread that updates the index and runs searches in submission order.
+    private final ExecutorService searchExecutor = new InstrumentedThreadPool("search", 1, MetricsRegistry.getInstance());
+    // Incremented for every search request, so searches superseded by a newer one are dropped.
+    private final AtomicInteger searchGeneration = new AtomicInteger();
+    // Substring index over the searchable fields of the classes. Only accessed on the search executor.
+    private final TextSearchIndex<ClassWithCourseInfo> searchIndex =
+            new TextSearchIndex<>(item -> item.yogaClass.getId(), SearchViewModel::searchableFields);
+    // Bitset index over the facets of the classes. Only accessed on the search executor.
+    private final FacetIndex<ClassWithCourseInfo> facetIndex = createFacetIndex();
+    // The current free-text query.
+    private String searchText = "";
+    // The selected values of each facet. Only accessed on the main thread.
+    private final Map<String, Set<String>> selectedFacetValues = new HashMap<>();
 
     /**
      * Constructor for the SearchViewModel.
@@ -27,18 +80,177 @@ public class SearchViewModel extends AndroidViewModel {
         super(application);
         // Get the singleton instance of the repository.
         repository = YogaClassRepository.getInstance(application);
+        // Re-index the classes that changed, then re-run the current search.
+        results.addSource(repository.getAllClassesWithCourses(), classes -> {
+            List<ClassWithCourseInfo> snapshot = classes != null ? classes : Collections.emptyList();
+            searchExecutor.execute(() -> {
+                searchIndex.update(snapshot);
+                facetIndex.update(snapshot);
+            });
+            runSearch();
+        });
+    }
+
+    /**
+     * Returns the LiveData of the classes matching the current search criteria, ordered by date,
+     * together with the facet counts for those criteria.
+     *
+     * @return A {@link LiveData} of {@link SearchResults}.
+     */
+    public LiveData<SearchResults> getResults() {
+        return results;
     }
 
     /**
      * Executes a search for yoga classes based on the provided criteria.
+     * The results are posted to {@link #getResults()}, and any search still running for previous
+     * criteria is dropped.
+     *
+     * @param text Free text matched against the instructor, class type, description, room and comments.
+     * @param date The date of the class to search for, or an empty string for any date.
+     * @param dayOfWeek The day of the week to search for, or "All Days".
+     */
+    public void search(String text, String date, String dayOfWeek) {
+        searchText = text;
+        selectSingleValue(FACET_DATE, date == null || date.isEmpty() ? null : date);
+        selectSingleValue(FACET_DAY_OF_WEEK, dayOfWeek == null || dayOfWeek.equals("All Days") ? null : dayOfWeek);
+        runSearch();
+    }
+
+    /**
+     * Selects or deselects a value of a facet and re-runs the search.
+     * Classes match if they have any of the selected values of a facet, and all facets must match.
+     *
+     * @param facet The name of the facet, one of the {@code FACET_*} constants.
+     * @param value The value to select or deselect.
+     * @param selected Whether the value should be selected.
+     */
+    public void setFacetValueSelected(String facet, String value, boolean selected) {
+        Set<String> values = selectedFacetValues.get(facet);
+        if (values == null) {
+            values = new HashSet<>();
+            selectedFacetValues.put(facet, values);
+        }
+        if (selected ? values.add(value) : values.remove(value)) {
+            runSearch();
+        }
+    }
+
+    /**
+     * Returns whether a value of a facet is selected.
+     *
+     * @param facet The name of the facet.
+     * @param value The value.
+     * @return {@code true} if the value is selected.
+     */
+    public boolean isFacetValueSelected(String facet, String value) {
+        Set<String> values = selectedFacetValues.get(facet);
+        return values != null && values.contains(value);
+    }
+
+    /**
+     * Returns whether any facet value shown as a chip is selected.
      *
-     * @param instructorName The name of the instructor to search for.
-     * @param date The date of the class to search for.
-     * @param dayOfWeek The day of the week to search for.
-     * @return A {@link LiveData} list of {@link ClassWithCourseInfo} objects that match the search criteria.
+     * @return {@code true} if at least one chip facet restricts the results.
      */
-    public LiveData<List<ClassWithCourseInfo>> search(String instructorName, String date, String dayOfWeek) {
-        return repository.search(instructorName, date, dayOfWeek);
+    public boolean hasFacetSelection() {
+        for (String facet : COUNTED_FACETS) {
+            Set<String> values = selectedFacetValues.get(facet);
+            if (values != null && !values.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Deselects every value of the chip facets, without re-running the search.
+     */
+    public void clearFacetSelection() {
+        for (String facet : COUNTED_FACETS) {
+            selectedFacetValues.remove(facet);
+        }
+    }
+
+    /**
+     * Replaces the selection of a single-valued facet.
+     */
+    private void selectSingleValue(String facet, String value) {
+        if (value == null) {
+            selectedFacetValues.remove(facet);
+        } else {
+            selectedFacetValues.put(facet, Collections.singleton(value));
+        }
+    }
+
+    /**
+     * Runs the current search on the search executor and posts the result,
+     * unless a newer search has been requested in the meantime.
+     */
+    private void runSearch() {
+        int generation = searchGeneration.incrementAndGet();
+        String text = searchText;
+        // Copy the selection, since it keeps changing on the main thread.
+        Map<String, Set<String>> selection = new HashMap<>();
+        for (Map.Entry<String, Set<String>> facet : selectedFacetValues.entrySet()) {
+            selection.put(facet.getKey(), new HashSet<>(facet.getValue()));
+        }
+        searchExecutor.execute(() -> {
+            if (generation != searchGeneration.get()) {
+                return;
+            }
+            BitSet textMatches = searchIndex.searchPositions(text);
+            BitSet matches = facetIndex.filter(textMatches, selection);
+            Map<String, Map<String, Integer>> counts = facetIndex.count(textMatches, selection, COUNTED_FACETS);
+            if (generation == searchGeneration.get()) {
+                results.postValue(new SearchResults(facetIndex.rowsAt(matches), counts));
+            }
+        });
+    }
+
+    /**
+     * Creates the facet index and registers the facets of a class and its course.
+     */
+    private static FacetIndex<ClassWithCourseInfo> createFacetIndex() {
+        FacetIndex<ClassWithCourseInfo> index = new FacetIndex<>();
+        index.addFacet(FACET_STATUS, item -> item.yogaClass.getStatus());
+        index.addFacet(FACET_DATE, item -> item.yogaClass.getDate());
+        index.addFacet(FACET_CLASS_TYPE, item -> item.yogaCourse != null ? item.yogaCourse.getClassType() : null);
+        index.addFacet(FACET_DIFFICULTY, item -> item.yogaCourse != null ? item.yogaCourse.getDifficultyLevel() : null);
+        index.addFacet(FACET_AGE_GROUP, item -> item.yogaCourse != null ? item.yogaCourse.getAgeGroup() : null);
+        index.addFacet(FACET_ROOM, item -> item.yogaCourse != null ? item.yogaCourse.getRoomNumber() : null);
+        index.addFacet(FACET_DAY_OF_WEEK, item -> item.yogaCourse != null ? item.yogaCourse.getDayOfWeek() : null);
+        index.addFacet(FACET_PRICE, item -> item.yogaCourse != null ? priceBand(item.yogaCourse.getPrice()) : null,
+                Comparator.comparingInt(PRICE_BANDS::indexOf));
+        return index;
+    }
+
+    /**
+     * Returns the price band a course price falls into.
+     */
+    private static String priceBand(double price) {
+        if (price < 10) {
+            return PRICE_BANDS.get(0);
+        } else if (price < 20) {
+            return PRICE_BANDS.get(1);
+        } else if (price < 30) {
+            return PRICE_BANDS.get(2);
+        }
+        return PRICE_BANDS.get(3);
+    }
+
+    /**
+     * Returns the fields of a class and its course that free-text search matches against.
+     */
+    private static String[] searchableFields(ClassWithCourseInfo item) {
+        YogaClass yogaClass = item.yogaClass;
+        YogaCourse yogaCourse = item.yogaCourse;
+        if (yogaCourse == null) {
+            return new String[]{yogaClass.getAssignedInstructor(), yogaClass.getAdditionalComments()};
+        }
+        return new String[]{yogaClass.getAssignedInstructor(), yogaClass.getAdditionalComments(),
+                yogaCourse.getInstructorName(), yogaCourse.getClassType(), yogaCourse.getDescription(),
+                yogaCourse.getRoomNumber()};
     }
 
     /**
@@ -50,4 +262,38 @@ public class SearchViewModel extends AndroidViewModel {
     public void update(YogaClass yogaClass) {
         repository.update(yogaClass);
     }
+
+    /**
+     * Returns the aggregator that provides live booking counts for the class list.
+     *
+     * @return The shared {@link BookingCountAggregator}.
+     */
+    public BookingCountAggregator getBookingCountAggregator() {
+        return BookingCountAggregator.getInstance();
+    }
+
+    /**
+     * The outcome of a search: the matching classes and, for every value of each chip facet,
+     * the number of classes that would match with that value selected.
+     */
+    public static class SearchResults {
+        // The matching classes, ordered by date.
+        public final List<ClassWithCourseInfo> classes;
+        // Counts keyed by facet name and then by value, both in display order.
+        public final Map<String, Map<String, Integer>> facetCounts;
+
+        SearchResults(List<ClassWithCourseInfo> classes, Map<String, Map<String, Integer>> facetCounts) {
+            this.classes = classes;
+            this.facetCounts = facetCounts;
+        }
+    }
+
+    /**
+     * Stops the search executor when the ViewModel is no longer used.
+     */
+    @Override
+    protected void onCleared() {
+        super.onCleared();
+        searchExecutor.shutdownNow();
+    }
 }
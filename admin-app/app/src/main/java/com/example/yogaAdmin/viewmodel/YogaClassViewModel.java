@@ -9,6 +9,7 @@ import androidx.lifecycle.ViewModelProvider;
 import com.example.yogaAdmin.models.ClassWithCourseInfo;
 import com.example.yogaAdmin.models.YogaClass;
 import com.example.yogaAdmin.models.YogaCourse;
+import com.example.yogaAdmin.repository.BookingCountAggregator;
 import com.example.yogaAdmin.repository.YogaClassRepository;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
@@ -119,6 +120,33 @@ public class YogaClassViewModel extends AndroidViewModel {
         return repository.classExists(courseId, date);
     }
 
+    /**
+     * Finds the classes the instructor is already teaching at overlapping times on the given dates.
+     *
+     * @param instructor The instructor of the proposed classes.
+     * @param dates The dates of the proposed classes.
+     * @param time The start time of the proposed classes.
+     * @param duration The duration of the proposed classes in minutes.
+     * @param excludedClassId The ID of a class to ignore, e.g. the class being edited, or -1.
+     * @return The overlapping classes, empty if there is no conflict.
+     * @throws ExecutionException If the computation threw an exception.
+     * @throws InterruptedException If the current thread was interrupted while waiting.
+     */
+    public List<ClassWithCourseInfo> findInstructorConflicts(String instructor, List<String> dates, String time,
+                                                             int duration, long excludedClassId)
+            throws ExecutionException, InterruptedException {
+        return repository.findInstructorConflicts(instructor, dates, time, duration, excludedClassId);
+    }
+
+    /**
+     * Returns the aggregator that provides live booking counts for the class list.
+     *
+     * @return The shared {@link BookingCountAggregator}.
+     */
+    public BookingCountAggregator getBookingCountAggregator() {
+        return BookingCountAggregator.getInstance();
+    }
+
     /**
      * A factory class for creating instances of {@link YogaClassViewModel} with parameters.
      */
@@ -4,14 +4,23 @@ import android.app.Application;
 
 import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
 
 import com.example.yogaAdmin.database.AppDatabase;
+import com.example.yogaAdmin.metrics.InstrumentedThreadPool;
+import com.example.yogaAdmin.metrics.MetricsRegistry;
 import com.example.yogaAdmin.models.YogaClass;
 import com.example.yogaAdmin.models.YogaCourse;
+import com.example.yogaAdmin.repository.InstructorConflictDetector;
+import com.example.yogaAdmin.repository.YogaClassRepository;
 import com.example.yogaAdmin.repository.YogaCourseRepository;
 import com.example.yogaAdmin.services.FirebaseSyncManager;
+import com.example.yogaAdmin.utils.TextSearchIndex;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * ViewModel for managing the data of {@link YogaCourse} entities.
@@ -26,6 +35,18 @@ public class YogaCourseViewModel extends AndroidViewModel {
     private final LiveData<List<YogaCourse>> mAllCourses;
     // Manager for handling Firebase synchronization.
     private FirebaseSyncManager firebaseSyncManager;
+    // The courses matching the current search query.
+    private final MediatorLiveData<List<YogaCourse>> filteredCourses = new MediatorLiveData<>();
+    // Single background thread that builds the search index and runs filters in submission order.
+    private final ExecutorService filterExecutor = new InstrumentedThreadPool("courseFilter", 1, MetricsRegistry.getInstance());
+    // Incremented for every filter request, so filters superseded by a newer one stop early.
+    private final AtomicInteger filterGeneration = new AtomicInteger();
+    // Substring index over the searchable fields of the courses. Only accessed on the filter executor.
+    private final TextSearchIndex<YogaCourse> searchIndex = new TextSearchIndex<>(YogaCourse::getId,
+            course -> new String[]{course.getClassType(), course.getInstructorName(), course.getDayOfWeek(),
+                    course.getDescription(), course.getRoomNumber()});
+    // The current search query.
+    private String searchQuery = "";
 
     /**
      * Constructor for the YogaCourseViewModel.
@@ -37,6 +58,53 @@ public class YogaCourseViewModel extends AndroidViewModel {
         mRepository = new YogaCourseRepository(application);
         mAllCourses = mRepository.getAllCourses();
         firebaseSyncManager = new FirebaseSyncManager(application);
+        // Re-index the courses that changed, then re-apply the current query.
+        filteredCourses.addSource(mAllCourses, courses -> {
+            List<YogaCourse> snapshot = courses != null ? courses : Collections.emptyList();
+            filterExecutor.execute(() -> searchIndex.update(snapshot));
+            runFilter();
+        });
+    }
+
+    /**
+     * Returns the LiveData list of the courses matching the current search query.
+     * The list is computed on a background thread whenever the courses or the query change.
+     *
+     * @return A {@link LiveData} list of the matching {@link YogaCourse}s.
+     */
+    public LiveData<List<YogaCourse>> getFilteredCourses() {
+        return filteredCourses;
+    }
+
+    /**
+     * Sets the search query used to filter the courses.
+     * Any filter still running for a previous query is cancelled.
+     * The search is performed on the course type, instructor name, day of the week, description
+     * and room number.
+     *
+     * @param query The text to search for.
+     */
+    public void setSearchQuery(String query) {
+        searchQuery = query;
+        runFilter();
+    }
+
+    /**
+     * Filters the courses by the current query on the filter executor and posts the result,
+     * unless a newer filter has been requested in the meantime.
+     */
+    private void runFilter() {
+        int generation = filterGeneration.incrementAndGet();
+        String query = searchQuery;
+        filterExecutor.execute(() -> {
+            if (generation != filterGeneration.get()) {
+                return;
+            }
+            List<YogaCourse> matches = searchIndex.search(query, () -> generation != filterGeneration.get());
+            if (matches != null && generation == filterGeneration.get()) {
+                filteredCourses.postValue(matches);
+            }
+        });
     }
 
     /**
@@ -102,6 +170,24 @@ public class YogaCourseViewModel extends AndroidViewModel {
         mRepository.deleteAllCourses();
     }
 
+    /**
+     * Scans the whole schedule for instructors assigned to overlapping classes on the same date.
+     *
+     * @return A LiveData that receives every pair of overlapping classes once the scan completes.
+     */
+    public LiveData<List<InstructorConflictDetector.Conflict>> auditInstructorConflicts() {
+        return YogaClassRepository.getInstance(getApplication()).auditInstructorConflicts();
+    }
+
+    /**
+     * Stops the filter executor when the ViewModel is no longer used.
+     */
+    @Override
+    protected void onCleared() {
+        super.onCleared();
+        filterExecutor.shutdownNow();
+    }
+
     /**
      * Triggers a manual sync of all local data to Firebase.
      * It fetches all courses and classes from the local database and uploads them.
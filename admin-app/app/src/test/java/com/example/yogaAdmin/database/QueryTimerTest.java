@@ -0,0 +1,146 @@
+package com.example.yogaAdmin.database;
+
+import android.app.Application;
+import android.os.Looper;
+
+import androidx.arch.core.executor.testing.InstantTaskExecutorRule;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Observer;
+import androidx.room.Room;
+import androidx.sqlite.db.framework.FrameworkSQLiteOpenHelperFactory;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.yogaAdmin.dao.YogaClassDao;
+import com.example.yogaAdmin.metrics.MetricsRegistry;
+import com.example.yogaAdmin.metrics.SlowQueryLog;
+import com.example.yogaAdmin.models.YogaClass;
+import com.example.yogaAdmin.models.YogaCourse;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Checks that a {@link QueryTimer} installed on a Room database times the statements of the DAOs,
+ * and logs the slow ones with their bind arguments and query plan.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class)
+public class QueryTimerTest {
+
+    private static final long SEED = 11L;
+
+    @Rule
+    public InstantTaskExecutorRule instantTaskExecutorRule = new InstantTaskExecutorRule();
+
+    private final MetricsRegistry registry = MetricsRegistry.getInstance();
+    // Logs every statement unless a test raises the threshold.
+    private final SlowQueryLog slowQueryLog = new SlowQueryLog(1_000, 0);
+    private AppDatabase db;
+    private YogaClassDao classDao;
+    private List<YogaCourse> courses;
+
+    @Before
+    public void createDatabase() {
+        QueryTimer queryTimer = new QueryTimer(registry, slowQueryLog);
+        db = Room.inMemoryDatabaseBuilder(ApplicationProvider.getApplicationContext(), AppDatabase.class)
+                .allowMainThreadQueries()
+                .setQueryExecutor(Runnable::run)
+                .setTransactionExecutor(Runnable::run)
+                .openHelperFactory(queryTimer.wrap(new FrameworkSQLiteOpenHelperFactory()))
+                .setQueryCallback(queryTimer::onQuery, Runnable::run)
+                .build();
+        classDao = db.yogaClassDao();
+
+        StudioDataGenerator generator = new StudioDataGenerator(SEED);
+        courses = generator.courses(10);
+        StudioDataLoader.loadIntoRoom(db, courses, generator.classes(200, courses));
+    }
+
+    @After
+    public void closeDatabase() {
+        db.close();
+    }
+
+    @Test
+    public void statementsAreTimedByKind() {
+        long selects = registry.snapshot().getHistogram("sql.select").getCount();
+        long updates = registry.snapshot().getHistogram("sql.update").getCount();
+        long inserts = registry.snapshot().getHistogram("sql.insert").getCount();
+
+        classDao.getClassList();
+        classDao.getClassesForCourseSync(courses.get(0).getId());
+        YogaClass yogaClass = classDao.getClassList().get(0);
+        yogaClass.setAdditionalComments("Bring a mat");
+        classDao.update(yogaClass);
+        classDao.insert(StudioDataGenerator.copyOf(yogaClass));
+
+        // Room also runs statements of its own, such as the invalidation tracker's after a write.
+        assertTrue(registry.snapshot().getHistogram("sql.select").getCount() >= selects + 3);
+        assertTrue(registry.snapshot().getHistogram("sql.update").getCount() >= updates + 1);
+        assertTrue(registry.snapshot().getHistogram("sql.insert").getCount() >= inserts + 1);
+    }
+
+    @Test
+    public void substrSortIsLoggedWithItsArgumentsAndTemporarySort() {
+        long courseId = courses.get(0).getId();
+
+        await(classDao.getClassesForCourse(courseId));
+
+        SlowQueryLog.Entry entry = findEntry(YogaClassDao.CLASSES_FOR_COURSE_QUERY.replace(":courseId", "?"));
+        assertEquals(Collections.singletonList(String.valueOf(courseId)), entry.bindArgs);
+        assertTrue(entry.plan.toString(), entry.plan.stream().anyMatch(step -> step.contains("USE TEMP B-TREE FOR ORDER BY")));
+    }
+
+    @Test
+    public void likeSearchIsLoggedAsAFullScan() {
+        await(classDao.searchByInstructor("%Li%"));
+
+        SlowQueryLog.Entry entry = findEntry("SELECT * FROM yoga_classes WHERE assignedInstructor LIKE ?");
+        assertEquals(Collections.singletonList("%Li%"), entry.bindArgs);
+        assertTrue(entry.plan.toString(), entry.plan.stream().anyMatch(step -> step.matches("SCAN (TABLE )?yoga_classes\\b.*")));
+        assertTrue(slowQueryLog.format().contains("Arguments: [%Li%]"));
+    }
+
+    @Test
+    public void fastStatementsAreNotLogged() {
+        slowQueryLog.clear();
+        slowQueryLog.setThresholdMillis(60_000);
+
+        classDao.getClassList();
+
+        assertTrue(slowQueryLog.getEntries().isEmpty());
+    }
+
+    /**
+     * Returns the newest log entry of a statement.
+     */
+    private SlowQueryLog.Entry findEntry(String sql) {
+        for (SlowQueryLog.Entry entry : slowQueryLog.getEntries()) {
+            if (entry.sql.equals(sql)) {
+                return entry;
+            }
+        }
+        throw new AssertionError("Not logged: " + sql + "\n" + slowQueryLog.format());
+    }
+
+    /**
+     * Observes a LiveData until it has emitted once, which runs its query.
+     */
+    private static <T> void await(LiveData<T> liveData) {
+        Observer<T> observer = value -> { };
+        liveData.observeForever(observer);
+        shadowOf(Looper.getMainLooper()).idle();
+        liveData.removeObserver(observer);
+    }
+}
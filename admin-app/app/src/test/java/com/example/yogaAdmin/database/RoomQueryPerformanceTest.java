@@ -0,0 +1,397 @@
+package com.example.yogaAdmin.database;
+
+import android.app.Application;
+import android.database.Cursor;
+import android.os.Looper;
+
+import androidx.arch.core.executor.testing.InstantTaskExecutorRule;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Observer;
+import androidx.room.Room;
+import androidx.sqlite.db.SimpleSQLiteQuery;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.yogaAdmin.dao.YogaClassDao;
+import com.example.yogaAdmin.dao.YogaCourseDao;
+import com.example.yogaAdmin.models.ClassWithCourseInfo;
+import com.example.yogaAdmin.models.YogaClass;
+import com.example.yogaAdmin.models.YogaCourse;
+import com.example.yogaAdmin.services.SyncBatch;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.ParameterizedRobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Query plan and latency checks for the Room queries on the main screens and the sync path, run
+ * against an in-memory {@link AppDatabase} seeded with a synthetic studio.
+ * The plans of the lookups must use their indexes, so dropping an index or rewriting a query into
+ * a full scan fails the suite even when the data is too small for it to show in the timings. They
+ * are checked on every test run, against 1,000 classes.
+ * The latency budgets depend on the machine, so they only run with the {@code perfBudgets} Gradle
+ * property, against 1,000, 10,000 and 100,000 classes. Each query is then timed as the median of
+ * several runs after warm-up and must stay within a budget of a fixed part plus a part
+ * proportional to the rows it returns or scans. The budgets can be scaled for slower machines with
+ * the {@code roomPerf.budgetScale} Gradle property.
+ */
+@RunWith(ParameterizedRobolectricTestRunner.class)
+@Config(application = Application.class)
+public class RoomQueryPerformanceTest {
+
+    private static final long SEED = 42L;
+    // Whether the latency budgets run, read from the perf.budgets system property.
+    private static final boolean BUDGETS_ENABLED = Boolean.getBoolean("perf.budgets");
+    // Budgets are multiplied by this factor, read from the roomPerf.budgetScale system property.
+    private static final double BUDGET_SCALE = Double.parseDouble(System.getProperty("roomPerf.budgetScale", "1"));
+    private static final int WARMUP_RUNS = 2;
+    private static final int MEASURED_RUNS = 7;
+    // Budget of a lookup through an index, in milliseconds.
+    private static final double LOOKUP_BUDGET_MS = 5.0;
+    // Fixed and per-thousand-row budgets of a query returning or scanning many rows, in milliseconds.
+    private static final double LIST_BASE_BUDGET_MS = 20.0;
+    private static final double LIST_PER_THOUSAND_ROWS_MS = 15.0;
+    // Per-thousand-row budget of planning and writing a sync snapshot, in milliseconds.
+    private static final double SYNC_PER_THOUSAND_ROWS_MS = 40.0;
+    // A plan step reading a whole table rather than searching an index.
+    private static final Pattern FULL_SCAN = Pattern.compile("^SCAN (TABLE )?(\\w+)( AS \\w+)?$");
+
+    @Rule
+    public InstantTaskExecutorRule instantTaskExecutorRule = new InstantTaskExecutorRule();
+
+    private final int classCount;
+    private AppDatabase db;
+    private YogaClassDao classDao;
+    private YogaCourseDao courseDao;
+    private List<YogaCourse> courses;
+    private List<YogaClass> classes;
+
+    /**
+     * Returns the studio sizes the suite runs at: only the smallest unless the budgets run.
+     *
+     * @return One parameter set per number of classes.
+     */
+    @ParameterizedRobolectricTestRunner.Parameters(name = "{0} classes")
+    public static List<Object[]> sizes() {
+        if (!BUDGETS_ENABLED) {
+            return Arrays.asList(new Object[][]{{1_000}});
+        }
+        return Arrays.asList(new Object[][]{{1_000}, {10_000}, {100_000}});
+    }
+
+    /**
+     * Constructor for one studio size.
+     *
+     * @param classCount The number of classes to seed.
+     */
+    public RoomQueryPerformanceTest(int classCount) {
+        this.classCount = classCount;
+    }
+
+    @Before
+    public void seedDatabase() {
+        db = Room.inMemoryDatabaseBuilder(ApplicationProvider.getApplicationContext(), AppDatabase.class)
+                .allowMainThreadQueries()
+                // Run LiveData queries synchronously so they can be timed on the test thread.
+                .setQueryExecutor(Runnable::run)
+                .setTransactionExecutor(Runnable::run)
+                .build();
+        classDao = db.yogaClassDao();
+        courseDao = db.yogaCourseDao();
+
+        StudioDataGenerator generator = new StudioDataGenerator(SEED);
+        // About 50 classes per course, as a course runs weekly for a year.
+        courses = generator.courses(Math.max(20, classCount / 50));
+        classes = generator.classes(classCount, courses);
+        StudioDataLoader.loadIntoRoom(db, courses, classes);
+    }
+
+    @After
+    public void closeDatabase() {
+        db.close();
+    }
+
+    @Test
+    public void getClassesForCourse_usesCourseIndex() {
+        String plan = queryPlan(YogaClassDao.CLASSES_FOR_COURSE_QUERY, 1L);
+        assertUsesIndex(plan, "index_yoga_classes_courseId");
+        assertNoFullScan(plan);
+    }
+
+    @Test
+    public void getClassesForCourse_staysWithinBudget() {
+        assumeTrue(BUDGETS_ENABLED);
+        long courseId = courses.get(courses.size() / 2).getId();
+        int[] rows = new int[1];
+        double median = medianMillis(() -> rows[0] = await(classDao.getClassesForCourse(courseId)).size());
+        assertTrue("Course should have classes", rows[0] > 0);
+        assertWithinBudget("getClassesForCourse", median, listBudget(rows[0]));
+    }
+
+    @Test
+    public void getAllClasses_readsInDateIndexOrder() {
+        String plan = queryPlan(YogaClassDao.ALL_CLASSES_QUERY);
+        // Walking the date index returns the rows already sorted, without a temporary sort.
+        assertUsesIndex(plan, "index_yoga_classes_date");
+        assertFalse("Plan should not sort:\n" + plan, plan.contains("TEMP B-TREE"));
+        assertEquals(classCount, await(classDao.getAllClasses()).size());
+    }
+
+    @Test
+    public void getAllClasses_staysWithinBudget() {
+        assumeTrue(BUDGETS_ENABLED);
+        int[] rows = new int[1];
+        double median = medianMillis(() -> rows[0] = await(classDao.getAllClasses()).size());
+        assertEquals(classCount, rows[0]);
+        assertWithinBudget("getAllClasses", median, listBudget(classCount));
+    }
+
+    @Test
+    public void search_scansClassesOnce() {
+        // Every criterion is optional, so the query scans the classes; it must do so only once,
+        // with the day of week subquery evaluated once rather than per row.
+        String plan = queryPlan(YogaClassDao.SEARCH_QUERY, "%Sarah%", null, "%Monday%");
+        assertFalse("Subquery should not be correlated:\n" + plan, plan.contains("CORRELATED"));
+        assertEquals("Plan should scan the classes once:\n" + plan, 1, countFullScans(plan, "yoga_classes"));
+    }
+
+    @Test
+    public void search_staysWithinBudget() {
+        assumeTrue(BUDGETS_ENABLED);
+        String instructor = "%" + StudioDataGenerator.instructorName(0) + "%";
+        int[] rows = new int[1];
+        double median = medianMillis(() -> rows[0] = await(classDao.search(instructor, null, "%day%")).size());
+        assertTrue("Search should match classes", rows[0] > 0);
+        assertWithinBudget("search", median, listBudget(classCount));
+    }
+
+    @Test
+    public void searchByDate_usesDateIndex() {
+        String plan = queryPlan(YogaClassDao.CLASSES_ON_DATE_QUERY, "01/06/2025");
+        assertUsesIndex(plan, "index_yoga_classes_date");
+        assertNoFullScan(plan);
+        // The courses of the matched classes are then fetched by primary key.
+        String relationPlan = queryPlan("SELECT * FROM yoga_courses WHERE id IN (?, ?, ?)", 1L, 2L, 3L);
+        assertTrue("Courses should be fetched by primary key:\n" + relationPlan,
+                relationPlan.contains("INTEGER PRIMARY KEY"));
+    }
+
+    @Test
+    public void searchByDate_staysWithinBudget() {
+        assumeTrue(BUDGETS_ENABLED);
+        String date = classes.get(classCount / 2).getDate();
+        int[] rows = new int[1];
+        double median = medianMillis(() -> {
+            List<ClassWithCourseInfo> matches = await(classDao.searchByDate(date));
+            rows[0] = matches.size();
+        });
+        assertTrue("Date should have classes", rows[0] > 0);
+        assertWithinBudget("searchByDate", median, listBudget(rows[0]));
+    }
+
+    @Test
+    public void firebaseKeyLookups_useIndexes() {
+        String classPlan = queryPlan(YogaClassDao.CLASS_BY_FIREBASE_KEY_QUERY, "-Nclass0000001");
+        assertUsesIndex(classPlan, "index_yoga_classes_firebaseKey");
+        assertNoFullScan(classPlan);
+        String coursePlan = queryPlan(YogaCourseDao.COURSE_BY_FIREBASE_KEY_QUERY, "-Ncourse000001");
+        assertUsesIndex(coursePlan, "index_yoga_courses_firebaseKey");
+        assertNoFullScan(coursePlan);
+    }
+
+    @Test
+    public void firebaseKeyLookups_stayWithinBudget() {
+        assumeTrue(BUDGETS_ENABLED);
+        String classKey = StudioDataGenerator.classKey(classCount / 2);
+        String courseKey = courses.get(courses.size() / 2).getFirebaseKey();
+        double classMedian = medianMillis(() -> assertNotNull(classDao.getClassByFirebaseKey(classKey)));
+        double courseMedian = medianMillis(() -> assertNotNull(courseDao.getCourseByFirebaseKey(courseKey)));
+        assertWithinBudget("getClassByFirebaseKey", classMedian, LOOKUP_BUDGET_MS * BUDGET_SCALE);
+        assertWithinBudget("getCourseByFirebaseKey", courseMedian, LOOKUP_BUDGET_MS * BUDGET_SCALE);
+    }
+
+    @Test
+    public void syncUpsert_writesOnlyChanges() {
+        List<YogaClass> snapshot = syncSnapshot();
+        SyncBatch<YogaClass> batch = applySyncSnapshot(snapshot);
+
+        assertEquals(classCount / 100, batch.getInserts().size());
+        assertEquals(classCount / 100, batch.getUpdates().size());
+        assertEquals(classCount + classCount / 100, classDao.getClassList().size());
+    }
+
+    @Test
+    public void syncUpsert_staysWithinBudget() {
+        assumeTrue(BUDGETS_ENABLED);
+        List<YogaClass> snapshot = syncSnapshot();
+
+        long start = System.nanoTime();
+        applySyncSnapshot(snapshot);
+        double elapsed = (System.nanoTime() - start) / 1e6;
+
+        assertWithinBudget("sync upsert", elapsed,
+                (LIST_BASE_BUDGET_MS + SYNC_PER_THOUSAND_ROWS_MS * snapshot.size() / 1000.0) * BUDGET_SCALE);
+    }
+
+    /**
+     * Returns a snapshot of every class, with one in a hundred edited and one in a hundred new.
+     */
+    private List<YogaClass> syncSnapshot() {
+        List<YogaClass> snapshot = new ArrayList<>(classCount + classCount / 100);
+        for (YogaClass yogaClass : classes) {
+            YogaClass copy = StudioDataGenerator.copyOf(yogaClass);
+            // Snapshots carry the IDs of the device that uploaded them, not the local ones.
+            copy.setId(0);
+            if (yogaClass.getId() % 100 == 0) {
+                copy.setSlotsAvailable(copy.getSlotsAvailable() + 1);
+            }
+            snapshot.add(copy);
+        }
+        for (int i = 1; i <= classCount / 100; i++) {
+            YogaClass added = StudioDataGenerator.copyOf(classes.get(i));
+            added.setId(0);
+            added.setFirebaseKey(StudioDataGenerator.classKey(classCount + i));
+            snapshot.add(added);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Plans a sync snapshot against the local classes and writes it the way the repository does.
+     */
+    private SyncBatch<YogaClass> applySyncSnapshot(List<YogaClass> snapshot) {
+        SyncBatch<YogaClass> batch = SyncBatch.plan(snapshot, classDao.getClassList(),
+                YogaClass::getFirebaseKey, YogaClass::getId, YogaClass::setId);
+        // The same single transaction as YogaClassRepository#applyFromSync.
+        db.runInTransaction(() -> {
+            for (YogaClass yogaClass : batch.getInserts()) {
+                classDao.insert(yogaClass);
+            }
+            for (YogaClass yogaClass : batch.getUpdates()) {
+                classDao.update(yogaClass);
+            }
+        });
+        return batch;
+    }
+
+    /**
+     * Returns the budget of a query returning or scanning a number of rows, in milliseconds.
+     */
+    private static double listBudget(int rows) {
+        return (LIST_BASE_BUDGET_MS + LIST_PER_THOUSAND_ROWS_MS * rows / 1000.0) * BUDGET_SCALE;
+    }
+
+    /**
+     * Runs an action for warm-up, then times it and returns the median, in milliseconds.
+     */
+    private static double medianMillis(Runnable action) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            action.run();
+        }
+        double[] timings = new double[MEASURED_RUNS];
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long start = System.nanoTime();
+            action.run();
+            timings[i] = (System.nanoTime() - start) / 1e6;
+        }
+        Arrays.sort(timings);
+        return timings[MEASURED_RUNS / 2];
+    }
+
+    /**
+     * Fails if a timing exceeds its budget.
+     */
+    private void assertWithinBudget(String query, double millis, double budgetMillis) {
+        assertTrue(String.format(Locale.ROOT, "%s took %.2f ms at %,d classes, over its budget of %.2f ms",
+                query, millis, classCount, budgetMillis), millis <= budgetMillis);
+    }
+
+    /**
+     * Returns the {@code EXPLAIN QUERY PLAN} output of a query, one step per line.
+     * Named parameters are bound in the order they first appear.
+     */
+    private String queryPlan(String sql, Object... args) {
+        StringBuilder plan = new StringBuilder();
+        try (Cursor cursor = db.query(new SimpleSQLiteQuery("EXPLAIN QUERY PLAN " + sql, args))) {
+            int detail = cursor.getColumnIndexOrThrow("detail");
+            while (cursor.moveToNext()) {
+                plan.append(cursor.getString(detail)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+
+    /**
+     * Fails unless a plan searches or scans through an index.
+     */
+    private static void assertUsesIndex(String plan, String index) {
+        assertTrue("Plan should use " + index + ":\n" + plan, plan.contains("USING INDEX " + index)
+                || plan.contains("USING COVERING INDEX " + index));
+    }
+
+    /**
+     * Fails if a plan reads any table in full.
+     */
+    private static void assertNoFullScan(String plan) {
+        for (String step : plan.split("\n")) {
+            assertFalse("Plan should not scan a whole table:\n" + plan, FULL_SCAN.matcher(step.trim()).matches());
+        }
+    }
+
+    /**
+     * Returns how many steps of a plan read a table in full.
+     */
+    private static int countFullScans(String plan, String table) {
+        int scans = 0;
+        for (String step : plan.split("\n")) {
+            Matcher matcher = FULL_SCAN.matcher(step.trim());
+            if (matcher.matches() && matcher.group(2).equals(table)) {
+                scans++;
+            }
+        }
+        return scans;
+    }
+
+    /**
+     * Observes a LiveData until it emits, running the main looper while waiting.
+     */
+    private static <T> T await(LiveData<T> liveData) {
+        AtomicReference<T> value = new AtomicReference<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        Observer<T> observer = emitted -> {
+            value.set(emitted);
+            latch.countDown();
+        };
+        liveData.observeForever(observer);
+        try {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+            while (!latch.await(1, TimeUnit.MILLISECONDS)) {
+                shadowOf(Looper.getMainLooper()).idle();
+                assertTrue("LiveData did not emit", System.nanoTime() < deadline);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail("Interrupted while waiting for LiveData");
+        } finally {
+            liveData.removeObserver(observer);
+        }
+        return value.get();
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.yogaAdmin.database;
+
+import com.example.yogaAdmin.models.Booking;
+import com.example.yogaAdmin.models.YogaClass;
+import com.example.yogaAdmin.models.YogaCourse;
+import com.example.yogaAdmin.utils.DateUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Generates a synthetic yoga studio: courses spread over the week and rooms, classes spread over
+ * two years, and bookings of those classes by a pool of users. Popularity is skewed throughout: a
+ * few instructors teach most classes, and a few classes and users account for most bookings.
+ * The same seed always yields the same studio, so measurements are comparable between runs.
+ */
+public final class StudioDataGenerator {
+
+    private static final String[] DAYS = {"Monday", "Tuesday", "Wednesday", "Thursday", "Friday",
+            "Saturday", "Sunday"};
+    private static final String[] CLASS_TYPES = {"Flow Yoga", "Aerial Yoga", "Family Yoga", "Hatha",
+            "Vinyasa", "Yin", "Ashtanga", "Restorative"};
+    private static final String[] FIRST_NAMES = {"Sarah", "Émile", "Li", "Ana María", "John", "Priya",
+            "Olaf", "Chloé", "Kenji", "Amara", "Diego", "Freya"};
+    private static final String[] LAST_NAMES = {"Johnson", "Dubois", "Wei", "López", "Smith", "Patel",
+            "Nørgaard", "Martin", "Tanaka", "Okafor"};
+    private static final String[] LEVELS = {"Beginner", "Intermediate", "Advanced", "All Levels"};
+    private static final String[] STATUSES = {"Active", "Active", "Active", "Completed", "Cancelled"};
+    // Number of distinct instructors in the studio.
+    private static final int INSTRUCTOR_COUNT = 60;
+    // Offset of the class and user popularity curves: the item of rank r is booked in proportion
+    // to 1 / (r + offset), so a larger offset flattens the head of the curve.
+    private static final int POPULARITY_OFFSET = 10;
+    // Largest number of days a booking is made before its class.
+    private static final int BOOKING_LEAD_DAYS = 30;
+    // First day classes are scheduled on, 01/01/2025, and the number of days they span.
+    private static final long FIRST_DAY = DateUtils.parseClassDate("01/01/2025");
+    private static final int DAY_SPAN = 730;
+
+    private final Random random;
+
+    /**
+     * Constructor for a generator.
+     *
+     * @param seed The seed all generated data derives from.
+     */
+    public StudioDataGenerator(long seed) {
+        random = new Random(seed);
+    }
+
+    /**
+     * Generates courses with local IDs 1 to count and Firebase keys, as stored after a sync.
+     *
+     * @param count The number of courses.
+     * @return The courses.
+     */
+    public List<YogaCourse> courses(int count) {
+        List<YogaCourse> courses = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            YogaCourse course = new YogaCourse();
+            course.setId(i);
+            course.setFirebaseKey(String.format(Locale.ROOT, "-Ncourse%06d", i));
+            course.setDayOfWeek(DAYS[random.nextInt(DAYS.length)]);
+            course.setTime(String.format(Locale.ROOT, "%02d:%02d", 6 + random.nextInt(15), random.nextInt(4) * 15));
+            course.setCapacity(5 + random.nextInt(26));
+            course.setDuration(30 + random.nextInt(5) * 15);
+            course.setPrice(5 + random.nextInt(20) + 0.5);
+            course.setClassType(CLASS_TYPES[random.nextInt(CLASS_TYPES.length)]);
+            course.setDescription(random.nextBoolean() ? "Bring your own mat" : "");
+            course.setInstructorName(instructor());
+            course.setRoomNumber("Room " + (1 + random.nextInt(40)));
+            course.setDifficultyLevel(LEVELS[random.nextInt(LEVELS.length)]);
+            course.setEquipmentNeeded(random.nextInt(3) == 0 ? "Blocks, strap" : "");
+            course.setAgeGroup(random.nextBoolean() ? "Adults" : "All ages");
+            course.setCreatedDate(1_735_689_600_000L + random.nextInt(1_000_000_000));
+            courses.add(course);
+        }
+        return courses;
+    }
+
+    /**
+     * Generates classes with local IDs 1 to count and Firebase keys, each belonging to a random
+     * course and dated on a random day of the two years covered.
+     *
+     * @param count The number of classes.
+     * @param courses The courses the classes belong to.
+     * @return The classes.
+     */
+    public List<YogaClass> classes(int count, List<YogaCourse> courses) {
+        List<YogaClass> classes = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            YogaCourse course = courses.get(random.nextInt(courses.size()));
+            YogaClass yogaClass = new YogaClass();
+            yogaClass.setId(i);
+            yogaClass.setFirebaseKey(classKey(i));
+            yogaClass.setCourseId(course.getId());
+            yogaClass.setCourseFirebaseKey(course.getFirebaseKey());
+            yogaClass.setDate(DateUtils.formatClassDate(FIRST_DAY + random.nextInt(DAY_SPAN)));
+            // Most classes are taught by the course's instructor, the rest by a substitute.
+            yogaClass.setAssignedInstructor(random.nextInt(10) < 8 ? course.getInstructorName() : instructor());
+            yogaClass.setActualCapacity(course.getCapacity());
+            yogaClass.setSlotsAvailable(random.nextInt(course.getCapacity() + 1));
+            yogaClass.setAdditionalComments(random.nextInt(4) == 0 ? "Substitute needed" : "");
+            yogaClass.setStatus(STATUSES[random.nextInt(STATUSES.length)]);
+            yogaClass.setCreatedDate(course.getCreatedDate() + random.nextInt(1_000_000));
+            classes.add(yogaClass);
+        }
+        return classes;
+    }
+
+    /**
+     * Generates bookings of the classes and streams them to a sink, so hundreds of thousands of
+     * bookings never need to be held at once.
+     * Each booking is keyed by user and class as the user app stores it, so no user books the same
+     * class twice. Classes are ranked by popularity in a seeded order unrelated to their IDs, and
+     * both classes and users are drawn with a probability falling as one over their rank.
+     *
+     * @param count The number of bookings.
+     * @param courses The courses of the classes.
+     * @param classes The classes to book.
+     * @param sink Receives each booking in turn.
+     * @throws IllegalArgumentException If there are too few classes to hold the bookings.
+     */
+    public void bookings(int count, List<YogaCourse> courses, List<YogaClass> classes, Consumer<Booking> sink) {
+        int userCount = Math.max(1_000, count / 5);
+        if ((long) count * 2 > (long) classes.size() * userCount) {
+            throw new IllegalArgumentException(count + " bookings do not fit in " + classes.size() + " classes");
+        }
+        Map<String, YogaCourse> coursesByKey = new HashMap<>(courses.size() * 2);
+        for (YogaCourse course : courses) {
+            coursesByKey.put(course.getFirebaseKey(), course);
+        }
+        // Popularity rank of each class, shuffled so the most booked classes are spread over the studio.
+        int[] classByRank = new int[classes.size()];
+        for (int i = 0; i < classByRank.length; i++) {
+            int j = random.nextInt(i + 1);
+            classByRank[i] = classByRank[j];
+            classByRank[j] = i;
+        }
+        // Pairs of class index and user already booked, packed into one long.
+        Set<Long> booked = new HashSet<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            int classIndex = classByRank[skewedRank(classes.size())];
+            int user = skewedRank(userCount);
+            // A popular user may already hold a popular class; any other user can still book it.
+            while (!booked.add((long) classIndex * userCount + user)) {
+                user = random.nextInt(userCount);
+            }
+            YogaClass yogaClass = classes.get(classIndex);
+            sink.accept(booking(user, yogaClass, coursesByKey.get(yogaClass.getCourseFirebaseKey())));
+        }
+    }
+
+    /**
+     * Returns the Firebase key of the class with a local ID.
+     *
+     * @param id The local ID of the class.
+     * @return The Firebase key.
+     */
+    static String classKey(long id) {
+        return String.format(Locale.ROOT, "-Nclass%07d", id);
+    }
+
+    /**
+     * Returns the ID of a user of the user app.
+     *
+     * @param index The index of the user, from 0.
+     * @return The user ID.
+     */
+    public static String userId(int index) {
+        return String.format(Locale.ROOT, "user%06d", index);
+    }
+
+    /**
+     * Returns the name of an instructor, from a fixed pool.
+     *
+     * @param index The index of the instructor, from 0.
+     * @return The instructor's name.
+     */
+    static String instructorName(int index) {
+        return FIRST_NAMES[index % FIRST_NAMES.length] + " " + LAST_NAMES[index / FIRST_NAMES.length % LAST_NAMES.length];
+    }
+
+    /**
+     * Returns a field-for-field copy of a class, like the fresh instance a sync snapshot delivers.
+     *
+     * @param yogaClass The class to copy.
+     * @return A new, equal class.
+     */
+    public static YogaClass copyOf(YogaClass yogaClass) {
+        return new YogaClass(yogaClass);
+    }
+
+    /**
+     * Builds the booking of a class by a user, made up to a month before the class, with the
+     * class details denormalized as the user app writes them.
+     */
+    private Booking booking(int user, YogaClass yogaClass, YogaCourse course) {
+        LocalDate bookedOn = LocalDate.ofEpochDay(DateUtils.parseClassDate(yogaClass.getDate())
+                - 1 - random.nextInt(BOOKING_LEAD_DAYS));
+        Booking booking = new Booking();
+        booking.setUserId(userId(user));
+        booking.setClassId(yogaClass.getFirebaseKey());
+        booking.setId(Booking.buildId(booking.getUserId(), booking.getClassId()));
+        booking.setBookingDate(String.format(Locale.ROOT, "%sT%02d:%02d:%02d.%03dZ", bookedOn,
+                random.nextInt(24), random.nextInt(60), random.nextInt(60), random.nextInt(1000)));
+        booking.setUserName(FIRST_NAMES[user % FIRST_NAMES.length] + " "
+                + LAST_NAMES[user / FIRST_NAMES.length % LAST_NAMES.length]);
+        booking.setUserEmail(booking.getUserId() + "@example.com");
+        booking.setClassName(course.getClassType());
+        booking.setClassDate(yogaClass.getDate());
+        booking.setClassTime(course.getTime());
+        return booking;
+    }
+
+    /**
+     * Draws a rank from 0 to size - 1 with a probability proportional to
+     * 1 / (rank + {@link #POPULARITY_OFFSET}), by inverting the continuous form of that curve.
+     */
+    private int skewedRank(int size) {
+        double offset = POPULARITY_OFFSET;
+        int rank = (int) (offset * Math.pow((size + offset) / offset, random.nextDouble()) - offset);
+        return Math.min(rank, size - 1);
+    }
+
+    /**
+     * Picks an instructor with a skewed distribution: the square of a uniform draw makes
+     * low-numbered instructors far more likely.
+     */
+    private String instructor() {
+        double draw = random.nextDouble();
+        return instructorName((int) (draw * draw * INSTRUCTOR_COUNT));
+    }
+}
@@ -0,0 +1,426 @@
+package com.example.yogaAdmin.database;
+
+import android.util.JsonReader;
+
+import com.example.yogaAdmin.models.Booking;
+import com.example.yogaAdmin.models.YogaClass;
+import com.example.yogaAdmin.models.YogaCourse;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads a synthetic studio from {@link StudioDataGenerator} into the places the app reads it from.
+ * It can write straight into Room, in batches of {@link #BATCH_SIZE} rows per transaction through
+ * the bulk inserts of the DAOs. It can also write a JSON file shaped like an export of the Firebase
+ * database, which {@link #readFirebaseExport(Reader)} reads back into the models the sync receives.
+ * In both cases the bookings are streamed as they are generated.
+ */
+final class StudioDataLoader {
+
+    // Number of rows written per Room transaction.
+    static final int BATCH_SIZE = 2_000;
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private StudioDataLoader() {
+    }
+
+    /**
+     * Inserts courses and classes into Room, in batches of one transaction each.
+     *
+     * @param db The database to load.
+     * @param courses The courses to insert.
+     * @param classes The classes to insert.
+     */
+    static void loadIntoRoom(AppDatabase db, List<YogaCourse> courses, List<YogaClass> classes) {
+        for (int from = 0; from < courses.size(); from += BATCH_SIZE) {
+            db.yogaCourseDao().insertAll(courses.subList(from, Math.min(courses.size(), from + BATCH_SIZE)));
+        }
+        for (int from = 0; from < classes.size(); from += BATCH_SIZE) {
+            db.yogaClassDao().insertAll(classes.subList(from, Math.min(classes.size(), from + BATCH_SIZE)));
+        }
+    }
+
+    /**
+     * Generates bookings of the classes and inserts them into Room as they are generated, in
+     * batches of one transaction each.
+     *
+     * @param db The database to load.
+     * @param generator The generator to draw the bookings from.
+     * @param count The number of bookings.
+     * @param courses The courses of the classes.
+     * @param classes The classes to book.
+     */
+    static void loadBookingsIntoRoom(AppDatabase db, StudioDataGenerator generator, int count,
+                                     List<YogaCourse> courses, List<YogaClass> classes) {
+        List<Booking> batch = new ArrayList<>(BATCH_SIZE);
+        generator.bookings(count, courses, classes, booking -> {
+            batch.add(booking);
+            if (batch.size() == BATCH_SIZE) {
+                db.bookingDao().insertAll(batch);
+                batch.clear();
+            }
+        });
+        if (!batch.isEmpty()) {
+            db.bookingDao().insertAll(batch);
+        }
+    }
+
+    /**
+     * Writes a studio as an export of the Firebase database.
+     * Courses and classes are stored under their Firebase keys with every field the app writes for
+     * them, including the local IDs of the device that pushed them. Each booking is stored at
+     * {@code bookings/{uid}_{classId}}, {@code classBookings/{classId}/{uid}} and
+     * {@code userBookings/{uid}/{classId}}, as the user app stores it.
+     *
+     * @param out The writer to write the JSON to; it is not closed.
+     * @param generator The generator to draw the bookings from.
+     * @param bookingCount The number of bookings.
+     * @param courses The courses to write.
+     * @param classes The classes to write.
+     * @throws IOException If writing fails.
+     */
+    static void writeFirebaseExport(Writer out, StudioDataGenerator generator, int bookingCount,
+                                    List<YogaCourse> courses, List<YogaClass> classes) throws IOException {
+        out.write("{\"courses\":{");
+        for (int i = 0; i < courses.size(); i++) {
+            writeCourse(out, i > 0, courses.get(i));
+        }
+        out.write("},\"classes\":{");
+        for (int i = 0; i < classes.size(); i++) {
+            writeClass(out, i > 0, classes.get(i));
+        }
+        out.write("},\"bookings\":{");
+        // The membership fan-outs only hold keys, so they are gathered while the records stream out.
+        Map<String, List<String>> usersByClass = new LinkedHashMap<>();
+        Map<String, List<String>> classesByUser = new LinkedHashMap<>();
+        try {
+            generator.bookings(bookingCount, courses, classes, booking -> {
+                try {
+                    writeBooking(out, !usersByClass.isEmpty(), booking);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                membersOf(usersByClass, booking.getClassId()).add(booking.getUserId());
+                membersOf(classesByUser, booking.getUserId()).add(booking.getClassId());
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.write("},\"classBookings\":");
+        writeMemberships(out, usersByClass);
+        out.write(",\"userBookings\":");
+        writeMemberships(out, classesByUser);
+        out.write('}');
+        out.flush();
+    }
+
+    /**
+     * Reads the courses, classes and bookings of a Firebase export, as the sync would receive them.
+     * Bookings take their ID from their key, as the app sets it after reading them.
+     *
+     * @param in The reader to read the JSON from; it is not closed.
+     * @return The contents of the export.
+     * @throws IOException If the JSON cannot be read.
+     */
+    static FirebaseExport readFirebaseExport(Reader in) throws IOException {
+        FirebaseExport export = new FirebaseExport();
+        JsonReader reader = new JsonReader(in);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String node = reader.nextName();
+            switch (node) {
+                case "courses":
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        reader.nextName();
+                        export.courses.add(readCourse(reader));
+                    }
+                    reader.endObject();
+                    break;
+                case "classes":
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        reader.nextName();
+                        export.classes.add(readClass(reader));
+                    }
+                    reader.endObject();
+                    break;
+                case "bookings":
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        String bookingId = reader.nextName();
+                        Booking booking = readBooking(reader);
+                        booking.setId(bookingId);
+                        export.bookings.add(booking);
+                    }
+                    reader.endObject();
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+        return export;
+    }
+
+    /**
+     * Writes a course as a child of the 'courses' node.
+     */
+    private static void writeCourse(Writer out, boolean comma, YogaCourse course) throws IOException {
+        JsonObjectWriter json = new JsonObjectWriter(out, comma, course.getFirebaseKey());
+        json.field("ageGroup", course.getAgeGroup());
+        json.field("capacity", course.getCapacity());
+        json.field("classType", course.getClassType());
+        json.field("createdDate", course.getCreatedDate());
+        json.field("dayOfWeek", course.getDayOfWeek());
+        json.field("description", course.getDescription());
+        json.field("difficultyLevel", course.getDifficultyLevel());
+        json.field("duration", course.getDuration());
+        json.field("equipmentNeeded", course.getEquipmentNeeded());
+        json.field("firebaseKey", course.getFirebaseKey());
+        json.field("id", course.getId());
+        json.field("instructorName", course.getInstructorName());
+        json.field("price", course.getPrice());
+        json.field("roomNumber", course.getRoomNumber());
+        json.field("time", course.getTime());
+        json.end();
+    }
+
+    /**
+     * Writes a class as a child of the 'classes' node.
+     */
+    private static void writeClass(Writer out, boolean comma, YogaClass yogaClass) throws IOException {
+        JsonObjectWriter json = new JsonObjectWriter(out, comma, yogaClass.getFirebaseKey());
+        json.field("actualCapacity", yogaClass.getActualCapacity());
+        json.field("additionalComments", yogaClass.getAdditionalComments());
+        json.field("assignedInstructor", yogaClass.getAssignedInstructor());
+        json.field("courseFirebaseKey", yogaClass.getCourseFirebaseKey());
+        json.field("courseId", yogaClass.getCourseId());
+        json.field("createdDate", yogaClass.getCreatedDate());
+        json.field("date", yogaClass.getDate());
+        json.field("firebaseKey", yogaClass.getFirebaseKey());
+        json.field("id", yogaClass.getId());
+        json.field("slotsAvailable", yogaClass.getSlotsAvailable());
+        json.field("status", yogaClass.getStatus());
+        json.end();
+    }
+
+    /**
+     * Writes a booking as a child of the 'bookings' node.
+     */
+    private static void writeBooking(Writer out, boolean comma, Booking booking) throws IOException {
+        JsonObjectWriter json = new JsonObjectWriter(out, comma, booking.getId());
+        json.field("bookingDate", booking.getBookingDate());
+        json.field("classDate", booking.getClassDate());
+        json.field("classId", booking.getClassId());
+        json.field("className", booking.getClassName());
+        json.field("classTime", booking.getClassTime());
+        json.field("userEmail", booking.getUserEmail());
+        json.field("userId", booking.getUserId());
+        json.field("userName", booking.getUserName());
+        json.end();
+    }
+
+    /**
+     * Writes a membership fan-out, each member mapped to {@code true}.
+     */
+    private static void writeMemberships(Writer out, Map<String, List<String>> members) throws IOException {
+        out.write('{');
+        boolean firstParent = true;
+        for (Map.Entry<String, List<String>> parent : members.entrySet()) {
+            if (!firstParent) {
+                out.write(',');
+            }
+            firstParent = false;
+            writeString(out, parent.getKey());
+            out.write(":{");
+            List<String> keys = parent.getValue();
+            for (int i = 0; i < keys.size(); i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                writeString(out, keys.get(i));
+                out.write(":true");
+            }
+            out.write('}');
+        }
+        out.write('}');
+    }
+
+    /**
+     * Returns the member list of a parent key, creating it if needed.
+     */
+    private static List<String> membersOf(Map<String, List<String>> members, String key) {
+        List<String> list = members.get(key);
+        if (list == null) {
+            list = new ArrayList<>();
+            members.put(key, list);
+        }
+        return list;
+    }
+
+    /**
+     * Reads a course object.
+     */
+    private static YogaCourse readCourse(JsonReader reader) throws IOException {
+        YogaCourse course = new YogaCourse();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "ageGroup": course.setAgeGroup(reader.nextString()); break;
+                case "capacity": course.setCapacity(reader.nextInt()); break;
+                case "classType": course.setClassType(reader.nextString()); break;
+                case "createdDate": course.setCreatedDate(reader.nextLong()); break;
+                case "dayOfWeek": course.setDayOfWeek(reader.nextString()); break;
+                case "description": course.setDescription(reader.nextString()); break;
+                case "difficultyLevel": course.setDifficultyLevel(reader.nextString()); break;
+                case "duration": course.setDuration(reader.nextInt()); break;
+                case "equipmentNeeded": course.setEquipmentNeeded(reader.nextString()); break;
+                case "firebaseKey": course.setFirebaseKey(reader.nextString()); break;
+                case "id": course.setId(reader.nextLong()); break;
+                case "instructorName": course.setInstructorName(reader.nextString()); break;
+                case "price": course.setPrice(reader.nextDouble()); break;
+                case "roomNumber": course.setRoomNumber(reader.nextString()); break;
+                case "time": course.setTime(reader.nextString()); break;
+                default: reader.skipValue(); break;
+            }
+        }
+        reader.endObject();
+        return course;
+    }
+
+    /**
+     * Reads a class object.
+     */
+    private static YogaClass readClass(JsonReader reader) throws IOException {
+        YogaClass yogaClass = new YogaClass();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "actualCapacity": yogaClass.setActualCapacity(reader.nextInt()); break;
+                case "additionalComments": yogaClass.setAdditionalComments(reader.nextString()); break;
+                case "assignedInstructor": yogaClass.setAssignedInstructor(reader.nextString()); break;
+                case "courseFirebaseKey": yogaClass.setCourseFirebaseKey(reader.nextString()); break;
+                case "courseId": yogaClass.setCourseId(reader.nextLong()); break;
+                case "createdDate": yogaClass.setCreatedDate(reader.nextLong()); break;
+                case "date": yogaClass.setDate(reader.nextString()); break;
+                case "firebaseKey": yogaClass.setFirebaseKey(reader.nextString()); break;
+                case "id": yogaClass.setId(reader.nextLong()); break;
+                case "slotsAvailable": yogaClass.setSlotsAvailable(reader.nextInt()); break;
+                case "status": yogaClass.setStatus(reader.nextString()); break;
+                default: reader.skipValue(); break;
+            }
+        }
+        reader.endObject();
+        return yogaClass;
+    }
+
+    /**
+     * Reads a booking object.
+     */
+    private static Booking readBooking(JsonReader reader) throws IOException {
+        Booking booking = new Booking();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "bookingDate": booking.setBookingDate(reader.nextString()); break;
+                case "classDate": booking.setClassDate(reader.nextString()); break;
+                case "classId": booking.setClassId(reader.nextString()); break;
+                case "className": booking.setClassName(reader.nextString()); break;
+                case "classTime": booking.setClassTime(reader.nextString()); break;
+                case "userEmail": booking.setUserEmail(reader.nextString()); break;
+                case "userId": booking.setUserId(reader.nextString()); break;
+                case "userName": booking.setUserName(reader.nextString()); break;
+                default: reader.skipValue(); break;
+            }
+        }
+        reader.endObject();
+        return booking;
+    }
+
+    /**
+     * Writes a string as a JSON string literal.
+     */
+    private static void writeString(Writer out, String value) throws IOException {
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.write('\\');
+                out.write(c);
+            } else if (c < 0x20) {
+                out.write(String.format("\\u%04x", (int) c));
+            } else {
+                out.write(c);
+            }
+        }
+        out.write('"');
+    }
+
+    /**
+     * Writes the fields of one keyed JSON object. Null fields are left out, as Firebase stores no
+     * value for them.
+     */
+    private static final class JsonObjectWriter {
+        private final Writer out;
+        private boolean firstField = true;
+
+        JsonObjectWriter(Writer out, boolean comma, String key) throws IOException {
+            this.out = out;
+            if (comma) {
+                out.write(',');
+            }
+            writeString(out, key);
+            out.write(":{");
+        }
+
+        void field(String name, String value) throws IOException {
+            if (value != null) {
+                name(name);
+                writeString(out, value);
+            }
+        }
+
+        void field(String name, long value) throws IOException {
+            name(name);
+            out.write(Long.toString(value));
+        }
+
+        void field(String name, double value) throws IOException {
+            name(name);
+            out.write(Double.toString(value));
+        }
+
+        void end() throws IOException {
+            out.write('}');
+        }
+
+        private void name(String name) throws IOException {
+            if (!firstField) {
+                out.write(',');
+            }
+            firstField = false;
+            writeString(out, name);
+            out.write(':');
+        }
+    }
+
+    /**
+     * The contents of a Firebase export, in the order they appear in it.
+     */
+    static final class FirebaseExport {
+        final List<YogaCourse> courses = new ArrayList<>();
+        final List<YogaClass> classes = new ArrayList<>();
+        final List<Booking> bookings = new ArrayList<>();
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.yogaAdmin.database;
+
+import android.app.Application;
+import android.database.Cursor;
+
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.yogaAdmin.models.Booking;
+import com.example.yogaAdmin.models.YogaClass;
+import com.example.yogaAdmin.models.YogaCourse;
+import com.example.yogaAdmin.services.SyncBatch;
+import com.example.yogaAdmin.utils.DateUtils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that {@link StudioDataGenerator} is deterministic and skewed, and that
+ * {@link StudioDataLoader} loads the same studio into Room and into a Firebase export.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class)
+public class StudioDataLoaderTest {
+
+    private static final long SEED = 7L;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private AppDatabase db;
+
+    @Before
+    public void createDatabase() {
+        db = Room.inMemoryDatabaseBuilder(ApplicationProvider.getApplicationContext(), AppDatabase.class)
+                .allowMainThreadQueries()
+                .build();
+    }
+
+    @After
+    public void closeDatabase() {
+        db.close();
+    }
+
+    @Test
+    public void export_isIdenticalForTheSameSeed() throws IOException {
+        String first = export(SEED, 20, 1_000, 5_000);
+        assertEquals(first, export(SEED, 20, 1_000, 5_000));
+        assertNotEquals(first, export(SEED + 1, 20, 1_000, 5_000));
+    }
+
+    @Test
+    public void bookings_areUniqueSkewedAndMadeBeforeTheirClass() {
+        StudioDataGenerator generator = new StudioDataGenerator(SEED);
+        List<YogaCourse> courses = generator.courses(40);
+        List<YogaClass> classes = generator.classes(2_000, courses);
+        Map<String, String> classDates = new HashMap<>();
+        for (YogaClass yogaClass : classes) {
+            classDates.put(yogaClass.getFirebaseKey(), yogaClass.getDate());
+        }
+
+        Set<String> ids = new HashSet<>();
+        Map<String, Integer> bookingsPerClass = new HashMap<>();
+        generator.bookings(100_000, courses, classes, booking -> {
+            assertTrue("Duplicate booking " + booking.getId(), ids.add(booking.getId()));
+            assertEquals(Booking.buildId(booking.getUserId(), booking.getClassId()), booking.getId());
+            assertEquals(classDates.get(booking.getClassId()), booking.getClassDate());
+            long bookedOn = LocalDate.parse(booking.getBookingDate().substring(0, 10)).toEpochDay();
+            assertTrue("Booking should precede its class",
+                    bookedOn < DateUtils.parseClassDate(booking.getClassDate()));
+            bookingsPerClass.merge(booking.getClassId(), 1, Integer::sum);
+        });
+        assertEquals(100_000, ids.size());
+
+        // The tenth of the classes most booked should hold over half of the bookings.
+        List<Integer> counts = new ArrayList<>(bookingsPerClass.values());
+        counts.sort(Collections.reverseOrder());
+        int top = 0;
+        for (int i = 0; i < Math.min(counts.size(), classes.size() / 10); i++) {
+            top += counts.get(i);
+        }
+        assertTrue("Bookings should be skewed, top tenth holds " + top, top > 50_000);
+    }
+
+    @Test
+    public void loadIntoRoom_writesEveryRowInBatches() {
+        StudioDataGenerator generator = new StudioDataGenerator(SEED);
+        List<YogaCourse> courses = generator.courses(300);
+        List<YogaClass> classes = generator.classes(15_000, courses);
+        StudioDataLoader.loadIntoRoom(db, courses, classes);
+        StudioDataLoader.loadBookingsIntoRoom(db, generator, 200_000, courses, classes);
+
+        assertEquals(300, count("yoga_courses"));
+        assertEquals(15_000, count("yoga_classes"));
+        assertEquals(200_000, count("bookings"));
+        assertEquals(new HashSet<>(classes), new HashSet<>(db.yogaClassDao().getClassList()));
+    }
+
+    @Test
+    public void firebaseExport_feedsTheSyncPathTheSameStudio() throws IOException {
+        StudioDataGenerator generator = new StudioDataGenerator(SEED);
+        List<YogaCourse> courses = generator.courses(50);
+        List<YogaClass> classes = generator.classes(2_500, courses);
+        File file = temporaryFolder.newFile("studio.json");
+        try (Writer out = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            StudioDataLoader.writeFirebaseExport(out, generator, 10_000, courses, classes);
+        }
+        StudioDataLoader.FirebaseExport export;
+        try (Reader in = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            export = StudioDataLoader.readFirebaseExport(in);
+        }
+        assertEquals(courses, export.courses);
+        assertEquals(classes, export.classes);
+        assertEquals(10_000, export.bookings.size());
+
+        // Against an empty database every child is new; once loaded, a second sync writes nothing.
+        SyncBatch<YogaClass> initial = SyncBatch.plan(export.classes, db.yogaClassDao().getClassList(),
+                YogaClass::getFirebaseKey, YogaClass::getId, YogaClass::setId);
+        assertEquals(classes.size(), initial.getInserts().size());
+        StudioDataLoader.loadIntoRoom(db, export.courses, initial.getInserts());
+        db.bookingDao().insertAll(export.bookings);
+        SyncBatch<YogaClass> resync = SyncBatch.plan(export.classes, db.yogaClassDao().getClassList(),
+                YogaClass::getFirebaseKey, YogaClass::getId, YogaClass::setId);
+        assertTrue(resync.isEmpty());
+        assertEquals(classes.size(), resync.getUnchangedCount());
+        assertEquals(10_000, count("bookings"));
+    }
+
+    /**
+     * Returns the Firebase export of a generated studio as a string.
+     */
+    private static String export(long seed, int courseCount, int classCount, int bookingCount) throws IOException {
+        StudioDataGenerator generator = new StudioDataGenerator(seed);
+        List<YogaCourse> courses = generator.courses(courseCount);
+        List<YogaClass> classes = generator.classes(classCount, courses);
+        StringWriter out = new StringWriter();
+        StudioDataLoader.writeFirebaseExport(out, generator, bookingCount, courses, classes);
+        return out.toString();
+    }
+
+    /**
+     * Returns the number of rows in a table.
+     */
+    private int count(String table) {
+        try (Cursor cursor = db.query("SELECT COUNT(*) FROM " + table, null)) {
+            assertTrue(cursor.moveToFirst());
+            return cursor.getInt(0);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.yogaAdmin.metrics;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks the bucket layout and percentiles of {@link Histogram}, recording from many threads, and
+ * the interval snapshots and JSON of {@link MetricsRegistry}.
+ */
+public class MetricsRegistryTest {
+
+    // Largest relative error of a value read from a bucket.
+    private static final double MAX_RELATIVE_ERROR = 1.0 / 16;
+
+    @Test
+    public void bucketsCoverEveryValueWithinTheirPrecision() {
+        Random random = new Random(3);
+        for (int i = 0; i < 100_000; i++) {
+            long value = random.nextLong() >>> (23 + random.nextInt(40));
+            int bucket = Histogram.bucketOf(value);
+            assertTrue(Histogram.lowestValueOf(bucket) <= value);
+            assertTrue(Histogram.highestValueOf(bucket) >= value);
+            assertTrue(Histogram.highestValueOf(bucket) - Histogram.lowestValueOf(bucket)
+                    <= Math.max(0, (long) (value * MAX_RELATIVE_ERROR)));
+        }
+        for (int bucket = 1; bucket < 600; bucket++) {
+            assertEquals(Histogram.highestValueOf(bucket - 1) + 1, Histogram.lowestValueOf(bucket));
+        }
+    }
+
+    @Test
+    public void percentilesAreReadWithinBucketPrecision() {
+        Histogram histogram = new Histogram();
+        for (long micros = 1; micros <= 1_000; micros++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(micros));
+        }
+        Histogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(1_000, snapshot.getCount());
+        assertEquals(TimeUnit.MICROSECONDS.toNanos(500) + 500, snapshot.getMeanNanos());
+        assertWithinPrecision(TimeUnit.MICROSECONDS.toNanos(500), snapshot.getValueAtPercentile(50));
+        assertWithinPrecision(TimeUnit.MICROSECONDS.toNanos(990), snapshot.getValueAtPercentile(99));
+        assertWithinPrecision(TimeUnit.MICROSECONDS.toNanos(1_000), snapshot.getMaxNanos());
+        assertEquals(0, new Histogram().snapshot().getValueAtPercentile(99));
+    }
+
+    @Test
+    public void concurrentRecordsAreAllCounted() throws Exception {
+        Histogram histogram = new Histogram();
+        int threads = 8;
+        int recordsPerThread = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < recordsPerThread; i++) {
+                    histogram.record(i);
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals((long) threads * recordsPerThread, histogram.snapshot().getCount());
+    }
+
+    @Test
+    public void snapshotsSinceAnEarlierOneHoldTheInterval() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("sync.courses.written").add(5);
+        registry.histogram("dao.YogaClassDao.getClassList").record(TimeUnit.MILLISECONDS.toNanos(100));
+        MetricsSnapshot earlier = registry.snapshot();
+
+        registry.counter("sync.courses.written").add(2);
+        registry.counter("remote.set.failed").increment();
+        registry.histogram("dao.YogaClassDao.getClassList").record(TimeUnit.MILLISECONDS.toNanos(2));
+        registry.gauge("executor.db.queued", () -> 3);
+        MetricsSnapshot interval = registry.snapshot().since(earlier);
+
+        assertEquals(2, interval.getCounter("sync.courses.written"));
+        assertEquals(1, interval.getCounter("remote.set.failed"));
+        assertEquals(3, interval.getGauge("executor.db.queued"));
+        Histogram.Snapshot classList = interval.getHistogram("dao.YogaClassDao.getClassList");
+        assertEquals(1, classList.getCount());
+        assertWithinPrecision(TimeUnit.MILLISECONDS.toNanos(2), classList.getMaxNanos());
+    }
+
+    @Test
+    public void jsonHoldsEveryMetricOnOneLine() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("remote.events.child").add(4);
+        registry.gauge("executor.sync.queued", () -> 0);
+        registry.histogram("remote.get").record(TimeUnit.MILLISECONDS.toNanos(40));
+        registry.histogram("remote.set");
+
+        String json = registry.snapshot().toJson(Collections.singletonMap("version", "1.0 \"beta\""));
+
+        assertFalse(json.contains("\n"));
+        assertTrue(json, json.contains("\"version\":\"1.0 \\\"beta\\\"\""));
+        assertTrue(json, json.contains("\"counters\":{\"remote.events.child\":4}"));
+        assertTrue(json, json.contains("\"gauges\":{\"executor.sync.queued\":0}"));
+        assertTrue(json, json.contains("\"remote.get\":{\"count\":1,"));
+        assertFalse("empty histograms are left out", json.contains("remote.set"));
+    }
+
+    private static void assertWithinPrecision(long expected, long actual) {
+        assertTrue("expected about " + expected + " but was " + actual,
+                Math.abs(actual - expected) <= expected * MAX_RELATIVE_ERROR);
+    }
+}
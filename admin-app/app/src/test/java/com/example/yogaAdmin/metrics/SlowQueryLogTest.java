@@ -0,0 +1,64 @@
+package com.example.yogaAdmin.metrics;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks the ring buffer and the text format of {@link SlowQueryLog}.
+ */
+public class SlowQueryLogTest {
+
+    @Test
+    public void keepsTheNewestEntriesNewestFirst() {
+        SlowQueryLog log = new SlowQueryLog(3, 0);
+        for (int i = 0; i < 5; i++) {
+            log.add("SELECT " + i, Collections.emptyList(), i, Collections.emptyList());
+        }
+
+        List<SlowQueryLog.Entry> entries = log.getEntries();
+
+        assertEquals(3, entries.size());
+        assertEquals("SELECT 4", entries.get(0).sql);
+        assertEquals("SELECT 2", entries.get(2).sql);
+    }
+
+    @Test
+    public void onlyStatementsReachingTheThresholdAreSlow() {
+        SlowQueryLog log = new SlowQueryLog(3, 16);
+
+        assertFalse(log.isSlow(TimeUnit.MILLISECONDS.toNanos(15)));
+        assertTrue(log.isSlow(TimeUnit.MILLISECONDS.toNanos(16)));
+    }
+
+    @Test
+    public void clearedLogKeepsLaterEntriesOnly() {
+        SlowQueryLog log = new SlowQueryLog(3, 0);
+        log.add("SELECT 1", Collections.emptyList(), 1, Collections.emptyList());
+        log.clear();
+        log.add("SELECT 2", Collections.emptyList(), 1, Collections.emptyList());
+
+        assertEquals(1, log.getEntries().size());
+        assertEquals("SELECT 2", log.getEntries().get(0).sql);
+    }
+
+    @Test
+    public void formatShowsDurationArgumentsAndPlan() {
+        SlowQueryLog log = new SlowQueryLog(3, 16);
+        assertEquals("No statement took longer than 16 ms.", log.format());
+
+        log.add("SELECT * FROM yoga_classes WHERE assignedInstructor LIKE ?", Arrays.asList("%Li%", new byte[4]),
+                TimeUnit.MICROSECONDS.toNanos(42_300), Arrays.asList("SCAN yoga_classes"));
+
+        String text = log.format();
+        assertTrue(text, text.contains("  42.3 ms  on "));
+        assertTrue(text, text.contains("\nSELECT * FROM yoga_classes WHERE assignedInstructor LIKE ?"));
+        assertTrue(text, text.contains("\nArguments: [%Li%, <4 bytes>]"));
+        assertTrue(text, text.endsWith("\n  SCAN yoga_classes"));
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.yogaAdmin.services;
+
+import androidx.annotation.Nullable;
+
+import com.google.firebase.database.Exclude;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Converts model objects to and from plain maps following the bean conventions of the Firebase
+ * mapping: a property is a public getter ({@code getX}, or {@code isX} for booleans) or a public
+ * field, getters and fields marked {@link Exclude} are skipped, and a value is read back through
+ * the public no-argument constructor and the setters or public fields of its class.
+ * Numbers are converted to the type of the property, and properties without a setter are ignored.
+ * This class cannot be instantiated.
+ */
+final class BeanMapper {
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private BeanMapper() {
+    }
+
+    /**
+     * Converts a value to maps, lists, strings, numbers and booleans.
+     *
+     * @param value The value to convert, which may be a model object.
+     * @return The converted value, or null if the value is null.
+     */
+    @Nullable
+    static Object toPlain(@Nullable Object value) {
+        if (value == null || value instanceof String || value instanceof Number || value instanceof Boolean) {
+            return value;
+        }
+        if (value instanceof Character || value instanceof Enum) {
+            return value.toString();
+        }
+        if (value instanceof Map) {
+            Map<String, Object> map = new HashMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                map.put(String.valueOf(entry.getKey()), toPlain(entry.getValue()));
+            }
+            return map;
+        }
+        if (value instanceof Collection) {
+            List<Object> list = new ArrayList<>();
+            for (Object element : (Collection<?>) value) {
+                list.add(toPlain(element));
+            }
+            return list;
+        }
+        Map<String, Object> properties = new HashMap<>();
+        for (Method method : value.getClass().getMethods()) {
+            String name = propertyOfGetter(method);
+            if (name != null) {
+                properties.put(name, toPlain(invoke(method, value)));
+            }
+        }
+        for (Field field : value.getClass().getFields()) {
+            if (!Modifier.isStatic(field.getModifiers()) && !field.isAnnotationPresent(Exclude.class)) {
+                properties.put(field.getName(), toPlain(get(field, value)));
+            }
+        }
+        return properties;
+    }
+
+    /**
+     * Converts a plain value to a type, mapping maps to model objects through their setters.
+     *
+     * @param value The plain value to convert.
+     * @param type The type to convert it to.
+     * @param <T> The type to convert it to.
+     * @return The converted value, or null if the value is null.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    static <T> T toBean(@Nullable Object value, Class<T> type) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Number && (type.isPrimitive() || Number.class.isAssignableFrom(type))) {
+            return (T) toNumber((Number) value, type);
+        }
+        if (type.isInstance(value) || (type == boolean.class && value instanceof Boolean)) {
+            return (T) value;
+        }
+        if (!(value instanceof Map)) {
+            throw new IllegalArgumentException("Cannot convert " + value.getClass().getSimpleName()
+                    + " to " + type.getSimpleName());
+        }
+        T bean = newInstance(type);
+        for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+            String name = String.valueOf(entry.getKey());
+            Method setter = findSetter(type, name);
+            if (setter != null) {
+                invoke(setter, bean, toBean(entry.getValue(), setter.getParameterTypes()[0]));
+                continue;
+            }
+            Field field = findField(type, name);
+            if (field != null) {
+                set(field, bean, toBean(entry.getValue(), field.getType()));
+            }
+        }
+        return bean;
+    }
+
+    /**
+     * Returns the property read by a method, or null if the method is not a mapped getter.
+     */
+    @Nullable
+    private static String propertyOfGetter(Method method) {
+        if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != 0
+                || method.getDeclaringClass() == Object.class || method.isAnnotationPresent(Exclude.class)) {
+            return null;
+        }
+        String name = method.getName();
+        if (name.startsWith("get") && name.length() > 3) {
+            return decapitalize(name.substring(3));
+        }
+        boolean returnsBoolean = method.getReturnType() == boolean.class || method.getReturnType() == Boolean.class;
+        if (returnsBoolean && name.startsWith("is") && name.length() > 2) {
+            return decapitalize(name.substring(2));
+        }
+        return null;
+    }
+
+    /**
+     * Returns the public setter of a property, or null if it has none.
+     */
+    @Nullable
+    private static Method findSetter(Class<?> type, String property) {
+        String name = "set" + property.substring(0, 1).toUpperCase(Locale.ROOT) + property.substring(1);
+        for (Method method : type.getMethods()) {
+            if (method.getName().equals(name) && method.getParameterCount() == 1
+                    && !Modifier.isStatic(method.getModifiers()) && !method.isAnnotationPresent(Exclude.class)) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the public field of a property, or null if it has none.
+     */
+    @Nullable
+    private static Field findField(Class<?> type, String property) {
+        try {
+            Field field = type.getField(property);
+            return Modifier.isStatic(field.getModifiers()) || field.isAnnotationPresent(Exclude.class) ? null : field;
+        } catch (NoSuchFieldException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Converts a number to a numeric type, boxed or primitive.
+     */
+    private static Object toNumber(Number number, Class<?> type) {
+        if (type == int.class || type == Integer.class) {
+            return number.intValue();
+        }
+        if (type == long.class || type == Long.class) {
+            return number.longValue();
+        }
+        if (type == double.class || type == Double.class) {
+            return number.doubleValue();
+        }
+        if (type == float.class || type == Float.class) {
+            return number.floatValue();
+        }
+        if (type == short.class || type == Short.class) {
+            return number.shortValue();
+        }
+        if (type == byte.class || type == Byte.class) {
+            return number.byteValue();
+        }
+        return number;
+    }
+
+    /**
+     * Returns a name with its first letter in lower case, as bean property names are.
+     */
+    private static String decapitalize(String name) {
+        return name.substring(0, 1).toLowerCase(Locale.ROOT) + name.substring(1);
+    }
+
+    /**
+     * Creates an instance of a class through its no-argument constructor.
+     */
+    private static <T> T newInstance(Class<T> type) {
+        try {
+            Constructor<T> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor.newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException(type.getSimpleName() + " has no usable no-argument constructor", e);
+        }
+    }
+
+    /**
+     * Calls a public method, rethrowing failures unchecked.
+     */
+    private static Object invoke(Method method, Object target, Object... args) {
+        try {
+            return method.invoke(target, args);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to call " + method.getName(), e);
+        }
+    }
+
+    /**
+     * Reads a public field, rethrowing failures unchecked.
+     */
+    private static Object get(Field field, Object target) {
+        try {
+            return field.get(target);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Failed to read " + field.getName(), e);
+        }
+    }
+
+    /**
+     * Writes a public field, rethrowing failures unchecked.
+     */
+    private static void set(Field field, Object target, Object value) {
+        try {
+            field.set(target, value);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Failed to write " + field.getName(), e);
+        }
+    }
+}
@@ -0,0 +1,515 @@
+package com.example.yogaAdmin.services;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * A {@link RemoteStore} that serves the app from a backing store, standing for the server, through
+ * a simulated connection into which faults are injected.
+ * Every event, read result and write is posted to the main looper at a virtual time, so under
+ * Robolectric's paused looper the simulation advances with the test clock and a run is repeatable
+ * for a seed. The backing store must deliver synchronously, such as an {@link InMemoryRemoteStore}
+ * with a {@code Runnable::run} callback executor; other clients write to it directly.
+ * Like a Firebase connection, deliveries are made in the order of the server, except that value
+ * listeners on different paths may overtake each other when {@link Faults#reorderValueListeners()}
+ * is set. During a disconnect, deliveries and the app's writes are held until the connection
+ * returns, and reads fail, including those in flight when it drops.
+ * The store is installed once with {@link RemoteStores#setInstance(RemoteStore)}, since the
+ * repositories keep the store they were created with, and {@link #reset} starts each run.
+ */
+class FaultInjectingRemoteStore implements RemoteStore {
+
+    // Lane of the deliveries made in connection order.
+    private static final String CONNECTION_LANE = "";
+    // Lane of the app's writes, which reach the server in the order they were made.
+    private static final String WRITE_LANE = "write";
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    // Virtual due time of the last delivery of each lane.
+    private final Map<String, Long> laneDueMillis = new HashMap<>();
+    private RemoteStore server;
+    private Faults faults = new Faults();
+    private Random random = new Random();
+    // Start and end times of the disconnects of the current run.
+    private long[][] disconnects = new long[0][];
+    // Incremented by each reset, so deliveries posted by an earlier run are dropped.
+    private int generation;
+    private int pendingCount;
+    private long deliveredCount;
+    private long duplicatedCount;
+    private long readCount;
+    private long failedReadCount;
+    private long writeCount;
+
+    /**
+     * Starts a new run against a backing store. Deliveries and listeners of the previous run are
+     * dropped and the counters are cleared. Must be called on the main thread.
+     *
+     * @param server The store standing for the server, delivering synchronously.
+     * @param faults The faults to inject.
+     * @param seed The seed of the injected latencies and duplicates.
+     */
+    synchronized void reset(RemoteStore server, Faults faults, long seed) {
+        this.server = server;
+        this.faults = faults;
+        random = new Random(seed);
+        generation++;
+        laneDueMillis.clear();
+        long now = SystemClock.uptimeMillis();
+        disconnects = new long[faults.disconnects.size()][];
+        for (int i = 0; i < disconnects.length; i++) {
+            long[] disconnect = faults.disconnects.get(i);
+            disconnects[i] = new long[]{now + disconnect[0], now + disconnect[0] + disconnect[1]};
+        }
+        pendingCount = 0;
+        deliveredCount = 0;
+        duplicatedCount = 0;
+        readCount = 0;
+        failedReadCount = 0;
+        writeCount = 0;
+    }
+
+    /**
+     * Returns the number of deliveries and writes of the current run not yet made.
+     *
+     * @return The number of pending deliveries.
+     */
+    synchronized int getPendingCount() {
+        return pendingCount;
+    }
+
+    /**
+     * Returns the number of events and read results delivered to the app in the current run,
+     * duplicates included.
+     *
+     * @return The number of deliveries.
+     */
+    synchronized long getDeliveredCount() {
+        return deliveredCount;
+    }
+
+    /**
+     * Returns the number of events delivered twice in the current run.
+     *
+     * @return The number of duplicated events.
+     */
+    synchronized long getDuplicatedCount() {
+        return duplicatedCount;
+    }
+
+    /**
+     * Returns the number of reads made by the app in the current run.
+     *
+     * @return The number of reads.
+     */
+    synchronized long getReadCount() {
+        return readCount;
+    }
+
+    /**
+     * Returns the number of reads of the current run that failed because of a disconnect.
+     *
+     * @return The number of failed reads.
+     */
+    synchronized long getFailedReadCount() {
+        return failedReadCount;
+    }
+
+    /**
+     * Returns the number of writes made by the app in the current run.
+     *
+     * @return The number of writes.
+     */
+    synchronized long getWriteCount() {
+        return writeCount;
+    }
+
+    @Override
+    public Task<RemoteSnapshot> get(String path) {
+        return read(server.get(path));
+    }
+
+    @Override
+    public Task<RemoteSnapshot> getChildrenAfter(String path, @Nullable String afterKey, int limit) {
+        return read(server.getChildrenAfter(path, afterKey, limit));
+    }
+
+    @Override
+    public void readOnce(String path, ValueListener listener) {
+        // Waits for the connection, like a single value event in Firebase.
+        server.readOnce(path, new ValueRelay(CONNECTION_LANE, listener, false));
+    }
+
+    @Override
+    public Registration addValueListener(String path, ValueListener listener) {
+        String lane = faults.reorderValueListeners ? "value:" + path : CONNECTION_LANE;
+        ValueRelay relay = new ValueRelay(lane, listener, true);
+        Registration registration = server.addValueListener(path, relay);
+        return () -> {
+            relay.removed = true;
+            registration.remove();
+        };
+    }
+
+    @Override
+    public Registration addChildListener(String path, ChildListener listener) {
+        ChildRelay relay = new ChildRelay(listener);
+        Registration registration = server.addChildListener(path, relay);
+        return () -> {
+            relay.removed = true;
+            registration.remove();
+        };
+    }
+
+    @Override
+    public String push(String path) {
+        return server.push(path);
+    }
+
+    @Override
+    public Task<Void> set(String path, @Nullable Object value) {
+        return write(() -> server.set(path, value));
+    }
+
+    @Override
+    public Task<Void> updateChildren(Map<String, Object> updates) {
+        return write(() -> server.updateChildren(updates));
+    }
+
+    @Override
+    public Task<Boolean> runTransaction(String path, Transaction transaction) {
+        return write(() -> server.runTransaction(path, transaction));
+    }
+
+    /**
+     * Delivers the result of a read made on the server now, or fails it if the connection is down
+     * now or drops before the result arrives.
+     */
+    private synchronized <T> Task<T> read(Task<T> serverResult) {
+        readCount++;
+        TaskCompletionSource<T> result = new TaskCompletionSource<>();
+        long now = SystemClock.uptimeMillis();
+        long due = now + latency();
+        long dropped = droppedBetween(now, due);
+        if (isDisconnected(now) || dropped >= 0) {
+            failedReadCount++;
+            postAt(Math.max(now, dropped), () ->
+                    result.setException(new IllegalStateException("Disconnected from the server")));
+        } else {
+            schedule(CONNECTION_LANE, due, () -> relay(serverResult, result));
+        }
+        return result.getTask();
+    }
+
+    /**
+     * Applies one of the app's writes to the server after the write delay, or once the connection
+     * returns, and completes its task after the acknowledgement comes back.
+     */
+    private synchronized <T> Task<T> write(WriteCall<T> call) {
+        writeCount++;
+        TaskCompletionSource<T> result = new TaskCompletionSource<>();
+        long now = SystemClock.uptimeMillis();
+        long delay = faults.minWriteDelayMillis
+                + (long) (random.nextDouble() * (faults.maxWriteDelayMillis - faults.minWriteDelayMillis));
+        schedule(WRITE_LANE, now + delay, () -> {
+            Task<T> serverResult = call.apply();
+            synchronized (this) {
+                schedule(CONNECTION_LANE, SystemClock.uptimeMillis() + latency(), () -> relay(serverResult, result));
+            }
+        });
+        return result.getTask();
+    }
+
+    /**
+     * Completes a task of the app with the result of the server, once the server has completed it.
+     */
+    private static <T> void relay(Task<T> serverResult, TaskCompletionSource<T> result) {
+        serverResult.addOnCompleteListener(Runnable::run, task -> {
+            if (task.isSuccessful()) {
+                result.setResult(task.getResult());
+            } else {
+                result.setException(task.getException());
+            }
+        });
+    }
+
+    /**
+     * Posts a delivery to the main looper no earlier than its due time, after the previous delivery
+     * of its lane and after any disconnect it falls into. Must hold the lock.
+     */
+    private void schedule(String lane, long dueMillis, Runnable delivery) {
+        long due = dueMillis;
+        Long laneDue = laneDueMillis.get(lane);
+        if (laneDue != null && laneDue > due) {
+            due = laneDue;
+        }
+        for (long[] disconnect : disconnects) {
+            if (due >= disconnect[0] && due < disconnect[1]) {
+                due = disconnect[1];
+            }
+        }
+        laneDueMillis.put(lane, due);
+        postAt(due, delivery);
+    }
+
+    /**
+     * Posts a runnable to the main looper at a virtual time, counting it as pending until it runs.
+     * Must hold the lock.
+     */
+    private void postAt(long uptimeMillis, Runnable delivery) {
+        int postedGeneration = generation;
+        pendingCount++;
+        // Messages due at the same time run in the order they were posted.
+        handler.postAtTime(() -> {
+            synchronized (this) {
+                if (postedGeneration != generation) {
+                    return;
+                }
+                pendingCount--;
+            }
+            delivery.run();
+        }, uptimeMillis);
+    }
+
+    /**
+     * Schedules an event for a listener, and sometimes a duplicate of it right after.
+     */
+    private synchronized void deliverEvent(String lane, boolean duplicable, Runnable event) {
+        long due = SystemClock.uptimeMillis() + latency();
+        schedule(lane, due, () -> {
+            countDelivery();
+            event.run();
+        });
+        if (duplicable && random.nextDouble() < faults.duplicateRate) {
+            duplicatedCount++;
+            schedule(lane, due, () -> {
+                countDelivery();
+                event.run();
+            });
+        }
+    }
+
+    private synchronized void countDelivery() {
+        deliveredCount++;
+    }
+
+    /**
+     * Draws the latency of a delivery. Must hold the lock.
+     */
+    private long latency() {
+        return faults.minLatencyMillis
+                + (long) (random.nextDouble() * (faults.maxLatencyMillis - faults.minLatencyMillis));
+    }
+
+    /**
+     * Returns whether the connection is down at a virtual time. Must hold the lock.
+     */
+    private boolean isDisconnected(long uptimeMillis) {
+        for (long[] disconnect : disconnects) {
+            if (uptimeMillis >= disconnect[0] && uptimeMillis < disconnect[1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the time the connection drops after from and no later than to, or -1 if it does not.
+     * Must hold the lock.
+     */
+    private long droppedBetween(long from, long to) {
+        for (long[] disconnect : disconnects) {
+            if (disconnect[0] > from && disconnect[0] <= to) {
+                return disconnect[0];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The faults injected into a run. Defaults to a perfect connection.
+     */
+    static final class Faults {
+        private long minLatencyMillis;
+        private long maxLatencyMillis;
+        private boolean reorderValueListeners;
+        private double duplicateRate;
+        private long minWriteDelayMillis;
+        private long maxWriteDelayMillis;
+        // Start offset and duration of each disconnect, in milliseconds from the reset.
+        private final List<long[]> disconnects = new ArrayList<>();
+
+        /**
+         * Delays each delivery by a random latency.
+         *
+         * @param minMillis The minimum latency in milliseconds.
+         * @param maxMillis The maximum latency in milliseconds.
+         * @return These faults.
+         */
+        Faults latency(long minMillis, long maxMillis) {
+            minLatencyMillis = minMillis;
+            maxLatencyMillis = maxMillis;
+            return this;
+        }
+
+        /**
+         * Lets the values of listeners on different paths overtake each other.
+         *
+         * @return These faults.
+         */
+        Faults reorderValueListeners() {
+            reorderValueListeners = true;
+            return this;
+        }
+
+        /**
+         * Delivers some value events, and child added and changed events, twice in a row.
+         *
+         * @param rate The probability that an event is duplicated.
+         * @return These faults.
+         */
+        Faults duplicates(double rate) {
+            duplicateRate = rate;
+            return this;
+        }
+
+        /**
+         * Delays each write of the app before it reaches the server.
+         *
+         * @param minMillis The minimum delay in milliseconds.
+         * @param maxMillis The maximum delay in milliseconds.
+         * @return These faults.
+         */
+        Faults slowWrites(long minMillis, long maxMillis) {
+            minWriteDelayMillis = minMillis;
+            maxWriteDelayMillis = maxMillis;
+            return this;
+        }
+
+        /**
+         * Drops the connection for a while.
+         *
+         * @param atMillis When the connection drops, in milliseconds from the reset.
+         * @param durationMillis How long it stays down, in milliseconds.
+         * @return These faults.
+         */
+        Faults disconnect(long atMillis, long durationMillis) {
+            disconnects.add(new long[]{atMillis, durationMillis});
+            return this;
+        }
+
+        /**
+         * Returns the longest delay a delivery or write can incur, used to bound the apply lag.
+         *
+         * @return The delay in milliseconds.
+         */
+        long worstDelayMillis() {
+            long longestDisconnect = 0;
+            for (long[] disconnect : disconnects) {
+                longestDisconnect = Math.max(longestDisconnect, disconnect[1]);
+            }
+            return maxLatencyMillis + maxWriteDelayMillis + longestDisconnect;
+        }
+    }
+
+    /**
+     * A write to the server.
+     */
+    private interface WriteCall<T> {
+        Task<T> apply();
+    }
+
+    /**
+     * Relays the values delivered by the server to a listener of the app.
+     */
+    private final class ValueRelay implements ValueListener {
+        private final String lane;
+        private final ValueListener listener;
+        private final boolean duplicable;
+        private volatile boolean removed;
+
+        ValueRelay(String lane, ValueListener listener, boolean duplicable) {
+            this.lane = lane;
+            this.listener = listener;
+            this.duplicable = duplicable;
+        }
+
+        @Override
+        public void onValue(RemoteSnapshot snapshot) {
+            deliverEvent(lane, duplicable, () -> {
+                if (!removed) {
+                    listener.onValue(snapshot);
+                }
+            });
+        }
+
+        @Override
+        public void onCancelled(Exception error) {
+            deliverEvent(lane, false, () -> {
+                if (!removed) {
+                    listener.onCancelled(error);
+                }
+            });
+        }
+    }
+
+    /**
+     * Relays the child events delivered by the server to a listener of the app.
+     */
+    private final class ChildRelay implements ChildListener {
+        private final ChildListener listener;
+        private volatile boolean removed;
+
+        ChildRelay(ChildListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void onChildAdded(RemoteSnapshot child) {
+            deliverEvent(CONNECTION_LANE, true, () -> {
+                if (!removed) {
+                    listener.onChildAdded(child);
+                }
+            });
+        }
+
+        @Override
+        public void onChildChanged(RemoteSnapshot child) {
+            deliverEvent(CONNECTION_LANE, true, () -> {
+                if (!removed) {
+                    listener.onChildChanged(child);
+                }
+            });
+        }
+
+        @Override
+        public void onChildRemoved(RemoteSnapshot child) {
+            deliverEvent(CONNECTION_LANE, false, () -> {
+                if (!removed) {
+                    listener.onChildRemoved(child);
+                }
+            });
+        }
+
+        @Override
+        public void onCancelled(Exception error) {
+            deliverEvent(CONNECTION_LANE, false, () -> {
+                if (!removed) {
+                    listener.onCancelled(error);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,783 @@
+package com.example.yogaAdmin.services;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link RemoteStore} holding its tree in memory, standing in for Firebase in tests and
+ * simulations so sync engines can run offline.
+ * Values are stored as Firebase stores them: model objects are converted by {@link BeanMapper},
+ * whole numbers become longs, lists become maps keyed by index and empty maps are removed.
+ * Writes are applied immediately, and listener events and task results are delivered to the
+ * callback executor after a latency drawn uniformly between a minimum and a maximum.
+ * With {@link EventOrder#ORDERED} every delivery keeps the order of the writes, as Firebase does for
+ * a single client. With {@link EventOrder#PER_PATH} only deliveries for the same path keep their
+ * order, so e.g. the classes node may be seen to change before the courses node it was written
+ * after, as when several clients write through different connections.
+ * Push keys are generated from a counter, so a run is repeatable for a given seed.
+ */
+public class InMemoryRemoteStore implements RemoteStore {
+
+    /**
+     * The ordering guarantee of deliveries.
+     */
+    public enum EventOrder {
+        // Every delivery in the order of the writes.
+        ORDERED,
+        // Deliveries for one path in the order of the writes; different paths independently.
+        PER_PATH
+    }
+
+    // Lanes without pending deliveries are dropped once this many lanes are kept.
+    private static final int MAX_IDLE_LANES = 1_024;
+
+    // Guards the tree, the listeners, the lanes and the random source.
+    private final Object lock = new Object();
+    // The root of the tree; children are sorted maps, strings, longs, doubles and booleans.
+    private final TreeMap<String, Object> root = new TreeMap<>();
+    private final List<ValueRegistration> valueRegistrations = new ArrayList<>();
+    private final List<ChildRegistration> childRegistrations = new ArrayList<>();
+    // Delayed deliveries of each lane, keyed by path, or by "" for the single ordered lane.
+    private final Map<String, Lane> lanes = new HashMap<>();
+    // Deliveries waiting to be handed to the callback executor in order, when there is no latency.
+    private final ArrayDeque<Runnable> immediateQueue = new ArrayDeque<>();
+    private boolean draining;
+    // Number of deliveries not yet made.
+    private final AtomicInteger pendingDeliveries = new AtomicInteger();
+    private final Executor callbackExecutor;
+    // Runs delayed deliveries; null if there is no latency.
+    private final ScheduledExecutorService scheduler;
+    private final long minLatencyNanos;
+    private final long maxLatencyNanos;
+    private final EventOrder eventOrder;
+    private final Random random;
+    private long pushCount;
+
+    /**
+     * Constructor for a store delivering on the main thread without latency, in order.
+     */
+    public InMemoryRemoteStore() {
+        this(new Builder());
+    }
+
+    /**
+     * Private constructor; use {@link Builder}.
+     */
+    private InMemoryRemoteStore(Builder builder) {
+        callbackExecutor = builder.callbackExecutor != null
+                ? builder.callbackExecutor : new Handler(Looper.getMainLooper())::post;
+        minLatencyNanos = TimeUnit.MILLISECONDS.toNanos(builder.minLatencyMillis);
+        maxLatencyNanos = TimeUnit.MILLISECONDS.toNanos(builder.maxLatencyMillis);
+        eventOrder = builder.eventOrder;
+        random = new Random(builder.seed);
+        scheduler = maxLatencyNanos > 0 ? Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "InMemoryRemoteStore");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    /**
+     * Returns the number of listener events and task results not yet delivered, e.g. to wait
+     * until a simulated network is quiet.
+     *
+     * @return The number of pending deliveries.
+     */
+    public int getPendingDeliveryCount() {
+        return pendingDeliveries.get();
+    }
+
+    /**
+     * Stops the thread delivering delayed events. Pending deliveries are dropped.
+     */
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Override
+    public Task<RemoteSnapshot> get(String path) {
+        TaskCompletionSource<RemoteSnapshot> result = new TaskCompletionSource<>();
+        synchronized (lock) {
+            List<String> segments = parsePath(path);
+            RemoteSnapshot snapshot = new MemorySnapshot(keyOf(segments), freeze(valueAt(segments)));
+            deliver(path, () -> result.setResult(snapshot));
+        }
+        drain();
+        return result.getTask();
+    }
+
+    @Override
+    public Task<RemoteSnapshot> getChildrenAfter(String path, @Nullable String afterKey, int limit) {
+        TaskCompletionSource<RemoteSnapshot> result = new TaskCompletionSource<>();
+        synchronized (lock) {
+            List<String> segments = parsePath(path);
+            Object value = valueAt(segments);
+            TreeMap<String, Object> page = new TreeMap<>();
+            if (value instanceof TreeMap) {
+                @SuppressWarnings("unchecked")
+                TreeMap<String, Object> children = (TreeMap<String, Object>) value;
+                Map<String, Object> after = afterKey != null ? children.tailMap(afterKey, false) : children;
+                for (Map.Entry<String, Object> child : after.entrySet()) {
+                    if (page.size() == limit) {
+                        break;
+                    }
+                    page.put(child.getKey(), freeze(child.getValue()));
+                }
+            }
+            RemoteSnapshot snapshot = new MemorySnapshot(keyOf(segments),
+                    page.isEmpty() ? null : Collections.unmodifiableSortedMap(page));
+            deliver(path, () -> result.setResult(snapshot));
+        }
+        drain();
+        return result.getTask();
+    }
+
+    @Override
+    public void readOnce(String path, ValueListener listener) {
+        synchronized (lock) {
+            List<String> segments = parsePath(path);
+            RemoteSnapshot snapshot = new MemorySnapshot(keyOf(segments), freeze(valueAt(segments)));
+            deliver(path, () -> listener.onValue(snapshot));
+        }
+        drain();
+    }
+
+    @Override
+    public Registration addValueListener(String path, ValueListener listener) {
+        ValueRegistration registration;
+        synchronized (lock) {
+            registration = new ValueRegistration(parsePath(path), listener);
+            valueRegistrations.add(registration);
+            registration.lastValue = freeze(valueAt(registration.segments));
+            registration.deliverValue();
+        }
+        drain();
+        return registration;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Registration addChildListener(String path, ChildListener listener) {
+        ChildRegistration registration;
+        synchronized (lock) {
+            registration = new ChildRegistration(parsePath(path), listener);
+            childRegistrations.add(registration);
+            Object value = valueAt(registration.segments);
+            if (value instanceof TreeMap) {
+                for (Map.Entry<String, Object> child : ((TreeMap<String, Object>) value).entrySet()) {
+                    Object frozen = freeze(child.getValue());
+                    registration.children.put(child.getKey(), frozen);
+                    registration.deliver(ChildEvent.ADDED, child.getKey(), frozen);
+                }
+            }
+        }
+        drain();
+        return registration;
+    }
+
+    @Override
+    public String push(String path) {
+        synchronized (lock) {
+            // Nineteen digits keep the keys of one store in generation order.
+            return String.format(Locale.ROOT, "-%019d", ++pushCount);
+        }
+    }
+
+    @Override
+    public Task<Void> set(String path, @Nullable Object value) {
+        return write(Collections.singletonMap(path, value));
+    }
+
+    @Override
+    public Task<Void> updateChildren(Map<String, Object> updates) {
+        return write(updates);
+    }
+
+    @Override
+    public Task<Boolean> runTransaction(String path, Transaction transaction) {
+        TaskCompletionSource<Boolean> result = new TaskCompletionSource<>();
+        synchronized (lock) {
+            List<String> segments = parsePath(path);
+            // The store is locked while the function runs, so it never needs to run twice.
+            Object next = transaction.apply(freeze(valueAt(segments)));
+            boolean committed = next != ABORT;
+            if (committed) {
+                List<List<String>> written = Collections.singletonList(segments);
+                setAt(segments, toStored(next));
+                notifyListeners(written);
+            }
+            deliver(path, () -> result.setResult(committed));
+        }
+        drain();
+        return result.getTask();
+    }
+
+    /**
+     * Applies writes to several paths at once, then notifies the listeners of the paths written.
+     *
+     * @throws IllegalArgumentException If one path written is inside another.
+     */
+    private Task<Void> write(Map<String, Object> updates) {
+        TaskCompletionSource<Void> result = new TaskCompletionSource<>();
+        synchronized (lock) {
+            List<List<String>> written = new ArrayList<>(updates.size());
+            List<Object> values = new ArrayList<>(updates.size());
+            for (Map.Entry<String, Object> update : updates.entrySet()) {
+                List<String> segments = parsePath(update.getKey());
+                for (List<String> other : written) {
+                    if (isPrefix(other, segments) || isPrefix(segments, other)) {
+                        throw new IllegalArgumentException("Overlapping paths in update: " + update.getKey());
+                    }
+                }
+                written.add(segments);
+                // Convert every value before writing any, so a value that cannot be stored writes nothing.
+                values.add(toStored(update.getValue()));
+            }
+            for (int i = 0; i < written.size(); i++) {
+                setAt(written.get(i), values.get(i));
+            }
+            notifyListeners(written);
+            String lane = updates.size() == 1 ? updates.keySet().iterator().next() : "";
+            deliver(lane, () -> result.setResult(null));
+        }
+        drain();
+        return result.getTask();
+    }
+
+    /**
+     * Queues the events of every listener affected by writes to the given paths, which have
+     * already been applied. Must hold the lock.
+     */
+    private void notifyListeners(List<List<String>> written) {
+        for (ValueRegistration registration : valueRegistrations) {
+            if (!isAffected(registration.segments, written)) {
+                continue;
+            }
+            Object value = valueAt(registration.segments);
+            if (!Objects.equals(value, registration.lastValue)) {
+                registration.lastValue = freeze(value);
+                registration.deliverValue();
+            }
+        }
+        for (ChildRegistration registration : childRegistrations) {
+            TreeSet<String> keys = new TreeSet<>();
+            boolean all = false;
+            for (List<String> path : written) {
+                if (path.size() > registration.segments.size() && isPrefix(registration.segments, path)) {
+                    keys.add(path.get(registration.segments.size()));
+                } else if (isPrefix(path, registration.segments)) {
+                    all = true;
+                }
+            }
+            Object value = valueAt(registration.segments);
+            @SuppressWarnings("unchecked")
+            Map<String, Object> current = value instanceof TreeMap
+                    ? (TreeMap<String, Object>) value : Collections.emptyMap();
+            if (all) {
+                keys.addAll(registration.children.keySet());
+                keys.addAll(current.keySet());
+            }
+            registration.diff(keys, current);
+        }
+    }
+
+    /**
+     * Hands a delivery to the callback executor after the latency of its lane. Must hold the lock.
+     */
+    private void deliver(String path, Runnable delivery) {
+        pendingDeliveries.incrementAndGet();
+        Runnable counted = () -> {
+            pendingDeliveries.decrementAndGet();
+            delivery.run();
+        };
+        if (scheduler == null) {
+            immediateQueue.add(counted);
+            return;
+        }
+        long now = System.nanoTime();
+        long latency = minLatencyNanos + (long) (random.nextDouble() * (maxLatencyNanos - minLatencyNanos));
+        String laneKey = eventOrder == EventOrder.ORDERED ? "" : String.join("/", parsePath(path));
+        Lane lane = lanes.get(laneKey);
+        if (lane == null) {
+            if (lanes.size() >= MAX_IDLE_LANES) {
+                lanes.values().removeIf(idle -> idle.queue.isEmpty());
+            }
+            lane = new Lane();
+            lanes.put(laneKey, lane);
+        }
+        lane.dueNanos = Math.max(lane.dueNanos, now + latency);
+        lane.queue.add(counted);
+        // Each firing delivers the oldest delivery of the lane, so deliveries due at nearly the
+        // same time cannot overtake each other.
+        Lane scheduled = lane;
+        scheduler.schedule(() -> {
+            Runnable next;
+            synchronized (lock) {
+                next = scheduled.queue.poll();
+            }
+            callbackExecutor.execute(next);
+        }, lane.dueNanos - now, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Hands the queued immediate deliveries to the callback executor in order, unless another
+     * call is already doing so. Must not hold the lock.
+     */
+    private void drain() {
+        while (true) {
+            Runnable next;
+            synchronized (lock) {
+                if (draining || immediateQueue.isEmpty()) {
+                    return;
+                }
+                draining = true;
+                next = immediateQueue.poll();
+            }
+            try {
+                callbackExecutor.execute(next);
+            } finally {
+                synchronized (lock) {
+                    draining = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the live value at a path, or null. Must hold the lock.
+     */
+    private Object valueAt(List<String> segments) {
+        Object node = root;
+        for (String segment : segments) {
+            if (!(node instanceof TreeMap)) {
+                return null;
+            }
+            node = ((TreeMap<?, ?>) node).get(segment);
+        }
+        return node instanceof TreeMap && ((TreeMap<?, ?>) node).isEmpty() ? null : node;
+    }
+
+    /**
+     * Replaces the value at a path, creating its parents and removing parents left empty. Must
+     * hold the lock.
+     */
+    @SuppressWarnings("unchecked")
+    private void setAt(List<String> segments, @Nullable Object value) {
+        if (segments.isEmpty()) {
+            root.clear();
+            if (value instanceof TreeMap) {
+                root.putAll((TreeMap<String, Object>) value);
+            }
+            return;
+        }
+        List<TreeMap<String, Object>> parents = new ArrayList<>(segments.size());
+        TreeMap<String, Object> parent = root;
+        for (int i = 0; i < segments.size() - 1; i++) {
+            parents.add(parent);
+            Object child = parent.get(segments.get(i));
+            if (!(child instanceof TreeMap)) {
+                if (value == null) {
+                    return;
+                }
+                child = new TreeMap<String, Object>();
+                parent.put(segments.get(i), child);
+            }
+            parent = (TreeMap<String, Object>) child;
+        }
+        String key = segments.get(segments.size() - 1);
+        if (value != null) {
+            parent.put(key, value);
+            return;
+        }
+        parent.remove(key);
+        for (int i = parents.size() - 1; i >= 0 && parent.isEmpty(); i--) {
+            parent = parents.get(i);
+            parent.remove(segments.get(i));
+        }
+    }
+
+    /**
+     * Converts a written value to the form it is stored in: sorted maps without empty children,
+     * strings, longs for whole numbers, doubles and booleans.
+     */
+    @Nullable
+    private static Object toStored(@Nullable Object value) {
+        return normalize(BeanMapper.toPlain(value));
+    }
+
+    /**
+     * Normalizes a value already converted to plain Java types.
+     */
+    @Nullable
+    private static Object normalize(@Nullable Object value) {
+        if (value instanceof Map) {
+            TreeMap<String, Object> map = new TreeMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                Object child = normalize(entry.getValue());
+                if (child != null) {
+                    map.put(String.valueOf(entry.getKey()), child);
+                }
+            }
+            return map.isEmpty() ? null : map;
+        }
+        if (value instanceof List) {
+            TreeMap<String, Object> map = new TreeMap<>();
+            List<?> list = (List<?>) value;
+            for (int i = 0; i < list.size(); i++) {
+                Object child = normalize(list.get(i));
+                if (child != null) {
+                    map.put(Integer.toString(i), child);
+                }
+            }
+            return map.isEmpty() ? null : map;
+        }
+        if (value instanceof Double || value instanceof Float) {
+            double number = ((Number) value).doubleValue();
+            boolean whole = number == Math.rint(number) && Math.abs(number) < 0x1p63;
+            return whole ? (Object) (long) number : (Object) number;
+        }
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        return value;
+    }
+
+    /**
+     * Returns an immutable deep copy of a stored value.
+     */
+    @Nullable
+    private static Object freeze(@Nullable Object value) {
+        if (!(value instanceof TreeMap)) {
+            return value;
+        }
+        TreeMap<String, Object> copy = new TreeMap<>();
+        for (Map.Entry<?, ?> entry : ((TreeMap<?, ?>) value).entrySet()) {
+            copy.put((String) entry.getKey(), freeze(entry.getValue()));
+        }
+        return copy.isEmpty() ? null : Collections.unmodifiableSortedMap(copy);
+    }
+
+    /**
+     * Splits a path into its non-empty segments.
+     */
+    private static List<String> parsePath(String path) {
+        List<String> segments = new ArrayList<>();
+        for (String segment : path.split("/")) {
+            if (!segment.isEmpty()) {
+                segments.add(segment);
+            }
+        }
+        return segments;
+    }
+
+    /**
+     * Returns the last segment of a path, or null for the root.
+     */
+    @Nullable
+    private static String keyOf(List<String> segments) {
+        return segments.isEmpty() ? null : segments.get(segments.size() - 1);
+    }
+
+    /**
+     * Returns whether a path is equal to or inside another.
+     */
+    private static boolean isPrefix(List<String> prefix, List<String> path) {
+        return prefix.size() <= path.size() && path.subList(0, prefix.size()).equals(prefix);
+    }
+
+    /**
+     * Returns whether the value at a path may have changed after writes to the given paths.
+     */
+    private static boolean isAffected(List<String> path, List<List<String>> written) {
+        for (List<String> writtenPath : written) {
+            if (isPrefix(path, writtenPath) || isPrefix(writtenPath, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The kind of a child event.
+     */
+    private enum ChildEvent { ADDED, CHANGED, REMOVED }
+
+    /**
+     * A value listener and the last value delivered to it.
+     */
+    private final class ValueRegistration implements Registration {
+        final List<String> segments;
+        final ValueListener listener;
+        // The last value delivered. Guarded by the store's lock.
+        Object lastValue;
+        volatile boolean active = true;
+
+        ValueRegistration(List<String> segments, ValueListener listener) {
+            this.segments = segments;
+            this.listener = listener;
+        }
+
+        /**
+         * Queues the delivery of the last value. Must hold the store's lock.
+         */
+        void deliverValue() {
+            RemoteSnapshot snapshot = new MemorySnapshot(keyOf(segments), lastValue);
+            deliver(String.join("/", segments), () -> {
+                if (active) {
+                    listener.onValue(snapshot);
+                }
+            });
+        }
+
+        @Override
+        public void remove() {
+            active = false;
+            synchronized (lock) {
+                valueRegistrations.remove(this);
+            }
+        }
+    }
+
+    /**
+     * A child listener and the children last delivered to it.
+     */
+    private final class ChildRegistration implements Registration {
+        final List<String> segments;
+        final ChildListener listener;
+        // The last value delivered of each child. Guarded by the store's lock.
+        final TreeMap<String, Object> children = new TreeMap<>();
+        volatile boolean active = true;
+
+        ChildRegistration(List<String> segments, ChildListener listener) {
+            this.segments = segments;
+            this.listener = listener;
+        }
+
+        /**
+         * Queues the events of the children with the given keys whose value differs from the one
+         * last delivered: removals first, then additions and changes, each in key order. Must hold
+         * the store's lock.
+         */
+        void diff(TreeSet<String> keys, Map<String, Object> current) {
+            List<String> added = new ArrayList<>();
+            List<String> changed = new ArrayList<>();
+            for (String key : keys) {
+                Object previous = children.get(key);
+                Object value = current.get(key);
+                if (value instanceof TreeMap && ((TreeMap<?, ?>) value).isEmpty()) {
+                    value = null;
+                }
+                if (previous != null && value == null) {
+                    children.remove(key);
+                    deliver(ChildEvent.REMOVED, key, previous);
+                } else if (previous == null && value != null) {
+                    added.add(key);
+                } else if (value != null && !value.equals(previous)) {
+                    changed.add(key);
+                }
+            }
+            for (String key : added) {
+                Object frozen = freeze(current.get(key));
+                children.put(key, frozen);
+                deliver(ChildEvent.ADDED, key, frozen);
+            }
+            for (String key : changed) {
+                Object frozen = freeze(current.get(key));
+                children.put(key, frozen);
+                deliver(ChildEvent.CHANGED, key, frozen);
+            }
+        }
+
+        /**
+         * Queues one child event. Must hold the store's lock.
+         */
+        void deliver(ChildEvent event, String key, Object value) {
+            RemoteSnapshot snapshot = new MemorySnapshot(key, value);
+            InMemoryRemoteStore.this.deliver(String.join("/", segments), () -> {
+                if (!active) {
+                    return;
+                }
+                switch (event) {
+                    case ADDED: listener.onChildAdded(snapshot); break;
+                    case CHANGED: listener.onChildChanged(snapshot); break;
+                    case REMOVED: listener.onChildRemoved(snapshot); break;
+                }
+            });
+        }
+
+        @Override
+        public void remove() {
+            active = false;
+            synchronized (lock) {
+                childRegistrations.remove(this);
+            }
+        }
+    }
+
+    /**
+     * The delayed deliveries that must be made in order, and the due time of the last one.
+     */
+    private static final class Lane {
+        private final ArrayDeque<Runnable> queue = new ArrayDeque<>();
+        private long dueNanos = Long.MIN_VALUE;
+    }
+
+    /**
+     * A {@link RemoteSnapshot} of an immutable value.
+     */
+    private static final class MemorySnapshot implements RemoteSnapshot {
+        private final String key;
+        private final Object value;
+
+        MemorySnapshot(@Nullable String key, @Nullable Object value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Nullable
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public boolean exists() {
+            return value != null;
+        }
+
+        @Override
+        public long getChildrenCount() {
+            return value instanceof Map ? ((Map<?, ?>) value).size() : 0;
+        }
+
+        @Override
+        public Iterable<RemoteSnapshot> getChildren() {
+            if (!(value instanceof Map)) {
+                return Collections.emptyList();
+            }
+            Map<?, ?> children = (Map<?, ?>) value;
+            return () -> new Iterator<RemoteSnapshot>() {
+                private final Iterator<? extends Map.Entry<?, ?>> iterator = children.entrySet().iterator();
+
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public RemoteSnapshot next() {
+                    Map.Entry<?, ?> child = iterator.next();
+                    return new MemorySnapshot((String) child.getKey(), child.getValue());
+                }
+            };
+        }
+
+        @Nullable
+        @Override
+        public Object getValue() {
+            return value;
+        }
+
+        @Nullable
+        @Override
+        public <T> T getValue(Class<T> type) {
+            return BeanMapper.toBean(value, type);
+        }
+    }
+
+    /**
+     * Configures an {@link InMemoryRemoteStore}.
+     */
+    public static final class Builder {
+        private Executor callbackExecutor;
+        private long minLatencyMillis;
+        private long maxLatencyMillis;
+        private EventOrder eventOrder = EventOrder.ORDERED;
+        private long seed;
+
+        /**
+         * Sets the executor listener events and task results are delivered to, in order.
+         * Defaults to the main thread.
+         *
+         * @param callbackExecutor The executor, e.g. {@code Runnable::run} to deliver on the writing thread.
+         * @return This builder.
+         */
+        public Builder setCallbackExecutor(Executor callbackExecutor) {
+            this.callbackExecutor = callbackExecutor;
+            return this;
+        }
+
+        /**
+         * Sets the range of the latency of each delivery. Defaults to no latency, in which case
+         * deliveries are handed to the callback executor before the call returns.
+         *
+         * @param minMillis The minimum latency in milliseconds.
+         * @param maxMillis The maximum latency in milliseconds.
+         * @return This builder.
+         */
+        public Builder setLatency(long minMillis, long maxMillis) {
+            if (minMillis < 0 || maxMillis < minMillis) {
+                throw new IllegalArgumentException("Invalid latency range " + minMillis + ".." + maxMillis);
+            }
+            this.minLatencyMillis = minMillis;
+            this.maxLatencyMillis = maxMillis;
+            return this;
+        }
+
+        /**
+         * Sets the ordering guarantee of deliveries. Defaults to {@link EventOrder#ORDERED}.
+         *
+         * @param eventOrder The ordering guarantee.
+         * @return This builder.
+         */
+        public Builder setEventOrder(EventOrder eventOrder) {
+            this.eventOrder = eventOrder;
+            return this;
+        }
+
+        /**
+         * Sets the seed the latencies are drawn from.
+         *
+         * @param seed The seed.
+         * @return This builder.
+         */
+        public Builder setSeed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Builds the store.
+         *
+         * @return A new, empty store.
+         */
+        public InMemoryRemoteStore build() {
+            return new InMemoryRemoteStore(this);
+        }
+    }
+}
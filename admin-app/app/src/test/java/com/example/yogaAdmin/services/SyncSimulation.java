@@ -0,0 +1,638 @@
+package com.example.yogaAdmin.services;
+
+import android.app.Application;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Observer;
+
+import com.example.yogaAdmin.dao.BookingDao;
+import com.example.yogaAdmin.dao.YogaClassDao;
+import com.example.yogaAdmin.dao.YogaCourseDao;
+import com.example.yogaAdmin.database.AppDatabase;
+import com.example.yogaAdmin.database.StudioDataGenerator;
+import com.example.yogaAdmin.models.Booking;
+import com.example.yogaAdmin.models.YogaClass;
+import com.example.yogaAdmin.models.YogaCourse;
+import com.example.yogaAdmin.repository.BookingPagingSource;
+import com.example.yogaAdmin.repository.BookingRepository;
+import com.example.yogaAdmin.repository.YogaClassRepository;
+import com.example.yogaAdmin.repository.YogaCourseRepository;
+
+import org.robolectric.shadows.ShadowLooper;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Runs the sync engine against simulated Firebase traffic with injected faults, and checks that
+ * the local database converges on the server's data within a bounded lag.
+ * Each run seeds the server with a studio, starts {@link FirebaseSyncManager} and observes the
+ * bookings of a few classes through {@link BookingRepository}, loading them page by page. Meanwhile
+ * other clients create and edit courses and classes and book and cancel the observed classes, and
+ * the admin edits classes and creates courses on this device.
+ * Time is Robolectric's clock, advanced in ticks. After each tick the background database work is
+ * awaited, then every path written on the server since it last matched is compared with Room; the
+ * apply lag of a write is the virtual time from the write until Room holds the server's value.
+ * The run is repeatable for a seed up to the interleaving of the database threads.
+ * Must be run on the main thread of a Robolectric test with a paused looper.
+ */
+final class SyncSimulation {
+
+    private static final int COURSE_COUNT = 30;
+    private static final int CLASS_COUNT = 300;
+    // Classes whose bookings are observed and paged, and which the other clients book.
+    private static final int OBSERVED_CLASS_COUNT = 6;
+    private static final int INITIAL_BOOKING_COUNT = 300;
+    private static final int REMOTE_WRITE_COUNT = 400;
+    private static final int LOCAL_EDIT_COUNT = 40;
+    private static final int LOCAL_COURSE_COUNT = 5;
+    private static final int PAGE_SIZE = 10;
+    // How long a booking page waits before it is loaded again after an error.
+    private static final long PAGE_RETRY_DELAY_MILLIS = 1_000;
+    // Virtual time over which the writes of the other clients and the admin are spread.
+    private static final long WORKLOAD_MILLIS = 20_000;
+    private static final long TICK_MILLIS = 20;
+    // Longest virtual time after the workload and the worst injected delay for the data to settle.
+    private static final long SETTLE_LIMIT_MILLIS = 30_000;
+    // Keys of the courses and classes created during a run, after those of the seeded studio.
+    private static final String CREATED_KEY_FORMAT = "-Nsim%s%05d";
+    // Users booking during a run, distinct from those of the seeded bookings.
+    private static final int FIRST_NEW_USER = 100_000;
+
+    private final Application application;
+    private final FaultInjectingRemoteStore store;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    /**
+     * Constructor for a simulation. Installs the simulated connection as the app's remote store,
+     * so it must be created before any repository.
+     *
+     * @param application The application.
+     */
+    SyncSimulation(Application application) {
+        this.application = application;
+        store = new FaultInjectingRemoteStore();
+        RemoteStores.setInstance(store);
+    }
+
+    /**
+     * Runs a scenario from an empty device and server.
+     *
+     * @param scenario The scenario to run.
+     * @return The report of the run.
+     * @throws Exception If the database work fails.
+     */
+    Report run(Scenario scenario) throws Exception {
+        InMemoryRemoteStore server = new InMemoryRemoteStore.Builder()
+                .setCallbackExecutor(Runnable::run)
+                .build();
+        store.reset(server, scenario.faults, scenario.seed);
+        AppDatabase database = AppDatabase.getDatabase(application);
+        onDatabase(() -> {
+            database.clearAllTables();
+            return null;
+        });
+        new SharedPreferencesManager(application).setFirstSync(true);
+
+        StudioDataGenerator generator = new StudioDataGenerator(scenario.seed);
+        List<YogaCourse> courses = generator.courses(COURSE_COUNT);
+        List<YogaClass> classes = generator.classes(CLASS_COUNT, courses);
+        List<YogaClass> observed = new ArrayList<>(classes.subList(0, OBSERVED_CLASS_COUNT));
+        Map<String, Object> studio = new HashMap<>();
+        for (YogaCourse course : courses) {
+            studio.put("courses/" + course.getFirebaseKey(), course);
+        }
+        for (YogaClass yogaClass : classes) {
+            studio.put("classes/" + yogaClass.getFirebaseKey(), yogaClass);
+        }
+        generator.bookings(INITIAL_BOOKING_COUNT, courses, observed, booking -> putBooking(studio, booking));
+        server.updateChildren(studio);
+
+        Run run = new Run(scenario, server, courses, classes, observed);
+        return run.execute();
+    }
+
+    /**
+     * Adds the writes of a booking to a multi-path update, as the user app makes them.
+     */
+    private static void putBooking(Map<String, Object> updates, Booking booking) {
+        updates.put("bookings/" + booking.getId(), booking);
+        updates.put("classBookings/" + booking.getClassId() + "/" + booking.getUserId(), true);
+        updates.put("userBookings/" + booking.getUserId() + "/" + booking.getClassId(), true);
+    }
+
+    /**
+     * Adds the deletes of a booking to a multi-path update, as the user app makes them.
+     */
+    private static void removeBooking(Map<String, Object> updates, String userId, String classId) {
+        updates.put("bookings/" + Booking.buildId(userId, classId), null);
+        updates.put("classBookings/" + classId + "/" + userId, null);
+        updates.put("userBookings/" + userId + "/" + classId, null);
+    }
+
+    /**
+     * Runs a task on the database thread pool and waits for its result, since Room may not be
+     * queried on the main thread.
+     */
+    private static <T> T onDatabase(Callable<T> task) throws Exception {
+        return AppDatabase.databaseWriteExecutor.submit(task).get();
+    }
+
+    /**
+     * Waits until the database thread pool and the sync thread have no work left.
+     */
+    private static void awaitDatabaseIdle() throws Exception {
+        ThreadPoolExecutor pool = (ThreadPoolExecutor) AppDatabase.databaseWriteExecutor;
+        long submitted;
+        do {
+            while (pool.getCompletedTaskCount() < pool.getTaskCount()) {
+                Thread.sleep(1);
+            }
+            submitted = pool.getTaskCount();
+            // The sync thread runs its tasks in order, so this returns once the earlier ones are done.
+            AppDatabase.syncExecutor.submit(() -> { }).get();
+        } while (pool.getTaskCount() != submitted);
+    }
+
+    /**
+     * Runs the main looper and the database work until neither has anything left to do now.
+     */
+    private static void settle() throws Exception {
+        ShadowLooper looper = shadowOf(Looper.getMainLooper());
+        do {
+            looper.idle();
+            awaitDatabaseIdle();
+        } while (!looper.isIdle());
+    }
+
+    /**
+     * The state of one run of a scenario.
+     */
+    private final class Run {
+        private final Scenario scenario;
+        private final InMemoryRemoteStore server;
+        private final List<YogaCourse> courses;
+        private final List<YogaClass> classes;
+        private final List<YogaClass> observed;
+        private final Random random;
+        private final StudioDataGenerator createdData;
+        private final AppDatabase database = AppDatabase.getDatabase(application);
+        private final YogaCourseDao courseDao = database.yogaCourseDao();
+        private final YogaClassDao classDao = database.yogaClassDao();
+        private final BookingDao bookingDao = database.bookingDao();
+        // Server paths written and not yet reflected in Room, with the time of their first such write.
+        private final Map<String, Long> unapplied = new LinkedHashMap<>();
+        private final List<Long> lags = new ArrayList<>();
+        private final List<PageLoader> pageLoaders = new ArrayList<>();
+        private int remoteWrites;
+        private int createdCount;
+        private int newUserCount;
+
+        Run(Scenario scenario, InMemoryRemoteStore server, List<YogaCourse> courses,
+            List<YogaClass> classes, List<YogaClass> observed) {
+            this.scenario = scenario;
+            this.server = server;
+            this.courses = courses;
+            this.classes = classes;
+            this.observed = observed;
+            random = new Random(scenario.seed);
+            createdData = new StudioDataGenerator(scenario.seed + 1);
+        }
+
+        /**
+         * Starts the app, plays the workload and advances the clock until the data has settled
+         * or the settle limit is reached.
+         */
+        Report execute() throws Exception {
+            long start = SystemClock.uptimeMillis();
+            scheduleWorkload(start);
+
+            FirebaseSyncManager syncManager = new FirebaseSyncManager(application);
+            syncManager.performInitialSync();
+            BookingRepository bookingRepository = new BookingRepository(application);
+            Observer<List<Booking>> ignore = bookings -> { };
+            List<LiveData<List<Booking>>> observedBookings = new ArrayList<>();
+            for (YogaClass yogaClass : observed) {
+                LiveData<List<Booking>> bookings = bookingRepository.getBookingsForClass(
+                        yogaClass.getFirebaseKey(), new MutableLiveData<>(-1));
+                bookings.observeForever(ignore);
+                observedBookings.add(bookings);
+                PageLoader loader = new PageLoader(bookingRepository.getPagingSource(yogaClass.getFirebaseKey()));
+                pageLoaders.add(loader);
+                loader.load();
+            }
+
+            Runtime runtime = Runtime.getRuntime();
+            System.gc();
+            long baselineHeap = runtime.totalMemory() - runtime.freeMemory();
+            long peakHeap = baselineHeap;
+            long workloadEnd = start + WORKLOAD_MILLIS;
+            long deadline = workloadEnd + scenario.faults.worstDelayMillis() + SETTLE_LIMIT_MILLIS;
+            long wallStart = System.nanoTime();
+            long checkedDeliveries = -1;
+            ShadowLooper looper = shadowOf(Looper.getMainLooper());
+            while (true) {
+                looper.idleFor(Duration.ofMillis(TICK_MILLIS));
+                settle();
+                long now = SystemClock.uptimeMillis();
+                // Room only changes when something was delivered or written.
+                long deliveries = store.getDeliveredCount() + store.getWriteCount();
+                if (deliveries != checkedDeliveries && !unapplied.isEmpty()) {
+                    checkedDeliveries = deliveries;
+                    checkUnapplied(now);
+                }
+                peakHeap = Math.max(peakHeap, runtime.totalMemory() - runtime.freeMemory());
+                if (now >= workloadEnd && store.getPendingCount() == 0 && unapplied.isEmpty()
+                        && pagesLoaded()) {
+                    break;
+                }
+                if (now >= deadline) {
+                    break;
+                }
+            }
+            double wallSeconds = (System.nanoTime() - wallStart) / 1e9;
+
+            List<String> divergences = onDatabase(this::findDivergences);
+            for (String path : unapplied.keySet()) {
+                divergences.add(path + " was never applied");
+            }
+            if (!pagesLoaded()) {
+                divergences.add("booking pages did not finish loading");
+            }
+
+            syncManager.stopRealtimeSync();
+            for (LiveData<List<Booking>> bookings : observedBookings) {
+                bookings.removeObserver(ignore);
+            }
+            for (PageLoader loader : pageLoaders) {
+                loader.stopped = true;
+            }
+            // Let the booking listeners detach before the next run replaces the server.
+            looper.idleFor(Duration.ofMillis(30_000));
+            settle();
+
+            long maxLag = 0;
+            long totalLag = 0;
+            for (long lag : lags) {
+                maxLag = Math.max(maxLag, lag);
+                totalLag += lag;
+            }
+            return new Report(scenario.name, remoteWrites, store.getDeliveredCount(),
+                    store.getDeliveredCount() / wallSeconds, peakHeap - baselineHeap, maxLag,
+                    lags.isEmpty() ? 0 : (double) totalLag / lags.size(), store.getDuplicatedCount(),
+                    store.getReadCount(), store.getFailedReadCount(), divergences);
+        }
+
+        private boolean pagesLoaded() {
+            for (PageLoader loader : pageLoaders) {
+                if (loader.source.hasMore()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Posts the writes of the other clients and of the admin at random times of the workload.
+         */
+        private void scheduleWorkload(long start) {
+            for (int i = 0; i < REMOTE_WRITE_COUNT; i++) {
+                handler.postAtTime(this::writeAsOtherClient, start + (long) (random.nextDouble() * WORKLOAD_MILLIS));
+            }
+            for (int i = 0; i < LOCAL_EDIT_COUNT; i++) {
+                int edit = i;
+                handler.postAtTime(() -> editClassLocally(edit), start + (long) (random.nextDouble() * WORKLOAD_MILLIS));
+            }
+            for (int i = 0; i < LOCAL_COURSE_COUNT; i++) {
+                handler.postAtTime(this::createCourseLocally, start + (long) (random.nextDouble() * WORKLOAD_MILLIS));
+            }
+        }
+
+        /**
+         * Makes one write of another client directly on the server: an edit of a course or class,
+         * a new course with a class, or a booking made or cancelled.
+         */
+        private void writeAsOtherClient() {
+            remoteWrites++;
+            int kind = random.nextInt(100);
+            if (kind < 15) {
+                YogaCourse course = serverValue("courses/" + courses.get(random.nextInt(courses.size())).getFirebaseKey(),
+                        YogaCourse.class);
+                course.setPrice(course.getPrice() + 1);
+                writeOnServer("courses/" + course.getFirebaseKey(), course);
+            } else if (kind < 25) {
+                createCourseOnServer();
+            } else if (kind < 50) {
+                YogaClass yogaClass = serverValue("classes/" + classes.get(random.nextInt(classes.size())).getFirebaseKey(),
+                        YogaClass.class);
+                yogaClass.setSlotsAvailable(random.nextInt(yogaClass.getActualCapacity() + 1));
+                writeOnServer("classes/" + yogaClass.getFirebaseKey(), yogaClass);
+            } else if (kind < 80) {
+                bookOnServer(observed.get(random.nextInt(observed.size())));
+            } else {
+                cancelOnServer(observed.get(random.nextInt(observed.size())));
+            }
+        }
+
+        /**
+         * Creates a course and one class of it, as another admin device does: each keeps the local
+         * ID it has on that device, which may be taken by another row here.
+         */
+        private void createCourseOnServer() {
+            int index = ++createdCount;
+            YogaCourse course = createdData.courses(1).get(0);
+            course.setId(COURSE_COUNT + index);
+            course.setFirebaseKey(String.format(Locale.ROOT, CREATED_KEY_FORMAT, "course", index));
+            YogaClass yogaClass = createdData.classes(1, Collections.singletonList(course)).get(0);
+            yogaClass.setId(CLASS_COUNT + index);
+            yogaClass.setFirebaseKey(String.format(Locale.ROOT, CREATED_KEY_FORMAT, "class", index));
+            writeOnServer("courses/" + course.getFirebaseKey(), course);
+            writeOnServer("classes/" + yogaClass.getFirebaseKey(), yogaClass);
+            classes.add(yogaClass);
+        }
+
+        private void bookOnServer(YogaClass yogaClass) {
+            Booking booking = new Booking();
+            booking.setUserId(StudioDataGenerator.userId(FIRST_NEW_USER + newUserCount++));
+            booking.setClassId(yogaClass.getFirebaseKey());
+            booking.setId(Booking.buildId(booking.getUserId(), booking.getClassId()));
+            booking.setBookingDate(String.format(Locale.ROOT, "2025-06-01T10:%02d:00.000Z", newUserCount % 60));
+            booking.setUserName("Simulated user " + newUserCount);
+            booking.setUserEmail(booking.getUserId() + "@example.com");
+            booking.setClassDate(yogaClass.getDate());
+            Map<String, Object> updates = new HashMap<>();
+            putBooking(updates, booking);
+            server.updateChildren(updates);
+            markWritten("bookings/" + booking.getId());
+        }
+
+        private void cancelOnServer(YogaClass yogaClass) {
+            List<String> members = new ArrayList<>();
+            for (RemoteSnapshot member : server.get("classBookings/" + yogaClass.getFirebaseKey()).getResult().getChildren()) {
+                members.add(member.getKey());
+            }
+            if (members.isEmpty()) {
+                return;
+            }
+            String userId = members.get(random.nextInt(members.size()));
+            Map<String, Object> updates = new HashMap<>();
+            removeBooking(updates, userId, yogaClass.getFirebaseKey());
+            server.updateChildren(updates);
+            markWritten("bookings/" + Booking.buildId(userId, yogaClass.getFirebaseKey()));
+        }
+
+        /**
+         * Edits the comments of a class through the repository, which writes Room, then Firebase.
+         */
+        private void editClassLocally(int edit) {
+            String key = classes.get(random.nextInt(CLASS_COUNT)).getFirebaseKey();
+            YogaClassRepository repository = YogaClassRepository.getInstance(application);
+            YogaClass yogaClass;
+            try {
+                yogaClass = onDatabase(() -> repository.getClassByFirebaseKey(key));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            if (yogaClass == null) {
+                // Not synced yet.
+                return;
+            }
+            yogaClass.setAdditionalComments("Edited on this device " + edit);
+            repository.update(yogaClass);
+            markWritten("classes/" + key);
+        }
+
+        /**
+         * Creates a course through the repository, which takes the next local ID.
+         */
+        private void createCourseLocally() {
+            YogaCourse course = createdData.courses(1).get(0);
+            course.setId(0);
+            course.setFirebaseKey(null);
+            new YogaCourseRepository(application).insert(course);
+        }
+
+        private <T> T serverValue(String path, Class<T> type) {
+            return server.get(path).getResult().getValue(type);
+        }
+
+        private void writeOnServer(String path, Object value) {
+            server.set(path, value);
+            markWritten(path);
+        }
+
+        private void markWritten(String path) {
+            unapplied.putIfAbsent(path, SystemClock.uptimeMillis());
+        }
+
+        /**
+         * Records the lag of every unapplied path that Room now reflects.
+         */
+        private void checkUnapplied(long now) throws Exception {
+            List<String> applied = onDatabase(() -> {
+                List<String> paths = new ArrayList<>();
+                for (String path : unapplied.keySet()) {
+                    if (findDivergence(path) == null) {
+                        paths.add(path);
+                    }
+                }
+                return paths;
+            });
+            for (String path : applied) {
+                lags.add(now - unapplied.remove(path));
+            }
+        }
+
+        /**
+         * Compares every course, class and observed booking of the server with Room. Runs on a
+         * database thread.
+         *
+         * @return A description of each difference.
+         */
+        private List<String> findDivergences() {
+            List<String> divergences = new ArrayList<>();
+            Set<String> paths = new HashSet<>();
+            for (String node : new String[]{"courses", "classes"}) {
+                for (RemoteSnapshot child : server.get(node).getResult().getChildren()) {
+                    paths.add(node + "/" + child.getKey());
+                }
+            }
+            for (YogaCourse course : courseDao.getCourseList()) {
+                if (course.getFirebaseKey() == null) {
+                    divergences.add("course " + course.getId() + " was never uploaded");
+                } else {
+                    paths.add("courses/" + course.getFirebaseKey());
+                }
+            }
+            for (YogaClass yogaClass : observed) {
+                String classKey = yogaClass.getFirebaseKey();
+                for (RemoteSnapshot member : server.get("classBookings/" + classKey).getResult().getChildren()) {
+                    paths.add("bookings/" + Booking.buildId(member.getKey(), classKey));
+                }
+                for (String bookingId : bookingDao.getBookingIdsForClass(classKey)) {
+                    paths.add("bookings/" + bookingId);
+                }
+            }
+            for (String path : paths) {
+                String divergence = findDivergence(path);
+                if (divergence != null) {
+                    divergences.add(divergence);
+                }
+            }
+            return divergences;
+        }
+
+        /**
+         * Compares the value of a server path with Room. Runs on a database thread.
+         *
+         * @return A description of the difference, or null if Room reflects the server.
+         */
+        private String findDivergence(String path) {
+            String key = path.substring(path.indexOf('/') + 1);
+            if (path.startsWith("courses/")) {
+                YogaCourse remote = serverValue(path, YogaCourse.class);
+                YogaCourse local = courseDao.getCourseByFirebaseKey(key);
+                if (remote == null || local == null) {
+                    return remote == local ? null : path + (local == null ? " is missing locally" : " is missing on the server");
+                }
+                remote.setId(local.getId());
+                return remote.equals(local) ? null : path + " differs";
+            }
+            if (path.startsWith("classes/")) {
+                YogaClass remote = serverValue(path, YogaClass.class);
+                YogaClass local = classDao.getClassByFirebaseKey(key);
+                if (remote == null || local == null) {
+                    return remote == local ? null : path + (local == null ? " is missing locally" : " is missing on the server");
+                }
+                YogaCourse course = courseDao.getCourseByFirebaseKey(local.getCourseFirebaseKey());
+                if (course == null || course.getId() != local.getCourseId()) {
+                    return path + " is linked to the wrong course";
+                }
+                remote.setId(local.getId());
+                remote.setCourseId(local.getCourseId());
+                return remote.equals(local) ? null : path + " differs";
+            }
+            // Booking IDs are the user ID, which has no underscore, and the class key.
+            String classKey = key.substring(key.indexOf('_') + 1);
+            boolean remote = server.get(path).getResult().exists();
+            boolean local = bookingDao.getBookingIdsForClass(classKey).contains(key);
+            return remote == local ? null : path + (local ? " is stale locally" : " is missing locally");
+        }
+    }
+
+    /**
+     * Loads the bookings of a class page by page, retrying a page after an error.
+     */
+    private final class PageLoader implements BookingPagingSource.LoadCallback {
+        private final BookingPagingSource source;
+        private boolean stopped;
+
+        PageLoader(BookingPagingSource source) {
+            this.source = source;
+        }
+
+        void load() {
+            if (!stopped) {
+                source.loadNextPage(PAGE_SIZE, this);
+            }
+        }
+
+        @Override
+        public void onPageLoaded(int count, boolean endReached) {
+            if (!endReached) {
+                handler.post(this::load);
+            }
+        }
+
+        @Override
+        public void onError(Exception e) {
+            handler.postDelayed(this::load, PAGE_RETRY_DELAY_MILLIS);
+        }
+    }
+
+    /**
+     * A named set of faults to run the simulation with.
+     */
+    static final class Scenario {
+        final String name;
+        final FaultInjectingRemoteStore.Faults faults;
+        final long seed;
+
+        /**
+         * Constructor for a scenario.
+         *
+         * @param name The name shown in the report.
+         * @param faults The faults to inject.
+         * @param seed The seed of the studio, the workload and the faults.
+         */
+        Scenario(String name, FaultInjectingRemoteStore.Faults faults, long seed) {
+            this.name = name;
+            this.faults = faults;
+            this.seed = seed;
+        }
+    }
+
+    /**
+     * The outcome and measurements of a run.
+     */
+    static final class Report {
+        final String scenario;
+        final int remoteWrites;
+        // Events and read results delivered to the app, duplicates included.
+        final long events;
+        // Events delivered per second of wall-clock time.
+        final double eventsPerSecond;
+        // Growth of the used heap over the run, sampled after each tick.
+        final long peakHeapBytes;
+        final long maxLagMillis;
+        final double meanLagMillis;
+        final long duplicatedEvents;
+        final long reads;
+        final long failedReads;
+        // Differences between Room and the server after the run; empty if it converged.
+        final List<String> divergences;
+
+        Report(String scenario, int remoteWrites, long events, double eventsPerSecond, long peakHeapBytes,
+               long maxLagMillis, double meanLagMillis, long duplicatedEvents, long reads, long failedReads,
+               List<String> divergences) {
+            this.scenario = scenario;
+            this.remoteWrites = remoteWrites;
+            this.events = events;
+            this.eventsPerSecond = eventsPerSecond;
+            this.peakHeapBytes = peakHeapBytes;
+            this.maxLagMillis = maxLagMillis;
+            this.meanLagMillis = meanLagMillis;
+            this.duplicatedEvents = duplicatedEvents;
+            this.reads = reads;
+            this.failedReads = failedReads;
+            this.divergences = divergences;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "%s: %,d remote writes, %,d events (%,d duplicated) at %,.0f events/s, %,d reads"
+                            + " (%,d failed), apply lag max %,d ms mean %,.0f ms, peak heap +%.1f MB, %s",
+                    scenario, remoteWrites, events, duplicatedEvents, eventsPerSecond, reads, failedReads,
+                    maxLagMillis, meanLagMillis, peakHeapBytes / (1024.0 * 1024.0),
+                    divergences.isEmpty() ? "converged" : divergences.size() + " divergences");
+        }
+    }
+}
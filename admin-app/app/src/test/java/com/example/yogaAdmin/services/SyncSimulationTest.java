@@ -0,0 +1,99 @@
+package com.example.yogaAdmin.services;
+
+import android.app.Application;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs the {@link SyncSimulation} under each kind of injected fault and all of them together.
+ * Every scenario must converge on the server's data, and every write must reach Room within its
+ * worst injected delay, twice over for the event and the read it triggers, plus the retry delays
+ * of a failed booking read.
+ * The scenarios run in one test, since the database and the repositories are process singletons.
+ * The report of each scenario, with its event rate and peak memory, is written to
+ * {@code build/reports/sync-simulation/<scenario>.txt} whether or not the scenario passes.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class)
+public class SyncSimulationTest {
+
+    private static final long SEED = 7L;
+    // Allowance for the booking listener and page retry delays and the simulation ticks, in milliseconds.
+    private static final long RETRY_ALLOWANCE_MS = 4_000;
+    // Directory the scenario reports are written to, set by the Gradle build.
+    private static final File REPORT_DIR = new File(
+            System.getProperty("syncSimulation.reportDir", "build/reports/sync-simulation"));
+
+    @Test
+    public void syncConvergesWithBoundedLagUnderInjectedFaults() throws Exception {
+        SyncSimulation simulation = new SyncSimulation(ApplicationProvider.getApplicationContext());
+        List<SyncSimulation.Scenario> scenarios = Arrays.asList(
+                new SyncSimulation.Scenario("baseline",
+                        new FaultInjectingRemoteStore.Faults().latency(20, 80), SEED),
+                new SyncSimulation.Scenario("reordered listeners",
+                        new FaultInjectingRemoteStore.Faults().latency(10, 400).reorderValueListeners(), SEED),
+                new SyncSimulation.Scenario("duplicate events",
+                        new FaultInjectingRemoteStore.Faults().latency(20, 80).duplicates(0.3), SEED),
+                new SyncSimulation.Scenario("disconnect mid-page",
+                        new FaultInjectingRemoteStore.Faults().latency(20, 80)
+                                .disconnect(150, 3_000).disconnect(9_000, 2_000), SEED),
+                new SyncSimulation.Scenario("slow writes",
+                        new FaultInjectingRemoteStore.Faults().latency(20, 80).slowWrites(500, 3_000), SEED),
+                new SyncSimulation.Scenario("all faults",
+                        new FaultInjectingRemoteStore.Faults().latency(10, 400).reorderValueListeners()
+                                .duplicates(0.3).slowWrites(500, 3_000)
+                                .disconnect(150, 3_000).disconnect(9_000, 2_000), SEED + 1));
+
+        for (SyncSimulation.Scenario scenario : scenarios) {
+            SyncSimulation.Report report = simulation.run(scenario);
+            writeReport(report);
+            assertTrue(scenario.name + " diverged: " + report.divergences + "\n" + report,
+                    report.divergences.isEmpty());
+            long lagBound = 2 * scenario.faults.worstDelayMillis() + RETRY_ALLOWANCE_MS;
+            assertTrue(scenario.name + " lagged " + report.maxLagMillis + " ms, over " + lagBound + " ms\n" + report,
+                    report.maxLagMillis <= lagBound);
+        }
+    }
+
+    /**
+     * Writes the report of a scenario to a file named after it in {@link #REPORT_DIR}.
+     *
+     * @param report The report to write.
+     * @throws IOException If the file cannot be written.
+     */
+    private static void writeReport(SyncSimulation.Report report) throws IOException {
+        if (!REPORT_DIR.isDirectory() && !REPORT_DIR.mkdirs()) {
+            throw new IOException("Cannot create " + REPORT_DIR);
+        }
+        String fileName = report.scenario.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "-") + ".txt";
+        List<String> lines = Arrays.asList(
+                "scenario: " + report.scenario,
+                "remoteWrites: " + report.remoteWrites,
+                "events: " + report.events,
+                "duplicatedEvents: " + report.duplicatedEvents,
+                String.format(Locale.ROOT, "eventsPerSecond: %.1f", report.eventsPerSecond),
+                "peakHeapBytes: " + report.peakHeapBytes,
+                "reads: " + report.reads,
+                "failedReads: " + report.failedReads,
+                "maxLagMillis: " + report.maxLagMillis,
+                String.format(Locale.ROOT, "meanLagMillis: %.1f", report.meanLagMillis),
+                "divergences: " + report.divergences.size(),
+                "summary: " + report);
+        Files.write(new File(REPORT_DIR, fileName).toPath(), lines, StandardCharsets.UTF_8);
+    }
+}
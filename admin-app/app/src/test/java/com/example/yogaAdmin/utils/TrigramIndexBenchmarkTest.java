@@ -0,0 +1,116 @@
+package com.example.yogaAdmin.utils;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Local benchmark for {@link TrigramIndex} at the scale of 100,000 classes.
+ * Checks that every query returns exactly the documents a linear substring scan finds,
+ * and, with the {@code perfBudgets} Gradle property, that the median latency of a query stays
+ * within a keystroke budget.
+ */
+public class TrigramIndexBenchmarkTest {
+
+    private static final int DOCUMENT_COUNT = 100_000;
+    // Whether the latency budget runs, read from the perf.budgets system property.
+    private static final boolean BUDGETS_ENABLED = Boolean.getBoolean("perf.budgets");
+    // Median latency a query must stay under, in milliseconds.
+    private static final double MEDIAN_BUDGET_MS = 5.0;
+    private static final int WARMUP_RUNS = 50;
+    private static final int MEASURED_RUNS = 101;
+
+    private static final String[] INSTRUCTORS = {"Sarah Johnson", "Émile Dubois", "Li Wei",
+            "Ana María López", "John Smith", "Priya Patel", "Olaf Nørgaard"};
+    private static final String[] CLASS_TYPES = {"Hatha", "Vinyasa", "Yin", "Ashtanga",
+            "Flow Yoga", "Aerial Yoga", "Family Yoga"};
+    private static final String[] QUERIES = {"a", "yo", "emile", "room 42", "mat #12", "son 99",
+            "ana maria", "updated person 1234", "café", "ga r"};
+
+    private static TrigramIndex index;
+    // The text last put for each document, or null once removed.
+    private static String[] texts;
+
+    @BeforeClass
+    public static void buildIndex() {
+        Random random = new Random(42);
+        index = new TrigramIndex();
+        texts = new String[DOCUMENT_COUNT];
+        for (int i = 0; i < DOCUMENT_COUNT; i++) {
+            texts[i] = TrigramIndex.joinFields(
+                    INSTRUCTORS[random.nextInt(INSTRUCTORS.length)] + " " + i,
+                    CLASS_TYPES[random.nextInt(CLASS_TYPES.length)],
+                    "Room " + random.nextInt(500),
+                    random.nextInt(4) == 0 ? "Bring mat #" + random.nextInt(10_000) : null);
+            index.put(i, texts[i]);
+        }
+        // Apply incremental changes the way repository updates would.
+        for (int i = 0; i < DOCUMENT_COUNT; i += 2) {
+            texts[i] = TrigramIndex.joinFields("Updated Person " + i, "Yin");
+            index.put(i, texts[i]);
+        }
+        for (int i = 1; i < DOCUMENT_COUNT; i += 7) {
+            texts[i] = null;
+            index.remove(i);
+        }
+    }
+
+    @Test
+    public void search_matchesLinearScan() {
+        for (String query : QUERIES) {
+            String normalizedQuery = TrigramIndex.normalize(query);
+            Set<Long> expected = new HashSet<>();
+            for (int i = 0; i < DOCUMENT_COUNT; i++) {
+                if (texts[i] != null && TrigramIndex.normalize(texts[i]).contains(normalizedQuery)) {
+                    expected.add((long) i);
+                }
+            }
+            long[] ids = index.search(query);
+            Set<Long> actual = new HashSet<>();
+            for (long id : ids) {
+                actual.add(id);
+            }
+            assertEquals("Duplicate results for \"" + query + "\"", ids.length, actual.size());
+            assertEquals("Results for \"" + query + "\"", expected, actual);
+        }
+    }
+
+    @Test
+    public void search_foldsAccentsAndCase() {
+        TrigramIndex small = new TrigramIndex();
+        small.put(1, TrigramIndex.joinFields("Émile Dubois", "Hatha"));
+        small.put(2, TrigramIndex.joinFields("Café Flow", "Room 3"));
+        assertArrayEquals(new long[]{1}, small.search("EMILE"));
+        assertArrayEquals(new long[]{2}, small.search("cafe"));
+        // Fields are separated, so a query cannot span two of them.
+        assertArrayEquals(new long[0], small.search("flow room"));
+    }
+
+    @Test
+    public void search_staysWithinKeystrokeBudget() {
+        assumeTrue(BUDGETS_ENABLED);
+        for (String query : QUERIES) {
+            for (int i = 0; i < WARMUP_RUNS; i++) {
+                index.search(query);
+            }
+            long[] nanos = new long[MEASURED_RUNS];
+            for (int i = 0; i < MEASURED_RUNS; i++) {
+                long start = System.nanoTime();
+                index.search(query);
+                nanos[i] = System.nanoTime() - start;
+            }
+            Arrays.sort(nanos);
+            double medianMs = nanos[MEASURED_RUNS / 2] / 1e6;
+            assertTrue(String.format(Locale.ROOT, "Median latency of \"%s\" was %.3f ms (max %.3f ms), over %.1f ms",
+                    query, medianMs, nanos[MEASURED_RUNS - 1] / 1e6, MEDIAN_BUDGET_MS), medianMs < MEDIAN_BUDGET_MS);
+        }
+    }
+}
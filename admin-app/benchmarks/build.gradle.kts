@@ -0,0 +1,42 @@
+plugins {
+    `java-library`
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+// The app module is an Android module, so the pure-Java classes under benchmark are compiled
+// here straight from its sources. Only classes without Android dependencies may be listed.
+sourceSets {
+    main {
+        java {
+            srcDir("../app/src/main/java")
+            include(
+                "com/example/yogaAdmin/models/YogaClass.java",
+                "com/example/yogaAdmin/models/YogaCourse.java",
+                "com/example/yogaAdmin/services/SyncBatch.java",
+                "com/example/yogaAdmin/utils/DateUtils.java",
+                "com/example/yogaAdmin/utils/TextSearchIndex.java",
+                "com/example/yogaAdmin/utils/TrigramIndex.java"
+            )
+        }
+    }
+}
+
+dependencies {
+    // Annotations on the entities; Room's are not needed at runtime.
+    compileOnly(libs.room.common)
+    // The Admin SDK carries the same annotations and bean mapper as the Android SDK on plain JVM.
+    implementation(libs.firebase.admin)
+}
+
+jmh {
+    jmhVersion = libs.versions.jmh
+    // Reports bytes allocated per operation next to the timings.
+    profilers.add("gc")
+    resultFormat = "JSON"
+    resultsFile = layout.buildDirectory.file("results/jmh/results.json")
+}
@@ -0,0 +1,111 @@
+package com.example.yogaAdmin.benchmarks;
+
+import com.example.yogaAdmin.models.YogaCourse;
+import com.example.yogaAdmin.utils.TextSearchIndex;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filtering the course list by a search query, as the main screen does on every keystroke.
+ * {@link #linearScan()} is the lower-casing substring scan {@code MainActivity.filterCourses} used
+ * to run on the main thread; {@link #indexedSearch()} is the {@link TextSearchIndex} lookup the
+ * course view model runs now, over the same fields. {@link #updateOneCourse()} measures the
+ * incremental re-index done when the course list is emitted with one course edited.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CourseFilterBenchmark {
+
+    @Param({"1000", "10000"})
+    public int courseCount;
+
+    @Param({"yo", "sarah", "room 12"})
+    public String query;
+
+    private List<YogaCourse> courses;
+    // The course list as emitted after one edit, alternated with courses by updateOneCourse.
+    private List<YogaCourse> editedCourses;
+    private TextSearchIndex<YogaCourse> index;
+    // Whether the index currently holds editedCourses.
+    private boolean holdsEdited;
+
+    /**
+     * Builds the courses and the index.
+     */
+    @Setup
+    public void setUp() {
+        courses = Fixtures.courses(courseCount, new Random(Fixtures.SEED));
+        editedCourses = new ArrayList<>(courses);
+        YogaCourse edited = Fixtures.copy(courses.get(courseCount / 2));
+        edited.setInstructorName("Updated Person");
+        editedCourses.set(courseCount / 2, edited);
+        // The same fields the course view model indexes.
+        index = new TextSearchIndex<>(YogaCourse::getId, course -> new String[]{course.getClassType(),
+                course.getInstructorName(), course.getDayOfWeek(), course.getDescription(), course.getRoomNumber()});
+        index.update(courses);
+    }
+
+    /**
+     * Filters with the previous per-keystroke substring scan over the same fields.
+     */
+    @Benchmark
+    public List<YogaCourse> linearScan() {
+        String lowerCaseQuery = query.toLowerCase(Locale.ROOT).trim();
+        List<YogaCourse> filtered = new ArrayList<>();
+        for (YogaCourse course : courses) {
+            if (contains(course.getClassType(), lowerCaseQuery)
+                    || contains(course.getInstructorName(), lowerCaseQuery)
+                    || contains(course.getDayOfWeek(), lowerCaseQuery)
+                    || contains(course.getDescription(), lowerCaseQuery)
+                    || contains(course.getRoomNumber(), lowerCaseQuery)) {
+                filtered.add(course);
+            }
+        }
+        return filtered;
+    }
+
+    /**
+     * Filters with the trigram index.
+     */
+    @Benchmark
+    public List<YogaCourse> indexedSearch() {
+        return index.search(query, () -> false);
+    }
+
+    /**
+     * Re-indexes the course list after one course changed.
+     */
+    @Benchmark
+    public TextSearchIndex<YogaCourse> updateOneCourse() {
+        holdsEdited = !holdsEdited;
+        index.update(holdsEdited ? editedCourses : courses);
+        return index;
+    }
+
+    /**
+     * Returns whether a field contains the lower-cased query, ignoring case.
+     */
+    private static boolean contains(String field, String lowerCaseQuery) {
+        return field != null && field.toLowerCase(Locale.ROOT).contains(lowerCaseQuery);
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.yogaAdmin.benchmarks;
+
+import com.example.yogaAdmin.utils.DateUtils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the date handling of {@link DateUtils} with the per-call {@link Calendar} and
+ * {@link SimpleDateFormat} code it replaced.
+ * Each {@code legacy*} benchmark reproduces the previous call site, and the matching benchmark
+ * without the prefix calls {@link DateUtils}. Run with the gc profiler, which the build enables,
+ * to compare {@code gc.alloc.rate.norm}, the bytes allocated per call.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateUtilsBenchmark {
+
+    // Midnight UTC of a date picker cell, 18/07/2025.
+    private static final long PICKER_CELL_MILLIS = 1_752_796_800_000L;
+    private static final String CLASS_DATE = "18/07/2025";
+    private static final long CREATED_MILLIS = 1_752_831_000_000L;
+    private static final String BOOKING_DATE = "2025-07-18T09:30:00.000Z";
+
+    // Week offset of the next class in a repeat series, advanced on every call.
+    private int weekOffset;
+
+    /**
+     * Checks a date picker cell against a course day the way {@code DayOfWeekValidator} used to.
+     */
+    @Benchmark
+    public boolean legacyIsValidDay() {
+        Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        calendar.setTimeInMillis(PICKER_CELL_MILLIS);
+        return calendar.get(Calendar.DAY_OF_WEEK) == Calendar.FRIDAY;
+    }
+
+    /**
+     * Checks a date picker cell against a course day the way {@code DayOfWeekValidator} does now.
+     */
+    @Benchmark
+    public boolean isValidDay() {
+        return DateUtils.dayOfWeek(DateUtils.epochDayOfUtcMillis(PICKER_CELL_MILLIS)) == 5;
+    }
+
+    /**
+     * Computes the date of a class in a repeat series the way {@code CreateClassActivity} used to.
+     */
+    @Benchmark
+    public String legacyAddWeeks() throws ParseException {
+        SimpleDateFormat sdf = new SimpleDateFormat("dd/MM/yyyy", Locale.UK);
+        Date date = sdf.parse(CLASS_DATE);
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTime(date);
+        calendar.add(Calendar.WEEK_OF_YEAR, nextWeekOffset());
+        return sdf.format(calendar.getTime());
+    }
+
+    /**
+     * Computes the date of a class in a repeat series with {@link DateUtils#addWeeks(String, int)}.
+     */
+    @Benchmark
+    public String addWeeks() {
+        return DateUtils.addWeeks(CLASS_DATE, nextWeekOffset());
+    }
+
+    /**
+     * Formats a creation timestamp the way {@code YogaClass.getFormattedCreatedDate} used to.
+     */
+    @Benchmark
+    public String legacyFormatCreatedDate() {
+        SimpleDateFormat sdf = new SimpleDateFormat("dd/MM/yyyy HH:mm", Locale.getDefault());
+        return "Created: " + sdf.format(new Date(CREATED_MILLIS));
+    }
+
+    /**
+     * Formats a creation timestamp the way {@code YogaClass.getFormattedCreatedDate} does now.
+     */
+    @Benchmark
+    public String formatCreatedDate() {
+        return "Created: " + DateUtils.formatCreatedDate(CREATED_MILLIS);
+    }
+
+    /**
+     * Formats a booking date the way {@code BookingAdapter} used to on every bind.
+     */
+    @Benchmark
+    public String legacyFormatBookingDate() {
+        try {
+            SimpleDateFormat isoFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", Locale.getDefault());
+            Date date = isoFormat.parse(BOOKING_DATE);
+            SimpleDateFormat readableFormat = new SimpleDateFormat("dd MMM yyyy, HH:mm", Locale.getDefault());
+            return "Booked on: " + readableFormat.format(date);
+        } catch (Exception e) {
+            return "Booked on: " + BOOKING_DATE;
+        }
+    }
+
+    /**
+     * Formats a booking date the way {@code BookingAdapter} does now, once per booking.
+     */
+    @Benchmark
+    public String formatBookingDate() {
+        String readable = DateUtils.formatBookingDate(BOOKING_DATE);
+        return "Booked on: " + (readable != null ? readable : BOOKING_DATE);
+    }
+
+    /**
+     * Returns the next week offset, cycling through a year so results cannot be constant-folded.
+     */
+    private int nextWeekOffset() {
+        weekOffset = (weekOffset + 1) % 52;
+        return weekOffset;
+    }
+}
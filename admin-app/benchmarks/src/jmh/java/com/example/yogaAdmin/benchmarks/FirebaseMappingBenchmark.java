@@ -0,0 +1,71 @@
+package com.example.yogaAdmin.benchmarks;
+
+import com.example.yogaAdmin.models.YogaClass;
+import com.example.yogaAdmin.models.YogaCourse;
+import com.google.firebase.database.utilities.encoding.CustomClassMapper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping Firebase payloads to entities, as {@code DataSnapshot.getValue(Class)} does for every
+ * child of every snapshot the sync listeners receive.
+ * The payloads are produced and decoded with {@link CustomClassMapper} from the Firebase Admin SDK,
+ * which shares its bean mapping with the Android SDK, so the cost measured is the reflective
+ * mapping the app pays on the JVM without a device.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FirebaseMappingBenchmark {
+
+    private Object coursePayload;
+    private Object classPayload;
+
+    /**
+     * Serializes one course and one class the way {@code DatabaseReference.setValue} does.
+     */
+    @Setup
+    public void setUp() {
+        Random random = new Random(Fixtures.SEED);
+        YogaCourse course = Fixtures.courses(1, random).get(0);
+        YogaClass yogaClass = Fixtures.classes(1, Collections.singletonList(course), random).get(0);
+        coursePayload = CustomClassMapper.convertToPlainJavaTypes(course);
+        classPayload = CustomClassMapper.convertToPlainJavaTypes(yogaClass);
+        if (!(coursePayload instanceof Map) || !(classPayload instanceof Map)) {
+            throw new IllegalStateException("Entities did not serialize to maps.");
+        }
+    }
+
+    /**
+     * Maps a course payload to a {@link YogaCourse}.
+     */
+    @Benchmark
+    public YogaCourse mapCourse() {
+        return CustomClassMapper.convertToCustomClass(coursePayload, YogaCourse.class);
+    }
+
+    /**
+     * Maps a class payload to a {@link YogaClass}.
+     */
+    @Benchmark
+    public YogaClass mapClass() {
+        return CustomClassMapper.convertToCustomClass(classPayload, YogaClass.class);
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.yogaAdmin.benchmarks;
+
+import com.example.yogaAdmin.models.YogaClass;
+import com.example.yogaAdmin.models.YogaCourse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Deterministic courses and classes shaped like the studio's data, shared by the benchmarks.
+ * The same seed always yields the same entities, so runs are comparable across commits.
+ */
+final class Fixtures {
+
+    static final long SEED = 42L;
+
+    private static final String[] DAYS = {"Monday", "Tuesday", "Wednesday", "Thursday", "Friday",
+            "Saturday", "Sunday"};
+    private static final String[] CLASS_TYPES = {"Flow Yoga", "Aerial Yoga", "Family Yoga", "Hatha",
+            "Vinyasa", "Yin", "Ashtanga"};
+    private static final String[] INSTRUCTORS = {"Sarah Johnson", "Émile Dubois", "Li Wei",
+            "Ana María López", "John Smith", "Priya Patel", "Olaf Nørgaard"};
+    private static final String[] LEVELS = {"Beginner", "Intermediate", "Advanced", "All Levels"};
+    private static final String[] STATUSES = {"Active", "Active", "Active", "Completed", "Cancelled"};
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private Fixtures() {
+    }
+
+    /**
+     * Creates courses with IDs and Firebase keys, as they are stored locally after a sync.
+     *
+     * @param count The number of courses.
+     * @param random The source of randomness.
+     * @return The courses, with IDs 1 to count.
+     */
+    static List<YogaCourse> courses(int count, Random random) {
+        List<YogaCourse> courses = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            YogaCourse course = new YogaCourse();
+            course.setId(i);
+            course.setFirebaseKey("-Ncourse" + i);
+            course.setDayOfWeek(DAYS[random.nextInt(DAYS.length)]);
+            course.setTime(String.format(Locale.ROOT, "%02d:%02d", 6 + random.nextInt(14), random.nextInt(4) * 15));
+            course.setCapacity(5 + random.nextInt(30));
+            course.setDuration(30 + random.nextInt(4) * 15);
+            course.setPrice(5 + random.nextInt(20) + 0.5);
+            course.setClassType(CLASS_TYPES[random.nextInt(CLASS_TYPES.length)]);
+            course.setDescription(random.nextBoolean() ? "Bring your own mat #" + random.nextInt(100) : "");
+            course.setInstructorName(INSTRUCTORS[random.nextInt(INSTRUCTORS.length)]);
+            course.setRoomNumber("Room " + (1 + random.nextInt(40)));
+            course.setDifficultyLevel(LEVELS[random.nextInt(LEVELS.length)]);
+            course.setEquipmentNeeded(random.nextInt(3) == 0 ? "Blocks, strap" : "");
+            course.setAgeGroup(random.nextBoolean() ? "Adults" : "All ages");
+            course.setCreatedDate(1_750_000_000_000L + random.nextInt(1_000_000_000));
+            courses.add(course);
+        }
+        return courses;
+    }
+
+    /**
+     * Creates classes spread over the given courses, with IDs and Firebase keys.
+     *
+     * @param count The number of classes.
+     * @param courses The courses the classes belong to.
+     * @param random The source of randomness.
+     * @return The classes, with IDs 1 to count.
+     */
+    static List<YogaClass> classes(int count, List<YogaCourse> courses, Random random) {
+        List<YogaClass> classes = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            YogaCourse course = courses.get(random.nextInt(courses.size()));
+            YogaClass yogaClass = new YogaClass();
+            yogaClass.setId(i);
+            yogaClass.setFirebaseKey("-Nclass" + i);
+            yogaClass.setCourseId(course.getId());
+            yogaClass.setCourseFirebaseKey(course.getFirebaseKey());
+            yogaClass.setDate(String.format(Locale.ROOT, "%02d/%02d/2025", 1 + random.nextInt(28), 1 + random.nextInt(12)));
+            yogaClass.setAssignedInstructor(INSTRUCTORS[random.nextInt(INSTRUCTORS.length)]);
+            yogaClass.setActualCapacity(course.getCapacity());
+            yogaClass.setSlotsAvailable(random.nextInt(course.getCapacity() + 1));
+            yogaClass.setAdditionalComments(random.nextInt(4) == 0 ? "Substitute needed" : "");
+            yogaClass.setStatus(STATUSES[random.nextInt(STATUSES.length)]);
+            yogaClass.setCreatedDate(course.getCreatedDate() + random.nextInt(1_000_000));
+            classes.add(yogaClass);
+        }
+        return classes;
+    }
+
+    /**
+     * Returns a field-for-field copy of a course, like the fresh instance Room or Firebase emits.
+     *
+     * @param course The course to copy.
+     * @return A new, equal course.
+     */
+    static YogaCourse copy(YogaCourse course) {
+        YogaCourse copy = new YogaCourse();
+        copy.setId(course.getId());
+        copy.setFirebaseKey(course.getFirebaseKey());
+        copy.setDayOfWeek(course.getDayOfWeek());
+        copy.setTime(course.getTime());
+        copy.setCapacity(course.getCapacity());
+        copy.setDuration(course.getDuration());
+        copy.setPrice(course.getPrice());
+        copy.setClassType(course.getClassType());
+        copy.setDescription(course.getDescription());
+        copy.setInstructorName(course.getInstructorName());
+        copy.setRoomNumber(course.getRoomNumber());
+        copy.setDifficultyLevel(course.getDifficultyLevel());
+        copy.setEquipmentNeeded(course.getEquipmentNeeded());
+        copy.setAgeGroup(course.getAgeGroup());
+        copy.setCreatedDate(course.getCreatedDate());
+        return copy;
+    }
+
+    /**
+     * Returns copies of the courses with every {@code changeEvery}-th one edited, like a list
+     * emitted after a few courses changed.
+     *
+     * @param courses The courses to copy.
+     * @param changeEvery The interval between edited courses.
+     * @return The new list.
+     */
+    static List<YogaCourse> editedCopies(List<YogaCourse> courses, int changeEvery) {
+        List<YogaCourse> copies = new ArrayList<>(courses.size());
+        for (int i = 0; i < courses.size(); i++) {
+            YogaCourse copy = copy(courses.get(i));
+            if (i % changeEvery == 0) {
+                copy.setCapacity(copy.getCapacity() + 1);
+            }
+            copies.add(copy);
+        }
+        return copies;
+    }
+}
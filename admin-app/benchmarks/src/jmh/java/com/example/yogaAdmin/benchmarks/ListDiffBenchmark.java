@@ -0,0 +1,70 @@
+package com.example.yogaAdmin.benchmarks;
+
+import com.example.yogaAdmin.models.YogaCourse;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Comparing a freshly emitted course list with the displayed one, as the adapters' DiffUtil
+ * callbacks do on every Room emission.
+ * Room emits new instances for every row, so an update where a few courses changed still compares
+ * every row: identity by ID, then contents with {@link YogaCourse#equals(Object)}. The benchmark
+ * walks both lists in order, which is the path DiffUtil takes when no rows moved.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListDiffBenchmark {
+
+    @Param({"1000", "10000"})
+    public int courseCount;
+
+    // Interval between edited courses in the new list.
+    @Param({"100"})
+    public int changeEvery;
+
+    private List<YogaCourse> oldCourses;
+    private List<YogaCourse> newCourses;
+
+    /**
+     * Builds the displayed list and an emitted copy with a few courses edited.
+     */
+    @Setup
+    public void setUp() {
+        oldCourses = Fixtures.courses(courseCount, new Random(Fixtures.SEED));
+        newCourses = Fixtures.editedCopies(oldCourses, changeEvery);
+    }
+
+    /**
+     * Counts the changed rows with the areItemsTheSame and areContentsTheSame checks.
+     */
+    @Benchmark
+    public int compareContents() {
+        int changed = 0;
+        for (int i = 0; i < oldCourses.size(); i++) {
+            YogaCourse oldItem = oldCourses.get(i);
+            YogaCourse newItem = newCourses.get(i);
+            if (oldItem.getId() != newItem.getId() || !oldItem.equals(newItem)) {
+                changed++;
+            }
+        }
+        return changed;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.yogaAdmin.benchmarks;
+
+import com.example.yogaAdmin.models.YogaCourse;
+import com.example.yogaAdmin.services.SyncBatch;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Planning the local writes for a Firebase snapshot of the courses node with {@link SyncBatch}, as
+ * the sync listener does whenever any course changes remotely.
+ * The snapshot holds every course, a few of them edited, a few new, and a few keys delivered twice
+ * so that coalescing is exercised.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SyncBatchBenchmark {
+
+    @Param({"1000", "10000"})
+    public int courseCount;
+
+    // Interval between edited, new and repeated courses in the snapshot.
+    @Param({"100"})
+    public int changeEvery;
+
+    private List<YogaCourse> local;
+    private List<YogaCourse> remote;
+
+    /**
+     * Builds the local rows and the snapshot.
+     */
+    @Setup
+    public void setUp() {
+        local = Fixtures.courses(courseCount, new Random(Fixtures.SEED));
+        remote = new ArrayList<>(Fixtures.editedCopies(local, changeEvery));
+        List<YogaCourse> added = Fixtures.courses(courseCount / changeEvery, new Random(Fixtures.SEED + 1));
+        for (YogaCourse course : added) {
+            course.setFirebaseKey(course.getFirebaseKey() + "-new");
+            remote.add(course);
+        }
+        for (int i = changeEvery / 2; i < courseCount; i += changeEvery) {
+            remote.add(Fixtures.copy(local.get(i)));
+        }
+    }
+
+    /**
+     * Coalesces the snapshot and splits it into inserts, updates and unchanged rows.
+     */
+    @Benchmark
+    public SyncBatch<YogaCourse> plan() {
+        return SyncBatch.plan(remote, local, YogaCourse::getFirebaseKey, YogaCourse::getId, YogaCourse::setId);
+    }
+}
@@ -21,3 +21,4 @@ dependencyResolutionManagement {
 
 rootProject.name = "Yoga Admin"
 include(":app")
+include(":benchmarks")